@@ -0,0 +1,89 @@
+package play.libs;
+
+import java.lang.management.ManagementFactory;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Date;
+
+/**
+ * Next-fire computation throughput of {@link CompiledCronExpression} against the legacy
+ * {@link CronExpression}. Built ad-hoc against framework/classes — NOT part of the framework
+ * jar or `ant test`. Run it with {@code framework/bench/cron/run-microbench.sh}.
+ *
+ * <p>Each round walks N = 500 successive fire times of one expression, starting from a fixed
+ * instant, in the default time zone (small enough that monthly expressions stay before 2099).
+ * Three modes per expression:
+ * <ul>
+ *   <li><b>legacy</b>       — one parsed CronExpression, getNextValidTimeAfter per step</li>
+ *   <li><b>legacy-parse</b> — new CronExpression + getNextValidTimeAfter per step, which is what
+ *       JobsPlugin.scheduleForCRON used to do on every reschedule</li>
+ *   <li><b>compiled</b>     — CompiledCronExpression.compile (cache hit) + nextEpochMilli per step</li>
+ * </ul>
+ * Reports the median ns per next-fire computation and the bytes allocated per computation.
+ */
+public class CronBench {
+
+    static final String[] EXPRESSIONS = {
+            "0 0 12 * * ?",
+            "0 0/5 14,18 * * ?",
+            "0 15 10 ? * MON-FRI",
+            "0 15 10 ? * 6L",
+            "*/7 */3 * * * ?",
+    };
+
+    static final com.sun.management.ThreadMXBean THREADS = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    static long sink;
+
+    static long median(long[] xs) {
+        long[] s = xs.clone();
+        Arrays.sort(s);
+        return s[s.length / 2];
+    }
+
+    interface Step {
+        long next(long after) throws Exception;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String label = args.length > 0 ? args[0] : "current";
+        int n = 500, warmup = 50, rounds = 200;
+        long start = 1_760_000_000_000L;
+        ZoneId zone = ZoneId.systemDefault();
+
+        System.out.println("# label,mode,expression,N,median_ns_per_op,ops_per_sec,bytes_per_op");
+        for (String expression : EXPRESSIONS) {
+            CronExpression legacy = new CronExpression(expression);
+            run(label, "legacy", expression, n, warmup, rounds, start,
+                    after -> legacy.getNextValidTimeAfter(new Date(after)).getTime());
+            run(label, "legacy-parse", expression, n, warmup, rounds, start,
+                    after -> new CronExpression(expression).getNextValidTimeAfter(new Date(after)).getTime());
+            run(label, "compiled", expression, n, warmup, rounds, start,
+                    after -> CompiledCronExpression.compile(expression).nextEpochMilli(after, zone));
+        }
+    }
+
+    static void run(String label, String mode, String expression, int n, int warmup, int rounds, long start, Step step) throws Exception {
+        long[] ns = new long[rounds];
+        long[] bytes = new long[rounds];
+        long thread = Thread.currentThread().threadId();
+        for (int r = -warmup; r < rounds; r++) {
+            long after = start;
+            long b0 = THREADS.getThreadAllocatedBytes(thread);
+            long t0 = System.nanoTime();
+            for (int i = 0; i < n; i++) {
+                after = step.next(after);
+            }
+            long t1 = System.nanoTime();
+            long b1 = THREADS.getThreadAllocatedBytes(thread);
+            sink += after;
+            if (r >= 0) {
+                ns[r] = (t1 - t0) / n;
+                bytes[r] = (b1 - b0) / n;
+            }
+        }
+        long med = median(ns);
+        System.out.printf("RESULT,%s,%s,%s,%d,%d,%.0f,%d%n", label, mode, expression, n, med,
+                med > 0 ? 1e9 / med : 0, median(bytes));
+    }
+}
@@ -0,0 +1,24 @@
+#!/usr/bin/env bash
+# Cron next-fire microbenchmark runner.
+# Builds CronBench against the CURRENT framework classes and runs it. Not part of `ant test`.
+#
+# Usage:   framework/bench/cron/run-microbench.sh [label]
+# The time zone matters for the legacy Calendar path; pin it with TZ=... for comparable runs.
+set -euo pipefail
+HERE="$(cd "$(dirname "$0")" && pwd)"
+FW="$(cd "$HERE/../.." && pwd)"          # .../framework
+LABEL="${1:-current}"
+
+echo "== ensuring framework is compiled =="
+( cd "$FW" && ant compile >/dev/null )
+
+cp="$FW/classes"
+for j in "$FW"/lib/*.jar; do cp="$cp:$j"; done
+
+OUT="$(mktemp -d)"
+echo "== compiling CronBench =="
+javac -cp "$cp" -d "$OUT" "$HERE/CronBench.java"
+
+echo "== running (label=$LABEL) =="
+java -XX:+UseParallelGC -cp "$OUT:$cp" play.libs.CronBench "$LABEL"
+rm -rf "$OUT"
@@ -0,0 +1,185 @@
+package play.i18n;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import play.Play;
+import play.classloading.ApplicationClasses;
+import play.classloading.ApplicationClassloader;
+
+/**
+ * Message lookup and formatting throughput of the compiled {@link Messages} against the
+ * previous per-call path. Built ad-hoc against framework/classes — NOT part of the framework
+ * jar or `ant test`. Run it with {@code framework/bench/i18n/run-microbench.sh}.
+ *
+ * <p>A catalog of 1000 keys per language (defaults + fr) is loaded and compiled; each round
+ * resolves N = 50 keys of one shape in fr_FR, 20 times over, as a template-heavy page would:
+ * <ul>
+ *   <li><b>plain</b>  — {@code "Save"}</li>
+ *   <li><b>string</b> — {@code "Hello %s, you have new messages"}</li>
+ *   <li><b>number</b> — {@code "%d items in %s"} (the argument is bound to a Long)</li>
+ *   <li><b>nested</b> — {@code "See &{key.0}"}</li>
+ * </ul>
+ * Two modes: <b>legacy</b>, a copy of the former getMessage (Properties lookups, the
+ * formatterPattern scan, String.format, the &{...} scan on every call), and <b>compiled</b>,
+ * {@link Messages#getMessage}. Reports the median ns and bytes allocated per lookup, per shape.
+ */
+public class MessagesBench {
+
+    static final com.sun.management.ThreadMXBean THREADS = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    static final Pattern recursive = Pattern.compile("&\\{([^}]{0,255}+)\\}");
+
+    static final int REPEAT = 20;
+
+    static long sink;
+
+    static long median(long[] xs) {
+        long[] s = xs.clone();
+        Arrays.sort(s);
+        return s[s.length / 2];
+    }
+
+    interface Lookup {
+        String get(String key, Object[] args);
+    }
+
+    public static void main(String[] args) throws Exception {
+        String label = args.length > 0 ? args[0] : "current";
+        Play.configuration = new Properties();
+        Play.classes = new ApplicationClasses();
+        Play.classloader = new ApplicationClassloader();
+        Play.langs = new ArrayList<>(List.of("fr", "fr_FR"));
+        Lang.set("fr_FR");
+        Properties fr = new Properties();
+        for (int i = 0; i < 1000; i++) {
+            Messages.defaults.setProperty("key." + i, message(i, "en"));
+            fr.setProperty("key." + i, message(i, "fr"));
+        }
+        Messages.locales.put("fr", fr);
+        Messages.compile();
+
+        String[] shapes = {"plain", "string", "number", "nested"};
+        System.out.println("# label,mode,shape,N,median_ns_per_op,ops_per_sec,bytes_per_op");
+        for (int shape = 0; shape < shapes.length; shape++) {
+            String[] keys = new String[50];
+            Object[][] arguments = new Object[keys.length][];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = "key." + (i * 20 + shape);
+                arguments[i] = switch (shape) {
+                    case 1 -> new Object[] {"Ann"};
+                    case 2 -> new Object[] {String.valueOf(i), "cart"};
+                    default -> new Object[0];
+                };
+            }
+            run(label, "legacy", shapes[shape], keys, arguments, 100, 500, MessagesBench::legacyGetMessage);
+            run(label, "compiled", shapes[shape], keys, arguments, 100, 500, (key, a) -> Messages.getMessage("fr_FR", key, a));
+        }
+    }
+
+    static String message(int i, String lang) {
+        return switch (i % 4) {
+            case 0 -> lang + " Save " + i;
+            case 1 -> lang + " Hello %s, you have new messages";
+            case 2 -> lang + " %d items in %s";
+            default -> lang + " See &{key.0}";
+        };
+    }
+
+    static void run(String label, String mode, String shape, String[] keys, Object[][] arguments, int warmup, int rounds, Lookup lookup) {
+        long[] ns = new long[rounds];
+        long[] bytes = new long[rounds];
+        long thread = Thread.currentThread().threadId();
+        for (int r = -warmup; r < rounds; r++) {
+            long b0 = THREADS.getThreadAllocatedBytes(thread);
+            long t0 = System.nanoTime();
+            for (int repeat = 0; repeat < REPEAT; repeat++) {
+                for (int i = 0; i < keys.length; i++) {
+                    sink += lookup.get(keys[i], arguments[i]).length();
+                }
+            }
+            long t1 = System.nanoTime();
+            long b1 = THREADS.getThreadAllocatedBytes(thread);
+            if (r >= 0) {
+                ns[r] = (t1 - t0) / (REPEAT * keys.length);
+                bytes[r] = (b1 - b0) / (REPEAT * keys.length);
+            }
+        }
+        long med = median(ns);
+        System.out.printf("RESULT,%s,%s,%s,%d,%d,%.0f,%d%n", label, mode, shape, keys.length, med,
+                med > 0 ? 1e9 / med : 0, median(bytes));
+    }
+
+    // The former Messages.getMessage / formatString / coolStuff, minus the plugin hook
+
+    static String legacyGetMessage(String key, Object[] args) {
+        return legacyGetMessage("fr_FR", key, args);
+    }
+
+    static String legacyGetMessage(String locale, String key, Object[] args) {
+        String value = null;
+        if (Messages.locales.containsKey(locale)) {
+            value = Messages.locales.get(locale).getProperty(key);
+        }
+        if (value == null && locale.length() == 5 && Messages.locales.containsKey(locale.substring(0, 2))) {
+            value = Messages.locales.get(locale.substring(0, 2)).getProperty(key);
+        }
+        if (value == null) {
+            value = Messages.defaults.getProperty(key);
+        }
+        if (value == null) {
+            value = key;
+        }
+        return legacyFormatString(Lang.getLocaleOrDefault(locale), value, args);
+    }
+
+    static String legacyFormatString(Locale locale, String value, Object[] args) {
+        String message = String.format(locale, value, legacyCoolStuff(value, args));
+        Matcher matcher = recursive.matcher(message);
+        StringBuilder sb = new StringBuilder();
+        while (matcher.find()) {
+            matcher.appendReplacement(sb, legacyGetMessage(Lang.get(), matcher.group(1), new Object[0]));
+        }
+        matcher.appendTail(sb);
+        return sb.toString();
+    }
+
+    @SuppressWarnings("unchecked")
+    static Object[] legacyCoolStuff(String pattern, Object[] args) {
+        Class<? extends Number>[] conversions = new Class[args.length];
+        Matcher matcher = Messages.formatterPattern.matcher(pattern);
+        int incrementalPosition = 1;
+        while (matcher.find()) {
+            String conversion = matcher.group(6);
+            int position = matcher.group(2) == null ? incrementalPosition++ : Integer.parseInt(matcher.group(2));
+            if (conversion.equals("d") && position <= conversions.length) {
+                conversions[position - 1] = Long.class;
+            }
+            if (conversion.equals("f") && position <= conversions.length) {
+                conversions[position - 1] = Double.class;
+            }
+        }
+        Object[] result = new Object[args.length];
+        for (int i = 0; i < args.length; i++) {
+            if (args[i] == null) {
+                continue;
+            }
+            if (conversions[i] == null) {
+                result[i] = args[i];
+            } else {
+                try {
+                    result[i] = play.data.binding.Binder.directBind(null, args[i] + "", conversions[i], null);
+                } catch (Exception e) {
+                    result[i] = null;
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,23 @@
+#!/usr/bin/env bash
+# Messages lookup microbenchmark runner.
+# Builds MessagesBench against the CURRENT framework classes and runs it. Not part of `ant test`.
+#
+# Usage:   framework/bench/i18n/run-microbench.sh [label]
+set -euo pipefail
+HERE="$(cd "$(dirname "$0")" && pwd)"
+FW="$(cd "$HERE/../.." && pwd)"          # .../framework
+LABEL="${1:-current}"
+
+echo "== ensuring framework is compiled =="
+( cd "$FW" && ant compile >/dev/null )
+
+cp="$FW/classes"
+for j in "$FW"/lib/*.jar; do cp="$cp:$j"; done
+
+OUT="$(mktemp -d)"
+echo "== compiling MessagesBench =="
+javac -cp "$cp" -d "$OUT" "$HERE/MessagesBench.java"
+
+echo "== running (label=$LABEL) =="
+java -XX:+UseParallelGC -cp "$OUT:$cp" play.i18n.MessagesBench "$LABEL"
+rm -rf "$OUT"
@@ -170,6 +170,25 @@ class Play1Plugin : Plugin<Project> {
             // VM-init failure when the agent jar isn't on disk).
             inheritInstrumentation = false)
 
+        project.tasks.register<PlayCdsTask>("playCds") {
+            group = "play1"
+            description = "Training run of the precompiled application writing a class data sharing archive to $CDS_ARCHIVE, used by playStart. Also run by playPrecompile with -Pcds"
+            mustRunAfter("playPrecompile")
+            applicationPath.set(project.layout.projectDirectory)
+            frameworkPath.set(ext.frameworkPath)
+            frameworkVersion.set(ext.frameworkVersion)
+            playId.set(project.providers.gradleProperty("playId").orElse(""))
+            httpPort.set(project.providers.gradleProperty("httpPort").map { it.toInt() })
+            extraJvmArgs.set(project.providers.gradleProperty("jvmArgs").orElse(""))
+            // Same classpath as playStart: the archive is only mapped by a JVM
+            // launched with the classpath it was written with.
+            playClasspath.from(playClasspathFor(project, ext, includeTestrunner = false))
+            outputs.upToDateWhen { false }
+        }
+        if (project.providers.gradleProperty("cds").isPresent) {
+            project.tasks.named("playPrecompile") { finalizedBy("playCds") }
+        }
+
         // PF-169: shared by playDist and playBundle so one invocation naming both
         // runs the Nuxt build once. Stays always-out-of-date on purpose — declaring
         // inputs over frontend/ would miss the files a Nuxt config can legitimately
@@ -707,6 +726,8 @@ abstract class PlayDistTask : DefaultTask() {
             root.walkTopDown()
                 .filter { it.isFile }
                 .map { it.relativeTo(projDir).path.replace(File.separatorChar, '/') }
+                // The archive is tied to this machine's JDK and classpath.
+                .filter { it != CDS_ARCHIVE }
                 .toList()
         }
         val allFiles = (gitFiles + forcedFiles).distinct().sorted()
@@ -1468,27 +1489,40 @@ private fun spawnPlay(
     httpsPort: Int?,
     classpath: String,
     extraJvmArgs: List<String> = emptyList(),
+    training: Boolean = false,
 ): Process {
     val playJar = File(frameworkPath, "framework/play-$frameworkVersion.jar")
+    val archive = File(appDir, CDS_ARCHIVE)
     val cmd = buildList {
         add(System.getProperty("java.home") + "/bin/java")
         add("--enable-native-access=ALL-UNNAMED")
-        add("-javaagent:${playJar.absolutePath}")
+        // The JVM refuses to dump a CDS archive with a Java agent attached.
+        // HotswapAgent only serves DEV reloads, which a precompiled training
+        // run never does; the later runs using the archive keep it.
+        if (!training) add("-javaagent:${playJar.absolutePath}")
         add("-Dfile.encoding=utf-8")
         add("-Dapplication.path=${appDir.absolutePath}")
         add("-Dplay.id=$playId")
         add("-Dplay.version=$frameworkVersion")
+        if (training) {
+            add("-XX:ArchiveClassesAtExit=${archive.absolutePath}")
+            add("-Dprecompiled=true")
+            add("-Dtraining=true")
+        } else if (archive.isFile) {
+            add("-XX:SharedArchiveFile=${archive.absolutePath}")
+        }
         // PF-92: conf-driven JVM flags (javaagent.path, agentlib, jvm.memory,
         // jmx.{port,hostname}) lifted from application.conf with %<playId>.
         // priority. Comes before extraJvmArgs so a user's -PjvmArgs overrides
         // a conf value under JVM last-wins semantics.
-        addAll(confJvmArgs(appDir, playId))
+        val confArgs = confJvmArgs(appDir, playId)
+        addAll(if (training) confArgs.filterNot { it.startsWith("-javaagent:") || it.startsWith("-agentlib:") } else confArgs)
         // 1.12-style JVM tuning flags (forwarded by the play wrapper via
         // -PjvmArgs); inserted before -classpath so a user-supplied
         // -classpath would override ours, matching `java`'s last-wins.
         addAll(extraJvmArgs)
         add("-classpath")
-        add(classpath)
+        add(if (training || archive.isFile) cdsClasspath(classpath) else classpath)
         add("play.server.Server")
         if (httpPort != null) add("--http.port=$httpPort")
         if (httpsPort != null) add("--https.port=$httpsPort")
@@ -1505,6 +1539,66 @@ private fun spawnPlay(
     return pb.start()
 }
 
+/** The class data sharing archive written by `play cds`, relative to the application. */
+internal const val CDS_ARCHIVE = "precompiled/app.jsa"
+
+/**
+ * [classpath] with its jars ahead of its directories. The JVM only archives
+ * and maps classes from jars, and refuses a non-empty directory (conf/,
+ * build/classes) ahead of any of them, both when it writes the archive and
+ * when it maps it. The framework reads its conf/ overrides (log4j) from the
+ * application path, so conf/ losing its classpath precedence changes nothing
+ * there.
+ */
+internal fun cdsClasspath(classpath: String): String {
+    val (jars, others) = classpath.split(File.pathSeparator)
+        .filter { it.isNotEmpty() }
+        .partition { it.endsWith(".jar") }
+    return (jars + others).joinToString(File.pathSeparator)
+}
+
+@DisableCachingByDefault(because = "Boots the application for a training run; the archive is tied to the JDK and classpath it was written with")
+abstract class PlayCdsTask : DefaultTask() {
+    @get:Internal abstract val applicationPath: DirectoryProperty
+    @get:Internal abstract val frameworkPath: DirectoryProperty
+    @get:Internal abstract val frameworkVersion: Property<String>
+    @get:Internal abstract val playId: Property<String>
+    @get:Internal abstract val httpPort: Property<Int>
+    @get:Internal abstract val playClasspath: ConfigurableFileCollection
+    @get:Internal abstract val extraJvmArgs: Property<String>
+
+    @TaskAction
+    fun train() {
+        val appDir = applicationPath.get().asFile
+        if (!File(appDir, "precompiled/java").isDirectory) {
+            throw GradleException("No precompiled classes in ${appDir.absolutePath}: run `play precompile` first.")
+        }
+        val archive = File(appDir, CDS_ARCHIVE)
+        archive.delete()
+
+        val jvmArgsList = extraJvmArgs.orNull
+            ?.split(Regex("\\s+"))?.filter { it.isNotEmpty() }
+            ?: emptyList()
+        logger.lifecycle("~ Training run: starting the application to record the classes it loads")
+        val process = spawnPlay(appDir, frameworkPath.get().asFile, frameworkVersion.get(),
+            playId.get(), httpPort.orNull, null, playClasspath.asPath, jvmArgsList, training = true)
+        if (!process.waitFor(TRAINING_TIMEOUT_MINUTES, TimeUnit.MINUTES)) {
+            process.destroy()
+            process.waitFor(30, TimeUnit.SECONDS)
+            throw GradleException("Training run did not finish within $TRAINING_TIMEOUT_MINUTES minutes; see ${File(appDir, "logs/system.out").absolutePath}")
+        }
+        if (process.exitValue() != 0 || !archive.isFile) {
+            throw GradleException("Training run failed (exit ${process.exitValue()}), no archive written; see ${File(appDir, "logs/system.out").absolutePath}")
+        }
+        logger.lifecycle("~ Class data sharing archive written to ${archive.absolutePath} (${archive.length() / 1024 / 1024} MB)")
+        logger.lifecycle("~ `play start` uses it from now on; it is only valid for this JDK and classpath")
+    }
+
+    private companion object {
+        const val TRAINING_TIMEOUT_MINUTES = 5L
+    }
+}
+
 @DisableCachingByDefault(because = "Generates Javadoc by shelling out with execution-time inputs, not declared as cacheable inputs")
 abstract class PlayJavadocTask : DefaultTask() {
     @get:Internal abstract val applicationPath: DirectoryProperty
@@ -1733,6 +1827,8 @@ abstract class PlayBundleTask : DefaultTask() {
             root.walkTopDown()
                 .filter { it.isFile }
                 .map { it.relativeTo(projDir).path.replace(File.separatorChar, '/') }
+                // The archive is tied to this machine's JDK and classpath.
+                .filter { it != CDS_ARCHIVE }
                 .toList()
         }
         val bundleOwnedPrefixes = listOf("lib/", "modules/", "framework/")
@@ -99,16 +99,35 @@ if [ -f certs/.env ]; then
     set +a
 fi
 
+# Class data sharing archive written by `cds`. Mirrors CDS_ARCHIVE in
+# Play1Plugin.kt.
+CDS_ARCHIVE="precompiled/app.jsa"
+
 # Build JAVA_CMD lazily inside run/start so config-mutation commands like
 # `secret` don't require the framework jar / classpath to exist yet.
+# `build_java_cmd training` builds the `cds` training run instead.
 build_java_cmd() {
     [ -f "$FW_JAR" ]   || { echo "play: $FW_JAR not found (run from bundle root)" >&2; exit 1; }
     [ -f .classpath ]  || { echo "play: .classpath not found at $SCRIPT_DIR" >&2; exit 1; }
-    CP=$(tr '\n' ':' < .classpath | sed 's/:$//')
+    local cds=(-javaagent:"$FW_JAR")
+    if [ "$1" = "training" ]; then
+        # The JVM refuses to dump an archive with a Java agent attached; the
+        # framework agent only serves DEV reloads, so the run goes without.
+        cds=(-XX:ArchiveClassesAtExit="$CDS_ARCHIVE" -Dtraining=true)
+    elif [ -f "$CDS_ARCHIVE" ]; then
+        cds+=(-XX:SharedArchiveFile="$CDS_ARCHIVE")
+    fi
+    if [ "$1" = "training" ] || [ -f "$CDS_ARCHIVE" ]; then
+        # CDS needs every jar ahead of the conf/ directory, both when the
+        # archive is written and when it is mapped.
+        CP=$({ grep '\.jar$' .classpath; grep -v '\.jar$' .classpath; } | tr '\n' ':' | sed 's/:$//')
+    else
+        CP=$(tr '\n' ':' < .classpath | sed 's/:$//')
+    fi
     JAVA_CMD=(
         java
         --enable-native-access=ALL-UNNAMED
-        -javaagent:"$FW_JAR"
+        "${cds[@]}"
         -Dapplication.path="$SCRIPT_DIR"
         # Pin frameworkPath to the bundle's framework/ subdir so it stays
         # distinct from application.path (= $SCRIPT_DIR). Without this,
@@ -209,6 +228,15 @@ case "$CMD" in
     out)
         exec tail -f logs/system.out
         ;;
+    cds)
+        build_java_cmd training
+        rm -f "$CDS_ARCHIVE"
+        echo "~ Training run: starting the application to record the classes it loads"
+        "${JAVA_CMD[@]}"
+        [ -f "$CDS_ARCHIVE" ] || { echo "play: training run wrote no $CDS_ARCHIVE" >&2; exit 1; }
+        echo "~ Class data sharing archive written to $SCRIPT_DIR/$CDS_ARCHIVE"
+        echo "~ run / start use it from now on; rerun \`cds\` after changing the JDK"
+        ;;
     secret)
         cmd_secret
         ;;
@@ -227,6 +255,8 @@ Runtime commands:
 
 Setup commands:
   secret                 Generate application secret -> certs/.env
+  cds                    Training run writing a class data sharing archive
+                         (precompiled/app.jsa) that run / start boot faster with
 
 Argument forwarding (same shape as the dev-time \`play\` shim):
   --%<id>                Set play.id (default: prod)
@@ -17,7 +17,7 @@ class PluginApplicationTest {
     /** Every task the plugin promises in its play1 group (see CLAUDE.md). */
     private val expectedPlay1Tasks = listOf(
         "playRun", "playStart", "playStop", "playRestart",
-        "playTest", "playAutotest", "playPrecompile", "playBundle", "playDist",
+        "playTest", "playAutotest", "playPrecompile", "playCds", "playBundle", "playDist",
         "playClean", "playSecret", "playEvolutions",
         "playStatus", "playPid", "playOut", "playVersion",
         "playClasspath", "playModulesInfo", "playJavadoc",
@@ -0,0 +1,424 @@
+package play;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.ToDoubleFunction;
+
+import play.exceptions.ConfigurationException;
+import play.libs.Metrics;
+import play.libs.Time;
+
+/**
+ * An adaptive limit on the number of HTTP requests {@link Invoker} runs at
+ * once. Once the limit is reached, requests wait in a bounded queue for up to
+ * {@code play.limiter.maxWait} and are then answered 503 at once, so that an
+ * overloaded server keeps its latency instead of letting every request slow
+ * down until clients time out.
+ *
+ * <p>The limit follows the latency of the requests, as in the gradient
+ * algorithm of Netflix's concurrency-limits: every 100 ms the average latency
+ * is compared with its long-term average. While they match, the limit grows by
+ * about its square root; as latency rises above {@code play.limiter.tolerance}
+ * times the long-term average, the limit shrinks in proportion. The limit does
+ * not grow while fewer than half of it are in use.</p>
+ *
+ * <p>Configuration in application.conf, all optional but the first:</p>
+ * <pre>
+ * play.limiter=true                  # off by default
+ * play.limiter.initial=20            # limit before any latency is measured
+ * play.limiter.min=4
+ * play.limiter.max=1000
+ * play.limiter.queue=100             # requests waiting for a slot, at most
+ * play.limiter.maxWait=1s            # how long a request may wait, e.g. 200ms
+ * play.limiter.tolerance=1.5         # latency increase taken as a sign of load
+ * play.limiter.bypass=/admin         # path prefixes never limited
+ * play.limiter.lowPriority=/reports  # path prefixes never queued
+ * </pre>
+ *
+ * <p>Jobs, WebSockets and the endpoints plugins serve before invoking the
+ * application ({@code /@health}, {@code /@status}...) are not limited. The
+ * limit, the requests running and those queued are the gauges
+ * {@code play.limiter.limit}, {@code play.limiter.inflight} and
+ * {@code play.limiter.queued}; rejected requests count in
+ * {@code play.limiter.rejected}, tagged with the reason: {@code limit} (the
+ * queue was full, or the request was of low priority) or {@code timeout}.</p>
+ */
+public final class ConcurrencyLimiter {
+
+    /**
+     * How the limiter treats an invocation.
+     */
+    public enum Priority {
+        /** Not limited */
+        BYPASS,
+        /** Queued when the limit is reached */
+        NORMAL,
+        /** Rejected at once when the limit is reached */
+        LOW
+    }
+
+    private static final long WINDOW_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final int MIN_WINDOW_SAMPLES = 10;
+    private static final double SMOOTHING = 0.2;
+    private static final double LONG_RTT_WEIGHT = 0.05;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final int maxQueue;
+    private final long maxWaitNanos;
+    private final double tolerance;
+    private final List<String> bypass;
+    private final List<String> lowPriority;
+
+    // Guarded by this
+    private double limit;
+    private int inflight;
+    private final ArrayDeque<Waiter> queue = new ArrayDeque<>();
+    private boolean sweepScheduled;
+    private long windowStart = System.nanoTime();
+    private long windowRttSum;
+    private int windowSamples;
+    private int windowMaxInflight;
+    private double longRtt;
+
+    ConcurrencyLimiter(Properties configuration) {
+        this.minLimit = (int) setting(configuration, "min", 4, 1);
+        this.maxLimit = (int) setting(configuration, "max", 1000, minLimit);
+        this.limit = Math.clamp(setting(configuration, "initial", 20, 1), minLimit, maxLimit);
+        this.maxQueue = (int) setting(configuration, "queue", 100, 0);
+        String maxWait = configuration.getProperty("play.limiter.maxWait", "1s").trim();
+        try {
+            this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(Time.parseDurationMillis(maxWait));
+        } catch (IllegalArgumentException e) {
+            throw new ConfigurationException("Invalid value for play.limiter.maxWait: " + maxWait);
+        }
+        String tolerance = configuration.getProperty("play.limiter.tolerance", "1.5").trim();
+        try {
+            this.tolerance = Double.parseDouble(tolerance);
+        } catch (NumberFormatException e) {
+            throw new ConfigurationException("Invalid value for play.limiter.tolerance: " + tolerance);
+        }
+        if (!(this.tolerance >= 1)) {
+            throw new ConfigurationException("Invalid value for play.limiter.tolerance: " + tolerance);
+        }
+        this.bypass = prefixes(configuration.getProperty("play.limiter.bypass", ""));
+        this.lowPriority = prefixes(configuration.getProperty("play.limiter.lowPriority", ""));
+    }
+
+    /**
+     * @return The limiter configured in application.conf, or null when
+     *         {@code play.limiter} is not true
+     */
+    static ConcurrencyLimiter configure() {
+        if (!Boolean.parseBoolean(Play.configuration.getProperty("play.limiter", "false").trim())) {
+            return null;
+        }
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(Play.configuration);
+        gauge("play.limiter.limit", ConcurrencyLimiter::limit);
+        gauge("play.limiter.inflight", ConcurrencyLimiter::inflight);
+        gauge("play.limiter.queued", ConcurrencyLimiter::queued);
+        return limiter;
+    }
+
+    // Backed by the class rather than an instance, so that a new limiter
+    // after a restart is reported under the same gauges.
+    private static void gauge(String name, ToDoubleFunction<ConcurrencyLimiter> value) {
+        Metrics.gauge(name, ConcurrencyLimiter.class, c -> {
+            ConcurrencyLimiter limiter = Invoker.limiter;
+            return limiter == null ? Double.NaN : value.applyAsDouble(limiter);
+        });
+    }
+
+    private static long setting(Properties configuration, String name, long defaultValue, long min) {
+        String value = configuration.getProperty("play.limiter." + name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            long parsed = Long.parseLong(value.trim());
+            if (parsed < min) {
+                throw new NumberFormatException();
+            }
+            return parsed;
+        } catch (NumberFormatException e) {
+            throw new ConfigurationException("Invalid value for play.limiter." + name + ": " + value);
+        }
+    }
+
+    static List<String> prefixes(String paths) {
+        List<String> prefixes = new ArrayList<>();
+        for (String path : paths.split(",")) {
+            String prefix = path.trim();
+            if (!prefix.isEmpty()) {
+                prefixes.add(prefix.startsWith("/") ? prefix : "/" + prefix);
+            }
+        }
+        return prefixes;
+    }
+
+    /**
+     * @param path
+     *            The path of a request
+     * @return The priority of the requests to {@code path}
+     */
+    public Priority priority(String path) {
+        if (startsWithAny(path, bypass)) {
+            return Priority.BYPASS;
+        }
+        return startsWithAny(path, lowPriority) ? Priority.LOW : Priority.NORMAL;
+    }
+
+    private static boolean startsWithAny(String path, List<String> prefixes) {
+        for (String prefix : prefixes) {
+            if (path.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Admit an invocation now, once a slot frees up, or never.
+     * {@code onAdmit} and {@code onReject} are called on the calling thread,
+     * the thread of the request that freed the slot, or a timer thread.
+     *
+     * @param priority
+     *            The priority of the invocation, not {@link Priority#BYPASS}
+     * @param onAdmit
+     *            Called with the permit to release when the invocation ends
+     * @param onReject
+     *            Called when the invocation must be answered 503
+     * @return Withdraws the invocation while it waits for a slot, neither
+     *         admitting nor rejecting it; false once it left the queue
+     */
+    public BooleanSupplier acquire(Priority priority, Consumer<Permit> onAdmit, Runnable onReject) {
+        long now = System.nanoTime();
+        Permit permit = null;
+        Waiter waiter = null;
+        List<Waiter> expired;
+        synchronized (this) {
+            expired = expired(now);
+            if (inflight < (int) limit && queue.isEmpty()) {
+                permit = admit(now);
+            } else if (priority == Priority.NORMAL && queue.size() < maxQueue && maxWaitNanos > 0) {
+                waiter = new Waiter(now, onAdmit, onReject);
+                queue.add(waiter);
+                scheduleSweep(now);
+            }
+        }
+        reject(expired, "timeout");
+        if (permit != null) {
+            onAdmit.accept(permit);
+        } else if (waiter == null) {
+            reject(onReject, "limit");
+        } else {
+            Waiter queued = waiter;
+            return () -> withdraw(queued);
+        }
+        return () -> false;
+    }
+
+    private synchronized boolean withdraw(Waiter waiter) {
+        return queue.remove(waiter);
+    }
+
+    /**
+     * Reject the queued invocations, when the application stops.
+     */
+    void close() {
+        List<Waiter> queued;
+        synchronized (this) {
+            queued = new ArrayList<>(queue);
+            queue.clear();
+        }
+        reject(queued, "limit");
+    }
+
+    public synchronized int limit() {
+        return (int) limit;
+    }
+
+    public synchronized int inflight() {
+        return inflight;
+    }
+
+    public synchronized int queued() {
+        return queue.size();
+    }
+
+    // Called with the lock held
+    private Permit admit(long now) {
+        inflight++;
+        return new Permit(now, inflight);
+    }
+
+    // Called with the lock held
+    private List<Waiter> expired(long now) {
+        List<Waiter> expired = List.of();
+        while (!queue.isEmpty() && now - queue.peek().since >= maxWaitNanos) {
+            if (expired.isEmpty()) {
+                expired = new ArrayList<>();
+            }
+            expired.add(queue.poll());
+        }
+        return expired;
+    }
+
+    // Called with the lock held
+    private void scheduleSweep(long now) {
+        if (!sweepScheduled && !queue.isEmpty()) {
+            sweepScheduled = true;
+            long delay = queue.peek().since + maxWaitNanos - now;
+            CompletableFuture.delayedExecutor(Math.max(delay, 0), TimeUnit.NANOSECONDS).execute(this::sweep);
+        }
+    }
+
+    private void sweep() {
+        long now = System.nanoTime();
+        List<Waiter> expired;
+        synchronized (this) {
+            sweepScheduled = false;
+            expired = expired(now);
+            scheduleSweep(now);
+        }
+        reject(expired, "timeout");
+    }
+
+    /**
+     * Release a slot, record the latency of the invocation that held it and
+     * admit the invocations waiting for it.
+     */
+    private void release(Permit permit, boolean sample) {
+        long now = System.nanoTime();
+        List<Waiter> admitted = new ArrayList<>();
+        List<Permit> permits = new ArrayList<>();
+        List<Waiter> expired;
+        synchronized (this) {
+            inflight--;
+            if (sample) {
+                sample(now - permit.since, permit.inflight, now);
+            }
+            expired = expired(now);
+            while (inflight < (int) limit && !queue.isEmpty()) {
+                Waiter waiter = queue.poll();
+                admitted.add(waiter);
+                permits.add(admit(now));
+            }
+        }
+        reject(expired, "timeout");
+        for (int i = 0; i < admitted.size(); i++) {
+            Waiter waiter = admitted.get(i);
+            Metrics.timer("play.limiter.wait").record(now - waiter.since, TimeUnit.NANOSECONDS);
+            waiter.onAdmit.accept(permits.get(i));
+        }
+    }
+
+    // Called with the lock held
+    void sample(long rtt, int inflightAtStart, long now) {
+        windowRttSum += rtt;
+        windowSamples++;
+        windowMaxInflight = Math.max(windowMaxInflight, inflightAtStart);
+        if (now - windowStart < WINDOW_NANOS || windowSamples < MIN_WINDOW_SAMPLES) {
+            return;
+        }
+        double shortRtt = (double) windowRttSum / windowSamples;
+        boolean appLimited = windowMaxInflight < limit / 2;
+        windowStart = now;
+        windowRttSum = 0;
+        windowSamples = 0;
+        windowMaxInflight = 0;
+
+        longRtt = longRtt == 0 ? shortRtt : longRtt + LONG_RTT_WEIGHT * (shortRtt - longRtt);
+        if (longRtt > 2 * shortRtt) {
+            // Latency dropped: let the baseline follow faster
+            longRtt *= 0.95;
+        }
+        if (appLimited) {
+            return;
+        }
+        double gradient = Math.clamp(tolerance * longRtt / shortRtt, 0.5, 1.0);
+        double newLimit = limit * gradient + Math.sqrt(limit);
+        limit = Math.clamp(limit * (1 - SMOOTHING) + newLimit * SMOOTHING, minLimit, maxLimit);
+    }
+
+    private static void reject(List<Waiter> waiters, String reason) {
+        for (Waiter waiter : waiters) {
+            reject(waiter.onReject, reason);
+        }
+    }
+
+    private static void reject(Runnable onReject, String reason) {
+        Metrics.counter("play.limiter.rejected", "reason", reason).increment();
+        onReject.run();
+    }
+
+    private record Waiter(long since, Consumer<Permit> onAdmit, Runnable onReject) {
+    }
+
+    /**
+     * A slot held by an invocation, released when it ends.
+     */
+    public final class Permit {
+
+        private final long since;
+        private final int inflight;
+        // Guarded by the limiter
+        private boolean held = true;
+        private boolean sampled = true;
+        private boolean released;
+
+        private Permit(long since, int inflight) {
+            this.since = since;
+            this.inflight = inflight;
+        }
+
+        /**
+         * Free the slot while the invocation waits ({@code Controller.await}):
+         * its latency no longer says anything about the load.
+         */
+        void suspend() {
+            synchronized (ConcurrencyLimiter.this) {
+                if (!held || released) {
+                    return;
+                }
+                held = false;
+                sampled = false;
+            }
+            ConcurrencyLimiter.this.release(this, false);
+        }
+
+        /**
+         * Take a slot again once the wait is over, whatever the limit: the
+         * invocation is already running.
+         */
+        void resume() {
+            synchronized (ConcurrencyLimiter.this) {
+                if (!held && !released) {
+                    held = true;
+                    ConcurrencyLimiter.this.inflight++;
+                }
+            }
+        }
+
+        void release() {
+            boolean sample;
+            synchronized (ConcurrencyLimiter.this) {
+                if (released) {
+                    return;
+                }
+                released = true;
+                if (!held) {
+                    return;
+                }
+                sample = sampled;
+            }
+            ConcurrencyLimiter.this.release(this, sample);
+        }
+    }
+}
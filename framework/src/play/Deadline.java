@@ -0,0 +1,167 @@
+package play;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import play.Invoker.InvocationContext;
+import play.exceptions.DeadlineExceededException;
+import play.libs.Time;
+import play.mvc.Http;
+
+/**
+ * The time by which the current invocation should be done, so that work
+ * nobody waits for any more is not carried on.
+ *
+ * <p>An HTTP request is given a deadline by the {@link TimeLimit} of its
+ * action or controller, or else by {@code play.deadline}; a client (or a proxy
+ * in front of the application) may shorten it with the header named by
+ * {@code play.deadline.header}, in milliseconds. Both count from when the
+ * request was received. A job is given one by the {@link TimeLimit} of its
+ * class. A request whose deadline passed before it ran, waiting for a slot of
+ * the {@link ConcurrencyLimiter}, is answered 503.</p>
+ *
+ * <p>The deadline bounds the timeout of the SQL statements run through
+ * {@code DB} and JPA queries, and of {@code WS} calls, to the time left. JDBC
+ * counts in seconds: a statement is given at least one. Long computations may
+ * call {@link #check()}.</p>
+ */
+public final class Deadline {
+
+    public static final ThreadLocal<Deadline> current = new InvocationLocal<>();
+
+    private static volatile long defaultMillis = -1;
+    private static volatile String header;
+
+    private final long nanos;
+
+    private Deadline(long nanos) {
+        this.nanos = nanos;
+    }
+
+    /**
+     * @return The deadline of the current invocation, or null if it has none
+     */
+    public static Deadline current() {
+        return current.get();
+    }
+
+    /**
+     * @param millis
+     *            The time allowed
+     * @return The deadline {@code millis} from now
+     */
+    public static Deadline after(long millis) {
+        return new Deadline(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    static void configure() {
+        String duration = Play.configuration.getProperty("play.deadline", "").trim();
+        defaultMillis = duration.isEmpty() ? -1 : Time.parseDurationMillis(duration);
+        String name = Play.configuration.getProperty("play.deadline.header", "").trim();
+        header = name.isEmpty() ? null : name.toLowerCase();
+    }
+
+    /**
+     * @param context
+     *            The context of an invocation
+     * @return The deadline its {@link TimeLimit} sets, or null
+     */
+    static Deadline of(InvocationContext context) {
+        TimeLimit limit = context.getAnnotation(TimeLimit.class);
+        return limit == null ? null : after(Time.parseDurationMillis(limit.value()));
+    }
+
+    /**
+     * @param request
+     *            An HTTP request
+     * @param context
+     *            The context of its invocation
+     * @return The earliest of the deadlines the action and the request set, or
+     *         null if neither does
+     */
+    public static Deadline of(Http.Request request, InvocationContext context) {
+        long received = request.args.get("acceptedAtNanos") instanceof Long nanos ? nanos : System.nanoTime();
+        TimeLimit limit = context.getAnnotation(TimeLimit.class);
+        long millis = limit != null ? Time.parseDurationMillis(limit.value()) : defaultMillis;
+        Deadline deadline = millis < 0 ? null : new Deadline(received + TimeUnit.MILLISECONDS.toNanos(millis));
+        String name = header;
+        Http.Header requested = name == null ? null : request.headers.get(name);
+        if (requested != null && requested.value() != null) {
+            try {
+                long requestedMillis = Long.parseLong(requested.value().trim());
+                if (requestedMillis >= 0) {
+                    Deadline earlier = new Deadline(received + TimeUnit.MILLISECONDS.toNanos(requestedMillis));
+                    deadline = deadline == null || earlier.nanos - deadline.nanos < 0 ? earlier : deadline;
+                }
+            } catch (NumberFormatException e) {
+                Logger.debug("Ignoring invalid %s header: %s", name, requested.value());
+            }
+        }
+        return deadline;
+    }
+
+    /**
+     * @return The time left, in milliseconds; negative once the deadline passed
+     */
+    public long remainingMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(nanos - System.nanoTime());
+    }
+
+    public boolean isExpired() {
+        return nanos - System.nanoTime() <= 0;
+    }
+
+    /**
+     * Give up once the deadline passed.
+     *
+     * @throws DeadlineExceededException
+     *             if it did
+     */
+    public void check() {
+        long late = System.nanoTime() - nanos;
+        if (late >= 0) {
+            throw new DeadlineExceededException("Deadline exceeded by " + TimeUnit.NANOSECONDS.toMillis(late) + " ms");
+        }
+    }
+
+    /**
+     * @return The time left rounded up to whole seconds, JDBC's unit, and at
+     *         least one second
+     */
+    public int queryTimeoutSeconds() {
+        long remaining = nanos - System.nanoTime();
+        long seconds = remaining <= 0 ? 1 : (remaining + 999_999_999L) / 1_000_000_000L;
+        return (int) Math.min(seconds, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param timeout
+     *            A timeout
+     * @return The shorter of {@code timeout} and the time left, and at least
+     *         one millisecond
+     */
+    public Duration bound(Duration timeout) {
+        Duration remaining = Duration.ofNanos(Math.max(nanos - System.nanoTime(), 1_000_000L));
+        return timeout.compareTo(remaining) <= 0 ? timeout : remaining;
+    }
+
+    /**
+     * Bound the timeout of {@code statement} by the deadline of the current
+     * invocation, if it has one.
+     *
+     * @param statement
+     *            A statement about to be executed
+     * @throws SQLException
+     *             if the driver cannot set the timeout
+     */
+    public static void bound(Statement statement) throws SQLException {
+        Deadline deadline = current();
+        if (deadline != null) {
+            int seconds = deadline.queryTimeoutSeconds();
+            int timeout = statement.getQueryTimeout();
+            statement.setQueryTimeout(timeout > 0 ? Math.min(timeout, seconds) : seconds);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package play;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * A {@link ThreadLocal} whose value lives in the current {@link InvocationScope}.
+ *
+ * <p>Inside an invocation, {@link #get()}, {@link #set(Object)} and
+ * {@link #remove()} read and write a slot of the scope the invocation bound;
+ * outside one (the Netty IO threads, unit tests, code running on threads of its
+ * own) they fall back to the thread's own value, as a plain {@code ThreadLocal}
+ * does. The request-scoped fields such as {@code Http.Request.current} keep
+ * their {@code ThreadLocal} type, so existing code and compiled applications
+ * work unchanged.</p>
+ *
+ * <p>Inside an invocation, a value set to null reads back as the initial value,
+ * as it does after {@link #remove()}.</p>
+ *
+ * @param <T>
+ *            The type of the value
+ */
+public class InvocationLocal<T> extends ThreadLocal<T> {
+
+    private static final AtomicInteger slots = new AtomicInteger();
+
+    final int slot = slots.getAndIncrement();
+    private final Supplier<? extends T> initial;
+
+    public InvocationLocal() {
+        this(null);
+    }
+
+    /**
+     * @param initial
+     *            Supplies the value read before any is set, or null for none
+     */
+    public InvocationLocal(Supplier<? extends T> initial) {
+        this.initial = initial;
+    }
+
+    @Override
+    protected T initialValue() {
+        return initial == null ? null : initial.get();
+    }
+
+    @Override
+    public T get() {
+        InvocationScope scope = InvocationScope.current();
+        return scope == null ? super.get() : scope.get(this);
+    }
+
+    @Override
+    public void set(T value) {
+        InvocationScope scope = InvocationScope.current();
+        if (scope == null) {
+            super.set(value);
+        } else {
+            scope.set(this, value);
+        }
+    }
+
+    @Override
+    public void remove() {
+        InvocationScope scope = InvocationScope.current();
+        if (scope == null) {
+            super.remove();
+        } else {
+            scope.set(this, null);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package play;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * The state of one invocation (a request, a WebSocket message, a job): the
+ * values of every {@link InvocationLocal}, such as {@code Http.Request.current},
+ * the session and flash scopes, the JPA contexts or the invocation context.
+ *
+ * <p>{@link Invoker.Invocation#run()} binds a new scope to a {@link ScopedValue}
+ * once, for the whole invocation. The per-request values are then plain array
+ * slots of this object: setting one at the start of a request and dropping it at
+ * the end no longer touches the thread's {@link ThreadLocal} map, and nothing is
+ * left on the thread when the invocation ends. An invocation resumed after a
+ * {@link Invoker.Suspend} runs with a copy of the scope it was suspended in.</p>
+ *
+ * <p>A scope belongs to the thread it is bound on, like the thread locals it
+ * replaces; it is not meant to be shared between threads.</p>
+ */
+public final class InvocationScope {
+
+    private static final ScopedValue<InvocationScope> CURRENT = ScopedValue.newInstance();
+
+    private Object[] values;
+
+    public InvocationScope() {
+        this(new Object[16]);
+    }
+
+    private InvocationScope(Object[] values) {
+        this.values = values;
+    }
+
+    /**
+     * @return The scope bound to the current thread, or null outside an invocation
+     */
+    public static InvocationScope current() {
+        // Not orElse(null): ScopedValue.orElse rejects a null default
+        return CURRENT.isBound() ? CURRENT.get() : null;
+    }
+
+    /**
+     * @return A new scope holding the same values, for a continuation of this invocation
+     */
+    public InvocationScope copy() {
+        return new InvocationScope(values.clone());
+    }
+
+    /**
+     * Run {@code operation} with this scope bound.
+     *
+     * @param operation
+     *            The code to run
+     */
+    public void run(Runnable operation) {
+        ScopedValue.where(CURRENT, this).run(operation);
+    }
+
+    /**
+     * Run {@code operation} with this scope bound.
+     *
+     * @param operation
+     *            The code to run
+     * @return What {@code operation} returned
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T call(Supplier<T> operation) {
+        Object[] result = new Object[1];
+        run(() -> result[0] = operation.get());
+        return (T) result[0];
+    }
+
+    @SuppressWarnings("unchecked")
+    <T> T get(InvocationLocal<T> local) {
+        int slot = local.slot;
+        Object value = slot < values.length ? values[slot] : null;
+        if (value == null) {
+            value = local.initialValue();
+            if (value != null) {
+                set(local, value);
+            }
+        }
+        return (T) value;
+    }
+
+    void set(InvocationLocal<?> local, Object value) {
+        int slot = local.slot;
+        if (slot >= values.length) {
+            if (value == null) {
+                return;
+            }
+            values = Arrays.copyOf(values, Math.max(slot + 1, 2 * values.length));
+        }
+        values[slot] = value;
+    }
+}
@@ -4,12 +4,14 @@ import java.lang.annotation.Annotation;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Future;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
 
 import com.jamonapi.Monitor;
 import com.jamonapi.MonitorFactory;
@@ -49,6 +51,14 @@ public class Invoker {
      */
     public static final AtomicLong totalInvocations = new AtomicLong();
 
+    /**
+     * The limit on concurrent HTTP requests, or null when {@code play.limiter}
+     * is off. Recreated by {@link #init()}.
+     */
+    public static volatile ConcurrencyLimiter limiter;
+
+    private static final ThreadLocal<ConcurrencyLimiter.Permit> currentPermit = new InvocationLocal<>();
+
     /**
      * Audit H2-counter: submit a Runnable through the scheduler and track it via
      * {@link #inflightInvocations} / {@link #totalInvocations}. All public dispatch
@@ -69,7 +79,9 @@ public class Invoker {
     }
 
     /**
-     * Run the code in a new thread took from a thread pool.
+     * Run the code in a new thread took from a thread pool. When the
+     * {@link #limiter} is on, an invocation it limits (an HTTP request) may
+     * first wait for a slot, or be {@link Invocation#rejected() rejected}.
      *
      * @param invocation
      *            The code to run
@@ -78,7 +90,102 @@ public class Invoker {
     public static Future<?> invoke(Invocation invocation) {
         ensureExecutor();
         invocation.waitInQueue = MonitorFactory.start("Waiting for execution");
-        return submitTracked(invocation);
+        ConcurrencyLimiter limiter = Invoker.limiter;
+        ConcurrencyLimiter.Priority priority = limiter == null ? ConcurrencyLimiter.Priority.BYPASS : invocation.priority(limiter);
+        if (priority == ConcurrencyLimiter.Priority.BYPASS) {
+            return submitTracked(invocation);
+        }
+        LimitedFuture done = new LimitedFuture(invocation);
+        BooleanSupplier withdraw = limiter.acquire(priority, permit -> {
+            invocation.permit = permit;
+            ensureExecutor();
+            try {
+                done.submitted(submitTracked(() -> {
+                    if (done.start()) {
+                        try {
+                            invocation.run();
+                        } finally {
+                            done.complete(null);
+                        }
+                    }
+                }));
+            } catch (RejectedExecutionException e) {
+                // Stopping: the limiter may be admitting from another request's thread
+                inflightInvocations.decrementAndGet();
+                invocation.permit = null;
+                permit.release();
+                invocation.rejected();
+                done.complete(null);
+            }
+        }, () -> {
+            try {
+                invocation.waitInQueue.stop();
+                invocation.rejected();
+            } finally {
+                done.complete(null);
+            }
+        });
+        done.queued(withdraw);
+        return done;
+    }
+
+    /**
+     * The future of an invocation the {@link #limiter} admits. Cancelling it
+     * withdraws the invocation while it waits for a slot, and cancels its task
+     * once admitted; an invocation cancelled before it started gives its slot
+     * back.
+     */
+    private static final class LimitedFuture extends CompletableFuture<Void> {
+
+        private final Invocation invocation;
+        private final AtomicBoolean started = new AtomicBoolean();
+        private volatile BooleanSupplier withdraw;
+        private volatile Future<?> task;
+
+        LimitedFuture(Invocation invocation) {
+            this.invocation = invocation;
+        }
+
+        void queued(BooleanSupplier withdraw) {
+            this.withdraw = withdraw;
+        }
+
+        void submitted(Future<?> task) {
+            this.task = task;
+        }
+
+        /**
+         * @return false if the invocation was cancelled before its task ran
+         */
+        boolean start() {
+            return started.compareAndSet(false, true);
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            Future<?> task = this.task;
+            if (task == null) {
+                BooleanSupplier withdraw = this.withdraw;
+                if (withdraw == null || !withdraw.getAsBoolean()) {
+                    // Not queued yet, or being admitted
+                    return false;
+                }
+                invocation.waitInQueue.stop();
+            } else if (start()) {
+                if (task.cancel(false)) {
+                    // submitTracked counted it, but its task will not run
+                    inflightInvocations.decrementAndGet();
+                }
+                ConcurrencyLimiter.Permit permit = invocation.permit;
+                invocation.permit = null;
+                if (permit != null) {
+                    permit.release();
+                }
+            } else if (!task.cancel(mayInterruptIfRunning)) {
+                return false;
+            }
+            return super.cancel(mayInterruptIfRunning);
+        }
     }
 
     /**
@@ -184,6 +291,10 @@ public class Invoker {
      */
     public static void suspendInflight() {
         inflightInvocations.decrementAndGet();
+        ConcurrencyLimiter.Permit permit = currentPermit.get();
+        if (permit != null) {
+            permit.suspend();
+        }
     }
 
     /**
@@ -192,6 +303,10 @@ public class Invoker {
      */
     public static void resumeInflight() {
         inflightInvocations.incrementAndGet();
+        ConcurrencyLimiter.Permit permit = currentPermit.get();
+        if (permit != null) {
+            permit.resume();
+        }
     }
 
     static void resetClassloaders() {
@@ -206,7 +321,7 @@ public class Invoker {
      */
     public static class InvocationContext {
 
-        public static final ThreadLocal<InvocationContext> current = new ThreadLocal<>();
+        public static final ThreadLocal<InvocationContext> current = new InvocationLocal<>();
         private final List<Annotation> annotations;
         private final String invocationType;
 
@@ -288,6 +403,21 @@ public class Invoker {
          */
         Monitor waitInQueue;
 
+        /**
+         * The scope to resume with, copied when the invocation was suspended
+         */
+        private volatile InvocationScope resumeScope;
+
+        /**
+         * True once the invocation was suspended: its later runs resume it
+         */
+        private volatile boolean resumed;
+
+        /**
+         * The slot the concurrency limiter gave this invocation, released when it ends
+         */
+        volatile ConcurrencyLimiter.Permit permit;
+
         /**
          * Override this method
          * 
@@ -319,12 +449,55 @@ public class Invoker {
                 }
                 Play.start();
             }
-            InvocationContext.current.set(getInvocationContext());
+            InvocationContext context = getInvocationContext();
+            InvocationContext.current.set(context);
+            Deadline.current.set(deadline(context));
             return true;
         }
 
         public abstract InvocationContext getInvocationContext();
 
+        /**
+         * @param context
+         *            The context of this invocation
+         * @return The deadline of this invocation, or null if it has none. By
+         *         default the one its {@link TimeLimit} sets.
+         */
+        protected Deadline deadline(InvocationContext context) {
+            return Deadline.of(context);
+        }
+
+        /**
+         * @return true if the deadline of this invocation passed before it
+         *         first ran, e.g. while it waited for the concurrency limiter.
+         *         Never once resumed: a suspended invocation may outlive its
+         *         deadline waiting for what it suspended on.
+         */
+        protected boolean expiredBeforeStart() {
+            Deadline deadline = Deadline.current();
+            return !resumed && deadline != null && deadline.isExpired();
+        }
+
+        /**
+         * How the concurrency limiter treats this invocation. By default it
+         * is not limited; HTTP requests are.
+         *
+         * @param limiter
+         *            The limiter
+         * @return The priority of this invocation
+         */
+        public ConcurrencyLimiter.Priority priority(ConcurrencyLimiter limiter) {
+            return ConcurrencyLimiter.Priority.BYPASS;
+        }
+
+        /**
+         * The concurrency limiter rejected this invocation, which will not
+         * run: answer it if it can be.
+         */
+        public void rejected() {
+            Logger.warn("%s rejected: too many concurrent invocations", getClass().getName());
+        }
+
         /**
          * Things to do before an Invocation
          */
@@ -372,6 +545,9 @@ public class Invoker {
          *            the suspended request
          */
         public void suspend(Suspend suspendRequest) {
+            resumed = true;
+            InvocationScope scope = InvocationScope.current();
+            resumeScope = scope == null ? null : scope.copy();
             if (suspendRequest.task != null) {
                 WaitForTasksCompletion.waitFor(suspendRequest.task, this);
             } else {
@@ -384,7 +560,6 @@ public class Invoker {
          */
         public void _finally() {
             Play.pluginCollection.invocationFinally();
-            InvocationContext.current.remove();
         }
 
         private void withinFilter(play.libs.F.Function0<Void> fct) throws Throwable {
@@ -395,10 +570,28 @@ public class Invoker {
         }
 
         /**
-         * It's time to execute.
+         * It's time to execute, in a new {@link InvocationScope} or, once
+         * suspended, in a copy of the scope it was suspended in.
          */
         @Override
         public void run() {
+            InvocationScope scope = resumeScope;
+            resumeScope = null;
+            ConcurrencyLimiter.Permit permit = this.permit;
+            this.permit = null;
+            try {
+                (scope == null ? new InvocationScope() : scope).run(() -> {
+                    currentPermit.set(permit);
+                    invoke();
+                });
+            } finally {
+                if (permit != null) {
+                    permit.release();
+                }
+            }
+        }
+
+        private void invoke() {
             if (waitInQueue != null) {
                 waitInQueue.stop();
             }
@@ -498,20 +691,39 @@ public class Invoker {
         // branch the caller is sitting on.
         if (scheduler != null && Thread.currentThread().isVirtual()) {
             Logger.info("Invoker using virtual threads (kept bootstrap executor)");
+            configure();
             return;
         }
         stop();
         VirtualThreadScheduledExecutor v = new VirtualThreadScheduledExecutor("play");
         scheduler = v;
+        configure();
         Logger.info("Invoker using virtual threads");
     }
 
+    private static void configure() {
+        Deadline.configure();
+        ConcurrencyLimiter previous = limiter;
+        limiter = ConcurrencyLimiter.configure();
+        if (previous != null) {
+            previous.close();
+        }
+        if (limiter != null) {
+            Logger.info("Invoker limiting concurrent requests, starting at %s", limiter.limit());
+        }
+    }
+
     /**
      * Shut down the active executor and release its threads. Called from
      * {@link Play#stop()} and from {@link #init()} so that DEV restarts and test
      * teardowns don't accumulate scheduler thread pools or pending delayed work.
      */
     public static synchronized void stop() {
+        ConcurrencyLimiter l = limiter;
+        limiter = null;
+        if (l != null) {
+            l.close();
+        }
         VirtualThreadScheduledExecutor s = scheduler;
         if (s != null) s.shutdownNow();
         scheduler = null;
@@ -0,0 +1,93 @@
+package play;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.Formattable;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.logging.log4j.util.StringBuilderFormattable;
+
+/**
+ * A {@link Logger} message template translated from {@link String#format}
+ * syntax to log4j's {@code {}} placeholders, so that log4j can render it
+ * lazily and without garbage.
+ *
+ * <p>Only templates whose specifiers are all {@code %s}, {@code %%} or
+ * {@code %n} translate; any other specifier, or text log4j would read as a
+ * placeholder or an escape ({@code {}}, {@code \}), leaves {@link #pattern()}
+ * null and {@link #placeholders()} at -1. Translations are cached, since
+ * templates are almost always literals.
+ *
+ * <p>log4j renders some arguments differently from {@code %s}: dates in ISO
+ * format, arrays and nested collections by content, and formattables through
+ * their own interface. {@link #rendersAlike(Object[])} tells whether a
+ * translated template may be used with the given arguments without changing
+ * the logged text.
+ */
+record LogTemplate(String pattern, int placeholders) {
+
+    private static final int MAX_CACHED = 4096;
+    private static final LogTemplate UNTRANSLATABLE = new LogTemplate(null, -1);
+    private static final Map<String, LogTemplate> cache = new ConcurrentHashMap<>();
+
+    static LogTemplate of(String template) {
+        LogTemplate translated = cache.get(template);
+        if (translated == null) {
+            translated = translate(template);
+            if (cache.size() >= MAX_CACHED) {
+                // Templates built at runtime would otherwise grow the cache forever.
+                cache.clear();
+            }
+            cache.put(template, translated);
+        }
+        return translated;
+    }
+
+    static LogTemplate translate(String template) {
+        if (template.contains("{}") || template.indexOf('\\') >= 0) {
+            return UNTRANSLATABLE;
+        }
+        StringBuilder pattern = new StringBuilder(template.length() + 8);
+        int placeholders = 0;
+        for (int i = 0; i < template.length(); i++) {
+            char c = template.charAt(i);
+            if (c != '%') {
+                pattern.append(c);
+                continue;
+            }
+            if (++i == template.length()) {
+                return UNTRANSLATABLE;
+            }
+            switch (template.charAt(i)) {
+                case 's' -> {
+                    pattern.append("{}");
+                    placeholders++;
+                }
+                case '%' -> pattern.append('%');
+                case 'n' -> pattern.append(System.lineSeparator());
+                default -> {
+                    return UNTRANSLATABLE;
+                }
+            }
+        }
+        return new LogTemplate(pattern.toString(), placeholders);
+    }
+
+    /**
+     * @return whether log4j renders every one of these arguments exactly as
+     *         {@code %s} would
+     */
+    static boolean rendersAlike(Object[] args) {
+        for (Object arg : args) {
+            if (arg == null || arg instanceof CharSequence || arg instanceof Number || arg instanceof Boolean || arg instanceof Character) {
+                continue;
+            }
+            if (arg instanceof Date || arg instanceof Map || arg instanceof Collection || arg instanceof Formattable
+                    || arg instanceof StringBuilderFormattable || arg.getClass().isArray()) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -1,7 +1,9 @@
 package play;
 
+import java.io.File;
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
@@ -9,17 +11,24 @@ import java.nio.file.FileSystemNotFoundException;
 import java.nio.file.Paths;
 import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.logging.Handler;
 import java.util.logging.Level;
 import java.util.logging.LogRecord;
 import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.core.Appender;
 import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.appender.AsyncAppender;
 import org.apache.logging.log4j.core.appender.FileAppender;
+import org.apache.logging.log4j.core.config.AppenderRef;
 import org.apache.logging.log4j.core.config.Configuration;
 import org.apache.logging.log4j.core.config.Configurator;
 import org.apache.logging.log4j.core.config.LoggerConfig;
 import org.apache.logging.log4j.core.layout.PatternLayout;
+import org.apache.logging.log4j.message.StringFormattedMessage;
 
 import play.exceptions.PlayException;
 
@@ -79,6 +88,9 @@ public class Logger {
                 Logger.warn("auto configuration log4j2");
                 Logger.log4j = LogManager.getLogger("play");
             }
+            if (Boolean.parseBoolean(Play.configuration.getProperty("application.log.async", "false"))) {
+                enableAsyncAppenders(Integer.parseInt(Play.configuration.getProperty("application.log.async.bufferSize", "1024")));
+            }
             // In test mode, append logs to test-result/application.log
             if (Play.runningInTestMode()) {
                 try {
@@ -93,6 +105,56 @@ public class Logger {
         }
     }
 
+    /**
+     * Put an {@link AsyncAppender} in front of every configured appender, so
+     * that logging threads only enqueue events and a background thread does
+     * the layout and IO. Each appender gets its own queue of
+     * {@code bufferSize} events, and loggers keep their appender levels and
+     * filters. A full queue blocks the logging thread rather than dropping
+     * events. Caller location is not captured; use
+     * {@code application.log.recordCaller} to name events after their class.
+     */
+    static void enableAsyncAppenders(int bufferSize) {
+        LoggerContext context = (LoggerContext) LogManager.getContext(false);
+        Configuration configuration = context.getConfiguration();
+        Map<String, Appender> asyncAppenders = new HashMap<>();
+        List<LoggerConfig> loggerConfigs = new ArrayList<>(configuration.getLoggers().values());
+        loggerConfigs.add(configuration.getRootLogger());
+        for (LoggerConfig loggerConfig : loggerConfigs) {
+            for (Map.Entry<String, Appender> entry : new HashMap<>(loggerConfig.getAppenders()).entrySet()) {
+                if (entry.getValue() instanceof AsyncAppender) {
+                    continue;
+                }
+                Appender async = asyncAppenders.computeIfAbsent(entry.getKey(), name -> {
+                    AsyncAppender appender = AsyncAppender.newBuilder()
+                            .setName("async-" + name)
+                            .setAppenderRefs(new AppenderRef[] {AppenderRef.createAppenderRef(name, null, null)})
+                            .setBufferSize(bufferSize)
+                            .setBlocking(true)
+                            .setIncludeLocation(false)
+                            .setConfiguration(configuration)
+                            .build();
+                    appender.start();
+                    configuration.addAppender(appender);
+                    return appender;
+                });
+                AppenderRef ref = findAppenderRef(loggerConfig, entry.getKey());
+                loggerConfig.removeAppender(entry.getKey());
+                loggerConfig.addAppender(async, ref == null ? null : ref.getLevel(), ref == null ? null : ref.getFilter());
+            }
+        }
+        context.updateLoggers();
+    }
+
+    private static AppenderRef findAppenderRef(LoggerConfig loggerConfig, String name) {
+        for (AppenderRef ref : loggerConfig.getAppenderRefs()) {
+            if (ref.getRef().equals(name)) {
+                return ref;
+            }
+        }
+        return null;
+    }
+
     private static void addAppenderTest() {
         final LoggerContext context = (LoggerContext) LogManager.getContext(false);
         final Configuration configuration = context.getConfiguration();
@@ -225,11 +287,7 @@ public class Logger {
                 }
             } else {
                 try {
-                    if (recordCaller) {
-                        LogManager.getLogger(getCallerClassName()).trace(format(message, args));
-                    } else {
-                        log4j.trace(format(message, args));
-                    }
+                    log4j(org.apache.logging.log4j.Level.TRACE, null, message, args);
                 } catch (Throwable ex) {
                     log4j.error("Oops. Error in Logger !", ex);
                 }
@@ -252,11 +310,7 @@ public class Logger {
                 }
             } else {
                 try {
-                    if (recordCaller) {
-                        LogManager.getLogger(getCallerClassName()).debug(format(message, args));
-                    } else {
-                        log4j.debug(format(message, args));
-                    }
+                    log4j(org.apache.logging.log4j.Level.DEBUG, null, message, args);
                 } catch (Throwable ex) {
                     log4j.error("Oops. Error in Logger !", ex);
                 }
@@ -283,11 +337,7 @@ public class Logger {
             } else {
                 try {
                     if (!niceThrowable(org.apache.logging.log4j.Level.DEBUG, e, message, args)) {
-                        if (recordCaller) {
-                            LogManager.getLogger(getCallerClassName()).debug(format(message, args), e);
-                        } else {
-                            log4j.debug(format(message, args), e);
-                        }
+                        log4j(org.apache.logging.log4j.Level.DEBUG, e, message, args);
                     }
                 } catch (Throwable ex) {
                     log4j.error("Oops. Error in Logger !", ex);
@@ -311,14 +361,7 @@ public class Logger {
                 }
             } else {
                 try {
-                    if (recordCaller) {
-                        // TODO: It is expensive to extract caller-info
-                        // we should only do it if we know the message is being
-                        // logged (level)
-                        LogManager.getLogger(getCallerClassName()).info(format(message, args));
-                    } else {
-                        log4j.info(format(message, args));
-                    }
+                    log4j(org.apache.logging.log4j.Level.INFO, null, message, args);
                 } catch (Throwable ex) {
                     log4j.error("Oops. Error in Logger !", ex);
                 }
@@ -345,11 +388,7 @@ public class Logger {
             } else {
                 try {
                     if (!niceThrowable(org.apache.logging.log4j.Level.INFO, e, message, args)) {
-                        if (recordCaller) {
-                            LogManager.getLogger(getCallerClassName()).info(format(message, args), e);
-                        } else {
-                            log4j.info(format(message, args), e);
-                        }
+                        log4j(org.apache.logging.log4j.Level.INFO, e, message, args);
                     }
                 } catch (Throwable ex) {
                     log4j.error("Oops. Error in Logger !", ex);
@@ -373,11 +412,7 @@ public class Logger {
                 }
             } else {
                 try {
-                    if (recordCaller) {
-                        LogManager.getLogger(getCallerClassName()).warn(format(message, args));
-                    } else {
-                        log4j.warn(format(message, args));
-                    }
+                    log4j(org.apache.logging.log4j.Level.WARN, null, message, args);
                 } catch (Throwable ex) {
                     log4j.error("Oops. Error in Logger !", ex);
                 }
@@ -404,11 +439,7 @@ public class Logger {
             } else {
                 try {
                     if (!niceThrowable(org.apache.logging.log4j.Level.WARN, e, message, args)) {
-                        if (recordCaller) {
-                            LogManager.getLogger(getCallerClassName()).warn(format(message, args), e);
-                        } else {
-                            log4j.warn(format(message, args), e);
-                        }
+                        log4j(org.apache.logging.log4j.Level.WARN, e, message, args);
                     }
                 } catch (Throwable ex) {
                     log4j.error("Oops. Error in Logger !", ex);
@@ -432,11 +463,7 @@ public class Logger {
                 }
             } else {
                 try {
-                    if (recordCaller) {
-                        LogManager.getLogger(getCallerClassName()).error(format(message, args));
-                    } else {
-                        log4j.error(format(message, args));
-                    }
+                    log4j(org.apache.logging.log4j.Level.ERROR, null, message, args);
                 } catch (Throwable ex) {
                     log4j.error("Oops. Error in Logger !", ex);
                 }
@@ -463,11 +490,7 @@ public class Logger {
             } else {
                 try {
                     if (!niceThrowable(org.apache.logging.log4j.Level.ERROR, e, message, args)) {
-                        if (recordCaller) {
-                            LogManager.getLogger(getCallerClassName()).error(format(message, args), e);
-                        } else {
-                            log4j.error(format(message, args), e);
-                        }
+                        log4j(org.apache.logging.log4j.Level.ERROR, e, message, args);
                     }
                 } catch (Throwable ex) {
                     log4j.error("Oops. Error in Logger !", ex);
@@ -491,11 +514,7 @@ public class Logger {
                 }
             } else {
                 try {
-                    if (recordCaller) {
-                        LogManager.getLogger(getCallerClassName()).fatal(format(message, args));
-                    } else {
-                        log4j.fatal(format(message, args));
-                    }
+                    log4j(org.apache.logging.log4j.Level.FATAL, null, message, args);
                 } catch (Throwable ex) {
                     log4j.error("Oops. Error in Logger !", ex);
                 }
@@ -522,11 +541,7 @@ public class Logger {
             } else {
                 try {
                     if (!niceThrowable(org.apache.logging.log4j.Level.FATAL, e, message, args)) {
-                        if (recordCaller) {
-                            LogManager.getLogger(getCallerClassName()).fatal(format(message, args), e);
-                        } else {
-                            log4j.fatal(format(message, args), e);
-                        }
+                        log4j(org.apache.logging.log4j.Level.FATAL, e, message, args);
                     }
                 } catch (Throwable ex) {
                     log4j.error("Oops. Error in Logger !", ex);
@@ -607,7 +622,7 @@ public class Logger {
                 if (forceJuli || log4j == null) {
                     juli.log(toJuliLevel(level.toString()), sw.toString(), e);
                 } else if (recordCaller) {
-                    LogManager.getLogger(getCallerClassName(5)).log(level, sw.toString(), e);
+                    callerLogger().log(level, sw.toString(), e);
                 } else {
                     log4j.log(level, sw.toString(), e);
                 }
@@ -635,47 +650,64 @@ public class Logger {
     }
 
     /**
-     * Info about the logger caller
+     * Hand a message to log4j without formatting it first. Templates that only
+     * use {@code %s}, with arguments log4j renders as {@code %s} does, go
+     * through log4j's parameterized messages, which are reused per thread and
+     * only rendered by the appenders that accept the event; other templates
+     * become a {@link StringFormattedMessage}, which still formats lazily.
      */
-    static class CallInfo {
-
-        public String className;
-        public String methodName;
-
-        public CallInfo() {
-        }
-
-        public CallInfo(String className, String methodName) {
-            this.className = className;
-            this.methodName = methodName;
+    private static void log4j(org.apache.logging.log4j.Level level, Throwable e, String message, Object... args) {
+        org.apache.logging.log4j.Logger logger = recordCaller ? callerLogger() : log4j;
+        if (args == null || args.length == 0) {
+            logger.log(level, message, e);
+            return;
+        }
+        LogTemplate template = LogTemplate.of(message);
+        if (template.placeholders() != args.length || !LogTemplate.rendersAlike(args)) {
+            logger.log(level, new StringFormattedMessage(message, args), e);
+        } else if (e == null) {
+            logger.log(level, template.pattern(), args);
+        } else {
+            // A trailing Throwable beyond the placeholders is logged as the event's exception.
+            Object[] withThrowable = Arrays.copyOf(args, args.length + 1);
+            withThrowable[args.length] = e;
+            logger.log(level, template.pattern(), withThrowable);
         }
     }
 
     /**
-     * @return the className of the class actually logging the message
+     * The logger named after the class that called {@code Logger}, looked up
+     * once per class.
      */
-    static String getCallerClassName() {
-        int level = 5;
-        return getCallerClassName(level);
+    static org.apache.logging.log4j.Logger callerLogger() {
+        return CALLER_LOGGERS.get(getCallerClass());
     }
 
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+
+    private static final ClassValue<org.apache.logging.log4j.Logger> CALLER_LOGGERS = new ClassValue<>() {
+        @Override
+        protected org.apache.logging.log4j.Logger computeValue(Class<?> type) {
+            return LogManager.getLogger(type.getName());
+        }
+    };
+
     /**
-     * @return the className of the class actually logging the message
+     * @return the class actually logging the message: the first frame outside
+     *         this class. Only the frames up to it are walked.
      */
-    static String getCallerClassName(int level) {
-        CallInfo ci = getCallerInformation(level);
-        return ci.className;
+    static Class<?> getCallerClass() {
+        return STACK_WALKER.walk(frames -> frames.map(StackWalker.StackFrame::getDeclaringClass)
+                .filter(type -> type != Logger.class)
+                .findFirst()
+                .orElse(Logger.class));
     }
 
     /**
-     * Examine stack trace to get caller
-     * @param level method stack depth
-     * @return who called the logger
+     * @return the className of the class actually logging the message
      */
-    static CallInfo getCallerInformation(int level) {
-        StackTraceElement[] callStack = Thread.currentThread().getStackTrace();
-        StackTraceElement caller = callStack[level];
-        return new CallInfo(caller.getClassName(), caller.getMethodName());
+    static String getCallerClassName() {
+        return getCallerClass().getName();
     }
 
     /**
@@ -693,12 +725,31 @@ public class Logger {
             String format = Play.configuration.getProperty("application.log.format", "text");
             String defaultPath = "json".equalsIgnoreCase(format) ? "/log4j-json.properties" : "/log4j.xml";
             String log4jPath = Play.configuration.getProperty("application.log.path", defaultPath);
-            log4jConf = Logger.class.getResource(log4jPath);
+            log4jConf = resource(log4jPath);
             if (log4jConf == null) { // try again with the .properties
                 String fallback = "json".equalsIgnoreCase(format) ? "/log4j-json.properties" : "/log4j.properties";
                 log4jPath = Play.configuration.getProperty("application.log.path", fallback);
-                log4jConf = Logger.class.getResource(log4jPath);
+                log4jConf = resource(log4jPath);
+            }
+        }
+
+        /**
+         * The application's conf/ copy of a resource wins over the framework's
+         * even when conf/ is not first on the classpath, as in a launch with a
+         * class data sharing archive, which needs every jar before it.
+         */
+        private static URL resource(String path) {
+            if (Play.applicationPath != null) {
+                File file = new File(Play.applicationPath, "conf/" + (path.startsWith("/") ? path.substring(1) : path));
+                if (file.isFile()) {
+                    try {
+                        return file.toURI().toURL();
+                    } catch (MalformedURLException e) {
+                        // Fall back to the classpath
+                    }
+                }
             }
+            return Logger.class.getResource(path);
         }
 
         public URL getLog4jConf() {
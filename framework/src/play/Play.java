@@ -25,6 +25,7 @@ import java.util.regex.Pattern;
 import play.cache.Caches;
 import play.classloading.ApplicationClasses;
 import play.classloading.ApplicationClassloader;
+import play.classloading.ClassIndex;
 import play.deps.DependenciesManager;
 import play.exceptions.PlayException;
 import play.exceptions.RestartNeededException;
@@ -35,6 +36,7 @@ import play.mvc.Router;
 import play.plugins.PluginCollection;
 import play.templates.TemplateLoader;
 import play.utils.OrderSafeProperties;
+import play.vfs.ChangeTracker;
 import play.vfs.VirtualFile;
 
 /**
@@ -75,6 +77,11 @@ public class Play {
      * Is the application started
      */
     public static boolean started = false;
+    /**
+     * In DEV mode, tells {@link #detectChanges()} whether the sources changed
+     * since they were last checked; null when they are checked on each request
+     */
+    private static volatile ChangeTracker changeTracker;
     /**
      * True when the one and only shutdown hook is enabled
      */
@@ -695,6 +702,10 @@ public class Play {
             // Reload configuration
             readConfiguration();
 
+            if (mode == Mode.DEV) {
+                trackChanges();
+            }
+
             // Configure logs
             String logLevel = configuration.getProperty("application.log", "INFO");
             // only override log-level if Logger was not configured manually
@@ -762,8 +773,8 @@ public class Play {
                 }
             }
 
-            // Try to load all classes
-            Play.classloader.getAllClasses();
+            // Try to load all classes (a precompiled application with a class index loads them on demand)
+            Play.classloader.initClasses();
 
             // Routes
             Router.detectChanges(ctxPath);
@@ -876,7 +887,7 @@ public class Play {
     static boolean preCompile() {
         if (usePrecompiled) {
             if (Play.getFile("precompiled").exists()) {
-                classloader.getAllClasses();
+                classloader.initClasses();
                 Logger.info("Application is precompiled");
                 return true;
             }
@@ -889,6 +900,10 @@ public class Play {
             Thread.currentThread().setContextClassLoader(Play.classloader);
             long start = System.currentTimeMillis();
             classloader.getAllClasses();
+            if (System.getProperty("precompile") != null) {
+                ClassIndex.build(getFile("precompiled/java")).write(getFile(ClassIndex.PATH));
+                pluginCollection.onPrecompile();
+            }
 
             if (Logger.isTraceEnabled()) {
                 Logger.trace("%sms to precompile the Java stuff", System.currentTimeMillis() - start);
@@ -924,11 +939,17 @@ public class Play {
         if (mode == Mode.PROD) {
             return;
         }
+        ChangeTracker tracker = changeTracker;
+        if (tracker != null && started && !tracker.hasChanges()) {
+            return;
+        }
         detectChangesLocked();
     }
 
     private static synchronized void detectChangesLocked() {
         try {
+            ChangeTracker tracker = changeTracker;
+            long events = tracker == null ? 0 : tracker.settle();
             pluginCollection.beforeDetectingChanges();
             if (!pluginCollection.detectClassesChange()) {
                 classloader.detectChanges();
@@ -938,6 +959,9 @@ public class Play {
             if (!Play.started) {
                 throw new RestartNeededException("Not started");
             }
+            if (tracker != null) {
+                tracker.checked(events);
+            }
         } catch (PlayException e) {
             throw e;
         } catch (RestartNeededException e) {
@@ -955,6 +979,53 @@ public class Play {
         }
     }
 
+    /**
+     * The sources {@link #detectChanges()} checks: the Java and template paths,
+     * each root's conf directory and the directories of the configuration
+     * files.
+     */
+    static Set<File> trackedDirectories() {
+        Set<File> dirs = new LinkedHashSet<>();
+        for (VirtualFile path : javaPath) {
+            dirs.add(path.getRealFile());
+        }
+        for (VirtualFile path : templatesPath) {
+            dirs.add(path.getRealFile());
+        }
+        for (VirtualFile root : roots) {
+            dirs.add(root.child("conf").getRealFile());
+        }
+        for (VirtualFile conf : confs) {
+            dirs.add(conf.getRealFile().getParentFile());
+        }
+        dirs.remove(null);
+        return dirs;
+    }
+
+    private static void trackChanges() {
+        ChangeTracker previous = changeTracker;
+        changeTracker = null;
+        if (previous != null) {
+            try {
+                previous.close();
+            } catch (IOException e) {
+                Logger.debug("Cannot close the change tracker: %s", e);
+            }
+        }
+        if (!Boolean.parseBoolean(configuration.getProperty("play.watcher", "true"))) {
+            return;
+        }
+        try {
+            long debounce = Long.parseLong(configuration.getProperty("play.watcher.debounce", "50").trim());
+            changeTracker = ChangeTracker.watch(trackedDirectories(), debounce);
+            if (changeTracker == null) {
+                Logger.debug("No native file watching on this platform, checking the sources on each request");
+            }
+        } catch (IOException e) {
+            Logger.warn(e, "Cannot watch the sources, checking them on each request");
+        }
+    }
+
     public static <T extends PlayPlugin> T plugin(Class<T> clazz) {
         return pluginCollection.getPluginInstance(clazz);
     }
@@ -46,6 +46,16 @@ public abstract class PlayPlugin implements Comparable<PlayPlugin> {
         return false;
     }
 
+    /**
+     * Called by {@code play precompile} once the application classes are compiled, to write
+     * whatever the plugin needs to the {@code precompiled/} directory.
+     * 
+     * @throws java.lang.Exception
+     *             if precompilation must fail
+     */
+    public void onPrecompile() throws Exception {
+    }
+
     /**
      * Run a test class
      * 
@@ -192,6 +202,18 @@ public abstract class PlayPlugin implements Comparable<PlayPlugin> {
     public void enhance(ApplicationClass applicationClass) throws Exception {
     }
 
+    /**
+     * Whether {@link #enhance(ApplicationClass)} may run for several classes at
+     * once: the application classes are enhanced on {@code play.compiler.threads}
+     * threads, but the enhancements of a plugin that does not opt in run one at
+     * a time.
+     *
+     * @return true if {@link #enhance(ApplicationClass)} is thread-safe
+     */
+    public boolean enhancesConcurrently() {
+        return false;
+    }
+
     /**
      * This hook is not plugged, don't implement it
      * 
@@ -0,0 +1,17 @@
+package play;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * How long an action, the actions of a controller or a job may run, as the
+ * {@link Deadline} of their invocation. Example, @TimeLimit("10s") or
+ * @TimeLimit("500ms")
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.TYPE, ElementType.METHOD })
+public @interface TimeLimit {
+    String value();
+}
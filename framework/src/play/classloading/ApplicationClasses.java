@@ -182,9 +182,10 @@ public class ApplicationClasses {
          */
         public byte[] javaByteCode;
         /**
-         * The enhanced byteCode
+         * The enhanced byteCode. Volatile: classes are enhanced in parallel,
+         * and an enhancer reads the bytecode of the other classes it refers to.
          */
-        public byte[] enhancedByteCode;
+        public volatile byte[] enhancedByteCode;
         /**
          * The in JVM loaded class
          */
@@ -201,6 +202,10 @@ public class ApplicationClasses {
          * Is this class compiled
          */
         boolean compiled;
+        /**
+         * Is {@link #enhancedByteCode} the enhancement of the current {@link #javaByteCode}
+         */
+        volatile boolean enhanced;
         /**
          * Signatures checksum
          */
@@ -229,11 +234,13 @@ public class ApplicationClasses {
             this.javaByteCode = null;
             this.enhancedByteCode = null;
             this.compiled = false;
+            this.enhanced = false;
             this.timestamp = 0L;
         }
 
-        static final ClassPool enhanceChecker_classPool = Enhancer.newClassPool();
-        static final CtClass ctPlayPluginClass = enhanceChecker_classPool.makeClass(PlayPlugin.class.getName());
+        // One pool per thread: classes are enhanced in parallel at startup, see ApplicationClassloader#enhanceAll.
+        static final ThreadLocal<ClassPool> enhanceChecker_classPool = ThreadLocal.withInitial(Enhancer::newClassPool);
+        static final CtClass ctPlayPluginClass = Enhancer.newClassPool().makeClass(PlayPlugin.class.getName());
 
         /**
          * Enhance this class
@@ -253,7 +260,7 @@ public class ApplicationClasses {
                 // as the other (soon to be) enhanced play-app-classes.
                 boolean shouldEnhance = true;
                 try {
-                    CtClass ctClass = enhanceChecker_classPool.makeClass(new ByteArrayInputStream(this.enhancedByteCode));
+                    CtClass ctClass = enhanceChecker_classPool.get().makeClass(new ByteArrayInputStream(this.enhancedByteCode));
                     if (ctClass.subclassOf(ctPlayPluginClass)) {
                         shouldEnhance = false;
                     }
@@ -267,7 +274,7 @@ public class ApplicationClasses {
                 // ever enhanced, which becomes unbounded heap growth across hot-reload
                 // cycles in DEV mode.
                 try {
-                    CtClass probe = enhanceChecker_classPool.getOrNull(this.name);
+                    CtClass probe = enhanceChecker_classPool.get().getOrNull(this.name);
                     if (probe != null) probe.detach();
                 } catch (Throwable ignored) {
                     // Best-effort: missing class, pool issues — don't fail enhancement.
@@ -277,6 +284,7 @@ public class ApplicationClasses {
                     Play.pluginCollection.enhance(this);
                 }
             }
+            this.enhanced = true;
             // precompile compiles test/ sources too (so a broken test fails the
             // build), but test classes must NOT land in precompiled/java/ — that
             // dir is packaged into the prod dist/bundle and force-loaded at startup
@@ -374,6 +382,7 @@ public class ApplicationClasses {
             javaByteCode = code;
             enhancedByteCode = code;
             compiled = true;
+            enhanced = false;
             this.timestamp = this.javaFile.lastModified();
         }
 
@@ -25,6 +25,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import play.Logger;
 import play.Play;
@@ -173,7 +178,8 @@ public class ApplicationClassloader extends ClassLoader {
             if (applicationClass.isDefinable()) {
                 return applicationClass.javaClass;
             }
-            byte[] bc = BytecodeCache.getBytecode(name, applicationClass.javaSource);
+            byte[] bc = applicationClass.enhanced ? applicationClass.enhancedByteCode
+                    : BytecodeCache.getBytecode(name, applicationClass.javaSource);
 
             if (Logger.isTraceEnabled()) {
                 Logger.trace("Compiling code for %s", name);
@@ -437,7 +443,14 @@ public class ApplicationClassloader extends ClassLoader {
             if (Play.usePrecompiled) {
 
                 List<ApplicationClass> applicationClasses = new ArrayList<>();
-                scanPrecompiled(applicationClasses, "", Play.getVirtualFile("precompiled/java"));
+                ClassIndex index = classIndex();
+                if (index != null) {
+                    for (String name : index.classNames()) {
+                        applicationClasses.add(new ApplicationClass(name));
+                    }
+                } else {
+                    scanPrecompiled(applicationClasses, "", Play.getVirtualFile("precompiled/java"));
+                }
                 Play.classes.clear();
                 for (ApplicationClass applicationClass : applicationClasses) {
                     Play.classes.add(applicationClass);
@@ -467,6 +480,8 @@ public class ApplicationClassloader extends ClassLoader {
 
                 }
 
+                enhanceAll();
+
                 for (ApplicationClass applicationClass : Play.classes.all()) {
                     Class<?> clazz = loadApplicationClass(applicationClass.name);
                     if (clazz != null) {
@@ -477,22 +492,150 @@ public class ApplicationClassloader extends ClassLoader {
                 result.sort(Comparator.comparing(Class::getName));
             }
 
-            Map<String, ApplicationClass> byNormalizedName = new HashMap<>(result.size());
-            for (ApplicationClass clazz : Play.classes.all()) {
-                byNormalizedName.put(clazz.name.toLowerCase(), clazz);
-                if (clazz.name.contains("$")) {
-                    byNormalizedName.put(clazz.name.toLowerCase().replace('$', '.'), clazz);
+            allClassesByNormalizedName = byNormalizedName();
+            allClasses = unmodifiableList(result);
+        }
+        return allClasses;
+    }
+
+    /**
+     * Enhance the compiled classes not defined yet, on {@code play.compiler.threads}
+     * threads, before {@link #getAllClasses()} defines them one by one. A class
+     * whose source, Play version and plugins are unchanged since it was last
+     * enhanced is read from the {@link BytecodeCache} instead.
+     */
+    private void enhanceAll() {
+        List<ApplicationClass> pending = new ArrayList<>();
+        for (ApplicationClass applicationClass : Play.classes.all()) {
+            if (applicationClass.javaClass == null && applicationClass.javaByteCode != null && !applicationClass.enhanced) {
+                pending.add(applicationClass);
+            }
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        int threads = Math.min(ApplicationCompiler.threads(), pending.size());
+        AtomicInteger fromCache = new AtomicInteger();
+        if (threads <= 1) {
+            for (ApplicationClass applicationClass : pending) {
+                enhance(applicationClass, fromCache);
+            }
+        } else {
+            ExecutorService executor = Executors.newFixedThreadPool(threads,
+                    Thread.ofPlatform().name("play-enhancer-", 0).daemon().factory());
+            try {
+                List<Future<?>> futures = new ArrayList<>(pending.size());
+                for (ApplicationClass applicationClass : pending) {
+                    futures.add(executor.submit(() -> enhance(applicationClass, fromCache)));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
                 }
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                if (e.getCause() instanceof Error error) {
+                    throw error;
+                }
+                throw new UnexpectedException(e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new UnexpectedException(e);
+            } finally {
+                executor.shutdownNow();
             }
+        }
+        Logger.info("%s classes enhanced in %s ms on %s threads, %s from the bytecode cache%s", pending.size(),
+                System.currentTimeMillis() - start, threads, fromCache.get(), timings(EnhancerTimings.drain()));
+    }
 
-            allClassesByNormalizedName = unmodifiableMap(byNormalizedName);
-            allClasses = unmodifiableList(result);
+    private static void enhance(ApplicationClass applicationClass, AtomicInteger fromCache) {
+        // precompile must run the enhancers: they write precompiled/java
+        byte[] cached = System.getProperty("precompile") != null ? null
+                : BytecodeCache.getBytecode(applicationClass.name, applicationClass.javaSource);
+        if (cached != null) {
+            applicationClass.enhancedByteCode = cached;
+            applicationClass.enhanced = true;
+            fromCache.incrementAndGet();
+        } else {
+            applicationClass.enhance();
+            BytecodeCache.cacheBytecode(applicationClass.enhancedByteCode, applicationClass.name, applicationClass.javaSource);
         }
-        return allClasses;
+    }
+
+    private static String timings(String timings) {
+        return timings.isEmpty() ? "" : " (" + timings + ")";
     }
 
     private List<Class<?>> allClasses;
-    private Map<String, ApplicationClass> allClassesByNormalizedName;
+    private volatile Map<String, ApplicationClass> allClassesByNormalizedName;
+
+    private static Map<String, ApplicationClass> byNormalizedName() {
+        Map<String, ApplicationClass> byNormalizedName = new HashMap<>();
+        for (ApplicationClass clazz : Play.classes.all()) {
+            byNormalizedName.put(clazz.name.toLowerCase(), clazz);
+            if (clazz.name.contains("$")) {
+                byNormalizedName.put(clazz.name.toLowerCase().replace('$', '.'), clazz);
+            }
+        }
+        return unmodifiableMap(byNormalizedName);
+    }
+
+    /**
+     * Make every application class known. A precompiled application with a
+     * {@link ClassIndex} only registers its classes, which are then loaded as
+     * they are asked for; otherwise all classes are compiled and loaded, as by
+     * {@link #getAllClasses()}.
+     */
+    public void initClasses() {
+        if (classIndex() == null) {
+            getAllClasses();
+        }
+    }
+
+    /**
+     * The class index of a precompiled application, read and registered in
+     * {@link Play#classes} on first use; null when not precompiled or when
+     * {@code play precompile} wrote no index.
+     */
+    private ClassIndex classIndex() {
+        if (!Play.usePrecompiled) {
+            return null;
+        }
+        if (!classIndexRead) {
+            synchronized (this) {
+                if (!classIndexRead) {
+                    ClassIndex index = ClassIndex.read(Play.getFile(ClassIndex.PATH));
+                    if (index != null) {
+                        Play.classes.clear();
+                        for (String name : index.classNames()) {
+                            Play.classes.add(new ApplicationClass(name));
+                        }
+                        allClassesByNormalizedName = byNormalizedName();
+                    }
+                    classIndex = index;
+                    classIndexRead = true;
+                }
+            }
+        }
+        return classIndex;
+    }
+
+    private volatile boolean classIndexRead;
+    private ClassIndex classIndex;
+
+    private List<Class<?>> loadIndexed(List<String> names) {
+        List<Class<?>> results = new ArrayList<>(names.size());
+        for (String name : names) {
+            Class<?> clazz = loadApplicationClass(name);
+            if (clazz != null) {
+                results.add(clazz);
+            }
+        }
+        return results;
+    }
 
     /**
      * Retrieve all application classes assignable to this class.
@@ -505,6 +648,11 @@ public class ApplicationClassloader extends ClassLoader {
         if (clazz == null) {
             return Collections.emptyList();
         }
+        ClassIndex index = classIndex();
+        if (index != null) {
+            return assignableClassesByName.computeIfAbsent(clazz.getName(),
+                    className -> unmodifiableList(loadIndexed(index.assignableTo(clazz, getParent()))));
+        }
         getAllClasses();
         return assignableClassesByName.computeIfAbsent(clazz.getName(), className -> {
             List<ApplicationClass> assignableClasses = Play.classes.getAssignableClasses(clazz);
@@ -527,11 +675,13 @@ public class ApplicationClassloader extends ClassLoader {
      * @return a class
      */
     public Class<?> getClassIgnoreCase(String name) {
-        getAllClasses();
+        if (classIndex() == null) {
+            getAllClasses();
+        }
         String nameLowerCased = name.toLowerCase();
         ApplicationClass c = allClassesByNormalizedName.get(nameLowerCased);
         if (c != null) {
-            if (Play.usePrecompiled) {
+            if (Play.usePrecompiled && c.javaClass != null) {
                 return c.javaClass;
             }
             return loadApplicationClass(c.name);
@@ -547,6 +697,10 @@ public class ApplicationClassloader extends ClassLoader {
      * @return A list of class
      */
     public List<Class<?>> getAnnotatedClasses(Class<? extends Annotation> clazz) {
+        ClassIndex index = classIndex();
+        if (index != null) {
+            return loadIndexed(index.annotatedWith(clazz, getParent()));
+        }
         getAllClasses();
         List<Class<?>> results = new ArrayList<>();
         for (ApplicationClass c : Play.classes.getAnnotatedClasses(clazz)) {
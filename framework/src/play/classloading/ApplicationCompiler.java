@@ -49,6 +49,15 @@ public class ApplicationCompiler {
     final ApplicationClasses applicationClasses;
     final Map<String, String> settings;
 
+    /**
+     * The threads used to compile and enhance the application classes:
+     * {@code play.compiler.threads}, by default one per available processor.
+     */
+    static int threads() {
+        String threads = Play.configuration.getProperty("play.compiler.threads");
+        return threads == null ? Runtime.getRuntime().availableProcessors() : Math.max(1, Integer.parseInt(threads.trim()));
+    }
+
     /**
      * Try to guess the magic configuration options
      *
@@ -321,6 +330,10 @@ public class ApplicationCompiler {
             }
         };
 
+        // Read and parse the next sources while the current ones are resolved
+        // and generated, unless a single thread is all there is
+        jdtCompiler.useSingleThread = threads() <= 1;
+
         // Go !
         jdtCompiler.compile(compilationUnits);
 
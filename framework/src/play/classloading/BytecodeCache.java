@@ -161,12 +161,20 @@ public class BytecodeCache {
     /**
      * Build a hash of the source code.
      * To efficiently track source code modifications.
+     *
+     * The enhancer chain is part of the hash: the enabled plugins and, when
+     * their jar declares one, their version, so upgrading a module that
+     * enhances classes invalidates the bytecode it enhanced.
      */
     static String hash(String text) {
         try {
             StringBuilder plugins = new StringBuilder();
             for(PlayPlugin plugin : Play.pluginCollection.getEnabledPlugins()) {
                 plugins.append(plugin.getClass().getName());
+                Package pluginPackage = plugin.getClass().getPackage();
+                if (pluginPackage != null && pluginPackage.getImplementationVersion() != null) {
+                    plugins.append('@').append(pluginPackage.getImplementationVersion());
+                }
             }
             MessageDigest messageDigest = MessageDigest.getInstance("MD5");
             messageDigest.reset();
@@ -0,0 +1,239 @@
+package play.classloading;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.annotation.Annotation;
+import java.lang.annotation.Inherited;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javassist.bytecode.AnnotationsAttribute;
+import javassist.bytecode.ClassFile;
+import play.Logger;
+import play.classloading.ApplicationClasses.ApplicationClass;
+
+/**
+ * The supertypes and runtime-visible class annotations of every precompiled
+ * application class, written by {@code play precompile} next to
+ * {@code precompiled/java}.
+ *
+ * <p>A precompiled application starting with an index does not load its
+ * classes up front: {@link ApplicationClassloader#getAssignableClasses} and
+ * {@link ApplicationClassloader#getAnnotatedClasses} answer from the index
+ * and load only the classes they return (jobs, entities, binders...). The
+ * index is read from the class files themselves, so it cannot disagree with
+ * them; delete it to fall back to loading every class at startup.
+ *
+ * <p>The file is plain text, one class per line: the class name, its
+ * superclass, its interfaces and its annotations, separated by tabs, lists
+ * separated by commas.
+ */
+public final class ClassIndex {
+
+    /** Where the index lives, relative to the application path. */
+    public static final String PATH = "precompiled/class-index";
+
+    private static final String HEADER = "# play class index v1";
+
+    private final Map<String, Entry> entries;
+
+    private ClassIndex(Map<String, Entry> entries) {
+        this.entries = entries;
+    }
+
+    record Entry(String name, String superclass, List<String> interfaces, List<String> annotations) {
+    }
+
+    /**
+     * Index the class files under {@code classesDir}.
+     */
+    public static ClassIndex build(File classesDir) throws IOException {
+        List<Entry> scanned = new ArrayList<>();
+        scan(classesDir, scanned);
+        scanned.sort((a, b) -> a.name.compareTo(b.name));
+        Map<String, Entry> entries = new LinkedHashMap<>();
+        for (Entry entry : scanned) {
+            entries.put(entry.name, entry);
+        }
+        return new ClassIndex(entries);
+    }
+
+    private static void scan(File file, List<Entry> entries) throws IOException {
+        if (file.isDirectory()) {
+            File[] children = file.listFiles();
+            if (children != null) {
+                for (File child : children) {
+                    scan(child, entries);
+                }
+            }
+        } else if (file.getName().endsWith(".class") && !file.getName().startsWith(".")) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+                ClassFile classFile = new ClassFile(in);
+                List<String> annotations = new ArrayList<>();
+                if (classFile.getAttribute(AnnotationsAttribute.visibleTag) instanceof AnnotationsAttribute visible) {
+                    for (javassist.bytecode.annotation.Annotation annotation : visible.getAnnotations()) {
+                        annotations.add(annotation.getTypeName());
+                    }
+                }
+                entries.add(new Entry(classFile.getName(), classFile.getSuperclass(),
+                        List.of(classFile.getInterfaces()), annotations));
+            }
+        }
+    }
+
+    /**
+     * Write the index to {@code file}.
+     */
+    public void write(File file) throws IOException {
+        file.getAbsoluteFile().getParentFile().mkdirs();
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8))) {
+            out.println(HEADER);
+            for (Entry entry : entries.values()) {
+                out.print(entry.name);
+                out.print('\t');
+                out.print(entry.superclass == null ? "" : entry.superclass);
+                out.print('\t');
+                out.print(String.join(",", entry.interfaces));
+                out.print('\t');
+                out.println(String.join(",", entry.annotations));
+            }
+        }
+    }
+
+    /**
+     * Read the index at {@code file}, or null if there is none or it cannot
+     * be read.
+     */
+    public static ClassIndex read(File file) {
+        if (!file.isFile()) {
+            return null;
+        }
+        try (BufferedReader in = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            if (!HEADER.equals(in.readLine())) {
+                Logger.warn("Ignoring %s: unknown format", file);
+                return null;
+            }
+            Map<String, Entry> entries = new LinkedHashMap<>();
+            String line;
+            while ((line = in.readLine()) != null) {
+                String[] fields = line.split("\t", -1);
+                if (fields.length != 4) {
+                    Logger.warn("Ignoring %s: malformed line %s", file, line);
+                    return null;
+                }
+                entries.put(fields[0], new Entry(fields[0], fields[1].isEmpty() ? null : fields[1], list(fields[2]), list(fields[3])));
+            }
+            return new ClassIndex(entries);
+        } catch (IOException e) {
+            Logger.warn(e, "Cannot read the class index %s", file);
+            return null;
+        }
+    }
+
+    private static List<String> list(String field) {
+        return field.isEmpty() ? List.of() : Arrays.asList(field.split(","));
+    }
+
+    /**
+     * The names of the indexed classes, sorted.
+     */
+    public List<String> classNames() {
+        return Collections.unmodifiableList(new ArrayList<>(entries.keySet()));
+    }
+
+    /**
+     * The indexed classes assignable to {@code type}, other than {@code type}
+     * itself. Supertypes that are not application classes are resolved,
+     * without being initialized, through {@code loader}.
+     */
+    public List<String> assignableTo(Class<?> type, ClassLoader loader) {
+        Map<String, Boolean> assignable = new HashMap<>();
+        List<String> results = new ArrayList<>();
+        for (Entry entry : entries.values()) {
+            if (ApplicationClass.isClass(entry.name) && !entry.name.equals(type.getName())
+                    && isAssignable(entry.name, type, loader, assignable)) {
+                results.add(entry.name);
+            }
+        }
+        return results;
+    }
+
+    private boolean isAssignable(String name, Class<?> type, ClassLoader loader, Map<String, Boolean> known) {
+        if (name.equals(type.getName())) {
+            return true;
+        }
+        Boolean cached = known.get(name);
+        if (cached != null) {
+            return cached;
+        }
+        known.put(name, false);
+        boolean result = false;
+        Entry entry = entries.get(name);
+        if (entry == null) {
+            Class<?> external = resolve(name, loader);
+            result = external != null && type.isAssignableFrom(external);
+        } else if (entry.superclass != null && isAssignable(entry.superclass, type, loader, known)) {
+            result = true;
+        } else {
+            for (String iface : entry.interfaces) {
+                if (isAssignable(iface, type, loader, known)) {
+                    result = true;
+                    break;
+                }
+            }
+        }
+        known.put(name, result);
+        return result;
+    }
+
+    /**
+     * The indexed classes annotated with {@code annotation}, including
+     * subclasses of annotated classes when the annotation is
+     * {@link Inherited}.
+     */
+    public List<String> annotatedWith(Class<? extends Annotation> annotation, ClassLoader loader) {
+        boolean inherited = annotation.isAnnotationPresent(Inherited.class);
+        List<String> results = new ArrayList<>();
+        for (Entry entry : entries.values()) {
+            if (ApplicationClass.isClass(entry.name) && isAnnotated(entry, annotation, inherited, loader)) {
+                results.add(entry.name);
+            }
+        }
+        return results;
+    }
+
+    private boolean isAnnotated(Entry entry, Class<? extends Annotation> annotation, boolean inherited, ClassLoader loader) {
+        if (entry.annotations.contains(annotation.getName())) {
+            return true;
+        }
+        if (!inherited || entry.superclass == null) {
+            return false;
+        }
+        Entry superclass = entries.get(entry.superclass);
+        if (superclass != null) {
+            return isAnnotated(superclass, annotation, true, loader);
+        }
+        Class<?> external = resolve(entry.superclass, loader);
+        return external != null && external.isAnnotationPresent(annotation);
+    }
+
+    private static Class<?> resolve(String name, ClassLoader loader) {
+        try {
+            return Class.forName(name, false, loader);
+        } catch (ClassNotFoundException | LinkageError e) {
+            return null;
+        }
+    }
+}
@@ -15,6 +15,7 @@ import javassist.bytecode.annotation.Annotation;
 import javassist.expr.ExprEditor;
 import javassist.expr.FieldAccess;
 import javassist.expr.Handler;
+import play.InvocationLocal;
 import play.Logger;
 import play.classloading.ApplicationClasses.ApplicationClass;
 import play.exceptions.UnexpectedException;
@@ -24,7 +25,7 @@ import play.exceptions.UnexpectedException;
  */
 public class ControllersEnhancer extends Enhancer {
 
-    public static final ThreadLocal<Stack<String>> currentAction = new ThreadLocal<>();
+    public static final ThreadLocal<Stack<String>> currentAction = new InvocationLocal<>();
 
     @Override
     public void enhanceThisClass(final ApplicationClass applicationClass) throws Exception {
@@ -5,11 +5,13 @@ import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
 
 import javax.sql.DataSource;
 import javax.sql.RowSet;
@@ -18,8 +20,13 @@ import javax.sql.rowset.RowSetProvider;
 
 import org.hibernate.internal.SessionImpl;
 
+import play.Deadline;
 import play.Logger;
+import play.db.helper.JdbcCursor;
+import play.db.helper.JdbcResultFactories;
+import play.db.helper.JdbcResultFactory;
 import play.db.jpa.JPA;
+import play.exceptions.ConfigurationException;
 import play.exceptions.DatabaseException;
 
 /**
@@ -215,6 +222,7 @@ public class DB {
         try {
             statement = getConnection(name).createStatement();
             if (statement != null) {
+                Deadline.bound(statement);
                 return statement.execute(SQL);
             }
         } catch (SQLException ex) {
@@ -255,7 +263,8 @@ public class DB {
      *            the DB name
      * @param SQL
      *            the SQL statement
-     * @return The rowSet of the query
+     * @return The rowSet of the query, fully loaded in memory
+     * @see #stream(String, String, Class, Object...)
      */
     public static RowSet executeQuery(String name, String SQL) {
         Statement statement = null;
@@ -263,6 +272,7 @@ public class DB {
         try {
             statement = getConnection(name).createStatement();
             if (statement != null) {
+                Deadline.bound(statement);
                 rs = statement.executeQuery(SQL);
             }
 
@@ -280,6 +290,80 @@ public class DB {
         }
     }
 
+    /**
+     * Execute an SQL query and stream its rows, mapped to {@code resultClass},
+     * without materializing the result. Prefer this over
+     * {@link #executeQuery(String, String)} for large reports. The stream must
+     * be closed:
+     *
+     * <pre>
+     * try (Stream&lt;OrderLine&gt; lines = DB.stream("reports", "select * from order_line where year = ?", OrderLine.class, 2024)) {
+     *     lines.forEach(csv::write);
+     * }
+     * </pre>
+     *
+     * @param name
+     *            the DB name
+     * @param SQL
+     *            the SQL statement, with {@code ?} placeholders
+     * @param resultClass
+     *            a boxed primitive for single-column results, otherwise a class
+     *            with public fields named after the column labels
+     * @param params
+     *            the placeholder values
+     * @return a lazily populated stream of rows
+     * @see JdbcCursor
+     */
+    public static <T> Stream<T> stream(String name, String SQL, Class<T> resultClass, Object... params) {
+        return executeStreamingQuery(name, SQL, JdbcResultFactories.build(resultClass), params).stream();
+    }
+
+    /**
+     * Stream the rows of an SQL query on the default DB.
+     *
+     * @see #stream(String, String, Class, Object...)
+     */
+    public static <T> Stream<T> stream(String SQL, Class<T> resultClass, Object... params) {
+        return stream(DEFAULT, SQL, resultClass, params);
+    }
+
+    /**
+     * Execute an SQL query on the current thread's connection and return a
+     * forward-only cursor over its rows, fetched {@code db.streaming.fetchSize}
+     * rows at a time (default {@value #DEFAULT_STREAMING_FETCH_SIZE}).
+     *
+     * @param name
+     *            the DB name
+     * @param SQL
+     *            the SQL statement, with {@code ?} placeholders
+     * @param factory
+     *            maps each row
+     * @param params
+     *            the placeholder values
+     * @return an open cursor; the caller must close it
+     */
+    public static <T> JdbcCursor<T> executeStreamingQuery(String name, String SQL, JdbcResultFactory<T> factory, Object... params) {
+        try {
+            return JdbcCursor.open(getConnection(name), SQL, Arrays.asList(params), streamingFetchSize(name), factory);
+        } catch (SQLException ex) {
+            throw new DatabaseException(ex.getMessage(), ex);
+        }
+    }
+
+    static final int DEFAULT_STREAMING_FETCH_SIZE = 500;
+
+    static int streamingFetchSize(String name) {
+        String value = new Configuration(name).getProperty("db.streaming.fetchSize");
+        if (value == null || value.isBlank()) {
+            return DEFAULT_STREAMING_FETCH_SIZE;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new ConfigurationException("Invalid db.streaming.fetchSize for db " + name + ": " + value);
+        }
+    }
+
     public static void safeCloseResultSet(ResultSet resultSet) {
         if (resultSet != null) {
             try {
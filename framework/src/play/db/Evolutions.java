@@ -12,6 +12,12 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.Stack;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
 
 import org.apache.commons.lang3.StringUtils;
 
@@ -21,6 +27,7 @@ import play.PlayPlugin;
 import play.classloading.ApplicationClasses;
 import play.classloading.ApplicationClassloader;
 import play.db.evolutions.Evolution;
+import play.db.evolutions.EvolutionManifest;
 import play.db.evolutions.EvolutionQuery;
 import play.db.evolutions.EvolutionState;
 import play.db.evolutions.exceptions.InconsistentDatabase;
@@ -30,6 +37,7 @@ import play.libs.IO;
 import play.mvc.Http.Request;
 import play.mvc.Http.Response;
 import play.mvc.results.Redirect;
+import play.utils.VirtualThreadFactory;
 import play.vfs.VirtualFile;
 
 /**
@@ -440,8 +448,8 @@ public class Evolutions extends PlayPlugin {
         // Look over all the DB
         Set<String> dBNames = Configuration.getDbNames();
         boolean result = true;
-        for (String dbName : dBNames) {
-            if (!applyScript(dbName, runScript, moduleKey, evolutionsDirectory)) {
+        for (boolean applied : forEachDatabase(dBNames, dbName -> apply(dbName, runScript, moduleKey, evolutionsDirectory))) {
+            if (!applied) {
                 result = false;
             }
         }
@@ -449,11 +457,15 @@ public class Evolutions extends PlayPlugin {
     }
 
     public static synchronized boolean applyScript(String dbName, boolean runScript, String moduleKey, VirtualFile evolutionsDirectory) {
+        return apply(dbName, runScript, moduleKey, evolutionsDirectory);
+    }
+
+    private static boolean apply(String dbName, boolean runScript, String moduleKey, VirtualFile evolutionsDirectory) {
         try {
             Connection connection = EvolutionQuery.getNewConnection(dbName, Evolutions.autoCommit());
             int applying = -1;
             try {
-                List<Evolution> evolutions = getEvolutionScript(dbName, moduleKey, evolutionsDirectory);
+                List<Evolution> evolutions = evolutionScript(dbName, moduleKey, evolutionsDirectory);
                 for (Evolution evolution : evolutions) {
                     applying = evolution.revision;
                     EvolutionQuery.apply(connection, runScript, evolution, moduleKey);
@@ -509,19 +521,26 @@ public class Evolutions extends PlayPlugin {
 
     public static synchronized void checkEvolutionsState() {
         // Look over all the DB
-        Set<String> dBNames = Configuration.getDbNames();
-        for (String dbName : dBNames) {
-            if (!isDatabaseEvolutionDisabled(dbName)) {
-                checkEvolutionsState(dbName);
-            }
-        }
+        Set<String> dBNames = new TreeSet<>(Configuration.getDbNames());
+        dBNames.removeIf(Evolutions::isDatabaseEvolutionDisabled);
+        forEachDatabase(dBNames, dbName -> {
+            check(dbName);
+            return null;
+        });
     }
 
     public static synchronized void checkEvolutionsState(String dbName) {
+        check(dbName);
+    }
+
+    private static void check(String dbName) {
         for (Entry<String, VirtualFile> moduleRoot : modulesWithEvolutions.entrySet()) {
 
             if (DB.getDataSource(dbName) != null) {
-                List<Evolution> evolutionScript = getEvolutionScript(dbName, moduleRoot.getKey(), moduleRoot.getValue());
+                if (isUpToDate(dbName, moduleRoot.getKey(), moduleRoot.getValue())) {
+                    continue;
+                }
+                List<Evolution> evolutionScript = evolutionScript(dbName, moduleRoot.getKey(), moduleRoot.getValue());
                 Connection connection = null;
                 ResultSet resultSet = null;
                 try {
@@ -556,9 +575,71 @@ public class Evolutions extends PlayPlugin {
         }
     }
 
+    /**
+     * Fast path of the evolutions check: compares the hash manifest of the
+     * module's scripts (re-parsed only when the directory changed) with
+     * {@code play_evolutions} in a single query. A false answer only means
+     * the full check is needed to find out what differs; it is also the
+     * answer when the evolutions table does not exist yet.
+     */
+    public static boolean isUpToDate(String dbName, String moduleKey, VirtualFile evolutionsDirectory) {
+        EvolutionManifest manifest = EvolutionManifest.of(dbName, moduleKey, evolutionsDirectory.getRealFile(),
+                () -> applicationEvolutions(dbName, moduleKey, evolutionsDirectory));
+        try (Connection connection = EvolutionQuery.getNewConnection(dbName)) {
+            return manifest.matches(EvolutionQuery.getAppliedHashes(connection, moduleKey));
+        } catch (SQLException e) {
+            Logger.trace("Evolutions fast check unavailable for %s: %s", dbName, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Runs {@code task} for every database and returns the results in the
+     * order of {@code dbNames}. Databases are independent of each other, so
+     * with more than one they are handled concurrently on virtual threads,
+     * unless {@code evolutions.parallel=false}. If a task fails, the failure
+     * of the first database in order is rethrown once all have finished.
+     */
+    private static <T> List<T> forEachDatabase(Set<String> dbNames, Function<String, T> task) {
+        List<T> results = new ArrayList<>();
+        if (dbNames.size() < 2 || "false".equals(Play.configuration.getProperty("evolutions.parallel", "true"))) {
+            for (String dbName : dbNames) {
+                results.add(task.apply(dbName));
+            }
+            return results;
+        }
+        List<Future<T>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newThreadPerTaskExecutor(new VirtualThreadFactory("evolutions"))) {
+            for (String dbName : dbNames) {
+                futures.add(executor.submit(() -> task.apply(dbName)));
+            }
+        }
+        for (Future<T> future : futures) {
+            try {
+                results.add(future.get());
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException re) {
+                    throw re;
+                }
+                if (e.getCause() instanceof Error err) {
+                    throw err;
+                }
+                throw new UnexpectedException(e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new UnexpectedException(e);
+            }
+        }
+        return results;
+    }
+
     public static synchronized List<Evolution> getEvolutionScript(String dbName, String moduleKey, VirtualFile evolutionsDirectory) {
-        Stack<Evolution> app = listApplicationEvolutions(dbName, moduleKey, evolutionsDirectory);
-        Stack<Evolution> db = listDatabaseEvolutions(dbName, moduleKey);
+        return evolutionScript(dbName, moduleKey, evolutionsDirectory);
+    }
+
+    private static List<Evolution> evolutionScript(String dbName, String moduleKey, VirtualFile evolutionsDirectory) {
+        Stack<Evolution> app = applicationEvolutions(dbName, moduleKey, evolutionsDirectory);
+        Stack<Evolution> db = databaseEvolutions(dbName, moduleKey);
         List<Evolution> downs = new ArrayList<>();
         List<Evolution> ups = new ArrayList<>();
 
@@ -589,6 +670,10 @@ public class Evolutions extends PlayPlugin {
 
     public static synchronized Stack<Evolution> listApplicationEvolutions(String dBName, String moduleKey,
             VirtualFile evolutionsDirectory) {
+        return applicationEvolutions(dBName, moduleKey, evolutionsDirectory);
+    }
+
+    private static Stack<Evolution> applicationEvolutions(String dBName, String moduleKey, VirtualFile evolutionsDirectory) {
         Stack<Evolution> evolutions = new Stack<>();
         evolutions.add(new Evolution("", 0, "", "", true));
         if (evolutionsDirectory.exists()) {
@@ -657,6 +742,10 @@ public class Evolutions extends PlayPlugin {
     }
 
     public static synchronized Stack<Evolution> listDatabaseEvolutions(String dbName, String moduleKey) {
+        return databaseEvolutions(dbName, moduleKey);
+    }
+
+    private static Stack<Evolution> databaseEvolutions(String dbName, String moduleKey) {
         Stack<Evolution> evolutions = new Stack<>();
         evolutions.add(new Evolution("", 0, "", "", false));
         Connection connection = null;
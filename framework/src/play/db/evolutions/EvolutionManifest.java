@@ -0,0 +1,88 @@
+package play.db.evolutions;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * The revision → hash map of one module's evolution scripts for one database.
+ *
+ * <p>Parsing every {@code N.sql} file to learn whether anything changed is
+ * the expensive part of an evolutions check; in DEV mode it happens before
+ * every request. A manifest is therefore remembered per database, module and
+ * directory together with a stamp of the directory listing (file names,
+ * sizes and modification times), and the scripts are only parsed again once
+ * that stamp changes. Comparing the manifest with the {@code play_evolutions}
+ * table then takes a single query, see {@link EvolutionQuery#getAppliedHashes}.
+ */
+public final class EvolutionManifest {
+
+    private static final Map<String, EvolutionManifest> manifests = new ConcurrentHashMap<>();
+
+    private final String stamp;
+    private final Map<Integer, String> hashes;
+
+    private EvolutionManifest(String stamp, Map<Integer, String> hashes) {
+        this.stamp = stamp;
+        this.hashes = Collections.unmodifiableMap(hashes);
+    }
+
+    /**
+     * The manifest of {@code directory}, built from {@code evolutions} only
+     * when the directory changed since the last call for the same database
+     * and module.
+     */
+    public static EvolutionManifest of(String dbName, String moduleKey, File directory, Supplier<List<Evolution>> evolutions) {
+        String key = dbName + "|" + moduleKey + "|" + directory.getAbsolutePath();
+        String stamp = stamp(directory);
+        EvolutionManifest manifest = manifests.get(key);
+        if (manifest == null || !manifest.stamp.equals(stamp)) {
+            Map<Integer, String> hashes = new TreeMap<>();
+            for (Evolution evolution : evolutions.get()) {
+                if (evolution.revision > 0) {
+                    hashes.put(evolution.revision, evolution.hash);
+                }
+            }
+            manifest = new EvolutionManifest(stamp, hashes);
+            manifests.put(key, manifest);
+        }
+        return manifest;
+    }
+
+    public static void clear() {
+        manifests.clear();
+    }
+
+    /**
+     * Revision → SHA-1 of every script in the directory, in revision order.
+     */
+    public Map<Integer, String> hashes() {
+        return hashes;
+    }
+
+    /**
+     * True if {@code applied}, as read by {@link EvolutionQuery#getAppliedHashes},
+     * holds exactly the revisions and hashes of this manifest.
+     */
+    public boolean matches(Map<Integer, String> applied) {
+        return applied != null && hashes.equals(applied);
+    }
+
+    private static String stamp(File directory) {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return "";
+        }
+        Arrays.sort(files);
+        StringBuilder stamp = new StringBuilder();
+        for (File file : files) {
+            stamp.append(file.getName()).append(':').append(file.length()).append(':').append(file.lastModified()).append('\n');
+        }
+        return stamp.toString();
+    }
+}
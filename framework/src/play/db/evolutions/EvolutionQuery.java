@@ -6,6 +6,9 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
 
 import javax.sql.RowSet;
 import javax.sql.rowset.CachedRowSet;
@@ -19,10 +22,13 @@ import play.db.Configuration;
 import play.db.DB;
 import play.db.SQLSplitter;
 
+import play.exceptions.ConfigurationException;
 import play.exceptions.UnexpectedException;
 
 
 public class EvolutionQuery{
+
+    private static final Pattern DML = Pattern.compile("(insert|update|delete|merge)\\s", Pattern.CASE_INSENSITIVE);
     
     public static void createTable(String dbName) throws SQLException {
         // If you are having problems with the default datatype text (clob for Oracle), you can
@@ -132,15 +138,7 @@ public class EvolutionQuery{
        
         // Execute script
         if (runScript) {
-           for (CharSequence sql : new SQLSplitter((evolution.applyUp ? evolution.sql_up : evolution.sql_down))) {
-                String s = sql.toString().trim();
-                if (StringUtils.isEmpty(s)) {
-                    continue;
-                }              
-                try (java.sql.Statement st = connection.createStatement()) {
-                    st.execute(s);
-                }
-            }
+            executeScript(connection, evolution.applyUp ? evolution.sql_up : evolution.sql_down, batchSize());
         }
         // Insert into logs
         if (evolution.applyUp) {
@@ -158,6 +156,77 @@ public class EvolutionQuery{
         }
     }
     
+    /**
+     * Runs every statement of {@code script} in order. Consecutive DML
+     * statements ({@code insert}, {@code update}, {@code delete},
+     * {@code merge}) are sent as JDBC batches of up to {@code batchSize}
+     * statements, which turns a large data evolution into a handful of round
+     * trips; everything else is executed on its own. A {@code batchSize}
+     * below 2 runs each statement separately.
+     */
+    public static void executeScript(Connection connection, String script, int batchSize) throws SQLException {
+        try (Statement st = connection.createStatement()) {
+            int batched = 0;
+            for (CharSequence sql : new SQLSplitter(script)) {
+                String s = sql.toString().trim();
+                if (StringUtils.isEmpty(s)) {
+                    continue;
+                }
+                if (batchSize > 1 && DML.matcher(s).lookingAt()) {
+                    st.addBatch(s);
+                    if (++batched == batchSize) {
+                        st.executeBatch();
+                        batched = 0;
+                    }
+                    continue;
+                }
+                if (batched > 0) {
+                    st.executeBatch();
+                    batched = 0;
+                }
+                st.execute(s);
+            }
+            if (batched > 0) {
+                st.executeBatch();
+            }
+        }
+    }
+
+    /**
+     * {@code evolutions.batchSize}: how many consecutive DML statements of a
+     * script are sent in one JDBC batch. Disabled by default, since drivers
+     * differ in whether they keep going after a failed statement of a batch.
+     */
+    static int batchSize() {
+        String value = Play.configuration.getProperty("evolutions.batchSize", "0");
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new ConfigurationException("evolutions.batchSize must be a number, was: " + value);
+        }
+    }
+
+    /**
+     * Revision → hash of every evolution recorded for {@code moduleKey}, in
+     * one query. Returns null when a revision is still half-applied, since
+     * that state needs the full check to be reported.
+     */
+    public static Map<Integer, String> getAppliedHashes(Connection connection, String moduleKey) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("select id, hash, state from play_evolutions where module_key = ?")) {
+            statement.setString(1, moduleKey);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                Map<Integer, String> hashes = new TreeMap<>();
+                while (resultSet.next()) {
+                    if (!EvolutionState.APPLIED.getStateWord().equals(resultSet.getString(3))) {
+                        return null;
+                    }
+                    hashes.put(resultSet.getInt(1), resultSet.getString(2));
+                }
+                return hashes;
+            }
+        }
+    }
+
     public static void setProblem(Connection connection, int applying,
                                   String moduleKey, String message) throws SQLException {
         PreparedStatement ps = connection.prepareStatement("update play_evolutions set last_problem = ? where id = ? and module_key = ?");
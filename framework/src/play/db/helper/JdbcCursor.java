@@ -0,0 +1,97 @@
+package play.db.helper;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import play.Deadline;
+
+/**
+ * Forward-only, lazily mapped view over a query result. Unlike
+ * {@code DB.executeQuery}, which copies the whole result into a
+ * {@code CachedRowSet}, rows are fetched from the driver {@code fetchSize} at
+ * a time and mapped one by one as the caller iterates, so memory stays flat
+ * regardless of the result size.
+ *
+ * <p>The cursor owns its statement: it is closed, together with the result
+ * set, when iteration reaches the end or when {@link #close()} is called.
+ * Always use it in a try-with-resources block (or close the {@link #stream()})
+ * — an abandoned cursor keeps a server-side cursor open until the connection
+ * is released.
+ *
+ * <p>Drivers decide whether a fetch size is honoured. PostgreSQL, for one,
+ * only streams when the connection is not in auto-commit mode, i.e. inside a
+ * JPA transaction or on a connection from {@code DB.getConnection(name, false)};
+ * otherwise it still buffers the full result client-side.
+ */
+public class JdbcCursor<T> extends JdbcIterator<T> {
+
+    private PreparedStatement statement;
+
+    protected JdbcCursor(PreparedStatement statement, ResultSet result, JdbcResultFactory<T> factory) throws SQLException {
+        super(result, factory);
+        this.statement = statement;
+    }
+
+    /**
+     * Run {@code sql} on {@code connection} and return a cursor over its rows.
+     *
+     * @param fetchSize rows requested from the driver per round trip; {@code 0}
+     *                  leaves the driver default
+     */
+    public static <U> JdbcCursor<U> open(Connection connection, String sql, List<Object> params, int fetchSize,
+                                         JdbcResultFactory<U> factory) throws SQLException {
+        PreparedStatement pst = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        try {
+            if (fetchSize > 0) {
+                pst.setFetchSize(fetchSize);
+            }
+            int index = 0;
+            for (Object param : params) {
+                pst.setObject(++index, param);
+            }
+            Deadline.bound(pst);
+            return new JdbcCursor<>(pst, pst.executeQuery(), factory);
+        } catch (SQLException | RuntimeException ex) {
+            try {
+                pst.close();
+            } catch (SQLException suppressed) {
+                ex.addSuppressed(suppressed);
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * The remaining rows as a sequential {@link Stream}. Closing the stream
+     * closes this cursor.
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(this::close);
+    }
+
+    @Override
+    public void close() {
+        try {
+            super.close();
+        } finally {
+            if (statement != null) {
+                try {
+                    statement.close();
+                } catch (SQLException ex) {
+                    throw new RuntimeException(ex);
+                } finally {
+                    statement = null;
+                }
+            }
+        }
+    }
+
+}
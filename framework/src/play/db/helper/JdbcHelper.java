@@ -4,6 +4,7 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.List;
+import play.Deadline;
 import play.db.DB;
 
 public class JdbcHelper {
@@ -17,6 +18,7 @@ public class JdbcHelper {
         for (Object param : params) {
             pst.setObject(++index, param);
         }
+        Deadline.bound(pst);
         return pst.executeQuery();
     }
 
@@ -26,6 +28,7 @@ public class JdbcHelper {
         for (Object param : params) {
             pst.setObject(++index, param);
         }
+        Deadline.bound(pst);
         return pst.executeQuery();
     }
 
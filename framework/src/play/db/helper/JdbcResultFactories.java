@@ -1,5 +1,9 @@
 package play.db.helper;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
 import java.math.BigDecimal;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
@@ -7,6 +11,8 @@ import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class JdbcResultFactories {
 
@@ -115,10 +121,29 @@ public class JdbcResultFactories {
 
     }
 
+    /**
+     * Maps each row onto a new instance of {@code objectClass}, one public
+     * field per column (matched by label, falling back to a case-insensitive
+     * match). The reflective work — constructor and field lookup —
+     * is done once per class and kept in {@link #PLANS}; {@link #init} then
+     * binds each field to its column index once per result set, so
+     * {@link #create} is just a constructor call plus one {@code getObject}
+     * and one setter call per column.
+     */
     public static class ClassFactory<T> implements JdbcResultFactory<T> {
 
+        private static final ClassValue<ClassPlan> PLANS = new ClassValue<>() {
+            @Override
+            protected ClassPlan computeValue(Class<?> type) {
+                return new ClassPlan(type);
+            }
+        };
+
         private final Class<T> objectClass;
         private List<String> fields;
+        private MethodHandle constructor;
+        private MethodHandle[] setters;
+        private int[] columns;
 
         public ClassFactory(Class<T> objectClass, List<String> fields) {
             this.objectClass = objectClass;
@@ -127,32 +152,117 @@ public class JdbcResultFactories {
 
         @Override
         public void init(ResultSet result) throws SQLException {
+            ResultSetMetaData meta = result.getMetaData();
+            int count = meta.getColumnCount();
             if (fields == null) {
                 fields = new ArrayList<>();
-                ResultSetMetaData meta = result.getMetaData();
-                int count = meta.getColumnCount();
                 for (int i = 1; i <= count; i++) {
                     String label = meta.getColumnLabel(i);
                     if (!label.isEmpty()) fields.add(label);
                 }
             }
+            ClassPlan plan = PLANS.get(objectClass);
+            constructor = plan.constructor();
+            setters = new MethodHandle[fields.size()];
+            columns = new int[fields.size()];
+            for (int f = 0; f < fields.size(); f++) {
+                String field = fields.get(f);
+                setters[f] = plan.setter(field);
+                columns[f] = columnIndex(meta, count, field, result);
+            }
+        }
+
+        // Same lookup rule as ResultSet.getObject(String): first column whose label
+        // matches, ignoring case.
+        private static int columnIndex(ResultSetMetaData meta, int count, String field, ResultSet result) throws SQLException {
+            for (int i = 1; i <= count; i++) {
+                if (meta.getColumnLabel(i).equalsIgnoreCase(field)) return i;
+            }
+            return result.findColumn(field);
         }
 
+        @SuppressWarnings("unchecked")
         @Override
         public T create(ResultSet result) throws SQLException {
+            T obj;
             try {
-                T obj = objectClass.newInstance();
-                for (String field : fields) {
-                    Object value = result.getObject(field);
-                    if (value instanceof BigDecimal) value = ((BigDecimal) value).longValue();
-                    objectClass.getDeclaredField(field).set(obj, value);
-                }
-                return obj;
-            } catch (InstantiationException | NoSuchFieldException | IllegalAccessException ex) {
+                obj = (T) constructor.invoke();
+            } catch (RuntimeException | Error ex) {
+                throw ex;
+            } catch (Throwable ex) {
                 throw new RuntimeException(ex);
             }
+            for (int f = 0; f < setters.length; f++) {
+                Object value = result.getObject(columns[f]);
+                if (value instanceof BigDecimal) value = ((BigDecimal) value).longValue();
+                try {
+                    setters[f].invokeExact(obj, value);
+                } catch (ClassCastException | NullPointerException ex) {
+                    throw new IllegalArgumentException("Cannot set " + objectClass.getName() + "." + fields.get(f) + " to " + value, ex);
+                } catch (RuntimeException | Error ex) {
+                    throw ex;
+                } catch (Throwable ex) {
+                    throw new RuntimeException(ex);
+                }
+            }
+            return obj;
+        }
+
+    }
+
+    /**
+     * Per-class reflection results shared by every {@link ClassFactory} for
+     * that class. Setters are adapted to {@code (Object, Object)void} so they
+     * can be called with {@code invokeExact} without knowing the field type.
+     */
+    static final class ClassPlan {
+
+        private static final MethodType SETTER = MethodType.methodType(void.class, Object.class, Object.class);
+
+        private final Class<?> type;
+        private final Map<String, MethodHandle> setters = new ConcurrentHashMap<>();
+        private volatile MethodHandle constructor;
+
+        ClassPlan(Class<?> type) {
+            this.type = type;
+        }
+
+        MethodHandle constructor() {
+            MethodHandle c = constructor;
+            if (c == null) {
+                try {
+                    c = MethodHandles.publicLookup().findConstructor(type, MethodType.methodType(void.class))
+                            .asType(MethodType.methodType(Object.class));
+                } catch (NoSuchMethodException | IllegalAccessException ex) {
+                    throw new RuntimeException(ex);
+                }
+                constructor = c;
+            }
+            return c;
         }
 
+        MethodHandle setter(String field) {
+            return setters.computeIfAbsent(field, name -> {
+                try {
+                    return MethodHandles.publicLookup().unreflectSetter(field(name)).asType(SETTER);
+                } catch (NoSuchFieldException | IllegalAccessException ex) {
+                    throw new RuntimeException(ex);
+                }
+            });
+        }
+
+        // Exact match first; otherwise ignore case, since many databases report
+        // unquoted column labels upper-cased (H2, Oracle) or lower-cased (PostgreSQL).
+        private Field field(String name) throws NoSuchFieldException {
+            try {
+                return type.getDeclaredField(name);
+            } catch (NoSuchFieldException ex) {
+                for (Field f : type.getDeclaredFields()) {
+                    if (f.getName().equalsIgnoreCase(name)) return f;
+                }
+                throw ex;
+            }
+        }
     }
 
 }
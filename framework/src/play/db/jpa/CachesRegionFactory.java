@@ -0,0 +1,210 @@
+package play.db.jpa;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.cfg.spi.DomainDataRegionBuildingContext;
+import org.hibernate.cache.cfg.spi.DomainDataRegionConfig;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.cache.spi.support.RegionFactoryTemplate;
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import play.Logger;
+import play.Play;
+import play.cache.Cache;
+import play.cache.CacheConfig;
+import play.cache.Caches;
+import play.exceptions.ConfigurationException;
+import play.libs.Time;
+
+/**
+ * Hibernate second-level / query cache backed by the framework's own
+ * {@link Caches} registry (Caffeine by default), so entity, collection and
+ * query regions get the same W-TinyLFU eviction, the same Micrometer binding
+ * and the same dev-mode invalidation as every other named cache.
+ *
+ * <p>Enabled per persistence unit with {@code jpa.cache.enabled=true} — see
+ * {@link JPAPlugin#properties}. Each region becomes the named cache
+ * {@code jpa.<db>.<region>} (so a {@code cache} metric tag reads e.g.
+ * {@code jpa.default.models.Country}) and is sized from:
+ *
+ * <pre>
+ * jpa.cache.maxSize=10000                            # default for every region
+ * jpa.cache.expireAfterWrite=1h                      # optional, Play duration syntax
+ * jpa.cache.expireAfterAccess=10min                  # optional
+ * jpa.cache.region.models.Country.maxSize=500        # per-region overrides
+ * jpa.cache.region.models.Country.expireAfterWrite=24h
+ * jpa.cache.invalidation.broadcaster=app.RedisRegionBroadcaster
+ * </pre>
+ *
+ * <p>The update-timestamps region ignores size and TTL settings: evicting a
+ * timestamp would make Hibernate serve stale query results.
+ *
+ * <p>Because {@link Caches#named} is idempotent per name, region settings are
+ * read once per JVM; a dev-mode reload keeps the existing caches (emptied by
+ * {@link CachesStorageAccess#release()}) and a config change needs a restart.
+ */
+public class CachesRegionFactory extends RegionFactoryTemplate {
+
+    /** Hibernate setting carrying the owning persistence unit's name; set by {@link JPAPlugin}. */
+    public static final String DB_NAME = "play.jpa.cache.db";
+
+    static final String PREFIX = "jpa.cache.";
+    static final String REGION_PREFIX = PREFIX + "region.";
+    static final long DEFAULT_MAX_SIZE = 10_000;
+
+    /**
+     * Every live region in the JVM, by cache name, so
+     * {@link #applyRemoteEviction} can route an event from another node without
+     * the caller knowing which SessionFactory owns it.
+     */
+    private static final ConcurrentMap<String, LiveRegion> liveRegions = new ConcurrentHashMap<>();
+
+    private record LiveRegion(CachesRegionFactory factory, CachesStorageAccess storage) {}
+
+    private String dbName;
+    private Map<String, Object> settings;
+    private RegionInvalidationBroadcaster broadcaster;
+
+    @Override
+    protected void prepareForUse(SessionFactoryOptions options, Map<String, Object> configValues) {
+        this.settings = configValues;
+        Object db = configValues.get(DB_NAME);
+        this.dbName = db == null ? JPA.DEFAULT : db.toString();
+        this.broadcaster = newBroadcaster(setting(PREFIX + "invalidation.broadcaster"));
+    }
+
+    @Override
+    protected void releaseFromUse() {
+        liveRegions.values().removeIf(r -> r.factory == this);
+        broadcaster = null;
+    }
+
+    @Override
+    protected DomainDataStorageAccess createDomainDataStorageAccess(DomainDataRegionConfig regionConfig,
+                                                                   DomainDataRegionBuildingContext buildingContext) {
+        return register(regionConfig.getRegionName(), false);
+    }
+
+    @Override
+    protected StorageAccess createQueryResultsRegionStorageAccess(String regionName, SessionFactoryImplementor sessionFactory) {
+        return register(regionName, false);
+    }
+
+    @Override
+    protected StorageAccess createTimestampsRegionStorageAccess(String regionName, SessionFactoryImplementor sessionFactory) {
+        return register(regionName, true);
+    }
+
+    /**
+     * Name under which {@code regionName} of persistence unit {@code dbName}
+     * is registered in {@link Caches}.
+     */
+    public static String cacheName(String dbName, String regionName) {
+        return "jpa." + dbName + "." + regionName;
+    }
+
+    /**
+     * Apply an entry eviction received from another node. Never re-broadcasts.
+     * For the update-timestamps region the entry is bumped to "now" instead of
+     * removed, which conservatively invalidates every cached query over that
+     * table space. Unknown cache names are ignored — the region may simply not
+     * exist on this node.
+     */
+    public static void applyRemoteEviction(String cacheName, Object key) {
+        LiveRegion region = liveRegions.get(cacheName);
+        if (region == null) {
+            return;
+        }
+        if (region.storage.isTimestamps()) {
+            region.storage.cache().put(key, region.factory.nextTimestamp());
+        } else {
+            region.storage.cache().invalidate(key);
+        }
+    }
+
+    /**
+     * Apply a whole-region eviction received from another node. Never
+     * re-broadcasts.
+     */
+    public static void applyRemoteEvictAll(String cacheName) {
+        LiveRegion region = liveRegions.get(cacheName);
+        if (region != null) {
+            region.storage.cache().invalidateAll();
+        }
+    }
+
+    /**
+     * True if the region factory in use for {@code dbName} is this class, i.e.
+     * its regions live in {@link Caches}.
+     */
+    static boolean ownsRegionsOf(String dbName) {
+        for (LiveRegion r : liveRegions.values()) {
+            if (dbName.equals(r.factory.dbName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private CachesStorageAccess register(String regionName, boolean timestamps) {
+        String name = cacheName(dbName, regionName);
+        Cache<Object, Object> cache = Caches.named(name, regionConfig(regionName, timestamps));
+        CachesStorageAccess storage = new CachesStorageAccess(name, cache, timestamps, broadcaster);
+        liveRegions.put(name, new LiveRegion(this, storage));
+        return storage;
+    }
+
+    CacheConfig regionConfig(String regionName, boolean timestamps) {
+        CacheConfig.Builder builder = CacheConfig.newBuilder().recordStats(true);
+        if (timestamps) {
+            return builder.build();
+        }
+        String regionPrefix = REGION_PREFIX + regionName + ".";
+
+        String maxSize = setting(regionPrefix + "maxSize", setting(PREFIX + "maxSize"));
+        try {
+            builder.maximumSize(maxSize == null ? DEFAULT_MAX_SIZE : Long.parseLong(maxSize.trim()));
+        } catch (NumberFormatException e) {
+            throw new ConfigurationException("Invalid " + regionPrefix + "maxSize for db " + dbName + ": " + maxSize);
+        }
+        String expireAfterWrite = setting(regionPrefix + "expireAfterWrite", setting(PREFIX + "expireAfterWrite"));
+        if (expireAfterWrite != null) {
+            builder.expireAfterWrite(Duration.ofSeconds(Time.parseDuration(expireAfterWrite.trim())));
+        }
+        String expireAfterAccess = setting(regionPrefix + "expireAfterAccess", setting(PREFIX + "expireAfterAccess"));
+        if (expireAfterAccess != null) {
+            builder.expireAfterAccess(Duration.ofSeconds(Time.parseDuration(expireAfterAccess.trim())));
+        }
+        return builder.build();
+    }
+
+    private String setting(String key) {
+        return setting(key, null);
+    }
+
+    private String setting(String key, String defaultValue) {
+        Object value = settings == null ? null : settings.get(key);
+        return value == null || value.toString().isBlank() ? defaultValue : value.toString();
+    }
+
+    private RegionInvalidationBroadcaster newBroadcaster(String className) {
+        if (className == null) {
+            return null;
+        }
+        try {
+            ClassLoader loader = Play.classloader != null ? Play.classloader : getClass().getClassLoader();
+            Class<?> clazz = Class.forName(className.trim(), true, loader);
+            RegionInvalidationBroadcaster b = (RegionInvalidationBroadcaster) clazz.getDeclaredConstructor().newInstance();
+            Logger.info("JPA cache -> region invalidations for db=%s broadcast via %s", dbName, className);
+            return b;
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            throw new ConfigurationException("Cannot instantiate " + PREFIX + "invalidation.broadcaster " + className
+                    + " for db " + dbName + ": " + e);
+        }
+    }
+}
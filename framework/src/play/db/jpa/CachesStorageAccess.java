@@ -0,0 +1,131 @@
+package play.db.jpa;
+
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import play.Logger;
+import play.cache.Cache;
+
+/**
+ * Hibernate storage adapter over a {@link Cache} obtained from
+ * {@code play.cache.Caches}. One instance per region; built by
+ * {@link CachesRegionFactory}.
+ *
+ * <p>Writes made by the access strategies ({@code putIntoCache} for
+ * inserts/updates/soft-locks, {@code removeFromCache}, {@code evictData}) are
+ * forwarded to the optional {@link RegionInvalidationBroadcaster}. Plain
+ * loads ({@code putFromLoad}) are not — a node that merely read a row from the
+ * database has nothing to tell the others.
+ */
+final class CachesStorageAccess implements DomainDataStorageAccess {
+
+    private final String cacheName;
+    private final Cache<Object, Object> cache;
+    private final boolean timestamps;
+    private final RegionInvalidationBroadcaster broadcaster;
+
+    CachesStorageAccess(String cacheName, Cache<Object, Object> cache, boolean timestamps,
+                        RegionInvalidationBroadcaster broadcaster) {
+        this.cacheName = cacheName;
+        this.cache = cache;
+        this.timestamps = timestamps;
+        this.broadcaster = broadcaster;
+    }
+
+    String cacheName() {
+        return cacheName;
+    }
+
+    Cache<Object, Object> cache() {
+        return cache;
+    }
+
+    /**
+     * True for the update-timestamps region. A remote eviction there must not
+     * simply drop the entry: Hibernate treats a missing timestamp as "never
+     * updated", which would let stale query results through.
+     */
+    boolean isTimestamps() {
+        return timestamps;
+    }
+
+    @Override
+    public Object getFromCache(Object key, SharedSessionContractImplementor session) {
+        return cache.getIfPresent(key);
+    }
+
+    @Override
+    public void putFromLoad(Object key, Object value, SharedSessionContractImplementor session) {
+        store(key, value);
+    }
+
+    @Override
+    public void putIntoCache(Object key, Object value, SharedSessionContractImplementor session) {
+        store(key, value);
+        broadcast(key);
+    }
+
+    @Override
+    public void removeFromCache(Object key, SharedSessionContractImplementor session) {
+        evictData(key);
+    }
+
+    @Override
+    public void clearCache(SharedSessionContractImplementor session) {
+        evictData();
+    }
+
+    @Override
+    public boolean contains(Object key) {
+        return cache.getIfPresent(key) != null;
+    }
+
+    @Override
+    public void evictData() {
+        cache.invalidateAll();
+        if (broadcaster != null) {
+            try {
+                broadcaster.evictAll(cacheName);
+            } catch (RuntimeException e) {
+                Logger.warn(e, "JPA cache -> invalidation broadcast failed for region %s", cacheName);
+            }
+        }
+    }
+
+    @Override
+    public void evictData(Object key) {
+        cache.invalidate(key);
+        broadcast(key);
+    }
+
+    /**
+     * Regions are owned by the {@code Caches} registry, not by the
+     * SessionFactory, so there is no handle to close. Entries are dropped
+     * instead: after a dev-mode reload they may reference classes from the
+     * discarded classloader.
+     */
+    @Override
+    public void release() {
+        cache.invalidateAll();
+    }
+
+    // Caffeine (and the Cache contract) reject null values; Hibernate never
+    // relies on a cached null, so treat it as a removal.
+    private void store(Object key, Object value) {
+        if (value == null) {
+            cache.invalidate(key);
+        } else {
+            cache.put(key, value);
+        }
+    }
+
+    private void broadcast(Object key) {
+        if (broadcaster == null) {
+            return;
+        }
+        try {
+            broadcaster.evict(cacheName, key);
+        } catch (RuntimeException e) {
+            Logger.warn(e, "JPA cache -> invalidation broadcast failed for region %s", cacheName);
+        }
+    }
+}
@@ -10,6 +10,8 @@ import jakarta.persistence.FlushModeType;
 import jakarta.persistence.PersistenceException;
 import jakarta.persistence.PersistenceUnit;
 
+import play.Deadline;
+import play.InvocationLocal;
 import play.Invoker.InvocationContext;
 import play.Invoker.Suspend;
 import play.Logger;
@@ -17,6 +19,7 @@ import play.Play;
 import play.db.DB;
 import play.exceptions.JPAException;
 import play.libs.F;
+import play.libs.Tracing;
 
 /**
  * JPA Support
@@ -24,7 +27,7 @@ import play.libs.F;
 public class JPA {
 
     protected static final Map<String, EntityManagerFactory> emfs = new ConcurrentHashMap<>();
-    public static final ThreadLocal<Map<String, JPAContext>> currentEntityManager = ThreadLocal.withInitial(ConcurrentHashMap::new);
+    public static final ThreadLocal<Map<String, JPAContext>> currentEntityManager = new InvocationLocal<>(ConcurrentHashMap::new);
     public static final String DEFAULT = "default";
 
     public static class JPAContext {
@@ -42,6 +45,11 @@ public class JPA {
          * HikariCP connection.
          */
         public boolean materialized = false;
+        /**
+         * Spans the transaction, from when the EntityManager was acquired to
+         * its commit or rollback.
+         */
+        public Tracing.Span span = Tracing.Span.NOOP;
     }
 
     public static boolean isInitialized() {
@@ -135,6 +143,11 @@ public class JPA {
         if (!jpaContext.materialized) {
             materialize(jpaContext);
         }
+        Deadline deadline = Deadline.current();
+        if (deadline != null && jpaContext.entityManager.isOpen()) {
+            // The queries created from here on time out when the invocation's deadline passes
+            jpaContext.entityManager.setProperty("jakarta.persistence.query.timeout", deadline.queryTimeoutSeconds() * 1000);
+        }
         return jpaContext.entityManager;
     }
 
@@ -148,6 +161,7 @@ public class JPA {
         if (jpaContext.materialized) {
             return;
         }
+        jpaContext.span = startSpan(jpaContext.dbName, jpaContext.readonly);
         EntityManager localEm = JPA.newEntityManager(jpaContext.dbName);
         jpaContext.entityManager = localEm;
         if (!jpaContext.readonly) {
@@ -156,6 +170,14 @@ public class JPA {
         jpaContext.materialized = true;
     }
 
+    private static Tracing.Span startSpan(String dbName, boolean readonly) {
+        Tracing.Span span = Tracing.startDetached("transaction", dbName, Tracing.Kind.INTERNAL);
+        if (span.isRecording()) {
+            span.attribute("db.namespace", dbName).attribute("play.jpa.readonly", readonly);
+        }
+        return span;
+    }
+
     /**
      * Bind an EntityManager to the current thread.
      * 
@@ -176,6 +198,9 @@ public class JPA {
         // end-of-request cleanup and isInsideTransaction see it as a real EM rather than a
         // placeholder waiting for first em() access.
         context.materialized = (em != null);
+        if (context.materialized) {
+            context.span = startSpan(name, readonly);
+        }
 
         // Get all our context for our current thread
         get().put(name, context);
@@ -493,11 +518,14 @@ public class JPA {
                 // Commit the transaction
                 if (manager.getTransaction().isActive()) {
                     if (JPA.get().get(name).readonly || manager.getTransaction().getRollbackOnly()) {
+                        jpaContext.span.attribute("play.jpa.outcome", "rollback");
                         manager.getTransaction().rollback();
                     } else {
+                        jpaContext.span.attribute("play.jpa.outcome", "commit");
                         try {
                             manager.getTransaction().commit();
                         } catch (Throwable e) {
+                            jpaContext.span.error(e);
                             for (int i = 0; i < 10; i++) {
                                 if (e instanceof PersistenceException && e.getCause() != null) {
                                     e = e.getCause();
@@ -516,6 +544,7 @@ public class JPA {
                 if (manager.isOpen()) {
                     manager.close();
                 }
+                jpaContext.span.end();
                 JPA.clearContext(name);
             }
         }
@@ -548,9 +577,11 @@ public class JPA {
                 }
                 // Commit the transaction
                 if (manager.getTransaction().isActive()) {
+                    jpaContext.span.attribute("play.jpa.outcome", "rollback");
                     try {
                         manager.getTransaction().rollback();
                     } catch (Throwable e) {
+                        jpaContext.span.error(e);
                         for (int i = 0; i < 10; i++) {
                             if (e instanceof PersistenceException && e.getCause() != null) {
                                 e = e.getCause();
@@ -569,6 +600,7 @@ public class JPA {
                 if (manager.isOpen()) {
                     manager.close();
                 }
+                jpaContext.span.end();
                 JPA.clearContext(name);
             }
         }
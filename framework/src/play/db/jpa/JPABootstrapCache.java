@@ -0,0 +1,142 @@
+package play.db.jpa;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Objects;
+import java.util.Properties;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.dialect.DatabaseVersion;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.jdbc.env.spi.ExtractedDatabaseMetaData;
+import org.hibernate.engine.jdbc.spi.JdbcServices;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import play.Logger;
+import play.Play;
+import play.db.Configuration;
+
+/**
+ * Remembers, per persistence unit, what Hibernate learned from the database
+ * while building the metamodel — the resolved dialect and the product
+ * name/version — under {@code Play.tmpDir/jpa/<db>.bootstrap}. On the next
+ * boot those values are handed straight back to Hibernate with
+ * {@code hibernate.boot.allow_jdbc_metadata_access=false}, so metadata
+ * building no longer opens a connection and walks {@code DatabaseMetaData}
+ * before the pool is even warm.
+ *
+ * <p>Opt-in with {@code jpa.bootstrap.cache=true}. Hibernate 7 has no
+ * supported way to serialize a built {@code Metadata}, so this is the part of
+ * metadata building that can safely be carried across runs. The entry is
+ * keyed on the JDBC url, user, driver, configured dialect and Hibernate
+ * version; any change discards it. It is never used while {@code jpa.ddl}
+ * is active, since schema management needs live metadata anyway.
+ */
+final class JPABootstrapCache {
+
+    static final String ENABLED = "jpa.bootstrap.cache";
+
+    private static final String FINGERPRINT = "fingerprint";
+    private static final String DIALECT = "dialect";
+    private static final String PRODUCT_NAME = "productName";
+    private static final String PRODUCT_VERSION = "productVersion";
+    private static final String MAJOR = "major";
+    private static final String MINOR = "minor";
+
+    private JPABootstrapCache() {
+    }
+
+    /**
+     * Feed a previously recorded entry into {@code properties}. Settings the
+     * application configured explicitly are left alone. Returns true if the
+     * cached entry was applied.
+     */
+    static boolean apply(String dbName, Configuration dbConfig, Properties properties) {
+        if (!usable(dbConfig, properties)) {
+            return false;
+        }
+        Properties cached = read(file(dbName));
+        if (cached == null || !fingerprint(dbConfig).equals(cached.getProperty(FINGERPRINT))) {
+            return false;
+        }
+        properties.putIfAbsent(AvailableSettings.DIALECT, cached.getProperty(DIALECT));
+        properties.putIfAbsent(AvailableSettings.JAKARTA_HBM2DDL_DB_NAME, cached.getProperty(PRODUCT_NAME));
+        properties.putIfAbsent(AvailableSettings.JAKARTA_HBM2DDL_DB_VERSION, cached.getProperty(PRODUCT_VERSION));
+        properties.putIfAbsent(AvailableSettings.JAKARTA_HBM2DDL_DB_MAJOR_VERSION, cached.getProperty(MAJOR));
+        properties.putIfAbsent(AvailableSettings.JAKARTA_HBM2DDL_DB_MINOR_VERSION, cached.getProperty(MINOR));
+        properties.putIfAbsent(AvailableSettings.ALLOW_METADATA_ON_BOOT, "false");
+        return true;
+    }
+
+    /**
+     * Record what {@code emf} resolved for the next boot. Skipped when the
+     * values came from the cache in the first place, or when tmp is read-only.
+     */
+    static void record(String dbName, Configuration dbConfig, Properties properties, EntityManagerFactory emf) {
+        if (!usable(dbConfig, properties) || Play.readOnlyTmp || "false".equals(properties.get(AvailableSettings.ALLOW_METADATA_ON_BOOT))) {
+            return;
+        }
+        try {
+            JdbcServices jdbc = emf.unwrap(SessionFactoryImplementor.class).getJdbcServices();
+            Dialect dialect = jdbc.getDialect();
+            DatabaseVersion version = dialect.getVersion();
+            ExtractedDatabaseMetaData metaData = jdbc.getExtractedMetaDataSupport();
+
+            Properties entry = new Properties();
+            entry.setProperty(FINGERPRINT, fingerprint(dbConfig));
+            entry.setProperty(DIALECT, dialect.getClass().getName());
+            entry.setProperty(PRODUCT_NAME, Objects.toString(metaData.getDatabaseProductName(), ""));
+            entry.setProperty(PRODUCT_VERSION, Objects.toString(metaData.getDatabaseProductVersion(), ""));
+            entry.setProperty(MAJOR, String.valueOf(version.getDatabaseMajorVersion()));
+            entry.setProperty(MINOR, String.valueOf(version.getDatabaseMinorVersion()));
+            if (entry.equals(read(file(dbName)))) {
+                return;
+            }
+            File file = file(dbName);
+            file.getParentFile().mkdirs();
+            try (OutputStream out = new FileOutputStream(file)) {
+                entry.store(out, "JPA bootstrap cache for db " + dbName);
+            }
+        } catch (Exception e) {
+            Logger.debug("JPA -> could not record bootstrap cache for db=%s: %s", dbName, e.getMessage());
+        }
+    }
+
+    static File file(String dbName) {
+        return new File(Play.tmpDir, "jpa/" + dbName + ".bootstrap");
+    }
+
+    static String fingerprint(Configuration dbConfig) {
+        return String.join("|",
+                Objects.toString(dbConfig.getProperty("db.url"), ""),
+                Objects.toString(dbConfig.getProperty("db.user"), ""),
+                Objects.toString(dbConfig.getProperty("db.driver"), ""),
+                Objects.toString(dbConfig.getProperty("jpa.dialect"), ""),
+                org.hibernate.Version.getVersionString());
+    }
+
+    private static boolean usable(Configuration dbConfig, Properties properties) {
+        return Boolean.parseBoolean(dbConfig.getProperty(ENABLED, "false"))
+                && Play.tmpDir != null
+                && !properties.containsKey("hibernate.hbm2ddl.auto");
+    }
+
+    private static Properties read(File file) {
+        if (!file.isFile()) {
+            return null;
+        }
+        try (InputStream in = new FileInputStream(file)) {
+            Properties p = new Properties();
+            p.load(in);
+            return p;
+        } catch (IOException e) {
+            Logger.debug("JPA -> ignoring unreadable bootstrap cache %s: %s", file, e.getMessage());
+            return null;
+        }
+    }
+}
@@ -3,10 +3,15 @@ package play.db.jpa;
 import java.lang.annotation.Annotation;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
-import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
@@ -45,6 +50,7 @@ import play.db.DB;
 import play.db.Model;
 import play.exceptions.JPAException;
 import play.exceptions.UnexpectedException;
+import play.utils.VirtualThreadFactory;
 
 import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
@@ -113,6 +119,11 @@ public class JPAPlugin extends PlayPlugin {
         return null;
     }
 
+    @Override
+    public boolean enhancesConcurrently() {
+        return true;
+    }
+
     @Override
     public void enhance(ApplicationClass applicationClass) throws Exception {
         new JPAEnhancer().enhanceThisClass(applicationClass);
@@ -128,36 +139,110 @@ public class JPAPlugin extends PlayPlugin {
 
     /**
      * Reads the configuration file and initialises required JPA EntityManagerFactories.
+     *
+     * <p>Persistence units are independent of each other, so with more than one
+     * configured their factories are built concurrently (one virtual thread per
+     * unit; Hibernate's metadata building is the bulk of boot time for apps with
+     * several databases). Set {@code jpa.bootstrap.parallel=false} to build them
+     * one after another. Metrics binding and {@code JPA.emfs} registration stay
+     * on the calling thread, in {@code db} name order.
      */
     @Override
     public void onApplicationStart() {
         Configurator.setLevel("org.hibernate.SQL", Level.OFF);
 
-        Set<String> dBNames = Configuration.getDbNames();
-        for (String dbName : dBNames) {
+        Map<String, Configuration> dbConfigs = new LinkedHashMap<>();
+        for (String dbName : Configuration.getDbNames()) {
             Configuration dbConfig = new Configuration(dbName);
             
             if (dbConfig.getProperty("jpa.debugSQL", "false").equals("true")) {
                 Configurator.setLevel("org.hibernate.SQL", Level.ALL);
             }
+            dbConfigs.put(dbName, dbConfig);
+        }
 
-            Thread thread = Thread.currentThread();
-            ClassLoader contextClassLoader = thread.getContextClassLoader();
-            thread.setContextClassLoader(Play.classloader);
-            try {
+        Map<String, EntityManagerFactory> built = buildEntityManagerFactories(dbConfigs);
+        for (String dbName : dbConfigs.keySet()) {
+            JPA.emfs.put(dbName, built.get(dbName));
+            bindHibernateMetrics(dbName);
+            bindJCacheMetrics(dbName);
+            bindRegionCacheMetrics(dbName);
+        }
+        JPQL.instance = new JPQL();
+    }
 
-                if (Logger.isTraceEnabled()) {
-                    Logger.trace("Initializing JPA for %s...", dbName);
+    private Map<String, EntityManagerFactory> buildEntityManagerFactories(Map<String, Configuration> dbConfigs) {
+        Map<String, EntityManagerFactory> built = new HashMap<>();
+        boolean parallel = dbConfigs.size() > 1
+                && Boolean.parseBoolean(Play.configuration.getProperty("jpa.bootstrap.parallel", "true"));
+        if (!parallel) {
+            for (Map.Entry<String, Configuration> e : dbConfigs.entrySet()) {
+                built.put(e.getKey(), bootstrap(e.getKey(), e.getValue()));
+            }
+            return built;
+        }
+
+        long start = System.nanoTime();
+        Map<String, Future<EntityManagerFactory>> futures = new LinkedHashMap<>();
+        try (ExecutorService executor = Executors.newThreadPerTaskExecutor(new VirtualThreadFactory("jpa-bootstrap"))) {
+            for (Map.Entry<String, Configuration> e : dbConfigs.entrySet()) {
+                futures.put(e.getKey(), executor.submit(() -> bootstrap(e.getKey(), e.getValue())));
+            }
+        }
+        // The executor's close() has waited for every unit, so get() below never blocks.
+        Throwable failure = null;
+        for (Map.Entry<String, Future<EntityManagerFactory>> e : futures.entrySet()) {
+            try {
+                built.put(e.getKey(), e.getValue().get());
+            } catch (ExecutionException ex) {
+                if (failure == null) {
+                    failure = ex.getCause();
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                if (failure == null) {
+                    failure = ex;
                 }
-                
-                JPA.emfs.put(dbName, newEntityManagerFactory(dbName, dbConfig));
-                bindHibernateMetrics(dbName);
-                bindJCacheMetrics(dbName);
-            } finally {
-                thread.setContextClassLoader(contextClassLoader);
             }
         }
-        JPQL.instance = new JPQL();
+        if (failure != null) {
+            // Don't leak the units that did come up: their pools and caches would
+            // outlive the failed start.
+            for (EntityManagerFactory emf : built.values()) {
+                if (emf.isOpen()) {
+                    emf.close();
+                }
+            }
+            if (failure instanceof RuntimeException re) {
+                throw re;
+            }
+            if (failure instanceof Error err) {
+                throw err;
+            }
+            throw new JPAException("Cannot initialize JPA", failure);
+        }
+        Logger.info("JPA -> %d persistence units ready in %d ms", built.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return built;
+    }
+
+    private EntityManagerFactory bootstrap(String dbName, Configuration dbConfig) {
+        Thread thread = Thread.currentThread();
+        ClassLoader contextClassLoader = thread.getContextClassLoader();
+        thread.setContextClassLoader(Play.classloader);
+        try {
+
+            if (Logger.isTraceEnabled()) {
+                Logger.trace("Initializing JPA for %s...", dbName);
+            }
+            long start = System.nanoTime();
+            EntityManagerFactory emf = newEntityManagerFactory(dbName, dbConfig);
+            Logger.info("JPA -> persistence unit %s built in %d ms", dbName,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            return emf;
+        } finally {
+            thread.setContextClassLoader(contextClassLoader);
+        }
     }
 
     /**
@@ -274,6 +359,20 @@ public class JPAPlugin extends PlayPlugin {
         }
     }
 
+    /**
+     * Bind cache metrics for the regions {@link CachesRegionFactory} just
+     * created. {@code MetricsPlugin} (slot 30) already ran
+     * {@link play.cache.Caches#bindMetricsToRegistry} before any region
+     * existed, so the JPA regions need a second pass; caches already bound are
+     * re-attached idempotently. Hit ratios then surface per region as
+     * {@code cache_gets_total{cache="jpa.<db>.<region>",result=hit|miss}}.
+     */
+    private void bindRegionCacheMetrics(String dbName) {
+        if (CachesRegionFactory.ownsRegionsOf(dbName)) {
+            play.cache.Caches.bindMetricsToRegistry(Metrics.registry());
+        }
+    }
+
     private List<Class<?>> entityClasses(String dbName) {
         List<Class<?>> entityClasses = new ArrayList<>();
         
@@ -327,9 +426,11 @@ public class JPAPlugin extends PlayPlugin {
                 .buildValidatorFactory();
         configuration.put("jakarta.persistence.validation.factory", validatorFactory);
 
-        return new EntityManagerFactoryBuilderImpl(
+        EntityManagerFactory emf = new EntityManagerFactoryBuilderImpl(
                 new PersistenceUnitInfoDescriptor(persistenceUnitInfo), configuration
         ).build();
+        JPABootstrapCache.record(dbName, dbConfig, persistenceUnitInfo.getProperties(), emf);
+        return emf;
     }
 
     protected PersistenceUnitInfoImpl persistenceUnitInfo(String dbName, Configuration dbConfig) {
@@ -370,6 +471,19 @@ public class JPAPlugin extends PlayPlugin {
         // honored — putIfAbsent only sets when the user hasn't.
         properties.putIfAbsent("hibernate.generate_statistics", "true");
 
+        // Second-level and query cache on top of play.cache (see CachesRegionFactory).
+        // Opt-in per persistence unit; explicit hibernate.cache.* settings win.
+        if (Boolean.parseBoolean(dbConfig.getProperty("jpa.cache.enabled", "false"))) {
+            properties.putIfAbsent(AvailableSettings.CACHE_REGION_FACTORY, CachesRegionFactory.class.getName());
+            properties.putIfAbsent(AvailableSettings.USE_SECOND_LEVEL_CACHE, "true");
+            properties.putIfAbsent(AvailableSettings.USE_QUERY_CACHE, dbConfig.getProperty("jpa.cache.queries", "true"));
+            properties.put(CachesRegionFactory.DB_NAME, dbName);
+        }
+
+        if (JPABootstrapCache.apply(dbName, dbConfig, properties)) {
+            Logger.debug("JPA -> db=%s boots from cached dialect/database metadata", dbName);
+        }
+
         return properties;
     }
 
@@ -0,0 +1,39 @@
+package play.db.jpa;
+
+/**
+ * Cross-node invalidation hook for {@link CachesRegionFactory}. Hibernate's
+ * second-level cache is node-local, so in a cluster an entity updated on one
+ * node stays stale in every other node's region until it expires. Plug an
+ * implementation in via {@code jpa.cache.invalidation.broadcaster=<class>} to
+ * fan those writes out over whatever transport the application already runs
+ * (Redis pub/sub, Postgres {@code LISTEN/NOTIFY}, a message broker, ...).
+ *
+ * <p>The factory calls these methods after the local cache has been updated,
+ * on the thread that performed the write — implementations should hand off to
+ * their transport asynchronously rather than block a request. The receiving
+ * node applies the event through
+ * {@link CachesRegionFactory#applyRemoteEviction(String, Object)} or
+ * {@link CachesRegionFactory#applyRemoteEvictAll(String)}, which never
+ * re-broadcast, so a broadcaster does not need its own loop detection.
+ *
+ * <p>Keys are Hibernate cache keys. With the default keys factory they are
+ * {@link java.io.Serializable} and compare by value, so they can be shipped
+ * with plain Java serialization.
+ */
+public interface RegionInvalidationBroadcaster {
+
+    /**
+     * A single entry in {@code cacheName} was written or removed locally.
+     *
+     * @param cacheName the {@code play.cache.Caches} name of the region
+     *                  ({@code jpa.<db>.<region>})
+     * @param key       the Hibernate cache key
+     */
+    void evict(String cacheName, Object key);
+
+    /**
+     * Every entry in {@code cacheName} was dropped locally (e.g.
+     * {@code Cache.evictEntityData(Class)}).
+     */
+    void evictAll(String cacheName);
+}
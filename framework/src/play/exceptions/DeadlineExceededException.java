@@ -0,0 +1,18 @@
+package play.exceptions;
+
+public class DeadlineExceededException extends PlayException {
+
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+
+    @Override
+    public String getErrorTitle() {
+        return "Deadline exceeded";
+    }
+
+    @Override
+    public String getErrorDescription() {
+        return getMessage();
+    }
+}
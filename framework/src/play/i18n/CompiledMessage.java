@@ -0,0 +1,194 @@
+package play.i18n;
+
+import java.util.ArrayList;
+import java.util.Formattable;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import play.data.binding.Binder;
+
+/**
+ * A message pattern parsed once for {@link Messages}.
+ *
+ * <p>The numeric conversions of the arguments ({@code %d} binds its argument
+ * to a {@code Long}, {@code %f} to a {@code Double}) are found when the
+ * pattern is compiled instead of on every call. A pattern whose only format
+ * specifiers are {@code %s}, {@code %1$s}, {@code %%} and {@code %n} is kept
+ * as literal segments and argument slots and is formatted by concatenation;
+ * any other pattern is formatted by {@link String#format}, so the output is
+ * the same either way. Nested {@code &{key}} references are resolved after
+ * formatting, in the language of the current request, as before.
+ */
+final class CompiledMessage {
+
+    private static final Object[] NO_ARGS = new Object[] { null };
+    private static final int MAX_POSITION = 256;
+
+    // Same grammar as java.util.Formatter
+    private static final Pattern specifier = Pattern.compile("%(\\d+\\$)?([-#+ 0,(<]*)?(\\d+)?(\\.\\d+)?([tT])?([a-zA-Z%])");
+
+    private final String pattern;
+    private final Class<? extends Number>[] conversions;
+    /** Literal text around the slots, one more than the slots; null when String.format is needed. */
+    private final String[] literals;
+    /** The argument each slot prints. */
+    private final int[] slots;
+
+    private CompiledMessage(String pattern, Class<? extends Number>[] conversions, String[] literals, int[] slots) {
+        this.pattern = pattern;
+        this.conversions = conversions;
+        this.literals = literals;
+        this.slots = slots;
+    }
+
+    /**
+     * @return the message this was compiled from
+     */
+    String pattern() {
+        return pattern;
+    }
+
+    @SuppressWarnings("unchecked")
+    static CompiledMessage of(String pattern) {
+        if (pattern.indexOf('%') < 0) {
+            return new CompiledMessage(pattern, new Class[0], new String[] { pattern }, new int[0]);
+        }
+        Class<? extends Number>[] conversions = conversions(pattern);
+        List<String> literals = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        Matcher matcher = specifier.matcher(pattern);
+        int end = 0;
+        int ordinaryIndex = 0;
+        while (matcher.find()) {
+            if (pattern.indexOf('%', end) < matcher.start()) {
+                return formatted(pattern, conversions);
+            }
+            literal.append(pattern, end, matcher.start());
+            end = matcher.end();
+            String conversion = matcher.group(6);
+            boolean plain = isEmpty(matcher.group(2)) && matcher.group(3) == null && matcher.group(4) == null && matcher.group(5) == null;
+            if (!plain) {
+                return formatted(pattern, conversions);
+            }
+            if (conversion.equals("%") && matcher.group(1) == null) {
+                literal.append('%');
+            } else if (conversion.equals("n") && matcher.group(1) == null) {
+                literal.append(System.lineSeparator());
+            } else if (conversion.equals("s")) {
+                String explicitIndex = matcher.group(1);
+                if (explicitIndex != null && explicitIndex.length() > 10) {
+                    return formatted(pattern, conversions);
+                }
+                int index = explicitIndex == null ? ordinaryIndex++
+                        : Integer.parseInt(explicitIndex, 0, explicitIndex.length() - 1, 10) - 1;
+                if (index < 0) {
+                    return formatted(pattern, conversions);
+                }
+                literals.add(literal.toString());
+                literal.setLength(0);
+                slots.add(index);
+            } else {
+                return formatted(pattern, conversions);
+            }
+        }
+        if (pattern.indexOf('%', end) >= 0) {
+            return formatted(pattern, conversions);
+        }
+        literal.append(pattern, end, pattern.length());
+        literals.add(literal.toString());
+        return new CompiledMessage(pattern, conversions, literals.toArray(new String[0]),
+                slots.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    private static CompiledMessage formatted(String pattern, Class<? extends Number>[] conversions) {
+        return new CompiledMessage(pattern, conversions, null, null);
+    }
+
+    private static boolean isEmpty(String s) {
+        return s == null || s.isEmpty();
+    }
+
+    /**
+     * The argument positions bound to a number, as found by
+     * {@link Messages#formatterPattern}: {@code Long} for {@code %d},
+     * {@code Double} for {@code %f}.
+     */
+    @SuppressWarnings("unchecked")
+    private static Class<? extends Number>[] conversions(String pattern) {
+        List<Class<? extends Number>> conversions = new ArrayList<>();
+        Matcher matcher = Messages.formatterPattern.matcher(pattern);
+        int incrementalPosition = 1;
+        while (matcher.find()) {
+            String conversion = matcher.group(6);
+            int position = matcher.group(2) == null ? incrementalPosition++
+                    : matcher.group(2).length() > 9 ? 0 : Integer.parseInt(matcher.group(2));
+            Class<? extends Number> type = conversion.equals("d") ? Long.class : conversion.equals("f") ? Double.class : null;
+            if (type != null && position >= 1 && position <= MAX_POSITION) {
+                while (conversions.size() < position) {
+                    conversions.add(null);
+                }
+                conversions.set(position - 1, type);
+            }
+        }
+        return conversions.toArray(new Class[0]);
+    }
+
+    /**
+     * The arguments to format: {@code args} with the numeric ones bound to
+     * their conversion, or null when the binding fails.
+     */
+    Object[] arguments(Object[] args) {
+        // when invoked with a null argument we get a null args instead of an
+        // array with a null value.
+        if (args == null) {
+            return NO_ARGS;
+        }
+        Object[] result = new Object[args.length];
+        for (int i = 0; i < args.length; i++) {
+            if (args[i] == null) {
+                continue;
+            }
+            Class<? extends Number> conversion = i < conversions.length ? conversions[i] : null;
+            if (conversion == null) {
+                result[i] = args[i];
+            } else {
+                try {
+                    result[i] = Binder.directBind(null, args[i] + "", conversion, null);
+                } catch (Exception e) {
+                    // Ignore
+                    result[i] = null;
+                }
+            }
+        }
+        return result;
+    }
+
+    String format(Locale locale, Object[] args) {
+        String message = formatArguments(locale, args);
+        return message.contains("&{") ? Messages.resolveNested(message) : message;
+    }
+
+    private String formatArguments(Locale locale, Object[] args) {
+        if (literals == null) {
+            return String.format(locale, pattern, arguments(args));
+        }
+        if (slots.length == 0) {
+            return literals[0];
+        }
+        Object[] arguments = arguments(args);
+        StringBuilder message = new StringBuilder(pattern.length() + 16 * slots.length);
+        message.append(literals[0]);
+        for (int i = 0; i < slots.length; i++) {
+            int slot = slots[i];
+            if (slot >= arguments.length || arguments[slot] instanceof Formattable) {
+                // missing argument (String.format throws) or custom formatting
+                return String.format(locale, pattern, arguments);
+            }
+            message.append(arguments[slot]).append(literals[i + 1]);
+        }
+        return message.toString();
+    }
+}
@@ -1,16 +1,18 @@
 package play.i18n;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import play.Play;
-import play.data.binding.Binder;
 
 /**
  * I18n Helper
@@ -30,12 +32,25 @@ import play.data.binding.Binder;
  */
 public class Messages {
 
-    private static final Object[] NO_ARGS = new Object[] { null };
-
+    /**
+     * The messages in every language. Those of the Properties loaded by
+     * {@link MessagesPlugin} are compiled when it loads them; a message added
+     * or changed afterwards is compiled again when first used.
+     */
     public static Properties defaults = new Properties();
 
+    /**
+     * The messages of each language, see {@link #defaults}.
+     */
     public static final Map<String, Properties> locales = new HashMap<>();
 
+    /**
+     * The compiled messages of the Properties {@link MessagesPlugin} loaded,
+     * by identity of these Properties. Each is only used while it was compiled
+     * from the current value of its key.
+     */
+    private static volatile Map<Properties, Map<String, CompiledMessage>> compiled = Map.of();
+
     // Bounded + possessive, not a lazy .*? (java/polynomial-redos). formatString runs this
     // over the string *after* args are interpolated, so user-supplied args can inject many
     // "&{" with no closing brace; an unbounded quantifier then rescans to end-of-string from
@@ -105,23 +120,69 @@ public class Messages {
         if (key == null) {
             return "";
         }
-        String value = null;
+        CompiledMessage compiledMessage = null;
         if (locales != null) {
-            if (locales.containsKey(locale)) {
-                value = locales.get(locale).getProperty(key.toString());
-            }
-            if (value == null && locale != null && locale.length() == 5 && locales.containsKey(locale.substring(0, 2))) {
-                value = locales.get(locale.substring(0, 2)).getProperty(key.toString());
+            compiledMessage = lookup(locales.get(locale), key.toString());
+            if (compiledMessage == null && locale != null && locale.length() == 5) {
+                compiledMessage = lookup(locales.get(locale.substring(0, 2)), key.toString());
             }
         }
-        if (value == null && defaults != null) {
-            value = defaults.getProperty(key.toString());
+        if (compiledMessage == null) {
+            compiledMessage = lookup(defaults, key.toString());
         }
-        if (value == null) {
-            value = key.toString();
+        if (compiledMessage == null) {
+            compiledMessage = CompiledMessage.of(key.toString());
         }
         Locale l = Lang.getLocaleOrDefault(locale);
-        return formatString(l, value, args);
+        return compiledMessage.format(l, args);
+    }
+
+    private static CompiledMessage lookup(Properties messages, String key) {
+        if (messages == null) {
+            return null;
+        }
+        String value = messages.getProperty(key);
+        Map<String, CompiledMessage> compiledMessages = compiled.get(messages);
+        if (compiledMessages == null) {
+            return value == null ? null : CompiledMessage.of(value);
+        }
+        if (value == null) {
+            compiledMessages.remove(key);
+            return null;
+        }
+        CompiledMessage compiledMessage = compiledMessages.get(key);
+        if (compiledMessage == null || !compiledMessage.pattern().equals(value)) {
+            // Added or changed in the loaded Properties since they were compiled
+            compiledMessage = CompiledMessage.of(value);
+            compiledMessages.put(key, compiledMessage);
+        }
+        return compiledMessage;
+    }
+
+    /**
+     * Compile the messages of {@link #defaults} and {@link #locales}, once
+     * {@link MessagesPlugin} has loaded them.
+     */
+    static void compile() {
+        Map<String, CompiledMessage> byPattern = new HashMap<>();
+        Map<Properties, Map<String, CompiledMessage>> catalogs = new IdentityHashMap<>();
+        if (defaults != null) {
+            catalogs.put(defaults, compile(defaults, byPattern));
+        }
+        for (Properties messages : locales.values()) {
+            if (messages != null) {
+                catalogs.put(messages, compile(messages, byPattern));
+            }
+        }
+        compiled = Collections.unmodifiableMap(catalogs);
+    }
+
+    private static Map<String, CompiledMessage> compile(Properties messages, Map<String, CompiledMessage> byPattern) {
+        Map<String, CompiledMessage> compiledMessages = new HashMap<>();
+        for (String key : messages.stringPropertyNames()) {
+            compiledMessages.put(key, byPattern.computeIfAbsent(messages.getProperty(key), CompiledMessage::of));
+        }
+        return new ConcurrentHashMap<>(compiledMessages);
     }
 
     public static String formatString(String value, Object... args) {
@@ -129,8 +190,44 @@ public class Messages {
     }
 
     public static String formatString(Locale locale, String value, Object... args) {
-        String message = String.format(locale, value, coolStuff(value, args));
+        return CompiledMessage.of(value).format(locale, args);
+    }
 
+    /**
+     * Replace the {@code &{key}} references in a formatted message with their
+     * message in the current language.
+     */
+    static String resolveNested(String message) {
+        // Finds what the recursive pattern finds, without a regex
+        StringBuilder resolved = new StringBuilder(message.length() + 32);
+        int copied = 0;
+        int start = message.indexOf("&{");
+        int end = -1;
+        while (start >= 0) {
+            if (end < start + 2) {
+                // the first '}' after the last one found, so that this stays linear
+                end = message.indexOf('}', start + 2);
+            }
+            if (end < 0) {
+                break;
+            }
+            if (end - (start + 2) > 255) {
+                start = message.indexOf("&{", start + 1);
+                continue;
+            }
+            String nested = get(message.substring(start + 2, end));
+            if (nested.indexOf('$') >= 0 || nested.indexOf('\\') >= 0) {
+                // a replacement with group references or escapes: let the matcher interpret it
+                return resolveNestedWithMatcher(message);
+            }
+            resolved.append(message, copied, start).append(nested);
+            copied = end + 1;
+            start = message.indexOf("&{", copied);
+        }
+        return copied == 0 ? message : resolved.append(message, copied, message.length()).toString();
+    }
+
+    private static String resolveNestedWithMatcher(String message) {
         Matcher matcher = recursive.matcher(message);
         StringBuilder sb = new StringBuilder();
         while (matcher.find()) {
@@ -142,53 +239,8 @@ public class Messages {
 
     static final Pattern formatterPattern = Pattern.compile("%((\\d+)\\$)?([-#+ 0,(]+)?(\\d+)?([.]\\d+)?([bBhHsScCdoxXeEfgGaAtT])");
 
-    @SuppressWarnings("unchecked")
     static Object[] coolStuff(String pattern, Object[] args) {
-        // when invoked with a null argument we get a null args instead of an
-        // array with a null value.
-
-        if (args == null)
-            return NO_ARGS;
-
-        Class<? extends Number>[] conversions = new Class[args.length];
-
-        Matcher matcher = formatterPattern.matcher(pattern);
-        int incrementalPosition = 1;
-        while (matcher.find()) {
-            String conversion = matcher.group(6);
-            Integer position;
-            if (matcher.group(2) == null) {
-                position = incrementalPosition++;
-            } else {
-                position = Integer.parseInt(matcher.group(2));
-            }
-            if (conversion.equals("d") && position <= conversions.length) {
-                conversions[position - 1] = Long.class;
-            }
-            if (conversion.equals("f") && position <= conversions.length) {
-                conversions[position - 1] = Double.class;
-            }
-        }
-
-        Object[] result = new Object[args.length];
-        for (int i = 0; i < args.length; i++) {
-            if (args[i] == null) {
-                continue;
-            }
-            if (conversions[i] == null) {
-                result[i] = args[i];
-            } else {
-                try {
-                    // TODO: I think we need to type of direct bind -> primitive
-                    // and object binder
-                    result[i] = Binder.directBind(null, args[i] + "", conversions[i], null);
-                } catch (Exception e) {
-                    // Ignore
-                    result[i] = null;
-                }
-            }
-        }
-        return result;
+        return CompiledMessage.of(pattern).arguments(args);
     }
 
     /**
@@ -63,6 +63,7 @@ public class MessagesPlugin extends PlayPlugin {
             }
             Messages.locales.put(locale, properties);
         }
+        Messages.compile();
         lastLoading = System.currentTimeMillis();
     }
 
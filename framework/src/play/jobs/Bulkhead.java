@@ -0,0 +1,57 @@
+package play.jobs;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Limit how many executions of a job class run at once.
+ *
+ * Example, a report that must never run twice concurrently, and whose
+ * scheduled run is dropped while a manual one is still busy:
+ *
+ * <pre>
+ * &#64;Every("10mn")
+ * &#64;Bulkhead(maxConcurrent = 1, overlap = Bulkhead.Overlap.SKIP)
+ * public class RebuildReport extends Job { ... }
+ * </pre>
+ *
+ * Executions started with {@code now()}, {@code in()} or {@code afterRequest()}
+ * wait for a free slot, up to {@link #queueSize()} of them; beyond that their
+ * promise fails with a {@code RejectedExecutionException}. Scheduled
+ * executions ({@code @Every}, {@code @On}, {@code every()}) follow
+ * {@link #overlap()}.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Bulkhead {
+
+    /**
+     * What a scheduled execution does when the job is already running
+     * {@link Bulkhead#maxConcurrent()} times.
+     */
+    enum Overlap {
+        /** Drop this execution; the schedule goes on. */
+        SKIP,
+        /** Wait for a running execution to finish, within {@link Bulkhead#queueSize()}. */
+        QUEUE,
+        /** Interrupt the running executions, then start once they have let go. */
+        CANCEL
+    }
+
+    /**
+     * @return how many executions of the job may run at the same time
+     */
+    int maxConcurrent() default 1;
+
+    /**
+     * @return how many executions may wait for a free slot
+     */
+    int queueSize() default 0;
+
+    /**
+     * @return the policy for scheduled executions when all slots are taken
+     */
+    Overlap overlap() default Overlap.SKIP;
+}
@@ -1,5 +1,6 @@
 package play.jobs;
 
+import java.time.Duration;
 import java.util.Date;
 import java.util.concurrent.Callable;
 
@@ -9,6 +10,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import com.jamonapi.Monitor;
 import com.jamonapi.MonitorFactory;
 
+import play.InvocationScope;
 import play.Invoker;
 import play.Invoker.InvocationContext;
 import play.Logger;
@@ -17,6 +19,8 @@ import play.PlayPlugin;
 import play.exceptions.JavaExecutionException;
 import play.exceptions.PlayException;
 import play.exceptions.UnexpectedException;
+import play.jobs.coordination.JobLease;
+import play.jobs.queue.JobQueue;
 import play.libs.F;
 import play.libs.F.Promise;
 import play.libs.Time;
@@ -38,12 +42,25 @@ public class Job<V> extends Invoker.Invocation implements Callable<V> {
     protected Throwable lastException = null;
 
     Date nextPlannedExecution = null;
+    volatile JobLease lease;
 
     @Override
     public InvocationContext getInvocationContext() {
         return new InvocationContext(invocationType, this.getClass().getAnnotations());
     }
 
+    /**
+     * The lease the current execution runs under when scheduled jobs are
+     * coordinated across nodes ({@code jobs.coordinator}), or null. Its
+     * fencing token lets writes made by a run that outlived its lease be
+     * told apart from those of the node that took over.
+     *
+     * @return the current lease, if any
+     */
+    protected JobLease lease() {
+        return lease;
+    }
+
     /**
      * Here you do the job
      * 
@@ -127,10 +144,46 @@ public class Job<V> extends Invoker.Invocation implements Callable<V> {
         return smartFuture;
     }
 
+    /**
+     * Store this job in the durable job queue, to be run by a node consuming
+     * the default queue. Within a transaction, the job is only queued if the
+     * transaction commits. See {@link JobQueue}.
+     *
+     * @return the id of the queued job
+     */
+    public String enqueue() {
+        return JobQueue.enqueue(this);
+    }
+
+    /**
+     * Store this job in the durable job queue {@code queue}.
+     *
+     * @param queue
+     *            the queue name
+     * @return the id of the queued job
+     */
+    public String enqueue(String queue) {
+        return JobQueue.enqueue(this, queue, Duration.ZERO);
+    }
+
+    /**
+     * Store this job in the durable job queue {@code queue}, to be run once
+     * {@code delay} has passed.
+     *
+     * @param queue
+     *            the queue name
+     * @param delay
+     *            a duration like {@code 10mn}, see {@link Time#parseDuration}
+     * @return the id of the queued job
+     */
+    public String enqueueIn(String queue, String delay) {
+        return JobQueue.enqueue(this, queue, Duration.ofSeconds(Time.parseDuration(delay)));
+    }
+
     private Callable<V> getJobCallingCallable(final Promise<V> smartFuture) {
         return () -> {
             try {
-                V result = Job.this.call();
+                V result = JobBulkhead.of(Job.this.getClass()).execute(Job.this::call, false);
                 if (smartFuture != null) {
                     smartFuture.invoke(result);
                 }
@@ -163,8 +216,9 @@ public class Job<V> extends Invoker.Invocation implements Callable<V> {
     public void every(int seconds) {
         // PF-131: schedule a resilient wrapper, not `this`, so a single run throwing doesn't
         // make scheduleWithFixedDelay drop the task permanently. See JobsPlugin.resilient.
-        JobsPlugin.scheduler.scheduleWithFixedDelay(JobsPlugin.resilient(this), seconds, seconds, TimeUnit.SECONDS);
+        JobsPlugin.scheduler.scheduleWithFixedDelay(JobsPlugin.resilient(this, seconds), seconds, seconds, TimeUnit.SECONDS);
         JobsPlugin.scheduledJobs.add(this);
+        JobBulkhead.of(getClass());
     }
 
     // Customize Invocation
@@ -201,8 +255,15 @@ public class Job<V> extends Invoker.Invocation implements Callable<V> {
         }
     }
 
+    /**
+     * Run the job in an {@link InvocationScope} of its own.
+     */
     @Override
     public V call() {
+        return new InvocationScope().call(this::invoke);
+    }
+
+    private V invoke() {
         Monitor monitor = null;
         try {
             preInit();
@@ -0,0 +1,151 @@
+package play.jobs;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+
+import play.Logger;
+import play.libs.Metrics;
+
+/**
+ * Runs the executions of one job class: applies its {@link Bulkhead}, if it
+ * has one, and records what happens to each execution.
+ *
+ * <p>Meters, tagged with the job class:
+ * <ul>
+ * <li>{@code play.jobs.running} and {@code play.jobs.queued}: gauges of the
+ * executions running and waiting for a slot;</li>
+ * <li>{@code play.jobs.execution}: timer of finished executions, tagged
+ * {@code outcome=succeeded|failed};</li>
+ * <li>{@code play.jobs.skipped}: counter of executions dropped because the
+ * bulkhead was full;</li>
+ * <li>{@code play.jobs.wait}: timer of the time spent waiting for a slot.</li>
+ * </ul>
+ */
+final class JobBulkhead {
+
+    private static final Map<Class<?>, JobBulkhead> bulkheads = new ConcurrentHashMap<>();
+
+    private final String name;
+    private final Semaphore slots;
+    private final int queueSize;
+    private final Bulkhead.Overlap overlap;
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+    private final List<Meter> gauges;
+
+    private JobBulkhead(Class<?> jobClass) {
+        this.name = jobClass.getName();
+        Bulkhead limits = jobClass.getAnnotation(Bulkhead.class);
+        this.slots = limits == null ? null : new Semaphore(Math.max(1, limits.maxConcurrent()), true);
+        this.queueSize = limits == null ? 0 : Math.max(0, limits.queueSize());
+        this.overlap = limits == null ? Bulkhead.Overlap.QUEUE : limits.overlap();
+        this.gauges = List.of(
+                Gauge.builder("play.jobs.running", running, AtomicInteger::get).tag("job", name).register(Metrics.registry()),
+                Gauge.builder("play.jobs.queued", queued, AtomicInteger::get).tag("job", name).register(Metrics.registry()));
+    }
+
+    static JobBulkhead of(Class<?> jobClass) {
+        return bulkheads.computeIfAbsent(jobClass, JobBulkhead::new);
+    }
+
+    /**
+     * @return the bulkhead of {@code jobClass}, or null if none was created
+     *         yet; unlike {@link #of(Class)}, registers no meters
+     */
+    static JobBulkhead find(Class<?> jobClass) {
+        return bulkheads.get(jobClass);
+    }
+
+    /**
+     * Forget all bulkheads; the job classes may have been reloaded.
+     */
+    static void reset() {
+        for (JobBulkhead bulkhead : bulkheads.values()) {
+            // The gauges hold the old counters; a new bulkhead for a reloaded class registers its own.
+            bulkhead.gauges.forEach(Metrics.registry()::remove);
+        }
+        bulkheads.clear();
+    }
+
+    int running() {
+        return running.get();
+    }
+
+    int queued() {
+        return queued.get();
+    }
+
+    /**
+     * Run {@code execution} once a slot is free. A scheduled execution that
+     * gets no slot is skipped and returns null; any other one is rejected
+     * with a {@link RejectedExecutionException}.
+     */
+    <T> T execute(Callable<T> execution, boolean scheduled) throws Exception {
+        if (!acquire(scheduled)) {
+            Metrics.counter("play.jobs.skipped", "job", name).increment();
+            if (scheduled) {
+                Logger.debug("Job %s is already running; skipping this execution", name);
+                return null;
+            }
+            throw new RejectedExecutionException("Job " + name + " is running at its @Bulkhead limit");
+        }
+        Thread current = Thread.currentThread();
+        threads.add(current);
+        running.incrementAndGet();
+        long start = System.nanoTime();
+        String outcome = "failed";
+        try {
+            T result = execution.call();
+            outcome = "succeeded";
+            return result;
+        } finally {
+            running.decrementAndGet();
+            threads.remove(current);
+            if (slots != null) {
+                slots.release();
+            }
+            Metrics.timer("play.jobs.execution", "job", name, "outcome", outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private boolean acquire(boolean scheduled) {
+        if (slots == null || slots.tryAcquire()) {
+            return true;
+        }
+        Bulkhead.Overlap policy = scheduled ? overlap : Bulkhead.Overlap.QUEUE;
+        if (policy == Bulkhead.Overlap.SKIP) {
+            return false;
+        }
+        if (policy == Bulkhead.Overlap.CANCEL) {
+            for (Thread thread : threads) {
+                thread.interrupt();
+            }
+            queued.incrementAndGet();
+        } else if (queued.incrementAndGet() > queueSize) {
+            queued.decrementAndGet();
+            return false;
+        }
+        long start = System.nanoTime();
+        try {
+            slots.acquire();
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            queued.decrementAndGet();
+            Metrics.timer("play.jobs.wait", "job", name).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -3,24 +3,36 @@ package play.jobs;
 import play.Logger;
 import play.Play;
 import play.PlayPlugin;
+import play.db.DB;
+import play.exceptions.ConfigurationException;
 import play.exceptions.PlayException;
 import play.exceptions.UnexpectedException;
 import play.inject.Injector;
-import play.libs.CronExpression;
+import play.jobs.coordination.InMemoryJobCoordinator;
+import play.jobs.coordination.JdbcJobCoordinator;
+import play.jobs.coordination.JobCoordinator;
+import play.jobs.coordination.JobLease;
+import play.jobs.queue.JobQueue;
+import play.libs.CompiledCronExpression;
 import play.libs.Expression;
+import play.libs.Metrics;
 import play.libs.Time;
 import play.mvc.Http.Request;
 import play.utils.VirtualThreadScheduledExecutor;
 
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
 import java.text.SimpleDateFormat;
+import java.time.Duration;
+import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.Date;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class JobsPlugin extends PlayPlugin {
 
@@ -29,6 +41,12 @@ public class JobsPlugin extends PlayPlugin {
      * {@link #onApplicationStart()}; nulled on {@link #onApplicationStop()}.
      */
     public static volatile VirtualThreadScheduledExecutor scheduler;
+    /**
+     * Decides which node runs each execution of an {@code @Every}/{@code @On} job,
+     * see {@link JobCoordinator}. Null unless {@code jobs.coordinator} is set, in
+     * which case every node runs every execution, as on a single node.
+     */
+    public static volatile JobCoordinator coordinator;
     // CopyOnWriteArrayList: writes happen at app start/stop only; reads come from getStatus()
     // and afterInvocation() while requests are in flight. Plain ArrayList is unsafe under VT.
     public static final List<Job<?>> scheduledJobs = new CopyOnWriteArrayList<>();
@@ -53,13 +71,13 @@ public class JobsPlugin extends PlayPlugin {
         }
         out.println("Jobs execution pool:");
         out.println("~~~~~~~~~~~~~~~~~~~");
-        // Single-line VT status: per-job thread metrics aren't aggregated. Unlike Invoker
-        // (which exposes inflight/total invocation counters), JobsPlugin has no parallel
-        // set of counters; adding jobs-side observability would require tracking
-        // submissions and completions around scheduler.submit / scheduleWithFixedDelay /
-        // scheduleForCRON. Don't borrow Invoker.inflightInvocations here — those track
-        // invoker work, not jobs work, and conflating them would mislead operators.
+        // Per-job running/queued counts and execution outcomes come from JobBulkhead, which
+        // every scheduled and now()/in()/afterRequest() execution goes through; the same
+        // numbers are published as play.jobs.* meters. Don't borrow Invoker.inflightInvocations
+        // here — those track invoker work, not jobs work.
         out.println("Mode: virtual threads");
+        JobCoordinator c = coordinator;
+        out.println("Coordinator: " + (c == null ? "none" : c.getClass().getSimpleName()));
         SimpleDateFormat df = new SimpleDateFormat("MM/dd/yyyy HH:mm:ss");
         if (!scheduledJobs.isEmpty()) {
             out.println();
@@ -84,6 +102,10 @@ public class JobsPlugin extends PlayPlugin {
                 if (job.getClass().isAnnotationPresent(Every.class)) {
                     out.print(" run every " + job.getClass().getAnnotation(Every.class).value() + ".");
                 }
+                JobBulkhead bulkhead = JobBulkhead.find(job.getClass());
+                if (bulkhead != null && (bulkhead.running() > 0 || bulkhead.queued() > 0)) {
+                    out.print(" [" + bulkhead.running() + " running, " + bulkhead.queued() + " queued]");
+                }
                 if (job.lastRun > 0) {
                     out.print(" (last run at " + df.format(new Date(job.lastRun)));
                     if (job.wasError) {
@@ -102,17 +124,17 @@ public class JobsPlugin extends PlayPlugin {
 
     @Override
     public void afterApplicationStart() {
+        // getAssignableClasses rather than a getAllClasses() scan: a precompiled application
+        // with a class index then loads its job classes only.
         List<Class<?>> jobs = new ArrayList<>();
-        for (Class<?> clazz : Play.classloader.getAllClasses()) {
-            if (Job.class.isAssignableFrom(clazz)) {
-                jobs.add(clazz);
-            }
+        for (Class<?> clazz : Play.classloader.getAssignableClasses(Job.class)) {
+            jobs.add(clazz);
         }
         // @OnApplicationStart jobs run in ascending priority order (0 = highest, runs
         // first), mirroring the @Before/@After/@Catch interceptor convention. Equal
-        // priorities keep classloader order (alphabetical in dev). @On/@Every are
-        // time-scheduled, so their position is irrelevant — non-start jobs sort last.
-        jobs.sort(Comparator.comparingInt(JobsPlugin::startPriority));
+        // priorities run in class name order. @On/@Every are time-scheduled, so their
+        // position is irrelevant — non-start jobs sort last.
+        jobs.sort(Comparator.comparingInt(JobsPlugin::startPriority).thenComparing(Class::getName));
         // PF-119: snapshot the @OnApplicationStop subset now, while we already hold the full
         // job-class list, so onApplicationStop() can iterate it at shutdown instead of
         // re-scanning the classloader. Captured before the start-job run loop below so the
@@ -176,7 +198,7 @@ public class JobsPlugin extends PlayPlugin {
                     value = Expression.evaluate(value, value).toString();
                     if (!"never".equalsIgnoreCase(value)) {
                         long duration = Time.parseDuration(value);
-                        scheduler.scheduleWithFixedDelay(resilient(job), duration, duration, TimeUnit.SECONDS);
+                        scheduler.scheduleWithFixedDelay(resilient(job, duration), duration, duration, TimeUnit.SECONDS);
                     }
                 } catch (InstantiationException | IllegalAccessException ex) {
                     throw new UnexpectedException("Cannot instantiate Job " + clazz.getName(), ex);
@@ -196,21 +218,129 @@ public class JobsPlugin extends PlayPlugin {
     // they don't go through this wrapper. Package-private + static so Job.every() shares it
     // and JobsPluginEveryResilienceTest can exercise it directly without booting an app.
     static Runnable resilient(Job<?> job) {
+        return resilient(job, 0);
+    }
+
+    // As above, for a job repeating every `seconds`: with a coordinator, each tick runs only
+    // if this node wins the lease for the current interval bucket (wall clock / interval), so
+    // across the cluster the job runs about once per interval whatever the nodes' phases.
+    static Runnable resilient(Job<?> job, long seconds) {
         return () -> {
             try {
-                job.run();
+                if (seconds > 0) {
+                    runCoordinated(job, System.currentTimeMillis() / TimeUnit.SECONDS.toMillis(seconds), () -> runScheduled(job, job::run));
+                } else {
+                    runScheduled(job, job::run);
+                }
             } catch (Throwable t) {
                 Logger.error(t, "Error executing @Every job %s; keeping its schedule alive", job.getClass().getName());
             }
         };
     }
 
+    /**
+     * Run a scheduled {@code execution} of {@code job} within the job's
+     * {@link JobBulkhead}: when the job is already running at its
+     * {@link Bulkhead} limit, its overlap policy decides whether this
+     * execution is skipped, waits, or cancels the running ones.
+     */
+    static void runScheduled(Job<?> job, Runnable execution) {
+        try {
+            JobBulkhead.of(job.getClass()).execute(() -> {
+                execution.run();
+                return null;
+            }, true);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new UnexpectedException(e);
+        }
+    }
+
+    /**
+     * Run {@code execution} of {@code job} if the {@link #coordinator} grants
+     * this node the lease for {@code slot}, or right away when there is no
+     * coordinator. Returns false if the execution was left to another node, or
+     * skipped because the coordinator could not be reached.
+     */
+    static boolean runCoordinated(Job<?> job, long slot, Runnable execution) {
+        JobCoordinator c = coordinator;
+        if (c == null) {
+            execution.run();
+            return true;
+        }
+        String jobName = job.getClass().getName();
+        JobLease lease;
+        long start = System.nanoTime();
+        try {
+            lease = c.tryAcquire(jobName, slot, leaseTtl());
+        } catch (Exception e) {
+            Metrics.counter("play.jobs.lease", "job", jobName, "outcome", "error").increment();
+            Logger.warn(e, "Cannot acquire lease for job %s; skipping this execution", jobName);
+            return false;
+        } finally {
+            Metrics.timer("play.jobs.lease.acquire").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        if (lease == null) {
+            Metrics.counter("play.jobs.lease", "job", jobName, "outcome", "contended").increment();
+            Logger.trace("Job %s slot %s runs on another node", jobName, slot);
+            return false;
+        }
+        Metrics.counter("play.jobs.lease", "job", jobName, "outcome", "acquired").increment();
+        job.lease = lease;
+        try {
+            execution.run();
+        } finally {
+            job.lease = null;
+            try {
+                c.release(lease);
+            } catch (Exception e) {
+                Logger.warn(e, "Cannot release lease for job %s; it expires at %s", jobName, lease.expiresAt());
+            }
+        }
+        return true;
+    }
+
+    static Duration leaseTtl() {
+        return Duration.ofSeconds(Time.parseDuration(Play.configuration.getProperty("jobs.coordinator.leaseTtl", "10min")));
+    }
+
+    /**
+     * This node's name in the lease and job queue tables: {@code jobs.coordinator.node},
+     * or the JVM's {@code pid@host} name.
+     */
+    public static String nodeName() {
+        return Play.configuration.getProperty("jobs.coordinator.node", ManagementFactory.getRuntimeMXBean().getName());
+    }
+
+    static JobCoordinator createCoordinator() {
+        String type = Play.configuration.getProperty("jobs.coordinator", "").trim();
+        if (type.isEmpty() || "none".equals(type)) {
+            return null;
+        }
+        String node = nodeName();
+        switch (type) {
+        case "jdbc":
+            return new JdbcJobCoordinator(Play.configuration.getProperty("jobs.coordinator.db", DB.DEFAULT), node);
+        case "memory":
+            return new InMemoryJobCoordinator(node);
+        default:
+            try {
+                return (JobCoordinator) Play.classloader.loadClass(type).getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | ClassCastException e) {
+                throw new ConfigurationException("jobs.coordinator=" + type + " is neither jdbc, memory nor a JobCoordinator class: " + e);
+            }
+        }
+    }
+
     private Job<?> createJob(Class<?> clazz) throws InstantiationException, IllegalAccessException {
         Job<?> job = (Job<?>) Injector.getBeanOfType(clazz);
         if (!job.getClass().equals(clazz)) {
             throw new RuntimeException("Enhanced job are not allowed: " + clazz.getName() + " vs. " + job.getClass().getName());
         }
         scheduledJobs.add(job);
+        // Its play.jobs.* gauges exist from the moment it is scheduled, not from its first run.
+        JobBulkhead.of(clazz);
         return job;
     }
 
@@ -239,7 +369,13 @@ public class JobsPlugin extends PlayPlugin {
     public void onApplicationStart() {
         scheduler = new VirtualThreadScheduledExecutor("jobs");
         Logger.info("Jobs using virtual threads");
+        coordinator = createCoordinator();
+        if (coordinator != null) {
+            Logger.info("Scheduled jobs coordinated by %s", coordinator.getClass().getSimpleName());
+        }
+        JobQueue.start();
         scheduledJobs.clear();
+        JobBulkhead.reset();
     }
 
     public static <V> void scheduleForCRON(Job<V> job) {
@@ -256,24 +392,35 @@ public class JobsPlugin extends PlayPlugin {
             return;
         }
         try {
-            Date now = new Date();
-            cron = Expression.evaluate(cron, cron).toString();
-            CronExpression cronExp = new CronExpression(cron);
-            Date nextDate = cronExp.getNextValidTimeAfter(now);
-            if (nextDate == null) {
-                Logger.warn("The cron expression for job %s doesn't have any match in the future, will never be executed",
-                        job.getClass().getName());
-                return;
-            }
-            if (nextDate.equals(job.nextPlannedExecution)) {
+            long now = System.currentTimeMillis();
+            CompiledCronExpression cronExp = CompiledCronExpression.compile(cron);
+            ZoneId zone = ZoneId.systemDefault();
+            long next = cronExp.nextEpochMilli(now, zone);
+            if (next >= 0 && job.nextPlannedExecution != null && next == job.nextPlannedExecution.getTime()) {
                 // Bug #13: avoid running the job twice for the same time
                 // (happens when we end up running the job a few minutes before
                 // the planned time)
-                Date nextInvalid = cronExp.getNextInvalidTimeAfter(nextDate);
-                nextDate = cronExp.getNextValidTimeAfter(nextInvalid);
+                next = cronExp.nextEpochMilli(next, zone);
+            }
+            if (next < 0) {
+                Logger.warn("The cron expression for job %s doesn't have any match in the future, will never be executed",
+                        job.getClass().getName());
+                return;
             }
-            job.nextPlannedExecution = nextDate;
-            scheduler.schedule((Callable<V>) job, nextDate.getTime() - now.getTime(), TimeUnit.MILLISECONDS);
+            job.nextPlannedExecution = new Date(next);
+            long slot = next;
+            scheduler.schedule(() -> {
+                AtomicBoolean started = new AtomicBoolean();
+                runCoordinated(job, slot, () -> runScheduled(job, () -> {
+                    started.set(true);
+                    job.call();
+                }));
+                if (!started.get() && job.executor == scheduler) {
+                    // Another node runs this execution, or the bulkhead skipped it, so Job._finally
+                    // won't plan the next one here.
+                    scheduleForCRON(job);
+                }
+            }, next - now, TimeUnit.MILLISECONDS);
             // Job.executor is used only for identity comparison; mirror the scheduler so
             // existing code (Job.java line 271) keeps working.
             job.executor = scheduler;
@@ -326,11 +473,17 @@ public class JobsPlugin extends PlayPlugin {
         } catch (NumberFormatException e) {
             stopTimeoutMs = 30000;
         }
+        JobQueue.stop(stopTimeoutMs);
         VirtualThreadScheduledExecutor s = scheduler;
         if (s != null && !s.shutdownGracefully(stopTimeoutMs)) {
             Logger.warn("Jobs scheduler did not terminate within %d ms; forced shutdown", stopTimeoutMs);
         }
         scheduler = null;
+        JobCoordinator c = coordinator;
+        if (c != null) {
+            c.close();
+        }
+        coordinator = null;
     }
 
     @Override
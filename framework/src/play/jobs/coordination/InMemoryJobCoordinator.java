@@ -0,0 +1,66 @@
+package play.jobs.coordination;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Keeps leases in the JVM. Several instances sharing one {@code InMemoryJobCoordinator}
+ * behave like nodes sharing a lease table, which is how tests simulate a
+ * cluster; configured with {@code jobs.coordinator=memory} it simply lets one
+ * node coordinate with itself.
+ */
+public class InMemoryJobCoordinator implements JobCoordinator {
+
+    private final Map<String, JobLease> leases;
+    private final String owner;
+    private final Clock clock;
+
+    public InMemoryJobCoordinator(String owner) {
+        this(owner, Clock.systemUTC());
+    }
+
+    public InMemoryJobCoordinator(String owner, Clock clock) {
+        this(new HashMap<>(), owner, clock);
+    }
+
+    private InMemoryJobCoordinator(Map<String, JobLease> leases, String owner, Clock clock) {
+        this.leases = leases;
+        this.owner = owner;
+        this.clock = clock;
+    }
+
+    /**
+     * Another node backed by the same lease table.
+     */
+    public InMemoryJobCoordinator node(String owner) {
+        return new InMemoryJobCoordinator(leases, owner, clock);
+    }
+
+    @Override
+    public JobLease tryAcquire(String jobName, long slot, Duration ttl) {
+        synchronized (leases) {
+            Instant now = clock.instant();
+            JobLease current = leases.get(jobName);
+            if (current != null && (current.slot() >= slot || current.expiresAt().isAfter(now))) {
+                return null;
+            }
+            long token = current == null ? 1 : current.fencingToken() + 1;
+            JobLease lease = new JobLease(jobName, owner, slot, token, now.plus(ttl));
+            leases.put(jobName, lease);
+            return lease;
+        }
+    }
+
+    @Override
+    public void release(JobLease lease) {
+        synchronized (leases) {
+            JobLease current = leases.get(lease.jobName());
+            if (current != null && current.fencingToken() == lease.fencingToken()) {
+                leases.put(lease.jobName(), new JobLease(lease.jobName(), lease.owner(), lease.slot(), lease.fencingToken(), Instant.EPOCH));
+            }
+        }
+    }
+}
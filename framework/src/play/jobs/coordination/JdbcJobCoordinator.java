@@ -0,0 +1,173 @@
+package play.jobs.coordination;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+import javax.sql.DataSource;
+
+import play.Logger;
+import play.db.DB;
+import play.exceptions.DatabaseException;
+
+/**
+ * Leases kept in a {@code play_job_leases} table of one of the application's
+ * databases ({@code jobs.coordinator.db}), one row per job.
+ *
+ * <p>Taking a lease is a single conditional {@code update}: it only matches
+ * when the row's slot is older than the requested one and the previous lease
+ * has been released or has expired, and it bumps the fencing token in the
+ * same statement. The database's row lock decides between nodes racing for
+ * the same slot, so no {@code select ... for update} or explicit transaction
+ * is needed. The first execution of a job inserts its row; the primary key
+ * turns a concurrent insert by another node into a refused lease.
+ *
+ * <p>Expiry is checked against the clock of the node asking, so node clocks
+ * are assumed to agree to well within the lease ttl.
+ */
+public class JdbcJobCoordinator implements JobCoordinator {
+
+    static final String TABLE = "play_job_leases";
+
+    private final String dbName;
+    private final DataSource dataSource;
+    private final String owner;
+    private final Clock clock;
+    private volatile boolean tableChecked;
+
+    public JdbcJobCoordinator(String dbName, String owner) {
+        this(dbName, owner, Clock.systemUTC());
+    }
+
+    public JdbcJobCoordinator(String dbName, String owner, Clock clock) {
+        this(dbName, null, owner, clock);
+    }
+
+    /**
+     * Leases in a database that is not one of the application's {@code db.*}
+     * datasources.
+     */
+    public JdbcJobCoordinator(DataSource dataSource, String owner, Clock clock) {
+        this(null, dataSource, owner, clock);
+    }
+
+    private JdbcJobCoordinator(String dbName, DataSource dataSource, String owner, Clock clock) {
+        this.dbName = dbName;
+        this.dataSource = dataSource;
+        this.owner = owner;
+        this.clock = clock;
+    }
+
+    @Override
+    public JobLease tryAcquire(String jobName, long slot, Duration ttl) throws SQLException {
+        long now = clock.millis();
+        long expiresAt = now + ttl.toMillis();
+        try (Connection connection = connection()) {
+            try (PreparedStatement ps = connection.prepareStatement("update " + TABLE
+                    + " set owner = ?, slot = ?, token = token + 1, expires_at = ? where job_name = ? and slot < ? and expires_at <= ?")) {
+                ps.setString(1, owner);
+                ps.setLong(2, slot);
+                ps.setLong(3, expiresAt);
+                ps.setString(4, jobName);
+                ps.setLong(5, slot);
+                ps.setLong(6, now);
+                if (ps.executeUpdate() == 1) {
+                    Long token = tokenOf(connection, jobName, slot);
+                    return token == null ? null : new JobLease(jobName, owner, slot, token, Instant.ofEpochMilli(expiresAt));
+                }
+            }
+            if (exists(connection, jobName)) {
+                return null;
+            }
+            try (PreparedStatement ps = connection
+                    .prepareStatement("insert into " + TABLE + " (job_name, owner, slot, token, expires_at) values (?, ?, ?, 1, ?)")) {
+                ps.setString(1, jobName);
+                ps.setString(2, owner);
+                ps.setLong(3, slot);
+                ps.setLong(4, expiresAt);
+                ps.executeUpdate();
+                return new JobLease(jobName, owner, slot, 1, Instant.ofEpochMilli(expiresAt));
+            } catch (SQLException e) {
+                // Another node inserted the row first.
+                if (exists(connection, jobName)) {
+                    return null;
+                }
+                throw e;
+            }
+        }
+    }
+
+    @Override
+    public void release(JobLease lease) throws SQLException {
+        try (Connection connection = connection();
+                PreparedStatement ps = connection.prepareStatement("update " + TABLE + " set expires_at = 0 where job_name = ? and token = ?")) {
+            ps.setString(1, lease.jobName());
+            ps.setLong(2, lease.fencingToken());
+            ps.executeUpdate();
+        }
+    }
+
+    private Long tokenOf(Connection connection, String jobName, long slot) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement("select token from " + TABLE + " where job_name = ? and owner = ? and slot = ?")) {
+            ps.setString(1, jobName);
+            ps.setString(2, owner);
+            ps.setLong(3, slot);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : null;
+            }
+        }
+    }
+
+    private static boolean exists(Connection connection, String jobName) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement("select 1 from " + TABLE + " where job_name = ?")) {
+            ps.setString(1, jobName);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    private Connection connection() throws SQLException {
+        DataSource dataSource = this.dataSource != null ? this.dataSource : DB.getDataSource(dbName);
+        if (dataSource == null) {
+            throw new DatabaseException("No database '" + dbName + "' for job leases, check jobs.coordinator.db");
+        }
+        Connection connection = dataSource.getConnection();
+        try {
+            connection.setAutoCommit(true);
+            if (!tableChecked) {
+                createTableIfMissing(connection);
+                tableChecked = true;
+            }
+            return connection;
+        } catch (SQLException | RuntimeException e) {
+            connection.close();
+            throw e;
+        }
+    }
+
+    private static void createTableIfMissing(Connection connection) throws SQLException {
+        try (Statement st = connection.createStatement()) {
+            st.executeQuery("select count(*) from " + TABLE + " where 1 = 0").close();
+        } catch (SQLException missing) {
+            Logger.info("Creating %s table for clustered jobs", TABLE);
+            try (Statement st = connection.createStatement()) {
+                st.execute("create table " + TABLE + " (job_name varchar(255) not null, owner varchar(255) not null, slot bigint not null, "
+                        + "token bigint not null, expires_at bigint not null, constraint pk_" + TABLE + " primary key (job_name))");
+            } catch (SQLException e) {
+                // Another node may have created it in the meantime.
+                try (Statement st = connection.createStatement()) {
+                    st.executeQuery("select count(*) from " + TABLE + " where 1 = 0").close();
+                } catch (SQLException stillMissing) {
+                    e.addSuppressed(stillMissing);
+                    throw e;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package play.jobs.coordination;
+
+import java.time.Duration;
+
+/**
+ * Decides which node of a cluster runs a given execution of a scheduled job.
+ *
+ * <p>Every node schedules the same {@code @Every} and {@code @On} jobs. When a
+ * coordinator is configured ({@code jobs.coordinator}), each node asks it for
+ * a lease on the job's current <em>slot</em> before running — the planned fire
+ * time of a cron job, or the interval bucket of an {@code @Every} job — and
+ * only the node that obtains the lease runs that execution. A slot is granted
+ * at most once, and never while an earlier lease on the same job is still
+ * live, so a slow run is not overlapped by another node either.
+ *
+ * <p>Implementations must be safe to call concurrently from many threads.
+ */
+public interface JobCoordinator {
+
+    /**
+     * Try to take the lease of {@code jobName} for {@code slot}.
+     *
+     * @param slot
+     *            identifies the execution; slots only ever move forward, so a
+     *            slot at or below the last granted one is refused
+     * @param ttl
+     *            how long the lease stays valid if it is never released, i.e.
+     *            if the node holding it dies mid-run
+     * @return the lease, or null if another node owns this execution
+     * @throws Exception
+     *             if the coordinator could not be reached; the execution is
+     *             then skipped on this node
+     */
+    JobLease tryAcquire(String jobName, long slot, Duration ttl) throws Exception;
+
+    /**
+     * Give up {@code lease} once the execution has finished, so the next slot
+     * can be taken without waiting for the ttl. Releasing a lease that has
+     * been superseded has no effect.
+     */
+    void release(JobLease lease) throws Exception;
+
+    /**
+     * Called when the jobs plugin stops.
+     */
+    default void close() {
+    }
+}
@@ -0,0 +1,58 @@
+package play.jobs.coordination;
+
+import java.time.Instant;
+
+/**
+ * The right, granted by a {@link JobCoordinator}, to run one execution of a
+ * scheduled job.
+ *
+ * <p>The {@link #fencingToken()} grows every time the job's lease changes
+ * hands. A job whose run may outlive its lease (a long GC pause, a stalled
+ * connection) can pass it along with its writes and have the target reject
+ * tokens lower than the last one it has seen, so a node that lost its lease
+ * cannot overwrite the work of the node that took over.
+ */
+public final class JobLease {
+
+    private final String jobName;
+    private final String owner;
+    private final long slot;
+    private final long fencingToken;
+    private final Instant expiresAt;
+
+    public JobLease(String jobName, String owner, long slot, long fencingToken, Instant expiresAt) {
+        this.jobName = jobName;
+        this.owner = owner;
+        this.slot = slot;
+        this.fencingToken = fencingToken;
+        this.expiresAt = expiresAt;
+    }
+
+    public String jobName() {
+        return jobName;
+    }
+
+    /**
+     * The node that holds the lease, see {@code jobs.coordinator.node}.
+     */
+    public String owner() {
+        return owner;
+    }
+
+    public long slot() {
+        return slot;
+    }
+
+    public long fencingToken() {
+        return fencingToken;
+    }
+
+    public Instant expiresAt() {
+        return expiresAt;
+    }
+
+    @Override
+    public String toString() {
+        return "JobLease[" + jobName + ", slot " + slot + ", token " + fencingToken + ", owner " + owner + "]";
+    }
+}
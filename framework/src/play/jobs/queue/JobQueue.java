@@ -0,0 +1,199 @@
+package play.jobs.queue;
+
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import com.google.gson.ExclusionStrategy;
+import com.google.gson.FieldAttributes;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import play.Logger;
+import play.Play;
+import play.db.DB;
+import play.exceptions.DatabaseException;
+import play.exceptions.UnexpectedException;
+import play.jobs.Job;
+import play.jobs.JobsPlugin;
+import play.libs.Codec;
+import play.libs.Metrics;
+import play.libs.Time;
+
+/**
+ * Durable queue for {@link Job}s, kept in the {@code play_job_queue} table of
+ * one of the application's databases ({@code jobs.queue.db}).
+ *
+ * <p>Unlike {@link Job#now()} and {@link Job#in(int)}, which only live in this
+ * JVM's scheduler, an enqueued job survives restarts and crashes and is run
+ * by whichever node consumes its queue ({@code jobs.queue.workers}). The job
+ * is stored as its class name plus the JSON of the fields its class declares,
+ * so keep those to ids and plain values; it is rebuilt from them on the node
+ * that runs it.
+ *
+ * <p>Enqueueing uses the thread's current connection, like {@link DB#execute},
+ * so inside a JPA transaction the job is only committed — and only becomes
+ * visible to workers — together with the transaction.
+ *
+ * <p>A job that throws is retried with exponential backoff until it has been
+ * tried {@code maxAttempts} times, then left in the table in state
+ * {@code dead}. A job still running when its claim's visibility timeout
+ * expires is considered lost and handed out again, so jobs should finish well
+ * within it and be safe to run twice.
+ */
+public final class JobQueue {
+
+    public static final String DEFAULT = "default";
+
+    private static final Gson GSON = new GsonBuilder().setExclusionStrategies(new ExclusionStrategy() {
+        // Job's own bookkeeping (last run, executor, ...) is not part of the work to do.
+        @Override
+        public boolean shouldSkipField(FieldAttributes f) {
+            return f.getDeclaringClass().isAssignableFrom(Job.class);
+        }
+
+        @Override
+        public boolean shouldSkipClass(Class<?> clazz) {
+            return false;
+        }
+    }).create();
+
+    private static volatile JobQueueStore store;
+    private static final Map<String, QueueWorker> workers = new LinkedHashMap<>();
+
+    private JobQueue() {
+    }
+
+    /**
+     * Enqueue {@code job} on the default queue, to run as soon as a worker is
+     * free.
+     *
+     * @return the id of the queued job
+     */
+    public static String enqueue(Job<?> job) {
+        return enqueue(job, DEFAULT, Duration.ZERO);
+    }
+
+    /**
+     * Enqueue {@code job} on {@code queue}, to run once {@code delay} has
+     * passed.
+     *
+     * @return the id of the queued job
+     */
+    public static String enqueue(Job<?> job, String queue, Duration delay) {
+        JobQueueStore s = store();
+        String id = Codec.UUID();
+        try {
+            s.insert(DB.getConnection(dbName()), id, queue, job.getClass().getName(), payload(job), s.now() + delay.toMillis(),
+                    intSetting(queue, "maxAttempts", 5));
+        } catch (SQLException e) {
+            throw new DatabaseException("Cannot enqueue job " + job.getClass().getName() + " on queue " + queue, e);
+        }
+        Metrics.counter("play.jobs.queue.enqueued", "queue", queue).increment();
+        QueueWorker worker;
+        synchronized (workers) {
+            worker = workers.get(queue);
+        }
+        if (worker != null && delay.isZero()) {
+            worker.wake();
+        }
+        return id;
+    }
+
+    /**
+     * Start consuming the queues listed in {@code jobs.queue.workers}. Called
+     * by {@link JobsPlugin} when the application starts.
+     */
+    public static void start() {
+        String names = Play.configuration.getProperty("jobs.queue.workers", "").trim();
+        if (names.isEmpty()) {
+            return;
+        }
+        String owner = JobsPlugin.nodeName();
+        synchronized (workers) {
+            for (String queue : names.split("\\s*,\\s*")) {
+                int concurrency = intSetting(queue, "concurrency", 4);
+                QueueWorker worker = new QueueWorker(queue, store(), owner, concurrency, intSetting(queue, "batchSize", 10),
+                        durationSetting(queue, "visibilityTimeout", "5min"), durationSetting(queue, "pollInterval", "1s"),
+                        durationSetting(queue, "backoff", "10s"), JobQueue::restore);
+                workers.put(queue, worker);
+                worker.start();
+                Logger.info("Consuming job queue %s with %d workers", queue, concurrency);
+            }
+        }
+    }
+
+    /**
+     * Stop polling and wait up to {@code timeoutMs} for running jobs. Jobs
+     * still running afterwards are interrupted and will be retried elsewhere.
+     */
+    public static void stop(long timeoutMs) {
+        synchronized (workers) {
+            for (QueueWorker worker : workers.values()) {
+                worker.stop(timeoutMs);
+            }
+            workers.clear();
+        }
+        store = null;
+    }
+
+    static String payload(Job<?> job) {
+        return GSON.toJson(job);
+    }
+
+    static Job<?> restore(QueuedJob queued) {
+        try {
+            ClassLoader loader = Play.classloader != null ? Play.classloader : JobQueue.class.getClassLoader();
+            return (Job<?>) GSON.fromJson(queued.payload(), loader.loadClass(queued.jobClass()));
+        } catch (ClassNotFoundException e) {
+            throw new UnexpectedException("Queued job class " + queued.jobClass() + " not found", e);
+        }
+    }
+
+    private static JobQueueStore store() {
+        JobQueueStore s = store;
+        if (s == null) {
+            synchronized (JobQueue.class) {
+                s = store;
+                if (s == null) {
+                    String db = dbName();
+                    s = new JobQueueStore(() -> dataSource(db), Clock.systemUTC(),
+                            Boolean.parseBoolean(Play.configuration.getProperty("jobs.queue.skipLocked", "true")),
+                            Play.configuration.getProperty("jobs.queue.textType", "text"));
+                    store = s;
+                }
+            }
+        }
+        return s;
+    }
+
+    private static DataSource dataSource(String db) {
+        DataSource dataSource = DB.getDataSource(db);
+        if (dataSource == null) {
+            throw new DatabaseException("No database '" + db + "' for the job queue, check jobs.queue.db");
+        }
+        return dataSource;
+    }
+
+    private static String dbName() {
+        return Play.configuration.getProperty("jobs.queue.db", DB.DEFAULT);
+    }
+
+    // jobs.queue.<queue>.<key>, falling back to jobs.queue.<key> for all queues.
+    private static String setting(String queue, String key, String defaultValue) {
+        return Play.configuration.getProperty("jobs.queue." + queue + "." + key,
+                Play.configuration.getProperty("jobs.queue." + key, defaultValue));
+    }
+
+    private static int intSetting(String queue, String key, int defaultValue) {
+        return Integer.parseInt(setting(queue, key, String.valueOf(defaultValue)).trim());
+    }
+
+    private static Duration durationSetting(String queue, String key, String defaultValue) {
+        return Duration.ofSeconds(Time.parseDuration(setting(queue, key, defaultValue)));
+    }
+}
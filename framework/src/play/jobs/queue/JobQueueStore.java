@@ -0,0 +1,212 @@
+package play.jobs.queue;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import javax.sql.DataSource;
+
+import play.Logger;
+
+/**
+ * SQL side of the durable job queue: one {@code play_job_queue} row per
+ * pending job.
+ *
+ * <p>A row is ready when its {@code run_at} has passed and it is not locked,
+ * i.e. its {@code locked_until} (the visibility timeout of the last claim)
+ * has passed as well. Claiming locks a batch of ready rows with
+ * {@code select ... for update skip locked}, so concurrent pollers on other
+ * nodes skip the rows being claimed instead of queueing behind them, and then
+ * moves their {@code locked_until} forward. The claiming update re-checks the
+ * lock, so claims stay exclusive on databases configured without
+ * {@code skip locked} too. A completed job's row is deleted; a job out of
+ * attempts stays in the table with state {@code dead} for inspection.
+ */
+class JobQueueStore {
+
+    static final String TABLE = "play_job_queue";
+    static final String READY = "ready";
+    static final String DEAD = "dead";
+
+    private final Supplier<DataSource> dataSource;
+    private final Clock clock;
+    private final boolean skipLocked;
+    private final String textType;
+    private volatile boolean tableChecked;
+
+    JobQueueStore(Supplier<DataSource> dataSource, Clock clock, boolean skipLocked, String textType) {
+        this.dataSource = dataSource;
+        this.clock = clock;
+        this.skipLocked = skipLocked;
+        this.textType = textType;
+    }
+
+    long now() {
+        return clock.millis();
+    }
+
+    /**
+     * Insert a job on {@code connection}, which may be in the middle of the
+     * caller's transaction: the job only becomes visible when it commits.
+     */
+    void insert(Connection connection, String id, String queue, String jobClass, String payload, long runAt, int maxAttempts)
+            throws SQLException {
+        checkTable();
+        try (PreparedStatement ps = connection.prepareStatement("insert into " + TABLE
+                + " (id, queue, job_class, payload, state, attempts, max_attempts, run_at, locked_until, created_at)"
+                + " values (?, ?, ?, ?, ?, 0, ?, ?, 0, ?)")) {
+            ps.setString(1, id);
+            ps.setString(2, queue);
+            ps.setString(3, jobClass);
+            ps.setString(4, payload);
+            ps.setString(5, READY);
+            ps.setInt(6, maxAttempts);
+            ps.setLong(7, runAt);
+            ps.setLong(8, now());
+            ps.executeUpdate();
+        }
+    }
+
+    /**
+     * Claim up to {@code max} ready jobs of {@code queue} for {@code owner},
+     * hiding them from other pollers for {@code visibilityTimeout}.
+     */
+    List<QueuedJob> claim(String queue, int max, String owner, Duration visibilityTimeout) throws SQLException {
+        checkTable();
+        long now = now();
+        List<QueuedJob> candidates = new ArrayList<>(max);
+        List<QueuedJob> claimed = new ArrayList<>(max);
+        try (Connection connection = dataSource.get().getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                try (PreparedStatement select = connection.prepareStatement("select id, job_class, payload, attempts, max_attempts, run_at from "
+                        + TABLE + " where queue = ? and state = ? and run_at <= ? and locked_until <= ? order by run_at"
+                        + (skipLocked ? " for update skip locked" : ""))) {
+                    select.setMaxRows(max);
+                    select.setString(1, queue);
+                    select.setString(2, READY);
+                    select.setLong(3, now);
+                    select.setLong(4, now);
+                    try (ResultSet rs = select.executeQuery()) {
+                        while (rs.next() && candidates.size() < max) {
+                            candidates.add(new QueuedJob(rs.getString(1), queue, rs.getString(2), rs.getString(3), rs.getInt(4) + 1,
+                                    rs.getInt(5), rs.getLong(6)));
+                        }
+                    }
+                }
+                if (!candidates.isEmpty()) {
+                    try (PreparedStatement update = connection.prepareStatement("update " + TABLE
+                            + " set attempts = ?, locked_by = ?, locked_until = ? where id = ? and attempts = ? and locked_until <= ?")) {
+                        for (QueuedJob job : candidates) {
+                            update.setInt(1, job.attempt());
+                            update.setString(2, owner);
+                            update.setLong(3, now + visibilityTimeout.toMillis());
+                            update.setString(4, job.id());
+                            update.setInt(5, job.attempt() - 1);
+                            update.setLong(6, now);
+                            if (update.executeUpdate() == 1) {
+                                claimed.add(job);
+                            }
+                        }
+                    }
+                }
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            }
+        }
+        return claimed;
+    }
+
+    /**
+     * Remove a job that ran successfully. Returns false if the claim had
+     * already expired and the job was claimed again.
+     */
+    boolean complete(QueuedJob job) throws SQLException {
+        try (Connection connection = autoCommitConnection();
+                PreparedStatement ps = connection.prepareStatement("delete from " + TABLE + " where id = ? and attempts = ?")) {
+            ps.setString(1, job.id());
+            ps.setInt(2, job.attempt());
+            return ps.executeUpdate() == 1;
+        }
+    }
+
+    /**
+     * Make a failed job ready again at {@code runAt}.
+     */
+    boolean retry(QueuedJob job, long runAt, String problem) throws SQLException {
+        try (Connection connection = autoCommitConnection();
+                PreparedStatement ps = connection.prepareStatement("update " + TABLE
+                        + " set run_at = ?, locked_by = null, locked_until = 0, last_problem = ? where id = ? and attempts = ?")) {
+            ps.setLong(1, runAt);
+            ps.setString(2, problem);
+            ps.setString(3, job.id());
+            ps.setInt(4, job.attempt());
+            return ps.executeUpdate() == 1;
+        }
+    }
+
+    /**
+     * Park a job that ran out of attempts.
+     */
+    boolean bury(QueuedJob job, String problem) throws SQLException {
+        try (Connection connection = autoCommitConnection();
+                PreparedStatement ps = connection.prepareStatement("update " + TABLE
+                        + " set state = ?, locked_by = null, locked_until = 0, last_problem = ? where id = ? and attempts = ?")) {
+            ps.setString(1, DEAD);
+            ps.setString(2, problem);
+            ps.setString(3, job.id());
+            ps.setInt(4, job.attempt());
+            return ps.executeUpdate() == 1;
+        }
+    }
+
+    private Connection autoCommitConnection() throws SQLException {
+        Connection connection = dataSource.get().getConnection();
+        connection.setAutoCommit(true);
+        return connection;
+    }
+
+    // The table is created on a connection of its own: insert() may run inside
+    // the caller's transaction, and DDL would commit it on several databases.
+    private void checkTable() throws SQLException {
+        if (tableChecked) {
+            return;
+        }
+        try (Connection connection = autoCommitConnection()) {
+            if (!tableExists(connection)) {
+                Logger.info("Creating %s table for queued jobs", TABLE);
+                try (Statement st = connection.createStatement()) {
+                    st.execute("create table " + TABLE + " (id varchar(36) not null, queue varchar(64) not null, job_class varchar(255) not null, "
+                            + "payload " + textType + ", state varchar(8) not null, attempts int not null, max_attempts int not null, "
+                            + "run_at bigint not null, locked_by varchar(255), locked_until bigint not null, created_at bigint not null, "
+                            + "last_problem " + textType + ", constraint pk_" + TABLE + " primary key (id))");
+                    st.execute("create index ix_" + TABLE + "_ready on " + TABLE + " (queue, state, run_at)");
+                } catch (SQLException e) {
+                    // Another node may have created it in the meantime.
+                    if (!tableExists(connection)) {
+                        throw e;
+                    }
+                }
+            }
+        }
+        tableChecked = true;
+    }
+
+    private static boolean tableExists(Connection connection) {
+        try (Statement st = connection.createStatement()) {
+            st.executeQuery("select count(*) from " + TABLE + " where 1 = 0").close();
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+}
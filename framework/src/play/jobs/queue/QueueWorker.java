@@ -0,0 +1,189 @@
+package play.jobs.queue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import play.Logger;
+import play.jobs.Job;
+import play.libs.Metrics;
+import play.utils.VirtualThreadFactory;
+
+/**
+ * Consumes one queue on this node: a poller claims ready jobs in batches, as
+ * long as fewer than {@code concurrency} of them are running, and runs each
+ * on its own virtual thread. The poller sleeps for the poll interval when the
+ * queue is drained, and is woken early when a local job finishes or is
+ * enqueued.
+ */
+class QueueWorker implements Runnable {
+
+    private static final long MAX_BACKOFF_MS = TimeUnit.HOURS.toMillis(1);
+
+    private final String queue;
+    private final JobQueueStore store;
+    private final String owner;
+    private final int concurrency;
+    private final int batchSize;
+    private final Duration visibilityTimeout;
+    private final Duration pollInterval;
+    private final Duration backoff;
+    private final Function<QueuedJob, Job<?>> restore;
+
+    private final Semaphore slots;
+    private final Semaphore wakeups = new Semaphore(0);
+    private final ExecutorService executor;
+    private volatile boolean running = true;
+    private Thread poller;
+
+    QueueWorker(String queue, JobQueueStore store, String owner, int concurrency, int batchSize, Duration visibilityTimeout,
+            Duration pollInterval, Duration backoff, Function<QueuedJob, Job<?>> restore) {
+        this.queue = queue;
+        this.store = store;
+        this.owner = owner;
+        this.concurrency = concurrency;
+        this.batchSize = batchSize;
+        this.visibilityTimeout = visibilityTimeout;
+        this.pollInterval = pollInterval;
+        this.backoff = backoff;
+        this.restore = restore;
+        this.slots = new Semaphore(concurrency);
+        this.executor = Executors.newThreadPerTaskExecutor(new VirtualThreadFactory("jobs-queue-" + queue));
+    }
+
+    void start() {
+        poller = new VirtualThreadFactory("jobs-queue-" + queue + "-poller").newThread(this);
+        poller.start();
+    }
+
+    void wake() {
+        wakeups.release();
+    }
+
+    int running() {
+        return concurrency - slots.availablePermits();
+    }
+
+    @Override
+    public void run() {
+        while (running) {
+            int requested = Math.min(slots.availablePermits(), batchSize);
+            int claimed = 0;
+            if (requested > 0) {
+                try {
+                    claimed = poll(requested);
+                } catch (Exception e) {
+                    Logger.warn(e, "Cannot poll job queue %s", queue);
+                }
+            }
+            if (requested == 0 || claimed < requested) {
+                try {
+                    wakeups.tryAcquire(pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+                    wakeups.drainPermits();
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Claim up to {@code max} jobs and start them. Returns how many were
+     * claimed.
+     */
+    int poll(int max) throws Exception {
+        List<QueuedJob> jobs = store.claim(queue, max, owner, visibilityTimeout);
+        for (QueuedJob job : jobs) {
+            slots.acquireUninterruptibly();
+            executor.execute(() -> {
+                try {
+                    execute(job);
+                } finally {
+                    slots.release();
+                    wake();
+                }
+            });
+        }
+        return jobs.size();
+    }
+
+    void execute(QueuedJob job) {
+        Metrics.timer("play.jobs.queue.latency", "queue", queue).record(Math.max(0, store.now() - job.runAt()), TimeUnit.MILLISECONDS);
+        long start = System.nanoTime();
+        String outcome = "succeeded";
+        String problem = null;
+        try {
+            restore.apply(job).call();
+        } catch (Throwable t) {
+            problem = String.valueOf(t);
+            if (job.attempt() >= job.maxAttempts()) {
+                outcome = "dead";
+                Logger.error(t, "Queued job %s (%s) failed %d times; giving up", job.jobClass(), job.id(), job.attempt());
+            } else {
+                outcome = "retried";
+                Logger.warn(t, "Queued job %s (%s) failed on attempt %d of %d", job.jobClass(), job.id(), job.attempt(), job.maxAttempts());
+            }
+        }
+        record(job, outcome, problem);
+        Metrics.timer("play.jobs.queue.execution", "queue", queue, "outcome", outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    // A failure here leaves the row locked; it becomes ready again once the
+    // visibility timeout passes, so the job is retried rather than lost.
+    private void record(QueuedJob job, String outcome, String problem) {
+        try {
+            boolean current = switch (outcome) {
+            case "succeeded" -> store.complete(job);
+            case "dead" -> store.bury(job, problem);
+            default -> store.retry(job, store.now() + backoff(job.attempt()), problem);
+            };
+            if (!current) {
+                Logger.warn("Queued job %s (%s) outlived its visibility timeout of %s and was claimed again", job.jobClass(), job.id(),
+                        visibilityTimeout);
+            }
+        } catch (Exception e) {
+            Logger.error(e, "Cannot record outcome %s of queued job %s (%s)", outcome, job.jobClass(), job.id());
+        }
+    }
+
+    /**
+     * Delay before attempt {@code attempt + 1}: the base backoff, doubled for
+     * every previous attempt, at most an hour.
+     */
+    long backoff(int attempt) {
+        long delay = backoff.toMillis() << Math.min(attempt - 1, 30);
+        return delay <= 0 ? MAX_BACKOFF_MS : Math.min(delay, MAX_BACKOFF_MS);
+    }
+
+    /**
+     * Stop polling, then wait for the jobs already claimed. The poller is
+     * stopped first so that a batch it claims meanwhile is still run rather
+     * than left leased until its visibility timeout.
+     */
+    void stop(long timeoutMs) {
+        running = false;
+        wake();
+        try {
+            if (poller != null) {
+                poller.join(timeoutMs);
+                if (poller.isAlive()) {
+                    Logger.warn("Job queue %s still polling after %d ms; jobs it claims will be retried once their claim expires", queue,
+                            timeoutMs);
+                    poller.interrupt();
+                }
+            }
+            executor.shutdown();
+            if (!executor.awaitTermination(timeoutMs, TimeUnit.MILLISECONDS)) {
+                Logger.warn("Queued jobs of %s still running after %d ms; they will be retried once their claim expires", queue, timeoutMs);
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package play.jobs.queue;
+
+/**
+ * A row of the job queue claimed by this node. {@code attempt} counts this
+ * claim, and doubles as a fencing token: completing or failing the job only
+ * touches the row if nobody has claimed it again in the meantime.
+ */
+record QueuedJob(String id, String queue, String jobClass, String payload, int attempt, int maxAttempts, long runAt) {
+}
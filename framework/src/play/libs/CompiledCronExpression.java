@@ -0,0 +1,398 @@
+package play.libs;
+
+import java.text.ParseException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.Year;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A {@link CronExpression} compiled for fast next-fire computation.
+ *
+ * <p>The expression is parsed once by {@link CronExpression}, so the grammar
+ * and the error messages are exactly the same, and every field is then turned
+ * into a {@code long} bitset. Finding the next fire time walks year, month,
+ * day, hour, minute and second with {@link Long#numberOfTrailingZeros} over
+ * those bitsets on plain {@code int}s, instead of copying {@code TreeSet}
+ * tails and re-normalizing a {@code Calendar} at every step. Compiled
+ * expressions are immutable and cached per expression string, see
+ * {@link #compile(String)}.
+ *
+ * <p>Time zones are handled with {@link ZoneRules}, on the local wall clock:
+ * <ul>
+ * <li>a wall-clock time skipped by a forward DST transition fires at the
+ * instant of the transition, once;</li>
+ * <li>a wall-clock time repeated by a backward transition fires at its first
+ * occurrence only, unless the hours field is {@code *}, in which case the
+ * repeated hour is scheduled like any other hour.</li>
+ * </ul>
+ * Specifying both a day-of-month and a day-of-week is rejected at compile
+ * time, where {@link CronExpression} only fails when computing a fire time.
+ */
+public final class CompiledCronExpression {
+
+    private static final int MIN_YEAR = 1970;
+    private static final int MAX_YEAR = 2099;
+    private static final int CACHE_LIMIT = 1024;
+    private static final long ALL_HOURS = (1L << 24) - 1;
+
+    private static final Map<String, CompiledCronExpression> cache = new ConcurrentHashMap<>();
+
+    private final String expression;
+    private final long seconds;
+    private final long minutes;
+    private final long hours;
+    private final long daysOfMonth;
+    private final long months;
+    private final long daysOfWeek;
+    private final long[] years;
+    private final boolean byDayOfWeek;
+    private final boolean lastDayOfMonth;
+    private final boolean nearestWeekday;
+    private final boolean lastDayOfWeek;
+    private final int nthDayOfWeek;
+    private final int firstDayOfMonth;
+    private final int firstDayOfWeek;
+
+    private CompiledCronExpression(String expression, CronExpression parsed) throws ParseException {
+        boolean dayOfMonthSpec = !parsed.daysOfMonth.contains(CronExpression.NO_SPEC);
+        boolean dayOfWeekSpec = !parsed.daysOfWeek.contains(CronExpression.NO_SPEC);
+        if (dayOfMonthSpec == dayOfWeekSpec) {
+            throw new ParseException("Support for specifying both a day-of-week AND a day-of-month parameter is not implemented.", 0);
+        }
+        this.expression = expression;
+        this.seconds = bits(parsed.seconds, 0);
+        this.minutes = bits(parsed.minutes, 0);
+        this.hours = bits(parsed.hours, 0);
+        this.daysOfMonth = bits(parsed.daysOfMonth, 1);
+        this.months = bits(parsed.months, 1);
+        this.daysOfWeek = bits(parsed.daysOfWeek, 1);
+        this.years = new long[(MAX_YEAR - MIN_YEAR) / 64 + 1];
+        for (int year : parsed.years) {
+            if (year >= MIN_YEAR && year <= MAX_YEAR) {
+                years[(year - MIN_YEAR) >>> 6] |= 1L << (year - MIN_YEAR);
+            }
+        }
+        this.byDayOfWeek = dayOfWeekSpec;
+        this.lastDayOfMonth = parsed.lastdayOfMonth;
+        this.nearestWeekday = parsed.nearestWeekday;
+        this.lastDayOfWeek = parsed.lastdayOfWeek;
+        this.nthDayOfWeek = parsed.nthdayOfWeek;
+        this.firstDayOfMonth = Long.numberOfTrailingZeros(daysOfMonth);
+        this.firstDayOfWeek = Long.numberOfTrailingZeros(daysOfWeek);
+    }
+
+    /**
+     * The compiled form of {@code expression}, parsed on first use and
+     * cached afterwards.
+     *
+     * @throws ParseException if the expression is not valid
+     */
+    public static CompiledCronExpression compile(String expression) throws ParseException {
+        CompiledCronExpression compiled = cache.get(expression);
+        if (compiled == null) {
+            compiled = new CompiledCronExpression(expression, new CronExpression(expression));
+            if (cache.size() >= CACHE_LIMIT) {
+                cache.clear();
+            }
+            cache.put(expression, compiled);
+        }
+        return compiled;
+    }
+
+    /**
+     * The first fire time strictly after {@code after}, in its zone, or null
+     * if the expression never fires again. Sub-second precision is ignored.
+     */
+    public ZonedDateTime next(ZonedDateTime after) {
+        long next = nextEpochSecond(after.toEpochSecond(), after.getZone());
+        return next < 0 ? null : ZonedDateTime.ofInstant(Instant.ofEpochSecond(next), after.getZone());
+    }
+
+    /**
+     * Same as {@link #next(ZonedDateTime)} on epoch milliseconds, without
+     * allocating the result; returns {@code -1} if the expression never fires
+     * again.
+     */
+    public long nextEpochMilli(long afterEpochMilli, ZoneId zone) {
+        long next = nextEpochSecond(Math.floorDiv(afterEpochMilli, 1000), zone);
+        return next < 0 ? -1 : next * 1000;
+    }
+
+    /**
+     * True if the wall-clock time of {@code dateTime}, to the second, is
+     * matched by the expression.
+     */
+    public boolean matches(ZonedDateTime dateTime) {
+        long local = dateTime.toLocalDateTime().toEpochSecond(ZoneOffset.UTC);
+        return nextLocal(local) == local;
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+
+    private long nextEpochSecond(long after, ZoneId zone) {
+        long from = after + 1;
+        ZoneRules rules = zone.getRules();
+        if (rules.isFixedOffset()) {
+            int offset = rules.getOffset(Instant.EPOCH).getTotalSeconds();
+            long next = nextLocal(from + offset);
+            return next < 0 ? -1 : next - offset;
+        }
+
+        int offset = rules.getOffset(Instant.ofEpochSecond(from)).getTotalSeconds();
+        long local = from + offset;
+        long next = nextLocal(local);
+        if (next < 0) {
+            return -1;
+        }
+        if (next == local) {
+            return from;
+        }
+
+        // In the first pass of a repeated hour, the second pass comes before
+        // any later wall-clock time.
+        ZoneOffsetTransition current = rules.getTransition(LocalDateTime.ofEpochSecond(local, 0, ZoneOffset.UTC));
+        if (current != null && current.isOverlap() && hours == ALL_HOURS
+                && offset == current.getOffsetBefore().getTotalSeconds()) {
+            long repeatEnd = current.toEpochSecond() + current.getOffsetBefore().getTotalSeconds();
+            if (next >= repeatEnd) {
+                int laterOffset = current.getOffsetAfter().getTotalSeconds();
+                long repeat = nextLocal(current.toEpochSecond() + laterOffset);
+                if (repeat >= 0 && repeat < repeatEnd) {
+                    return repeat - laterOffset;
+                }
+            }
+        }
+
+        LocalDateTime candidate = LocalDateTime.ofEpochSecond(next, 0, ZoneOffset.UTC);
+        List<ZoneOffset> offsets = rules.getValidOffsets(candidate);
+        if (offsets.isEmpty()) {
+            return rules.getTransition(candidate).toEpochSecond();
+        }
+        long earlier = next - offsets.get(0).getTotalSeconds();
+        if (offsets.size() == 1 || earlier >= from) {
+            return earlier;
+        }
+        return next - offsets.get(1).getTotalSeconds();
+    }
+
+    /**
+     * The first matching wall-clock time at or after {@code start}, both as
+     * seconds since 1970-01-01T00:00 local time, or {@code -1}. Out of range
+     * fields simply carry into the next larger field on the following turn.
+     */
+    private long nextLocal(long start) {
+        if (start < 0) {
+            start = 0;
+        }
+        long epochDay = start / 86400;
+        int secondOfDay = (int) (start % 86400);
+        int date = civil(epochDay);
+        int year = date >> 9;
+        int month = (date >> 5) & 15;
+        int day = date & 31;
+        int hour = secondOfDay / 3600;
+        int minute = secondOfDay / 60 % 60;
+        int second = secondOfDay % 60;
+
+        while (year <= MAX_YEAR) {
+            int nextYear = nextYear(year);
+            if (nextYear < 0) {
+                return -1;
+            }
+            if (nextYear != year) {
+                year = nextYear;
+                month = 1;
+                day = 1;
+                hour = minute = second = 0;
+            }
+            int nextMonth = next(months, month);
+            if (nextMonth < 0) {
+                year++;
+                month = 1;
+                day = 1;
+                hour = minute = second = 0;
+                continue;
+            }
+            if (nextMonth != month) {
+                month = nextMonth;
+                day = 1;
+                hour = minute = second = 0;
+            }
+            int nextDay = nextDay(year, month, day);
+            if (nextDay < 0) {
+                month++;
+                day = 1;
+                hour = minute = second = 0;
+                continue;
+            }
+            if (nextDay != day) {
+                day = nextDay;
+                hour = minute = second = 0;
+            }
+            int nextHour = next(hours, hour);
+            if (nextHour < 0) {
+                day++;
+                hour = minute = second = 0;
+                continue;
+            }
+            if (nextHour != hour) {
+                hour = nextHour;
+                minute = second = 0;
+            }
+            int nextMinute = next(minutes, minute);
+            if (nextMinute < 0) {
+                hour++;
+                minute = second = 0;
+                continue;
+            }
+            if (nextMinute != minute) {
+                minute = nextMinute;
+                second = 0;
+            }
+            int nextSecond = next(seconds, second);
+            if (nextSecond < 0) {
+                minute++;
+                second = 0;
+                continue;
+            }
+            return epochDay(year, month, day) * 86400 + hour * 3600 + minute * 60 + nextSecond;
+        }
+        return -1;
+    }
+
+    private int nextYear(int year) {
+        if (year < MIN_YEAR) {
+            year = MIN_YEAR;
+        }
+        for (int index = year - MIN_YEAR; index <= MAX_YEAR - MIN_YEAR; ) {
+            long word = years[index >>> 6] & (-1L << index);
+            if (word != 0) {
+                int found = ((index >>> 6) << 6) + Long.numberOfTrailingZeros(word);
+                return found <= MAX_YEAR - MIN_YEAR ? MIN_YEAR + found : -1;
+            }
+            index = ((index >>> 6) + 1) << 6;
+        }
+        return -1;
+    }
+
+    private int nextDay(int year, int month, int from) {
+        int length = Month.of(month).length(Year.isLeap(year));
+        if (from > length) {
+            return -1;
+        }
+        if (!byDayOfWeek) {
+            if (lastDayOfMonth) {
+                int day = nearestWeekday ? nearestWeekday(year, month, length, length) : length;
+                return day >= from ? day : -1;
+            }
+            if (nearestWeekday) {
+                if (firstDayOfMonth > length) {
+                    return -1;
+                }
+                int day = nearestWeekday(year, month, firstDayOfMonth, length);
+                return day >= from ? day : -1;
+            }
+            int day = next(daysOfMonth, from);
+            return day > 0 && day <= length ? day : -1;
+        }
+        int dayOfWeek = dayOfWeek(year, month, from);
+        if (lastDayOfWeek || nthDayOfWeek != 0) {
+            int day = from + Math.floorMod(firstDayOfWeek - dayOfWeek, 7);
+            if (lastDayOfWeek) {
+                day += (length - day) / 7 * 7;
+            } else {
+                day += (nthDayOfWeek - 1 - (day - 1) / 7) * 7;
+                if (day < from) {
+                    return -1;
+                }
+            }
+            return day <= length ? day : -1;
+        }
+        for (int day = from; day <= length; day++) {
+            if ((daysOfWeek & (1L << dayOfWeek)) != 0) {
+                return day;
+            }
+            dayOfWeek = dayOfWeek == 7 ? 1 : dayOfWeek + 1;
+        }
+        return -1;
+    }
+
+    /**
+     * The weekday closest to {@code day} within the same month, as Quartz's
+     * {@code W} option defines it.
+     */
+    private static int nearestWeekday(int year, int month, int day, int length) {
+        int dayOfWeek = dayOfWeek(year, month, day);
+        if (dayOfWeek == 7) {
+            return day == 1 ? day + 2 : day - 1;
+        }
+        if (dayOfWeek == 1) {
+            return day == length ? day - 2 : day + 1;
+        }
+        return day;
+    }
+
+    private static int next(long bits, int from) {
+        if (from >= 64) {
+            return -1;
+        }
+        long remaining = bits & (-1L << from);
+        return remaining == 0 ? -1 : Long.numberOfTrailingZeros(remaining);
+    }
+
+    private static long bits(Set<Integer> values, int min) {
+        long bits = 0;
+        for (int value : values) {
+            if (value >= min && value < 64 && value != CronExpression.NO_SPEC_INT && value != CronExpression.ALL_SPEC_INT) {
+                bits |= 1L << value;
+            }
+        }
+        return bits;
+    }
+
+    /**
+     * Day of week with Sunday = 1 ... Saturday = 7, like {@link java.util.Calendar}.
+     */
+    private static int dayOfWeek(int year, int month, int day) {
+        return Math.floorMod(epochDay(year, month, day) + 4, 7) + 1;
+    }
+
+    // Proleptic Gregorian conversions after H. Hinnant, "chrono-Compatible Low-Level Date Algorithms".
+    private static long epochDay(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(y, 400);
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097L + dayOfEra - 719468;
+    }
+
+    /**
+     * The civil date of {@code epochDay}, packed as {@code year << 9 | month << 5 | day}.
+     */
+    private static int civil(long epochDay) {
+        long z = epochDay + 719468;
+        long era = Math.floorDiv(z, 146097);
+        int dayOfEra = (int) (z - era * 146097);
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int mp = (5 * dayOfYear + 2) / 153;
+        int day = dayOfYear - (153 * mp + 2) / 5 + 1;
+        int month = mp < 10 ? mp + 3 : mp - 9;
+        int year = (int) (yearOfEra + era * 400) + (month <= 2 ? 1 : 0);
+        return year << 9 | month << 5 | day;
+    }
+}
@@ -1,13 +1,19 @@
 package play.libs;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import jakarta.mail.Authenticator;
 import jakarta.mail.PasswordAuthentication;
@@ -22,6 +28,7 @@ import play.Play;
 import play.exceptions.MailException;
 import play.libs.mail.AbstractMailSystemFactory;
 import play.libs.mail.MailSystem;
+import play.libs.mail.SmtpTransportPool;
 import play.libs.mail.test.LegacyMockMailSystem;
 import play.utils.Utils.Maps;
 import play.utils.VirtualThreadFactory;
@@ -66,6 +73,26 @@ public class Mail {
         }
     }
 
+    /**
+     * Send a batch of emails, reusing a few SMTP connections for the whole
+     * batch instead of connecting once per message
+     *
+     * @param emails
+     *            The Email messages
+     * @return one future per email, in order, true if that email was successfully sent
+     */
+    public static List<Future<Boolean>> sendAll(Collection<? extends Email> emails) {
+        List<Email> built = new ArrayList<>(emails.size());
+        try {
+            for (Email email : emails) {
+                built.add(buildMessage(email));
+            }
+        } catch (EmailException ex) {
+            throw new MailException("Cannot send email", ex);
+        }
+        return currentMailSystem().sendMessages(built);
+    }
+
     // Helper method for better readability
     protected static MailSystem currentMailSystem() {
         return mailSystemFactory.currentMailSystem();
@@ -245,8 +272,7 @@ public class Mail {
                     return false;
                 }
                 try {
-                    msg.setSentDate(new Date());
-                    msg.send();
+                    deliver(msg);
                     return true;
                 } catch (Throwable e) {
                     MailException me = new MailException("Error while sending email", e);
@@ -259,8 +285,7 @@ public class Mail {
         } else {
             final StringBuilder result = new StringBuilder();
             try {
-                msg.setSentDate(new Date());
-                msg.send();
+                deliver(msg);
             } catch (Throwable e) {
                 MailException me = new MailException("Error while sending email", e);
                 Logger.error(me, "The email has not been sent");
@@ -295,8 +320,162 @@ public class Mail {
         }
     }
 
+    /**
+     * Send a batch of JavaMail messages. The batch is spread over at most
+     * {@code play.mail.sendAll.connections} pooled SMTP connections (default
+     * 4), each taking one permit of the send gate for its share of the batch.
+     *
+     * @param msgs
+     *            The Email messages
+     * @return one future per email, in order, true if that email was successfully sent
+     */
+    public static List<Future<Boolean>> sendMessages(List<? extends Email> msgs) {
+        List<CompletableFuture<Boolean>> results = new ArrayList<>(msgs.size());
+        for (int i = 0; i < msgs.size(); i++) {
+            results.add(new CompletableFuture<>());
+        }
+        AtomicInteger next = new AtomicInteger();
+        if (asynchronousSend) {
+            int connections = Math.min(msgs.size(), configuredInt("play.mail.sendAll.connections", 4));
+            for (int i = 0; i < connections; i++) {
+                getExecutor().submit(() -> deliverAll(msgs, results, next, true));
+            }
+        } else {
+            deliverAll(msgs, results, next, false);
+        }
+        return Collections.unmodifiableList(results);
+    }
+
+    /**
+     * Send {@code msg}, over a pooled connection when {@code play.mail.pool}
+     * is true.
+     */
+    private static void deliver(Email msg) throws Exception {
+        msg.setSentDate(new Date());
+        if (!Boolean.parseBoolean(configured("play.mail.pool", "false"))) {
+            msg.send();
+            return;
+        }
+        msg.buildMimeMessage();
+        SmtpTransportPool pool = getTransportPool(msg.getMailSession());
+        SmtpTransportPool.Connection connection = pool.borrow();
+        boolean sent = false;
+        try {
+            connection.send(msg.getMimeMessage());
+            sent = true;
+        } finally {
+            pool.release(connection, sent);
+        }
+    }
+
+    /**
+     * Take messages off {@code msgs} until none is left, sending them all over
+     * the same connection until it has carried its share.
+     */
+    private static void deliverAll(List<? extends Email> msgs, List<CompletableFuture<Boolean>> results, AtomicInteger next,
+                                   boolean gated) {
+        Semaphore gate = getMailGate();
+        if (gated) {
+            try {
+                gate.acquire();
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                for (int i; (i = next.getAndIncrement()) < msgs.size(); ) {
+                    results.get(i).complete(false);
+                }
+                return;
+            }
+        }
+        SmtpTransportPool pool = null;
+        SmtpTransportPool.Connection connection = null;
+        try {
+            for (int i; (i = next.getAndIncrement()) < msgs.size(); ) {
+                Email msg = msgs.get(i);
+                boolean sending = false;
+                try {
+                    msg.setSentDate(new Date());
+                    msg.buildMimeMessage();
+                    if (pool == null || pool.session() != msg.getMailSession()) {
+                        if (connection != null) {
+                            pool.release(connection, true);
+                            connection = null;
+                        }
+                        pool = getTransportPool(msg.getMailSession());
+                    }
+                    if (connection == null) {
+                        connection = pool.borrow();
+                    }
+                    sending = true;
+                    connection.send(msg.getMimeMessage());
+                    results.get(i).complete(true);
+                    if (connection.sent() >= pool.maxMessagesPerConnection()) {
+                        pool.release(connection, true);
+                        connection = null;
+                    }
+                } catch (Throwable e) {
+                    MailException me = new MailException("Error while sending email", e);
+                    Logger.error(me, "The email has not been sent");
+                    results.get(i).complete(false);
+                    if (sending && connection != null) {
+                        pool.release(connection, false);
+                        connection = null;
+                    }
+                }
+            }
+        } finally {
+            if (connection != null) {
+                pool.release(connection, true);
+            }
+            if (gated) {
+                gate.release();
+            }
+        }
+    }
+
     static volatile ExecutorService executor;
     static volatile Semaphore mailGate;
+    static volatile SmtpTransportPool transportPool;
+
+    /**
+     * Returns the SMTP connection pool of {@code session}. Its limits are read
+     * when it is created, from {@code play.mail.pool.maxIdle} (default 4),
+     * {@code play.mail.pool.maxMessages} (default 100) and
+     * {@code play.mail.pool.idleTimeout} (default 30s). A pool built for
+     * another session is closed.
+     */
+    static SmtpTransportPool getTransportPool(Session session) {
+        SmtpTransportPool pool = transportPool;
+        if (pool == null || pool.session() != session) {
+            synchronized (Mail.class) {
+                pool = transportPool;
+                if (pool == null || pool.session() != session) {
+                    if (pool != null) {
+                        pool.close();
+                    }
+                    pool = new SmtpTransportPool(session,
+                            configuredInt("play.mail.pool.maxIdle", 4),
+                            configuredInt("play.mail.pool.maxMessages", 100),
+                            Time.parseDuration(configured("play.mail.pool.idleTimeout", "30s")) * 1000L);
+                    transportPool = pool;
+                }
+            }
+        }
+        return pool;
+    }
+
+    private static String configured(String key, String defaultValue) {
+        return Play.configuration == null ? defaultValue : Play.configuration.getProperty(key, defaultValue);
+    }
+
+    private static int configuredInt(String key, int defaultValue) {
+        String raw = configured(key, String.valueOf(defaultValue));
+        try {
+            return Integer.parseInt(raw.trim());
+        } catch (NumberFormatException nfe) {
+            Logger.warn("Invalid %s=%s; using default %s", key, raw, defaultValue);
+            return defaultValue;
+        }
+    }
 
     /**
      * Returns the back-pressure semaphore that gates concurrent SMTP sends. Capacity
@@ -350,8 +529,9 @@ public class Mail {
     }
 
     /**
-     * Reset the executor and the back-pressure semaphore. Called during application
-     * restart so configuration changes (mode, concurrency cap) are picked up.
+     * Reset the executor, the back-pressure semaphore and the SMTP connection pool.
+     * Called during application restart so configuration changes (mode, concurrency
+     * cap, pool limits) are picked up.
      */
     public static void resetExecutor() {
         synchronized (Mail.class) {
@@ -360,6 +540,10 @@ public class Mail {
                 executor = null;
             }
             mailGate = null;
+            if (transportPool != null) {
+                transportPool.close();
+                transportPool = null;
+            }
         }
     }
 
@@ -0,0 +1,115 @@
+package play.libs;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent computations of the same key into one.
+ *
+ * <p>The first caller for a key runs the work on its own thread; callers that
+ * arrive while it is in flight wait for it and receive the same value, or the
+ * same exception. Once the work completes the key is forgotten, so the next
+ * caller starts a fresh computation — this is not a cache, it only keeps a
+ * miss on a hot key from turning into one backend call per waiting thread.
+ *
+ * <p>Unlike {@link play.cache.Cache#get(Object, java.util.function.Function)}
+ * no lock is held while the work runs, so the work may itself use the same
+ * cache (a {@code #{cache}} tag nested in another one, for instance). It must
+ * not wait on its own key, though: that caller would wait for itself.
+ *
+ * <p>Callers that shared a result are counted in the
+ * {@code play.singleflight.shared} counter, tagged with the flight's name.
+ */
+public final class SingleFlight<K, V> {
+
+    private final String name;
+    private final ConcurrentHashMap<K, CompletableFuture<V>> calls = new ConcurrentHashMap<>();
+
+    public SingleFlight(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Run {@code work} for {@code key}, or wait for the run already in flight
+     * for it.
+     */
+    public V run(K key, Callable<? extends V> work) throws Exception {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> inFlight = calls.putIfAbsent(key, call);
+        if (inFlight != null) {
+            shared();
+            return await(inFlight);
+        }
+        try {
+            V value = work.call();
+            call.complete(value);
+            return value;
+        } catch (Throwable e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            calls.remove(key, call);
+        }
+    }
+
+    /**
+     * Start {@code work} for {@code key}, or join the run already in flight
+     * for it. Each caller gets its own future, so cancelling one does not
+     * affect the others.
+     */
+    public CompletableFuture<V> runAsync(K key, Supplier<? extends CompletionStage<? extends V>> work) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> inFlight = calls.putIfAbsent(key, call);
+        if (inFlight != null) {
+            shared();
+            return inFlight.copy();
+        }
+        try {
+            work.get().whenComplete((value, error) -> {
+                calls.remove(key, call);
+                if (error != null) {
+                    call.completeExceptionally(error);
+                } else {
+                    call.complete(value);
+                }
+            });
+        } catch (Throwable e) {
+            calls.remove(key, call);
+            call.completeExceptionally(e);
+        }
+        return call.copy();
+    }
+
+    /**
+     * Number of keys with a computation in flight.
+     */
+    public int inFlight() {
+        return calls.size();
+    }
+
+    private void shared() {
+        Metrics.counter("play.singleflight.shared", "name", name).increment();
+    }
+
+    private static <V> V await(CompletableFuture<V> call) throws Exception {
+        try {
+            return call.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw e;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception exception) {
+                throw exception;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
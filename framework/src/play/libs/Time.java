@@ -1,5 +1,6 @@
 package play.libs;
 
+import java.time.ZoneId;
 import java.util.Date;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -16,6 +17,7 @@ import java.util.regex.Pattern;
  */
 public class Time {
     private static final Pattern p = Pattern.compile("(([0-9]+?)((d|h|mi|min|mn|s)))+?");
+    private static final Pattern millis = Pattern.compile("([0-9]+)ms");
     private static final int MINUTE = 60;
     private static final int HOUR = 60 * MINUTE;
     private static final int DAY = 24 * HOUR;
@@ -54,6 +56,23 @@ public class Time {
         return seconds;
     }
 
+    /**
+     * Parse a duration that may be shorter than a second
+     *
+     * @param duration
+     *            200ms, or a duration {@link #parseDuration(String)} parses
+     * @return The number of milliseconds
+     */
+    public static long parseDurationMillis(String duration) {
+        if (duration != null) {
+            Matcher matcher = millis.matcher(duration);
+            if (matcher.matches()) {
+                return Long.parseLong(matcher.group(1));
+            }
+        }
+        return parseDuration(duration) * 1000L;
+    }
+
     /**
      * Parse a CRON expression
      *
@@ -63,7 +82,8 @@ public class Time {
      */
     public static Date parseCRONExpression(String cron) {
         try {
-            return new CronExpression(cron).getNextValidTimeAfter(new Date());
+            long next = CompiledCronExpression.compile(cron).nextEpochMilli(System.currentTimeMillis(), ZoneId.systemDefault());
+            return next < 0 ? null : new Date(next);
         } catch (Exception e) {
             throw new IllegalArgumentException("Invalid CRON pattern : " + cron, e);
         }
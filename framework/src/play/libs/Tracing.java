@@ -0,0 +1,421 @@
+package play.libs;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import play.InvocationLocal;
+
+/**
+ * Static facade for distributed tracing: spans in the OpenTelemetry model,
+ * propagated with the W3C {@code traceparent} header.
+ *
+ * <p>Tracing is off until {@code play.plugins.TracingPlugin} installs an
+ * {@link Exporter}. Until then every {@code start} method returns
+ * {@link Span#NOOP}, and a span costs one volatile read. Once on, a new trace
+ * is sampled with the configured ratio, and a span follows the decision of
+ * its parent. Spans that are not sampled still carry the trace, so the
+ * services called see the same trace id.</p>
+ *
+ * <pre>
+ * Tracing.Span span = Tracing.start("pricing", product.code);
+ * try {
+ *     ...
+ * } catch (RuntimeException e) {
+ *     span.error(e);
+ *     throw e;
+ * } finally {
+ *     span.end();
+ * }
+ * </pre>
+ */
+public final class Tracing {
+
+    public enum Kind {
+        INTERNAL, SERVER, CLIENT
+    }
+
+    /**
+     * Receives the sampled spans once they ended. Called on the thread that
+     * ended the span: must not block.
+     */
+    public interface Exporter {
+        void export(Span span);
+    }
+
+    private static final HexFormat HEX = HexFormat.of();
+
+    static final ThreadLocal<Span> current = new InvocationLocal<>();
+
+    private static volatile Exporter exporter;
+    private static volatile double ratio = 1.0;
+
+    private Tracing() {
+    }
+
+    /**
+     * Turn tracing on. Called by {@code TracingPlugin} on application start.
+     *
+     * @param newExporter
+     *            Where sampled spans go
+     * @param sampleRatio
+     *            The share of new traces sampled, between 0 and 1
+     */
+    public static void install(Exporter newExporter, double sampleRatio) {
+        ratio = sampleRatio;
+        exporter = newExporter;
+    }
+
+    /**
+     * Turn tracing off. Spans started before end without being exported.
+     */
+    public static void uninstall() {
+        exporter = null;
+    }
+
+    public static boolean enabled() {
+        return exporter != null;
+    }
+
+    /**
+     * @return The span of the current invocation the next spans are children
+     *         of, or {@link Span#NOOP}
+     */
+    public static Span current() {
+        if (exporter == null) {
+            return Span.NOOP;
+        }
+        Span span = current.get();
+        return span == null ? Span.NOOP : span;
+    }
+
+    /**
+     * Start a child of the current span, which becomes the current span until
+     * it ends. Spans made current must end in the reverse order they started,
+     * on the thread that started them.
+     *
+     * @param name
+     *            The span name
+     * @return The span
+     */
+    public static Span start(String name) {
+        return start(name, null);
+    }
+
+    /**
+     * Like {@link #start(String)}, naming the span {@code name detail}. The
+     * name is only built when the span is sampled.
+     *
+     * @param name
+     *            The operation
+     * @param detail
+     *            What it operates on
+     * @return The span
+     */
+    public static Span start(String name, String detail) {
+        if (exporter == null) {
+            return Span.NOOP;
+        }
+        Span span = child(current.get(), name, detail, Kind.INTERNAL);
+        span.makeCurrent();
+        return span;
+    }
+
+    /**
+     * Start a child of the current span that does not become current, for
+     * work ending elsewhere than where it started: a call completing on
+     * another thread, a transaction closed after the action.
+     *
+     * @param name
+     *            The span name
+     * @param detail
+     *            What it operates on, or null
+     * @param kind
+     *            {@link Kind#CLIENT} for calls to other services
+     * @return The span
+     */
+    public static Span startDetached(String name, String detail, Kind kind) {
+        if (exporter == null) {
+            return Span.NOOP;
+        }
+        return child(current.get(), name, detail, kind);
+    }
+
+    /**
+     * Start the span of a request this application serves, which becomes the
+     * current span. It continues the trace of the caller when
+     * {@code traceparent} is a valid W3C trace context.
+     *
+     * @param name
+     *            The span name
+     * @param traceparent
+     *            The {@code traceparent} header of the request, or null
+     * @return The span
+     */
+    public static Span startServer(String name, String traceparent) {
+        if (exporter == null) {
+            return Span.NOOP;
+        }
+        Span remote = parse(traceparent);
+        Span span = remote == null ? child(null, name, null, Kind.SERVER) : child(remote, name, null, Kind.SERVER);
+        span.makeCurrent();
+        return span;
+    }
+
+    private static Span child(Span parent, String name, String detail, Kind kind) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (parent == null || parent == Span.NOOP) {
+            return new Span(nonZero(random), nonZero(random), nonZero(random), 0, random.nextDouble() < ratio, name, detail,
+                    kind);
+        }
+        return new Span(parent.traceIdHigh, parent.traceIdLow, nonZero(random), parent.spanId, parent.sampled, name,
+                detail, kind);
+    }
+
+    private static long nonZero(ThreadLocalRandom random) {
+        long id;
+        do {
+            id = random.nextLong();
+        } while (id == 0);
+        return id;
+    }
+
+    /**
+     * @param traceparent
+     *            A {@code traceparent} header
+     * @return The remote span it identifies, or null if it is missing or
+     *         invalid
+     */
+    static Span parse(String traceparent) {
+        if (traceparent == null) {
+            return null;
+        }
+        String value = traceparent.trim();
+        // version-traceid-parentid-flags; later versions may append fields
+        if (value.length() < 55 || value.charAt(2) != '-' || value.charAt(35) != '-' || value.charAt(52) != '-'
+                || (value.length() > 55 && value.charAt(55) != '-')) {
+            return null;
+        }
+        try {
+            int version = HexFormat.fromHexDigits(value, 0, 2);
+            if (version == 0xff || (version == 0 && value.length() != 55)) {
+                return null;
+            }
+            long high = HexFormat.fromHexDigitsToLong(value, 3, 19);
+            long low = HexFormat.fromHexDigitsToLong(value, 19, 35);
+            long parentId = HexFormat.fromHexDigitsToLong(value, 36, 52);
+            int flags = HexFormat.fromHexDigits(value, 53, 55);
+            if ((high == 0 && low == 0) || parentId == 0) {
+                return null;
+            }
+            return new Span(high, low, parentId, 0, (flags & 1) != 0, null, null, Kind.SERVER);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * A timed operation of a trace. Its methods are not thread-safe: a span is
+     * used by the code that started it, then exported once it ended.
+     */
+    public static final class Span {
+
+        /**
+         * The span of code that is not traced: records nothing.
+         */
+        public static final Span NOOP = new Span(0, 0, 0, 0, false, null, null, Kind.INTERNAL);
+
+        private final long traceIdHigh;
+        private final long traceIdLow;
+        private final long spanId;
+        private final long parentSpanId;
+        private final boolean sampled;
+        private final Kind kind;
+        private final long startEpochNanos;
+        private final long startNanos;
+        private String name;
+        private List<Object> attributes;
+        private String errorMessage;
+        private boolean error;
+        private long endEpochNanos;
+        private Span previous;
+        private boolean isCurrent;
+
+        Span(long traceIdHigh, long traceIdLow, long spanId, long parentSpanId, boolean sampled, String name,
+                String detail, Kind kind) {
+            this.traceIdHigh = traceIdHigh;
+            this.traceIdLow = traceIdLow;
+            this.spanId = spanId;
+            this.parentSpanId = parentSpanId;
+            this.sampled = sampled;
+            this.kind = kind;
+            this.name = sampled && detail != null ? name + " " + detail : name;
+            if (sampled) {
+                this.startEpochNanos = System.currentTimeMillis() * 1_000_000L;
+                this.startNanos = System.nanoTime();
+            } else {
+                this.startEpochNanos = 0;
+                this.startNanos = 0;
+            }
+        }
+
+        private void makeCurrent() {
+            previous = current.get();
+            current.set(this);
+            isCurrent = true;
+        }
+
+        /**
+         * @return true if this span is sampled: setting its name and
+         *         attributes is worth computing them
+         */
+        public boolean isRecording() {
+            return sampled && endEpochNanos == 0;
+        }
+
+        public Span name(String newName) {
+            if (isRecording()) {
+                this.name = newName;
+            }
+            return this;
+        }
+
+        /**
+         * @param key
+         *            An attribute name, from the OpenTelemetry semantic
+         *            conventions where one fits
+         * @param value
+         *            A String, Boolean, Long, Integer or Double; other values
+         *            are exported as their string
+         * @return This span
+         */
+        public Span attribute(String key, Object value) {
+            if (isRecording() && value != null) {
+                if (attributes == null) {
+                    attributes = new ArrayList<>(8);
+                }
+                attributes.add(key);
+                attributes.add(value);
+            }
+            return this;
+        }
+
+        /**
+         * Mark this span failed.
+         *
+         * @param e
+         *            The cause
+         * @return This span
+         */
+        public Span error(Throwable e) {
+            if (isRecording()) {
+                error = true;
+                errorMessage = e.getClass().getName() + (e.getMessage() == null ? "" : ": " + e.getMessage());
+                attribute("exception.type", e.getClass().getName());
+            }
+            return this;
+        }
+
+        /**
+         * Mark this span failed without an exception, e.g. for a 5xx response.
+         *
+         * @return This span
+         */
+        public Span error() {
+            if (isRecording()) {
+                error = true;
+            }
+            return this;
+        }
+
+        /**
+         * End this span, and export it if it is sampled. Restores the span
+         * that was current before this one, if this one was made current.
+         * Ending a span again does nothing.
+         */
+        public void end() {
+            if (this == NOOP) {
+                return;
+            }
+            if (isCurrent) {
+                isCurrent = false;
+                if (current.get() == this) {
+                    current.set(previous);
+                }
+                previous = null;
+            }
+            if (!isRecording()) {
+                return;
+            }
+            endEpochNanos = startEpochNanos + Math.max(System.nanoTime() - startNanos, 0);
+            Exporter target = exporter;
+            if (target != null) {
+                target.export(this);
+            }
+        }
+
+        /**
+         * @return The W3C {@code traceparent} header identifying this span to
+         *         the services it calls, or null for {@link #NOOP}
+         */
+        public String traceparent() {
+            if (this == NOOP) {
+                return null;
+            }
+            return "00-" + traceId() + "-" + spanId() + (sampled ? "-01" : "-00");
+        }
+
+        public String traceId() {
+            return HEX.toHexDigits(traceIdHigh) + HEX.toHexDigits(traceIdLow);
+        }
+
+        public String spanId() {
+            return HEX.toHexDigits(spanId);
+        }
+
+        /**
+         * @return The id of the parent span, or null for the root of a trace
+         */
+        public String parentSpanId() {
+            return parentSpanId == 0 ? null : HEX.toHexDigits(parentSpanId);
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public Kind kind() {
+            return kind;
+        }
+
+        public long startEpochNanos() {
+            return startEpochNanos;
+        }
+
+        public long endEpochNanos() {
+            return endEpochNanos;
+        }
+
+        /**
+         * @return The attributes, as alternating keys and values
+         */
+        public List<Object> attributes() {
+            return attributes == null ? Collections.emptyList() : Collections.unmodifiableList(attributes);
+        }
+
+        public boolean isError() {
+            return error;
+        }
+
+        public String errorMessage() {
+            return errorMessage;
+        }
+
+        @Override
+        public String toString() {
+            return this == NOOP ? "Span(noop)" : "Span(" + name + ", " + traceparent() + ")";
+        }
+    }
+}
@@ -5,12 +5,14 @@ import java.io.InputStream;
 import java.io.StringReader;
 import java.net.URI;
 import java.net.URLEncoder;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Flow;
 
 import javax.xml.parsers.DocumentBuilder;
 
@@ -25,6 +27,7 @@ import play.Logger;
 import play.Play;
 import play.PlayPlugin;
 import play.libs.F.Promise;
+import play.libs.ws.InputStreamPublisher;
 import play.libs.ws.WSAsync;
 import play.libs.ws.WSUrlFetch;
 import play.mvc.Http;
@@ -263,6 +266,21 @@ public class WS extends PlayPlugin {
          */
         public Integer timeout = 60;
 
+        /**
+         * Whether this request may be answered from, and stored in, the HTTP response cache (see {@code ws.cache})
+         */
+        public boolean cache = true;
+
+        /**
+         * Whether this GET may share the response of an identical request already in flight (see {@code ws.coalesce})
+         */
+        public boolean coalesce = true;
+
+        /**
+         * Whether the response body is read from the connection as it is consumed instead of up front
+         */
+        public boolean stream = false;
+
         public WSRequest() {
             this.encoding = Play.defaultWebEncoding;
         }
@@ -344,6 +362,48 @@ public class WS extends PlayPlugin {
             return this;
         }
 
+        /**
+         * Indicate if the response may come from, and be stored in, the HTTP response cache. Has no effect unless
+         * {@code ws.cache} is enabled.
+         * 
+         * @param value
+         *            false to always go to the network and never store the response
+         * @return the WSRequest for chaining.
+         */
+        public WSRequest cache(boolean value) {
+            this.cache = value;
+            return this;
+        }
+
+        /**
+         * Indicate if this GET may share the response of an identical request that is already in flight. Has no
+         * effect unless {@code ws.coalesce} is enabled.
+         * 
+         * @param value
+         *            false to always make a request of its own
+         * @return the WSRequest for chaining.
+         */
+        public WSRequest coalesce(boolean value) {
+            this.coalesce = value;
+            return this;
+        }
+
+        /**
+         * Indicate if the response body should be streamed: the response is returned as soon as its headers have
+         * arrived and the body is read from the connection through {@link HttpResponse#getStream()} or
+         * {@link HttpResponse#getPublisher()}, so it never has to fit in memory. A streamed response holds its
+         * connection until the body has been read or the response is {@link HttpResponse#close() closed}. The
+         * request timeout then bounds each read rather than the whole exchange.
+         * 
+         * @param value
+         *            true to stream the response body
+         * @return the WSRequest for chaining.
+         */
+        public WSRequest stream(boolean value) {
+            this.stream = value;
+            return this;
+        }
+
         /**
          * Set the value of the request timeout, i.e. the number of seconds before cutting the connection - default to
          * 60 seconds
@@ -658,7 +718,7 @@ public class WS extends PlayPlugin {
     /**
      * An HTTP response wrapper
      */
-    public abstract static class HttpResponse {
+    public abstract static class HttpResponse implements AutoCloseable {
 
         private String _encoding = null;
 
@@ -815,6 +875,24 @@ public class WS extends PlayPlugin {
          */
         public abstract InputStream getStream();
 
+        /**
+         * get the response body as a publisher of byte buffers, read from {@link #getStream()} only as fast as the
+         * subscriber requests them
+         * 
+         * @return a single-subscriber publisher of the response body
+         */
+        public Flow.Publisher<ByteBuffer> getPublisher() {
+            return new InputStreamPublisher(getStream());
+        }
+
+        /**
+         * Release the connection of a streamed response whose body is not read to the end. Does nothing for a
+         * response that has been read into memory.
+         */
+        @Override
+        public void close() {
+        }
+
         /**
          * get the response body as a {@link com.google.gson.JsonElement}
          * 
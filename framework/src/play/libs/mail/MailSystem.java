@@ -1,5 +1,7 @@
 package play.libs.mail;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.Future;
 
 import org.apache.commons.mail2.jakarta.Email;
@@ -8,4 +10,17 @@ public interface MailSystem {
 
     Future<Boolean> sendMessage(Email email);
 
+    /**
+     * Send a batch of emails. Mail systems that can share work across the
+     * batch, like SMTP connections, override this; the default sends them one
+     * by one.
+     */
+    default List<Future<Boolean>> sendMessages(List<Email> emails) {
+        List<Future<Boolean>> results = new ArrayList<>(emails.size());
+        for (Email email : emails) {
+            results.add(sendMessage(email));
+        }
+        return results;
+    }
+
 }
@@ -1,5 +1,6 @@
 package play.libs.mail;
 
+import java.util.List;
 import java.util.concurrent.Future;
 
 import org.apache.commons.mail2.jakarta.Email;
@@ -14,4 +15,12 @@ class ProductionMailSystem implements MailSystem {
         return Mail.sendMessage(email);
     }
 
+    @Override
+    public List<Future<Boolean>> sendMessages(List<Email> emails) {
+        for (Email email : emails) {
+            email.setMailSession(Mail.getSession());
+        }
+        return Mail.sendMessages(emails);
+    }
+
 }
@@ -0,0 +1,153 @@
+package play.libs.mail;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+
+import play.Logger;
+
+/**
+ * Keeps connected, authenticated SMTP {@link Transport}s of one {@link Session}
+ * for reuse, so that consecutive messages skip the TCP connect, the TLS
+ * handshake and SMTP AUTH that {@code Transport.send} pays for every message.
+ *
+ * <p>A connection is closed once it has carried
+ * {@code maxMessagesPerConnection} messages, when it has been idle longer than
+ * {@code idleTimeoutMillis}, or when the pool already holds {@code maxIdle}
+ * idle connections. Idle connections are checked with an SMTP {@code NOOP}
+ * ({@link Transport#isConnected()}) before they are handed out again, since
+ * servers drop idle clients on their own schedule. Eviction is lazy: it
+ * happens on {@link #borrow()} and {@link #release}, and {@link #close()}
+ * closes everything that is left.
+ */
+public class SmtpTransportPool implements AutoCloseable {
+
+    private final Session session;
+    private final int maxIdle;
+    private final int maxMessagesPerConnection;
+    private final long idleTimeoutMillis;
+    private final Deque<Connection> idle = new ArrayDeque<>();
+    private boolean closed;
+
+    public SmtpTransportPool(Session session, int maxIdle, int maxMessagesPerConnection, long idleTimeoutMillis) {
+        this.session = session;
+        this.maxIdle = maxIdle;
+        this.maxMessagesPerConnection = maxMessagesPerConnection;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+    }
+
+    public Session session() {
+        return session;
+    }
+
+    public int maxMessagesPerConnection() {
+        return maxMessagesPerConnection;
+    }
+
+    /**
+     * A connected transport: the most recently released idle one that still
+     * answers, or a new connection.
+     */
+    public Connection borrow() throws MessagingException {
+        while (true) {
+            Connection connection;
+            synchronized (this) {
+                evictExpired(System.currentTimeMillis());
+                connection = idle.pollFirst();
+            }
+            if (connection == null) {
+                Transport transport = session.getTransport();
+                transport.connect();
+                return new Connection(transport);
+            }
+            if (connection.transport.isConnected()) {
+                return connection;
+            }
+            connection.close();
+        }
+    }
+
+    /**
+     * Give {@code connection} back after use. Pass {@code reusable = false}
+     * after a failed send: the state of the SMTP conversation is unknown, so
+     * the connection is closed instead of pooled.
+     */
+    public void release(Connection connection, boolean reusable) {
+        if (reusable && connection.sent < maxMessagesPerConnection) {
+            long now = System.currentTimeMillis();
+            connection.idleSince = now;
+            synchronized (this) {
+                evictExpired(now);
+                if (!closed && idle.size() < maxIdle) {
+                    idle.addFirst(connection);
+                    return;
+                }
+            }
+        }
+        connection.close();
+    }
+
+    public synchronized int idleCount() {
+        return idle.size();
+    }
+
+    @Override
+    public void close() {
+        Connection[] connections;
+        synchronized (this) {
+            closed = true;
+            connections = idle.toArray(new Connection[0]);
+            idle.clear();
+        }
+        for (Connection connection : connections) {
+            connection.close();
+        }
+    }
+
+    private void evictExpired(long now) {
+        // The oldest idle connections sit at the tail.
+        while (!idle.isEmpty() && now - idle.peekLast().idleSince > idleTimeoutMillis) {
+            idle.pollLast().close();
+        }
+    }
+
+    /**
+     * One pooled SMTP connection, used by a single thread between
+     * {@link #borrow()} and {@link #release}.
+     */
+    public static final class Connection {
+
+        private final Transport transport;
+        private int sent;
+        private long idleSince;
+
+        private Connection(Transport transport) {
+            this.transport = transport;
+        }
+
+        /**
+         * Send {@code message} to all its recipients over this connection.
+         */
+        public void send(MimeMessage message) throws MessagingException {
+            message.saveChanges();
+            sent++;
+            transport.sendMessage(message, message.getAllRecipients());
+        }
+
+        public int sent() {
+            return sent;
+        }
+
+        private void close() {
+            try {
+                transport.close();
+            } catch (MessagingException e) {
+                Logger.debug("Error while closing SMTP connection: %s", e.getMessage());
+            }
+        }
+    }
+}
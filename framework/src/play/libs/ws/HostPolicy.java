@@ -0,0 +1,396 @@
+package play.libs.ws;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import okhttp3.Call;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import play.Play;
+import play.exceptions.ConfigurationException;
+import play.libs.Metrics;
+import play.libs.Time;
+
+/**
+ * The resilience policy {@link WSAsync} applies to the requests of one host:
+ * retries with jittered backoff, a circuit breaker, a concurrency bulkhead and
+ * hedged requests. Each is off unless configured, either for all hosts with
+ * {@code ws.policy.<setting>} or for one host with
+ * {@code ws.policy.<host>.<setting>}; durations are written like
+ * {@code 2s} or {@code 100ms}.
+ *
+ * <ul>
+ * <li>{@code retries}: how many more times an idempotent request is sent
+ * after a connection failure or a 502, 503 or 504 answer. The n-th retry
+ * waits a random time of up to {@code retry.backoff} &times; 2<sup>n-1</sup>,
+ * capped at {@code retry.maxBackoff}.</li>
+ * <li>{@code breaker.failures}: after this many failures in a row the
+ * circuit opens and requests fail at once for {@code breaker.openFor}. Then a
+ * single probe request is let through: the circuit closes if it succeeds and
+ * opens again if not.</li>
+ * <li>{@code maxConcurrent}: how many requests to the host may be in flight;
+ * others wait up to {@code maxWait} for a slot.</li>
+ * <li>{@code hedge}: a {@code GET} or {@code HEAD} still unanswered after
+ * {@code hedge.delay} (by default, the 95th percentile of the host's recent
+ * latencies) is sent a second time, and the first answer wins.</li>
+ * </ul>
+ *
+ * Policy decisions are counted in {@code play.ws.policy}, tagged with the
+ * host, the policy and its outcome; requests are timed in
+ * {@code play.ws.requests}, tagged with the host and {@code success} or
+ * {@code failure}.
+ */
+final class HostPolicy {
+
+    private static final Set<String> IDEMPOTENT_METHODS = Set.of("GET", "HEAD", "OPTIONS", "PUT", "DELETE", "TRACE");
+    private static final Set<String> HEDGED_METHODS = Set.of("GET", "HEAD");
+    /** Latencies seen before hedging relies on the observed percentile. */
+    private static final int MIN_LATENCY_SAMPLES = 20;
+
+    private final String host;
+    private final int retries;
+    private final long retryBackoffMillis;
+    private final long retryMaxBackoffMillis;
+    private final CircuitBreaker breaker;
+    private final Semaphore bulkhead;
+    private final long maxWaitMillis;
+    private final boolean hedge;
+    private final long hedgeDelayMillis;
+    private final LatencyWindow latencies = new LatencyWindow(128);
+
+    private HostPolicy(String host) {
+        this.host = host;
+        this.retries = (int) setting(host, "retries", 0);
+        this.retryBackoffMillis = duration(host, "retry.backoff", 100);
+        this.retryMaxBackoffMillis = duration(host, "retry.maxBackoff", 2000);
+        int breakerFailures = (int) setting(host, "breaker.failures", 0);
+        this.breaker = breakerFailures > 0 ? new CircuitBreaker(breakerFailures, duration(host, "breaker.openFor", 30_000)) : null;
+        int maxConcurrent = (int) setting(host, "maxConcurrent", 0);
+        this.bulkhead = maxConcurrent > 0 ? new Semaphore(maxConcurrent, true) : null;
+        this.maxWaitMillis = duration(host, "maxWait", 0);
+        this.hedge = Boolean.parseBoolean(property(host, "hedge", "false"));
+        this.hedgeDelayMillis = duration(host, "hedge.delay", -1);
+    }
+
+    /**
+     * The policy configured for {@code host}, or null when none of its
+     * settings are.
+     */
+    static HostPolicy forHost(String host) {
+        HostPolicy policy = new HostPolicy(host);
+        return policy.retries > 0 || policy.breaker != null || policy.bulkhead != null || policy.hedge ? policy : null;
+    }
+
+    private static String property(String host, String name, String defaultValue) {
+        return Play.configuration.getProperty("ws.policy." + host + "." + name,
+                Play.configuration.getProperty("ws.policy." + name, defaultValue));
+    }
+
+    private static long setting(String host, String name, long defaultValue) {
+        String value = property(host, name, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            long parsed = Long.parseLong(value.trim());
+            if (parsed < 0) {
+                throw new NumberFormatException();
+            }
+            return parsed;
+        } catch (NumberFormatException e) {
+            throw new ConfigurationException("Invalid value for ws.policy." + name + " of host " + host + ": " + value);
+        }
+    }
+
+    /**
+     * @return the duration set for {@code name}, in milliseconds
+     */
+    private static long duration(String host, String name, long defaultMillis) {
+        String value = property(host, name, null);
+        if (value == null) {
+            return defaultMillis;
+        }
+        try {
+            return Time.parseDurationMillis(value.trim());
+        } catch (IllegalArgumentException e) {
+            throw new ConfigurationException("Invalid value for ws.policy." + name + " of host " + host + ": " + value);
+        }
+    }
+
+    /**
+     * Send {@code request} under this policy. A request that cannot be sent
+     * because the circuit is open or the bulkhead is full fails with a
+     * {@link RequestRejectedException}.
+     */
+    Response execute(OkHttpClient client, Request request, ExecutorService executor) throws IOException {
+        String method = request.method();
+        boolean retryable = IDEMPOTENT_METHODS.contains(method) && (request.body() == null || !request.body().isOneShot());
+        boolean hedged = hedge && HEDGED_METHODS.contains(method);
+        for (int attempt = 0;; attempt++) {
+            acquireBulkhead();
+            if (breaker != null && !breaker.tryAcquire()) {
+                if (bulkhead != null) {
+                    bulkhead.release();
+                }
+                count("breaker", "rejected");
+                throw new RequestRejectedException("The circuit breaker for " + host + " is open");
+            }
+            long start = System.nanoTime();
+            Response response = null;
+            IOException failure = null;
+            try {
+                response = hedged ? executeHedged(client, request, executor) : client.newCall(request).execute();
+            } catch (IOException e) {
+                failure = e;
+            } finally {
+                if (bulkhead != null) {
+                    bulkhead.release();
+                }
+            }
+            long elapsed = System.nanoTime() - start;
+            boolean failed = failure != null || isServerError(response.code());
+            if (breaker != null) {
+                breaker.record(!failed);
+            }
+            Metrics.timer("play.ws.requests", "host", host, "outcome", failed ? "failure" : "success").record(elapsed, TimeUnit.NANOSECONDS);
+            if (!failed) {
+                latencies.record(elapsed);
+            }
+            if (!failed || !retryable || attempt >= retries || (failure == null && !isRetryableStatus(response.code()))) {
+                if (failure != null) {
+                    throw failure;
+                }
+                return response;
+            }
+            if (response != null) {
+                response.close();
+            }
+            count("retry", "retried");
+            backoff(attempt);
+        }
+    }
+
+    private void acquireBulkhead() throws IOException {
+        if (bulkhead == null) {
+            return;
+        }
+        try {
+            if (!bulkhead.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS)) {
+                count("bulkhead", "rejected");
+                throw new RequestRejectedException("Too many concurrent requests to " + host);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a request slot for " + host);
+        }
+    }
+
+    private void backoff(int attempt) throws IOException {
+        long ceiling = Math.min(retryMaxBackoffMillis, retryBackoffMillis << Math.min(attempt, 20));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while backing off before retrying " + host);
+        }
+    }
+
+    /**
+     * Send the request, and send it again if no answer came within the hedge
+     * delay; the first answer wins and the other call is cancelled.
+     */
+    private Response executeHedged(OkHttpClient client, Request request, ExecutorService executor) throws IOException {
+        long delay = hedgeDelayMillis >= 0 ? hedgeDelayMillis : latencies.percentile(0.95, MIN_LATENCY_SAMPLES) / 1_000_000;
+        if (delay < 0) {
+            return client.newCall(request).execute();
+        }
+        Hedge hedge = new Hedge(executor);
+        Call primary = hedge.send(client.newCall(request));
+        try {
+            try {
+                return hedge.winner.get(delay, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                count("hedge", "sent");
+                hedge.send(client.newCall(request));
+            }
+            Response response = hedge.winner.get();
+            if (hedge.won.get() != primary) {
+                count("hedge", "won");
+            }
+            return response;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            hedge.abandon();
+            throw new InterruptedIOException("Interrupted while waiting for " + host);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException(e.getCause());
+        } finally {
+            hedge.cancelLosers();
+        }
+    }
+
+    /**
+     * Concurrent calls of one request, of which the first to answer wins.
+     */
+    private static final class Hedge {
+
+        final CompletableFuture<Response> winner = new CompletableFuture<>();
+        final AtomicReference<Call> won = new AtomicReference<>();
+        private final List<Call> calls = new CopyOnWriteArrayList<>();
+        private final AtomicInteger pending = new AtomicInteger();
+        private final ExecutorService executor;
+
+        Hedge(ExecutorService executor) {
+            this.executor = executor;
+        }
+
+        Call send(Call call) {
+            calls.add(call);
+            pending.incrementAndGet();
+            executor.execute(() -> {
+                try {
+                    Response response = call.execute();
+                    // Lost, or nobody waits for it any more: its connection must go back to the pool
+                    if (!won.compareAndSet(null, call) || !winner.complete(response)) {
+                        response.close();
+                    }
+                } catch (IOException e) {
+                    if (pending.decrementAndGet() == 0) {
+                        winner.completeExceptionally(e);
+                    }
+                }
+            });
+            return call;
+        }
+
+        /**
+         * The caller stopped waiting: close the answer it will not read,
+         * whether it came already or comes later.
+         */
+        void abandon() {
+            if (!winner.cancel(false) && !winner.isCompletedExceptionally()) {
+                winner.join().close();
+            }
+        }
+
+        void cancelLosers() {
+            for (Call call : calls) {
+                if (call != won.get()) {
+                    call.cancel();
+                }
+            }
+        }
+    }
+
+    private static boolean isServerError(int status) {
+        return status >= 500;
+    }
+
+    private static boolean isRetryableStatus(int status) {
+        return status == 502 || status == 503 || status == 504;
+    }
+
+    private void count(String policy, String outcome) {
+        Metrics.counter("play.ws.policy", "host", host, "policy", policy, "outcome", outcome).increment();
+    }
+
+    /**
+     * Closed until {@code threshold} failures in a row, then open for
+     * {@code openForMillis}, then half-open: one probe decides whether it
+     * closes or opens again.
+     */
+    private final class CircuitBreaker {
+
+        private final int threshold;
+        private final long openForMillis;
+        private int failures;
+        private long openUntil;
+        private boolean open;
+        private boolean probing;
+
+        CircuitBreaker(int threshold, long openForMillis) {
+            this.threshold = threshold;
+            this.openForMillis = openForMillis;
+        }
+
+        synchronized boolean tryAcquire() {
+            if (!open) {
+                return true;
+            }
+            if (probing || System.currentTimeMillis() < openUntil) {
+                return false;
+            }
+            probing = true;
+            return true;
+        }
+
+        synchronized void record(boolean success) {
+            if (success) {
+                failures = 0;
+                if (open) {
+                    open = false;
+                    probing = false;
+                    count("breaker", "closed");
+                }
+            } else if (probing || ++failures >= threshold) {
+                open = true;
+                probing = false;
+                openUntil = System.currentTimeMillis() + openForMillis;
+                count("breaker", "opened");
+            }
+        }
+    }
+
+    /**
+     * The most recent latencies, in nanoseconds.
+     */
+    private static final class LatencyWindow {
+
+        private final long[] samples;
+        private int next;
+        private int count;
+
+        LatencyWindow(int size) {
+            this.samples = new long[size];
+        }
+
+        synchronized void record(long nanos) {
+            samples[next] = nanos;
+            next = (next + 1) % samples.length;
+            count = Math.min(count + 1, samples.length);
+        }
+
+        /**
+         * The given percentile, or -1 with fewer than {@code minSamples} samples.
+         */
+        long percentile(double percentile, int minSamples) {
+            long[] sorted;
+            synchronized (this) {
+                if (count < minSamples) {
+                    return -1;
+                }
+                sorted = Arrays.copyOf(samples, count);
+            }
+            Arrays.sort(sorted);
+            return sorted[(int) Math.ceil(percentile * sorted.length) - 1];
+        }
+    }
+}
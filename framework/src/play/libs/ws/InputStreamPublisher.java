@@ -0,0 +1,151 @@
+package play.libs.ws;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import play.Logger;
+
+/**
+ * Publishes an {@link InputStream} as {@link ByteBuffer} chunks, reading only
+ * as many chunks as the subscriber has requested.
+ *
+ * <p>Nothing is read ahead: each chunk is read into a fresh buffer of at most
+ * {@code chunkSize} bytes on a virtual thread and handed to
+ * {@code onNext} before the next one is read, so a slow subscriber holds back
+ * the stream, and with it the remote server through TCP flow control. The
+ * stream is closed once it is exhausted, when reading fails and when the
+ * subscription is cancelled.
+ *
+ * <p>Only one subscriber is allowed; the stream can be read once.
+ */
+public final class InputStreamPublisher implements Flow.Publisher<ByteBuffer> {
+
+    public static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+
+    private final InputStream in;
+    private final int chunkSize;
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+
+    public InputStreamPublisher(InputStream in) {
+        this(in, DEFAULT_CHUNK_SIZE);
+    }
+
+    public InputStreamPublisher(InputStream in, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive, was " + chunkSize);
+        }
+        this.in = in;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super ByteBuffer> subscriber) {
+        if (!subscribed.compareAndSet(false, true)) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onError(new IllegalStateException("The stream has already been subscribed to"));
+            return;
+        }
+        subscriber.onSubscribe(new StreamSubscription(subscriber));
+    }
+
+    private final class StreamSubscription implements Flow.Subscription {
+
+        private final Flow.Subscriber<? super ByteBuffer> subscriber;
+        // Requested chunks not yet delivered; a reader thread runs while it is above zero.
+        private final AtomicLong demand = new AtomicLong();
+        private volatile boolean done;
+
+        StreamSubscription(Flow.Subscriber<? super ByteBuffer> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (done) {
+                return;
+            }
+            if (n <= 0) {
+                cancel();
+                subscriber.onError(new IllegalArgumentException("request(" + n + ") must ask for a positive number of chunks"));
+                return;
+            }
+            long previous;
+            long next;
+            do {
+                previous = demand.get();
+                next = previous + n < 0 ? Long.MAX_VALUE : previous + n;
+            } while (!demand.compareAndSet(previous, next));
+            if (previous == 0) {
+                Thread.ofVirtual().name("ws-body-publisher").start(this::drain);
+            }
+        }
+
+        @Override
+        public void cancel() {
+            if (!done) {
+                done = true;
+                close();
+            }
+        }
+
+        private void drain() {
+            long requested = demand.get();
+            while (true) {
+                long emitted = 0;
+                while (emitted < requested) {
+                    if (done) {
+                        return;
+                    }
+                    byte[] chunk = new byte[chunkSize];
+                    int read;
+                    try {
+                        read = in.read(chunk);
+                    } catch (IOException e) {
+                        if (!done) {
+                            done = true;
+                            close();
+                            subscriber.onError(e);
+                        }
+                        return;
+                    }
+                    if (read < 0) {
+                        if (!done) {
+                            done = true;
+                            close();
+                            subscriber.onComplete();
+                        }
+                        return;
+                    }
+                    if (read > 0 && !done) {
+                        subscriber.onNext(ByteBuffer.wrap(chunk, 0, read));
+                        emitted++;
+                    }
+                }
+                requested = demand.addAndGet(-emitted);
+                if (requested == 0) {
+                    return;
+                }
+            }
+        }
+
+        private void close() {
+            try {
+                in.close();
+            } catch (IOException e) {
+                Logger.debug("Error while closing the published stream: %s", e.getMessage());
+            }
+        }
+    }
+}
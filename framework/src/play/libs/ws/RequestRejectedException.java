@@ -0,0 +1,15 @@
+package play.libs.ws;
+
+import java.io.IOException;
+
+/**
+ * A Web services request that was not sent because the resilience policy of
+ * its host refused it: the circuit breaker is open or the bulkhead is full.
+ * See {@link HostPolicy}.
+ */
+public class RequestRejectedException extends IOException {
+
+    public RequestRejectedException(String message) {
+        super(message);
+    }
+}
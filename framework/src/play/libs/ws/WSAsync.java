@@ -1,6 +1,7 @@
 package play.libs.ws;
 
 import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
@@ -11,14 +12,21 @@ import java.net.SocketAddress;
 import java.net.URI;
 import java.nio.charset.Charset;
 import java.time.Duration;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.SSLContext;
@@ -31,6 +39,7 @@ import java.security.KeyStore;
 
 import org.apache.commons.lang3.NotImplementedException;
 
+import okhttp3.Cache;
 import okhttp3.Call;
 import okhttp3.Callback;
 import okhttp3.ConnectionPool;
@@ -42,10 +51,16 @@ import okhttp3.RequestBody;
 import okhttp3.Response;
 import okhttp3.Route;
 
+import play.Deadline;
 import play.Logger;
 import play.Play;
+import play.exceptions.ConfigurationException;
+import play.exceptions.DeadlineExceededException;
 import play.libs.F.Promise;
+import play.libs.Metrics;
 import play.libs.MimeTypes;
+import play.libs.SingleFlight;
+import play.libs.Tracing;
 import play.libs.WS;
 import play.libs.WS.FileParam;
 import play.mvc.Http.Header;
@@ -64,6 +79,28 @@ import play.mvc.Http.Header;
  * cleartext HTTP, which hangs against servers that advertise the header but
  * never deliver the upgrade preface (e.g. LM Studio's Express front-end).
  * OkHttp does not send the upgrade on cleartext.
+ *
+ * <p>With {@code ws.cache=true}, both clients share OkHttp's HTTP cache, a
+ * bounded disk cache under {@code Play.tmpDir/ws-cache}. It honours
+ * {@code Cache-Control}, {@code Expires}, {@code ETag} and
+ * {@code Last-Modified}, revalidating stale entries with conditional requests.
+ * Cache use of GET requests is counted in {@code play.ws.cache}, tagged
+ * {@code hit}, {@code revalidated} (by a 304) or {@code miss}.
+ *
+ * <p>A request made with {@code stream(true)} returns once the response
+ * headers have arrived; its body is read from the connection as the caller
+ * consumes it, see {@link WS.HttpResponse#getPublisher()}.
+ *
+ * <p>Requests to a host can be given retries, a circuit breaker, a
+ * concurrency limit and hedging through {@code ws.policy.*}, see
+ * {@link HostPolicy}.
+ *
+ * <p>With {@code ws.coalesce=true}, identical GET requests that are in flight
+ * at the same time share one network call and one response (see
+ * {@link SingleFlight}): requests are identical when their URL, headers,
+ * redirect policy, timeout and cache use are. The shared call is not bounded
+ * by the {@link Deadline} of any of them: each waits for it no longer than
+ * its own.
  */
 public class WSAsync implements WS.WSImpl {
 
@@ -76,6 +113,10 @@ public class WSAsync implements WS.WSImpl {
     private final ConnectionPool connectionPool;
     private final Dispatcher dispatcher;
     private final ExecutorService dispatcherExecutor;
+    private final Cache httpCache;
+    private final boolean coalesceGets;
+    private final SingleFlight<String, WS.HttpResponse> gets = new SingleFlight<>("play.ws");
+    private final Map<String, Optional<HostPolicy>> policies = new ConcurrentHashMap<>();
     private static SSLContext sslCTX = null;
     private static boolean sslSkipVerify = false;
 
@@ -130,6 +171,8 @@ public class WSAsync implements WS.WSImpl {
                 TimeUnit.MINUTES);
         this.dispatcherExecutor = Executors.newVirtualThreadPerTaskExecutor();
         this.dispatcher = new Dispatcher(dispatcherExecutor);
+        this.httpCache = createCache();
+        this.coalesceGets = Boolean.parseBoolean(Play.configuration.getProperty("ws.coalesce", "false"));
 
         httpClientFollowRedirects = buildClient(true, proxySelector, proxyAuthenticator);
         httpClientNoRedirects = buildClient(false, proxySelector, proxyAuthenticator);
@@ -140,7 +183,8 @@ public class WSAsync implements WS.WSImpl {
                 .followRedirects(followRedirects)
                 .followSslRedirects(followRedirects)
                 .connectionPool(connectionPool)
-                .dispatcher(dispatcher);
+                .dispatcher(dispatcher)
+                .cache(httpCache);
 
         if (proxySelector != null) {
             builder.proxySelector(proxySelector);
@@ -159,6 +203,47 @@ public class WSAsync implements WS.WSImpl {
         return builder.build();
     }
 
+    /**
+     * The shared HTTP cache, or null unless {@code ws.cache=true}. It lives in
+     * {@code ws.cache.path} (default {@code Play.tmpDir/ws-cache}) and holds up
+     * to {@code ws.cache.maxSize} bytes (default 50mb).
+     */
+    private static Cache createCache() {
+        if (!Boolean.parseBoolean(Play.configuration.getProperty("ws.cache", "false"))) {
+            return null;
+        }
+        String path = Play.configuration.getProperty("ws.cache.path");
+        File directory;
+        if (path != null) {
+            directory = new File(path).isAbsolute() ? new File(path) : Play.getFile(path);
+        } else if (Play.tmpDir != null && !Play.readOnlyTmp) {
+            directory = new File(Play.tmpDir, "ws-cache");
+        } else {
+            Logger.warn("ws.cache is enabled but there is no writable tmp directory; set ws.cache.path. WS responses will not be cached.");
+            return null;
+        }
+        long maxSize = parseSize("ws.cache.maxSize", Play.configuration.getProperty("ws.cache.maxSize", "50mb"));
+        Logger.info("WS HTTP cache in %s, up to %s bytes", directory, maxSize);
+        return new Cache(directory, maxSize);
+    }
+
+    private static long parseSize(String key, String value) {
+        String size = value.trim().toLowerCase();
+        long unit = 1;
+        if (size.endsWith("kb")) {
+            unit = 1024;
+        } else if (size.endsWith("mb")) {
+            unit = 1024 * 1024;
+        } else if (size.endsWith("gb")) {
+            unit = 1024 * 1024 * 1024;
+        }
+        try {
+            return Long.parseLong(unit == 1 ? size : size.substring(0, size.length() - 2).trim()) * unit;
+        } catch (NumberFormatException e) {
+            throw new ConfigurationException(key + " must be a size such as 512kb, 50mb or 1gb, got: " + value);
+        }
+    }
+
     private static X509TrustManager extractTrustManager(SSLContext context, boolean trustAll) {
         if (trustAll) {
             return WSSSLContext.TRUST_ALL_MANAGER;
@@ -186,6 +271,20 @@ public class WSAsync implements WS.WSImpl {
         Logger.trace("Releasing http client connections...");
         dispatcher.executorService().shutdown();
         connectionPool.evictAll();
+        if (httpCache != null) {
+            try {
+                httpCache.close();
+            } catch (IOException e) {
+                Logger.debug("Error while closing the WS cache: %s", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * The resilience policy of the request's host, or null if it has none.
+     */
+    private HostPolicy policyFor(Request request) {
+        return policies.computeIfAbsent(request.url().host(), host -> Optional.ofNullable(HostPolicy.forHost(host))).orElse(null);
     }
 
     @Override
@@ -546,52 +645,238 @@ public class WSAsync implements WS.WSImpl {
         }
 
         private WS.HttpResponse executeSync() {
+            Tracing.Span span = Tracing.startDetached(this.type, null, Tracing.Kind.CLIENT);
             try {
-                Request request = buildRequest();
-                OkHttpClient client = clientForRequest();
-                Call call = client.newCall(request);
-                Response response = call.execute();
-                return new HttpAsyncResponse(response);
+                Request request = traced(buildRequest(), span);
+                Deadline deadline = Deadline.current();
+                WS.HttpResponse response;
+                if (!coalesces()) {
+                    response = fetch(clientForRequest(deadline), request);
+                } else if (deadline == null) {
+                    OkHttpClient client = clientForRequest(null);
+                    response = gets.run(flightKey(request), () -> fetch(client, request));
+                } else {
+                    try {
+                        response = sharedGet(request, deadline).get();
+                    } catch (ExecutionException e) {
+                        throw e.getCause() instanceof Exception cause ? cause : e;
+                    }
+                }
+                traced(response, span);
+                return response;
             } catch (Exception e) {
+                span.error(e);
                 throw new RuntimeException(e);
+            } finally {
+                span.end();
+            }
+        }
+
+        /**
+         * @return {@code request} carrying the trace of {@code span} to the
+         *         service called
+         */
+        private Request traced(Request request, Tracing.Span span) {
+            String traceparent = span.traceparent();
+            if (traceparent == null) {
+                return request;
+            }
+            if (span.isRecording()) {
+                span.attribute("http.request.method", request.method())
+                        .attribute("server.address", request.url().host())
+                        .attribute("server.port", request.url().port())
+                        .attribute("url.full", request.url().redact());
             }
+            return request.newBuilder().header("traceparent", traceparent).build();
+        }
+
+        private static void traced(WS.HttpResponse response, Tracing.Span span) {
+            if (span.isRecording()) {
+                int status = response.getStatus();
+                span.attribute("http.response.status_code", status);
+                if (status >= 500) {
+                    span.error();
+                }
+            }
+        }
+
+        private WS.HttpResponse fetch(OkHttpClient client, Request request) throws IOException {
+            HostPolicy policy = policyFor(request);
+            Response response = policy != null
+                    ? policy.execute(client, request, dispatcherExecutor)
+                    : client.newCall(request).execute();
+            recordCache(response);
+            return new HttpAsyncResponse(response, this.stream);
         }
 
         private Promise<WS.HttpResponse> executeAsync() {
+            Tracing.Span span = Tracing.startDetached(this.type, null, Tracing.Kind.CLIENT);
             try {
                 final Promise<WS.HttpResponse> promise = new Promise<>();
-                Request request = buildRequest();
-                OkHttpClient client = clientForRequest();
-                client.newCall(request).enqueue(new Callback() {
-                    @Override
-                    public void onFailure(Call call, IOException e) {
-                        promise.invokeWithException(e);
-                    }
-
-                    @Override
-                    public void onResponse(Call call, Response response) {
-                        promise.invoke(new HttpAsyncResponse(response));
+                Request request = traced(buildRequest(), span);
+                Deadline deadline = Deadline.current();
+                CompletableFuture<WS.HttpResponse> response = coalesces()
+                        ? sharedGet(request, deadline)
+                        : enqueue(clientForRequest(deadline), request);
+                response.whenComplete((result, error) -> {
+                    if (error != null) {
+                        Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                        span.error(cause);
+                        span.end();
+                        promise.invokeWithException(cause);
+                    } else {
+                        traced(result, span);
+                        span.end();
+                        promise.invoke(result);
                     }
                 });
                 return promise;
             } catch (Exception e) {
+                span.error(e);
+                span.end();
                 throw new RuntimeException(e);
             }
         }
 
-        private OkHttpClient clientForRequest() {
+        private CompletableFuture<WS.HttpResponse> enqueue(OkHttpClient client, Request request) {
+            CompletableFuture<WS.HttpResponse> future = new CompletableFuture<>();
+            HostPolicy policy = policyFor(request);
+            if (policy != null) {
+                // Retries, backoff and hedging block, which virtual threads do cheaply.
+                dispatcherExecutor.execute(() -> {
+                    try {
+                        future.complete(fetch(client, request));
+                    } catch (Throwable e) {
+                        future.completeExceptionally(e);
+                    }
+                });
+                return future;
+            }
+            client.newCall(request).enqueue(new Callback() {
+                @Override
+                public void onFailure(Call call, IOException e) {
+                    future.completeExceptionally(e);
+                }
+
+                @Override
+                public void onResponse(Call call, Response response) {
+                    try {
+                        recordCache(response);
+                        future.complete(new HttpAsyncResponse(response, stream));
+                    } catch (RuntimeException e) {
+                        future.completeExceptionally(e);
+                    }
+                }
+            });
+            return future;
+        }
+
+        /**
+         * Join the GET in flight for the same request, or start it. The shared
+         * call is not bounded by the deadline of the caller that starts it,
+         * since the others may have later ones or none: each caller waits for
+         * it no longer than its own {@code deadline}.
+         */
+        private CompletableFuture<WS.HttpResponse> sharedGet(Request request, Deadline deadline) {
+            OkHttpClient client = clientForRequest(null);
+            CompletableFuture<WS.HttpResponse> shared = gets.runAsync(flightKey(request), () -> enqueue(client, request));
+            if (deadline == null) {
+                return shared;
+            }
+            // A copy of its own for every caller, so this timeout is only this caller's
+            long nanos = deadline.bound(ChronoUnit.FOREVER.getDuration()).toNanos();
+            return shared.orTimeout(nanos, TimeUnit.NANOSECONDS).exceptionallyCompose(error -> {
+                Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                return CompletableFuture.failedFuture(cause instanceof TimeoutException
+                        ? new DeadlineExceededException("Deadline exceeded waiting for " + request.url().redact())
+                        : cause);
+            });
+        }
+
+        private boolean coalesces() {
+            return coalesceGets && this.coalesce && !this.stream && "GET".equals(this.type);
+        }
+
+        /**
+         * Identifies GETs that may share a response: everything that can
+         * change what comes back.
+         */
+        private String flightKey(Request request) {
+            StringBuilder key = new StringBuilder(request.url().toString()).append('\n');
+            // Not Headers.toString(): it redacts Authorization and Cookie values.
+            okhttp3.Headers headers = request.headers();
+            for (int i = 0; i < headers.size(); i++) {
+                if ("traceparent".equalsIgnoreCase(headers.name(i))) {
+                    // Differs for every caller, who still shares the response
+                    continue;
+                }
+                key.append(headers.name(i)).append(':').append(headers.value(i)).append('\n');
+            }
+            return key.append(this.followRedirects).append('|').append(this.timeout).append('|').append(this.cache).toString();
+        }
+
+        /**
+         * @return the client to send this request with, its timeouts bounded
+         *         by {@code deadline} unless it is null
+         */
+        private OkHttpClient clientForRequest(Deadline deadline) {
             OkHttpClient base = this.followRedirects ? httpClientFollowRedirects : httpClientNoRedirects;
-            if (this.timeout != null && this.timeout > 0) {
-                Duration t = Duration.ofSeconds(this.timeout);
-                return base.newBuilder()
-                        .callTimeout(t)
-                        .readTimeout(t)
-                        .writeTimeout(t)
-                        .connectTimeout(t)
-                        .build();
+            boolean bypassCache = httpCache != null && !this.cache;
+            boolean timed = this.timeout != null && this.timeout > 0;
+            if (timed || deadline != null || bypassCache) {
+                OkHttpClient.Builder builder = base.newBuilder();
+                if (timed) {
+                    Duration t = bounded(Duration.ofSeconds(this.timeout), deadline);
+                    if (!this.stream) {
+                        // A streamed body may take far longer to read than any one read does.
+                        builder.callTimeout(t);
+                    }
+                    builder.readTimeout(t)
+                            .writeTimeout(t)
+                            .connectTimeout(t);
+                } else if (deadline != null) {
+                    // The call may not outlive the invocation waiting for it
+                    if (!this.stream) {
+                        builder.callTimeout(bounded(Duration.ofMillis(base.callTimeoutMillis()), deadline));
+                    }
+                    builder.readTimeout(bounded(Duration.ofMillis(base.readTimeoutMillis()), deadline))
+                            .writeTimeout(bounded(Duration.ofMillis(base.writeTimeoutMillis()), deadline))
+                            .connectTimeout(bounded(Duration.ofMillis(base.connectTimeoutMillis()), deadline));
+                }
+                if (bypassCache) {
+                    builder.cache(null);
+                }
+                return builder.build();
             }
             return base;
         }
+
+        /**
+         * @return {@code timeout} (zero for none, as OkHttp has it), shortened
+         *         to the time left before {@code deadline}
+         */
+        private static Duration bounded(Duration timeout, Deadline deadline) {
+            if (deadline == null) {
+                return timeout;
+            }
+            return deadline.bound(timeout.isZero() ? ChronoUnit.FOREVER.getDuration() : timeout);
+        }
+
+        private void recordCache(Response response) {
+            if (httpCache == null || !this.cache || !"GET".equals(this.type)) {
+                return;
+            }
+            String outcome;
+            if (response.networkResponse() == null) {
+                outcome = "hit";
+            } else if (response.cacheResponse() != null && response.networkResponse().code() == 304) {
+                outcome = "revalidated";
+            } else {
+                // A conditional request answered with a new representation is a miss too.
+                outcome = "miss";
+            }
+            Metrics.counter("play.ws.cache", "outcome", outcome).increment();
+        }
     }
 
     /**
@@ -627,26 +912,50 @@ public class WSAsync implements WS.WSImpl {
     }
 
     /**
-     * An HTTP response wrapper for okhttp3.Response.
+     * An HTTP response wrapper for okhttp3.Response. The body is read into
+     * memory up front, unless the response is streamed: then it is read from
+     * the connection by {@link #getStream()}, or in full by the first call
+     * that needs all of it.
      */
     public static class HttpAsyncResponse extends WS.HttpResponse {
 
         private final int statusCode;
         private final String statusMessage;
         private final okhttp3.Headers headers;
-        private final byte[] body;
+        private Response streamed;
+        private byte[] body;
 
         public HttpAsyncResponse(Response response) {
+            this(response, false);
+        }
+
+        public HttpAsyncResponse(Response response, boolean stream) {
             this.statusCode = response.code();
             this.statusMessage = response.message();
             this.headers = response.headers();
+            if (stream) {
+                this.streamed = response;
+            } else {
+                this.body = read(response);
+            }
+        }
+
+        private static byte[] read(Response response) {
             try (Response r = response) {
-                this.body = r.body() != null ? r.body().bytes() : new byte[0];
+                return r.body() != null ? r.body().bytes() : new byte[0];
             } catch (IOException e) {
                 throw new RuntimeException(e);
             }
         }
 
+        private byte[] body() {
+            if (body == null) {
+                body = read(streamed);
+                streamed = null;
+            }
+            return body;
+        }
+
         @Override
         public Integer getStatus() {
             return statusCode;
@@ -681,7 +990,7 @@ public class WSAsync implements WS.WSImpl {
         @Override
         public String getString() {
             try {
-                return new String(body, getEncoding());
+                return new String(body(), getEncoding());
             } catch (UnsupportedEncodingException e) {
                 throw new RuntimeException(e);
             }
@@ -690,7 +999,7 @@ public class WSAsync implements WS.WSImpl {
         @Override
         public String getString(String encoding) {
             try {
-                return new String(body, encoding);
+                return new String(body(), encoding);
             } catch (UnsupportedEncodingException e) {
                 throw new RuntimeException(e);
             }
@@ -698,9 +1007,19 @@ public class WSAsync implements WS.WSImpl {
 
         @Override
         public InputStream getStream() {
+            if (body == null) {
+                return streamed.body() != null ? streamed.body().byteStream() : InputStream.nullInputStream();
+            }
             return new ByteArrayInputStream(body);
         }
 
+        @Override
+        public void close() {
+            if (streamed != null) {
+                streamed.close();
+            }
+        }
+
         private static String reasonPhrase(int statusCode) {
             return switch (statusCode) {
                 case 100 -> "Continue";
@@ -14,6 +14,8 @@ import play.cache.CacheFor;
 import play.cache.Caches;
 import play.libs.Time;
 import play.libs.Metrics;
+import play.libs.SingleFlight;
+import play.libs.Tracing;
 import play.classloading.enhancers.ControllersEnhancer;
 import play.classloading.enhancers.ControllersEnhancer.ControllerInstrumentation;
 import play.data.binding.Binder;
@@ -46,6 +48,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Stack;
 import java.util.UUID;
+import java.util.concurrent.Callable;
 import java.util.concurrent.Future;
 
 /**
@@ -53,6 +56,8 @@ import java.util.concurrent.Future;
  */
 public class ActionInvoker {
 
+    private static final SingleFlight<String, Result> actionRuns = new SingleFlight<>("play.actions");
+
     @SuppressWarnings("unchecked")
     public static void resolve(Http.Request request) {
 
@@ -122,9 +127,9 @@ public class ActionInvoker {
         // ThreadContext (MDC). When application.log.format=json the ECS
         // template flattens these as top-level JSON keys; in text mode they
         // sit unused unless the operator extends the PatternLayout.
-        ThreadContext.put("request_id", request.args.containsKey("__REQUEST_ID")
-                ? request.args.get("__REQUEST_ID").toString()
-                : UUID.randomUUID().toString());
+        // The id is kept in the request args so the access log line carries it too.
+        ThreadContext.put("request_id", request.args.computeIfAbsent("__REQUEST_ID",
+                k -> UUID.randomUUID().toString()).toString());
         ThreadContext.put("http_method", request.method);
         ThreadContext.put("http_path", request.path);
         ThreadContext.put("client_ip", request.remoteAddress);
@@ -189,7 +194,14 @@ public class ActionInvoker {
                     }
                 }
 
-                if (actionResult == null) {
+                if (actionResult == null && cacheKey != null && !cacheKey.isEmpty()) {
+                    // Concurrent misses for the same key run the action once and
+                    // share its result, instead of all recomputing it.
+                    actionResult = invokeCached(actionMethod.getAnnotation(CacheFor.class).value(), cacheKey, () -> {
+                        ControllerInstrumentation.initActionCall();
+                        return invokeControllerMethod(actionMethod);
+                    });
+                } else if (actionResult == null) {
                     ControllerInstrumentation.initActionCall();
                     inferResult(invokeControllerMethod(actionMethod));
                 }
@@ -291,6 +303,47 @@ public class ActionInvoker {
         }
     }
 
+    /**
+     * Run {@code action} for a missing {@code @CacheFor} entry, or wait for the
+     * run already in flight for the same key and share the Result it cached.
+     * Only a Result is shared: when the run in flight ends any other way (an
+     * exception, a suspension) the waiters run the action themselves, and only
+     * the request that ran it sees its exception.
+     *
+     * @return the Result of the action, or null if it produced none
+     */
+    static Result invokeCached(String ttl, String key, Callable<Object> action) throws Exception {
+        Exception[] failure = new Exception[1];
+        boolean[] ran = new boolean[1];
+        Result result = actionRuns.run(ttl + "|" + key, () -> {
+            ran[0] = true;
+            Result cached = actionCache(ttl).getIfPresent(key);
+            return cached != null ? cached : invokeAndCache(ttl, key, action, failure);
+        });
+        if (failure[0] != null) {
+            throw failure[0];
+        }
+        if (result == null && !ran[0]) {
+            result = invokeAndCache(ttl, key, action, failure);
+            if (failure[0] != null) {
+                throw failure[0];
+            }
+        }
+        return result;
+    }
+
+    private static Result invokeAndCache(String ttl, String key, Callable<Object> action, Exception[] failure) {
+        try {
+            inferResult(action.call());
+        } catch (Result result) {
+            actionCache(ttl).put(key, result);
+            return result;
+        } catch (Exception e) {
+            failure[0] = e;
+        }
+        return null;
+    }
+
     /**
      * PF-88: per-TTL cache for {@code @CacheFor}-annotated action results.
      * One named cache per distinct annotation value ({@code play.actions.1h},
@@ -509,6 +562,25 @@ public class ActionInvoker {
     }
 
     public static Object invokeControllerMethod(Method method, Object[] forceArgs) throws Exception {
+        Tracing.Span span = Tracing.start("controller");
+        try {
+            return invokeControllerMethod(method, forceArgs, span);
+        } catch (Result | Suspend e) {
+            throw e;
+        } catch (Exception e) {
+            span.error(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+
+    private static Object invokeControllerMethod(Method method, Object[] forceArgs, Tracing.Span span) throws Exception {
+        if (span.isRecording()) {
+            span.name(method.getDeclaringClass().getSimpleName() + "." + method.getName())
+                    .attribute("code.namespace", method.getDeclaringClass().getName())
+                    .attribute("code.function", method.getName());
+        }
         boolean isStatic = Modifier.isStatic(method.getModifiers());
         String declaringClassName = method.getDeclaringClass().getName();
         boolean isProbablyScala = declaringClassName.contains("$");
@@ -1,16 +1,21 @@
 package play.mvc;
 
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 
@@ -37,6 +42,7 @@ import play.exceptions.TemplateNotFoundException;
 import play.exceptions.UnexpectedException;
 import play.libs.F;
 import play.libs.Time;
+import play.libs.WS;
 import play.mvc.Http.Request;
 import play.mvc.Router.ActionDefinition;
 import play.mvc.results.BadRequest;
@@ -470,6 +476,62 @@ public class Controller implements PlayController, ControllerSupport, LocalVaria
         return new SseStream(response);
     }
 
+    /**
+     * Headers that describe one connection rather than the response, and the
+     * length that chunked streaming replaces; not copied by
+     * {@link #streamResponse(WS.HttpResponse)}.
+     */
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of("connection", "keep-alive", "proxy-authenticate",
+            "proxy-authorization", "te", "trailer", "transfer-encoding", "upgrade", "content-length", "content-type");
+
+    private static final int STREAM_CHUNK_SIZE = 64 * 1024;
+
+    /**
+     * Forward a Web services response to the client while it is being read.
+     *
+     * <p>Copies the status and end-to-end headers, then writes the body in
+     * chunks through {@link Http.Response#writeChunk}. Once the client falls
+     * behind, writing parks until it catches up, which in turn stops reading
+     * from the remote server, so memory stays bounded whatever the size of the
+     * body. Request the response with {@code stream(true)}, otherwise it has
+     * already been read into memory. Like {@link #openSSE()} this does not
+     * throw a result: it returns once the whole body has been forwarded, and
+     * closes {@code upstream}.
+     *
+     * <pre>{@code
+     *   public static void download(String id) {
+     *       streamResponse(WS.url(storage + id).stream(true).get());
+     *   }
+     * }</pre>
+     *
+     * @param upstream
+     *            The response to forward
+     */
+    protected static void streamResponse(WS.HttpResponse upstream) {
+        Http.Response response = Http.Response.current();
+        try (upstream; InputStream body = upstream.getStream()) {
+            response.status = upstream.getStatus();
+            if (upstream.getContentType() != null) {
+                response.contentType = upstream.getContentType();
+            }
+            for (Http.Header header : upstream.getHeaders()) {
+                if (header.name != null && !HOP_BY_HOP_HEADERS.contains(header.name.toLowerCase(Locale.ROOT))) {
+                    response.headers.put(header.name, new Http.Header(header.name, new ArrayList<>(header.values)));
+                }
+            }
+            byte[] buffer = new byte[STREAM_CHUNK_SIZE];
+            int read;
+            while ((read = body.read(buffer)) != -1) {
+                if (read > 0) {
+                    // The server keeps a reference to every chunk until it is written.
+                    response.writeChunk(Arrays.copyOf(buffer, read));
+                }
+            }
+        } catch (IOException e) {
+            throw new UnexpectedException(e);
+        }
+    }
+
     /**
      * Send a 304 Not Modified response
      */
@@ -19,6 +19,7 @@ import java.util.regex.Pattern;
 
 import com.google.gson.Gson;
 
+import play.InvocationLocal;
 import play.Logger;
 import play.Play;
 import play.exceptions.UnexpectedException;
@@ -259,7 +260,7 @@ public class Http {
         /**
          * Bind to thread
          */
-        public static final ThreadLocal<Request> current = new ThreadLocal<>();
+        public static final ThreadLocal<Request> current = new InvocationLocal<>();
         /**
          * The really invoker Java method
          */
@@ -628,7 +629,7 @@ public class Http {
         /**
          * Bind to thread
          */
-        public static final ThreadLocal<Response> current = new ThreadLocal<>();
+        public static final ThreadLocal<Response> current = new InvocationLocal<>();
 
         /**
          * Retrieve the current response
@@ -877,7 +878,7 @@ public class Http {
      */
     public abstract static class Inbound implements Iterable<WebSocketEvent> {
 
-        public static final ThreadLocal<Inbound> current = new ThreadLocal<>();
+        public static final ThreadLocal<Inbound> current = new InvocationLocal<>();
 
         // Bounded so a flood of inbound frames can't grow the heap without limit; the
         // +10 slack gives setReadable(false) room to take effect before offer() would fail.
@@ -971,7 +972,7 @@ public class Http {
      */
     public abstract static class Outbound {
 
-        public static final ThreadLocal<Outbound> current = new ThreadLocal<>();
+        public static final ThreadLocal<Outbound> current = new InvocationLocal<>();
 
         public static Outbound current() {
             return current.get();
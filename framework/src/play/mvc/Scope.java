@@ -1,5 +1,6 @@
 package play.mvc;
 
+import play.InvocationLocal;
 import play.Logger;
 import play.Play;
 import play.data.binding.Binder;
@@ -120,7 +121,7 @@ public class Scope {
             }
         } // ThreadLocal access
 
-        public static final ThreadLocal<Flash> current = new ThreadLocal<>();
+        public static final ThreadLocal<Flash> current = new InvocationLocal<>();
 
         public static Flash current() {
             return current.get();
@@ -211,7 +212,7 @@ public class Scope {
 
         final Map<String, String> data = new HashMap<>(); // ThreadLocal access
         boolean changed = false;
-        public static final ThreadLocal<Session> current = new ThreadLocal<>();
+        public static final ThreadLocal<Session> current = new InvocationLocal<>();
 
         public static Session current() {
             return current.get();
@@ -315,7 +316,7 @@ public class Scope {
     public static class Params {
         // ThreadLocal access
 
-        public static final ThreadLocal<Params> current = new ThreadLocal<>();
+        public static final ThreadLocal<Params> current = new InvocationLocal<>();
 
         public static Params current() {
             return current.get();
@@ -544,7 +545,7 @@ public class Scope {
     public static class RenderArgs {
 
         public final Map<String, Object> data = new HashMap<>(); // ThreadLocal access
-        public static final ThreadLocal<RenderArgs> current = new ThreadLocal<>();
+        public static final ThreadLocal<RenderArgs> current = new InvocationLocal<>();
 
         public static RenderArgs current() {
             return current.get();
@@ -575,7 +576,7 @@ public class Scope {
     public static class RouteArgs {
 
         public final Map<String, Object> data = new HashMap<>(); // ThreadLocal access
-        public static final ThreadLocal<RouteArgs> current = new ThreadLocal<>();
+        public static final ThreadLocal<RouteArgs> current = new InvocationLocal<>();
 
         public static RouteArgs current() {
             return current.get();
@@ -0,0 +1,21 @@
+package play.plugins;
+
+import play.PlayPlugin;
+import play.server.AccessLog;
+
+/**
+ * Starts and stops the {@link AccessLog} with the application, so that a
+ * DEV-mode reload picks up changed {@code http.accessLog.*} settings.
+ */
+public class AccessLogPlugin extends PlayPlugin {
+
+    @Override
+    public void onApplicationStart() {
+        AccessLog.start();
+    }
+
+    @Override
+    public void onApplicationStop() {
+        AccessLog.stop();
+    }
+}
@@ -3,6 +3,7 @@ package play.plugins;
 import play.Logger;
 import play.PlayPlugin;
 import play.classloading.ApplicationClasses.ApplicationClass;
+import play.classloading.EnhancerTimings;
 import play.classloading.enhancers.*;
 import play.exceptions.UnexpectedException;
 
@@ -16,14 +17,22 @@ public class EnhancerPlugin extends PlayPlugin {
                 new MailerEnhancer(), new LocalvariablesNamesEnhancer() };
     }
 
+    @Override
+    public boolean enhancesConcurrently() {
+        // Each run creates its own enhancers, each with its own ClassPool
+        return true;
+    }
+
     @Override
     public void enhance(ApplicationClass applicationClass) {
         for (Enhancer enhancer : defaultEnhancers()) {
             try {
-                long start = System.currentTimeMillis();
+                long start = System.nanoTime();
                 enhancer.enhanceThisClass(applicationClass);
+                long elapsed = System.nanoTime() - start;
+                EnhancerTimings.record(enhancer.getClass().getSimpleName(), elapsed);
                 if (Logger.isTraceEnabled()) {
-                    Logger.trace("%sms to apply %s to %s", System.currentTimeMillis() - start, enhancer.getClass().getSimpleName(),
+                    Logger.trace("%sms to apply %s to %s", elapsed / 1_000_000, enhancer.getClass().getSimpleName(),
                             applicationClass.name);
                 }
             } catch (Exception e) {
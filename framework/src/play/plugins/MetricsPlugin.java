@@ -252,17 +252,27 @@ public class MetricsPlugin extends PlayPlugin {
         if (raw == null || raw.isEmpty()) {
             return DEFAULT_OTLP_STEP;
         }
-        String iso = raw.startsWith("PT") || raw.startsWith("pt")
-                ? raw.toUpperCase()
-                : "PT" + raw.toUpperCase();
         try {
-            return Duration.parse(iso);
+            return parseDuration(raw);
         } catch (DateTimeParseException e) {
             Logger.warn("Malformed metrics.otlp.step '%s' — falling back to %s", raw, DEFAULT_OTLP_STEP);
             return DEFAULT_OTLP_STEP;
         }
     }
 
+    /**
+     * Parse a duration string the way {@link #parseStep(String)} does, but
+     * without a fallback.
+     *
+     * @throws DateTimeParseException if the string is malformed
+     */
+    static Duration parseDuration(String raw) {
+        String iso = raw.startsWith("PT") || raw.startsWith("pt")
+                ? raw.toUpperCase()
+                : "PT" + raw.toUpperCase();
+        return Duration.parse(iso);
+    }
+
     /**
      * Parse a comma-separated K=V list into a map. Empty input returns an
      * empty map. Entries without {@code =} or with empty keys are skipped.
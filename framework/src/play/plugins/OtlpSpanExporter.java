@@ -0,0 +1,194 @@
+package play.plugins;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.locks.LockSupport;
+
+import com.google.protobuf.ByteString;
+
+import io.opentelemetry.proto.collector.trace.v1.ExportTraceServiceRequest;
+import io.opentelemetry.proto.common.v1.AnyValue;
+import io.opentelemetry.proto.common.v1.InstrumentationScope;
+import io.opentelemetry.proto.common.v1.KeyValue;
+import io.opentelemetry.proto.resource.v1.Resource;
+import io.opentelemetry.proto.trace.v1.ResourceSpans;
+import io.opentelemetry.proto.trace.v1.ScopeSpans;
+import io.opentelemetry.proto.trace.v1.Status;
+import play.Logger;
+import play.Play;
+import play.libs.Metrics;
+import play.libs.Tracing;
+
+/**
+ * Sends ended spans to an OTLP/HTTP collector in protobuf, in batches.
+ *
+ * <p>{@link #export} only offers the span to a bounded queue; a background
+ * thread sends what was queued every step, or as soon as a batch is full.
+ * When the queue is full the span is dropped rather than making the request
+ * thread wait. Spans are counted in {@code play.tracing.spans}, tagged with
+ * the outcome: {@code exported}, {@code dropped} or {@code failed}.</p>
+ */
+final class OtlpSpanExporter implements Tracing.Exporter {
+
+    static final int MAX_BATCH = 512;
+    private static final long STOP_TIMEOUT_MILLIS = 5_000L;
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final URI endpoint;
+    private final Map<String, String> headers;
+    private final Resource resource;
+    private final long stepNanos;
+    private final ArrayBlockingQueue<Tracing.Span> queue;
+    private final HttpClient client;
+    private volatile boolean running;
+    private Thread sender;
+
+    OtlpSpanExporter(URI endpoint, Map<String, String> headers, Map<String, String> resourceAttributes,
+            Duration step, int queueSize) {
+        this.endpoint = endpoint;
+        this.headers = headers;
+        this.stepNanos = step.toNanos();
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+        Resource.Builder builder = Resource.newBuilder();
+        resourceAttributes.forEach((key, value) -> builder.addAttributes(keyValue(key, value)));
+        this.resource = builder.build();
+        this.client = HttpClient.newBuilder().connectTimeout(TIMEOUT).build();
+    }
+
+    @Override
+    public void export(Tracing.Span span) {
+        if (!queue.offer(span)) {
+            Metrics.counter("play.tracing.spans", "outcome", "dropped").increment();
+        } else if (queue.size() == MAX_BATCH) {
+            LockSupport.unpark(sender);
+        }
+    }
+
+    void start() {
+        running = true;
+        sender = Thread.ofPlatform().name("play-tracing-exporter").daemon().start(this::drain);
+    }
+
+    /**
+     * Stop once the spans already queued have been sent.
+     */
+    void stop() {
+        running = false;
+        LockSupport.unpark(sender);
+        try {
+            sender.join(STOP_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void drain() {
+        List<Tracing.Span> batch = new ArrayList<>(MAX_BATCH);
+        while (true) {
+            boolean last = !running;
+            if (!last && queue.size() < MAX_BATCH) {
+                LockSupport.parkNanos(stepNanos);
+            }
+            while (queue.drainTo(batch, MAX_BATCH) > 0) {
+                send(batch);
+                batch.clear();
+            }
+            if (last) {
+                break;
+            }
+        }
+    }
+
+    private void send(List<Tracing.Span> batch) {
+        try {
+            HttpRequest.Builder request = HttpRequest.newBuilder(endpoint)
+                    .timeout(TIMEOUT)
+                    .header("Content-Type", "application/x-protobuf")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(toRequest(batch).toByteArray()));
+            headers.forEach(request::header);
+            HttpResponse<Void> response = client.send(request.build(), HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() >= 300) {
+                failed(batch.size(), "the collector answered " + response.statusCode(), null);
+                return;
+            }
+            Metrics.counter("play.tracing.spans", "outcome", "exported").increment(batch.size());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failed(batch.size(), "interrupted", null);
+        } catch (Exception e) {
+            failed(batch.size(), e.getMessage(), e);
+        }
+    }
+
+    private void failed(int spans, String reason, Exception e) {
+        Metrics.counter("play.tracing.spans", "outcome", "failed").increment(spans);
+        if (e != null && Logger.isDebugEnabled()) {
+            Logger.debug(e, "Cannot export %s spans to %s", spans, endpoint);
+        } else {
+            Logger.warn("Cannot export %s spans to %s: %s", spans, endpoint, reason);
+        }
+    }
+
+    ExportTraceServiceRequest toRequest(List<Tracing.Span> batch) {
+        ScopeSpans.Builder scope = ScopeSpans.newBuilder()
+                .setScope(InstrumentationScope.newBuilder().setName("play").setVersion(Play.version == null ? "" : Play.version));
+        for (Tracing.Span span : batch) {
+            scope.addSpans(toProto(span));
+        }
+        return ExportTraceServiceRequest.newBuilder()
+                .addResourceSpans(ResourceSpans.newBuilder().setResource(resource).addScopeSpans(scope))
+                .build();
+    }
+
+    static io.opentelemetry.proto.trace.v1.Span toProto(Tracing.Span span) {
+        io.opentelemetry.proto.trace.v1.Span.Builder proto = io.opentelemetry.proto.trace.v1.Span.newBuilder()
+                .setTraceId(ByteString.copyFrom(HEX.parseHex(span.traceId())))
+                .setSpanId(ByteString.copyFrom(HEX.parseHex(span.spanId())))
+                .setName(span.name())
+                .setKind(switch (span.kind()) {
+                    case SERVER -> io.opentelemetry.proto.trace.v1.Span.SpanKind.SPAN_KIND_SERVER;
+                    case CLIENT -> io.opentelemetry.proto.trace.v1.Span.SpanKind.SPAN_KIND_CLIENT;
+                    case INTERNAL -> io.opentelemetry.proto.trace.v1.Span.SpanKind.SPAN_KIND_INTERNAL;
+                })
+                .setStartTimeUnixNano(span.startEpochNanos())
+                .setEndTimeUnixNano(span.endEpochNanos());
+        if (span.parentSpanId() != null) {
+            proto.setParentSpanId(ByteString.copyFrom(HEX.parseHex(span.parentSpanId())));
+        }
+        List<Object> attributes = span.attributes();
+        for (int i = 0; i < attributes.size(); i += 2) {
+            proto.addAttributes(keyValue((String) attributes.get(i), attributes.get(i + 1)));
+        }
+        if (span.isError()) {
+            Status.Builder status = Status.newBuilder().setCode(Status.StatusCode.STATUS_CODE_ERROR);
+            if (span.errorMessage() != null) {
+                status.setMessage(span.errorMessage());
+            }
+            proto.setStatus(status);
+        }
+        return proto.build();
+    }
+
+    private static KeyValue keyValue(String key, Object value) {
+        AnyValue.Builder any = AnyValue.newBuilder();
+        if (value instanceof Boolean b) {
+            any.setBoolValue(b);
+        } else if (value instanceof Long || value instanceof Integer) {
+            any.setIntValue(((Number) value).longValue());
+        } else if (value instanceof Double || value instanceof Float) {
+            any.setDoubleValue(((Number) value).doubleValue());
+        } else {
+            any.setStringValue(String.valueOf(value));
+        }
+        return KeyValue.newBuilder().setKey(key).setValue(any).build();
+    }
+}
@@ -19,6 +19,7 @@ import play.Play;
 import play.PlayPlugin;
 import play.classloading.ApplicationClasses;
 import play.classloading.ApplicationClassloader;
+import play.classloading.EnhancerTimings;
 import play.data.binding.RootParamNode;
 import play.db.Model;
 import play.exceptions.UnexpectedException;
@@ -576,6 +577,12 @@ public class PluginCollection {
         broadcast(PlayPlugin::afterApplicationStart);
     }
 
+    public void onPrecompile() throws Exception {
+        for (PlayPlugin plugin : getEnabledPlugins()) {
+            plugin.onPrecompile();
+        }
+    }
+
     public void onApplicationStop() {
         for (PlayPlugin plugin : getReversedEnabledPlugins()) {
             try {
@@ -595,13 +602,40 @@ public class PluginCollection {
         broadcast(plugin -> plugin.onEvent(message, context));
     }
 
+    /**
+     * Whether a plugin class overrides {@link PlayPlugin#enhance}, so that
+     * plugins which do not are left out of the enhancer timings.
+     */
+    private static final ClassValue<Boolean> ENHANCES = new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            try {
+                return type.getMethod("enhance", ApplicationClasses.ApplicationClass.class).getDeclaringClass() != PlayPlugin.class;
+            } catch (NoSuchMethodException e) {
+                return false;
+            }
+        }
+    };
+
     public void enhance(ApplicationClasses.ApplicationClass applicationClass) {
         for (PlayPlugin plugin : getEnabledPlugins()) {
             try {
-                long start = System.currentTimeMillis();
-                plugin.enhance(applicationClass);
+                boolean enhances = ENHANCES.get(plugin.getClass());
+                long elapsed;
+                if (enhances && !plugin.enhancesConcurrently()) {
+                    // Not known to be thread-safe: one class at a time
+                    synchronized (plugin) {
+                        elapsed = timedEnhance(plugin, applicationClass);
+                    }
+                } else {
+                    elapsed = timedEnhance(plugin, applicationClass);
+                }
+                if (enhances && !(plugin instanceof EnhancerPlugin)) {
+                    // EnhancerPlugin records each of its enhancers itself.
+                    EnhancerTimings.record(plugin.getClass().getSimpleName(), elapsed);
+                }
                 if (Logger.isTraceEnabled()) {
-                    Logger.trace("%sms to apply %s to %s", System.currentTimeMillis() - start, plugin, applicationClass.name);
+                    Logger.trace("%sms to apply %s to %s", elapsed / 1_000_000, plugin, applicationClass.name);
                 }
             } catch (Exception e) {
                 throw new UnexpectedException("While applying " + plugin + " on " + applicationClass.name, e);
@@ -609,6 +643,12 @@ public class PluginCollection {
         }
     }
 
+    private static long timedEnhance(PlayPlugin plugin, ApplicationClasses.ApplicationClass applicationClass) throws Exception {
+        long start = System.nanoTime();
+        plugin.enhance(applicationClass);
+        return System.nanoTime() - start;
+    }
+
     @Deprecated
     public List<ApplicationClasses.ApplicationClass> onClassesChange(List<ApplicationClasses.ApplicationClass> modified) {
         List<ApplicationClasses.ApplicationClass> modifiedWithDependencies = new ArrayList<>();
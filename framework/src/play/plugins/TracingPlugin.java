@@ -0,0 +1,94 @@
+package play.plugins;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+
+import play.Logger;
+import play.Play;
+import play.PlayPlugin;
+import play.exceptions.ConfigurationException;
+import play.libs.Tracing;
+
+/**
+ * Optional distributed tracing: installs a {@link Tracing} exporter that
+ * pushes spans to an OpenTelemetry collector over OTLP/HTTP.
+ *
+ * <p>Configuration in application.conf:</p>
+ * <pre>
+ * tracing.enabled=true                                     # default false
+ * tracing.otlp.endpoint=http://localhost:4318/v1/traces    # default
+ * tracing.otlp.headers=K1=V1,K2=V2                         # OTLP HTTP headers
+ * tracing.otlp.resourceAttributes=k=v,k2=v2                # OTLP resource attributes
+ * tracing.otlp.step=5s                                     # push interval, as metrics.otlp.step
+ * tracing.sampler.ratio=1.0                                # share of new traces sampled
+ * tracing.queueSize=2048                                   # ended spans waiting to be sent
+ * tracing.serviceName=shop                                 # default application.name
+ * </pre>
+ *
+ * <p>Once on, the framework traces each HTTP request (continuing the trace of
+ * a W3C {@code traceparent} header), the controller methods it calls, template
+ * rendering, JPA transactions and {@code WS} calls, which carry the trace to
+ * the services they call.</p>
+ */
+public class TracingPlugin extends PlayPlugin {
+
+    private OtlpSpanExporter exporter;
+
+    @Override
+    public void onApplicationStart() {
+        stop();
+        if (!Boolean.parseBoolean(Play.configuration.getProperty("tracing.enabled", "false"))) {
+            return;
+        }
+        double ratio = Double.parseDouble(setting("sampler.ratio", "1.0"));
+        if (!(ratio >= 0 && ratio <= 1)) {
+            throw new ConfigurationException("Invalid value for tracing.sampler.ratio: must be between 0 and 1, was " + ratio);
+        }
+        int queueSize = Integer.parseInt(setting("queueSize", "2048"));
+        if (queueSize <= 0) {
+            throw new ConfigurationException("Invalid value for tracing.queueSize: must be positive, was " + queueSize);
+        }
+        Duration step = step(setting("otlp.step", "5s"));
+        String endpoint = setting("otlp.endpoint", "http://localhost:4318/v1/traces");
+        Map<String, String> resourceAttributes = MetricsPlugin.parseKvList(setting("otlp.resourceAttributes", ""));
+        resourceAttributes.putIfAbsent("service.name",
+                setting("serviceName", Play.configuration.getProperty("application.name", "play")));
+        exporter = new OtlpSpanExporter(URI.create(endpoint), MetricsPlugin.parseKvList(setting("otlp.headers", "")),
+                resourceAttributes, step, queueSize);
+        exporter.start();
+        Tracing.install(exporter, ratio);
+        Logger.info("Tracing to %s, sampling %s of new traces", endpoint, ratio);
+    }
+
+    @Override
+    public void onApplicationStop() {
+        stop();
+    }
+
+    private void stop() {
+        Tracing.uninstall();
+        if (exporter != null) {
+            exporter.stop();
+            exporter = null;
+        }
+    }
+
+    private static Duration step(String raw) {
+        Duration step;
+        try {
+            step = MetricsPlugin.parseDuration(raw);
+        } catch (DateTimeParseException e) {
+            throw new ConfigurationException("Invalid value for tracing.otlp.step: " + raw);
+        }
+        if (step.isNegative() || step.isZero()) {
+            throw new ConfigurationException("Invalid value for tracing.otlp.step: must be positive, was " + raw);
+        }
+        return step;
+    }
+
+    private static String setting(String name, String defaultValue) {
+        return Play.configuration.getProperty("tracing." + name, defaultValue).trim();
+    }
+}
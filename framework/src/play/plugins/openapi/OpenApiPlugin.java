@@ -6,10 +6,23 @@ import io.swagger.v3.oas.models.OpenAPI;
 import play.Logger;
 import play.Play;
 import play.PlayPlugin;
+import play.exceptions.UnexpectedException;
+import play.mvc.Http.Header;
 import play.mvc.Http.Request;
 import play.mvc.Http.Response;
 import play.mvc.Router;
 
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.zip.GZIPOutputStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
 /**
  * Built-in OpenAPI 3 spec generation (PF-12).
  *
@@ -21,10 +34,18 @@ import play.mvc.Router;
  *   <li>{@code /@api/docs} — Swagger UI loaded from the unpkg CDN (same gating as JSON/YAML)</li>
  * </ul>
  *
- * <p>The spec is generated on-demand from {@link Router#routes} and reflection on
+ * <p>The spec is generated on first request from {@link Router#routes} and reflection on
  * controller method signatures. There is no annotation-driven enrichment in this
  * initial cut — schemas degrade gracefully to {@code object} for unknown types.
  *
+ * <p>The JSON and YAML documents are then cached, gzipped too, until the routes are
+ * reloaded or, in DEV mode, application classes change. They are served with a strong
+ * {@code ETag}, so a client polling the spec with {@code If-None-Match} gets a 304, and
+ * gzipped to clients accepting it. {@code play precompile} writes them to
+ * {@code precompiled/openapi.json} and {@code precompiled/openapi.yaml} when the spec is
+ * served in PROD, and a precompiled application serves these files instead of generating
+ * the spec.
+ *
  * <p>Configuration:
  * <pre>
  * openapi.enabled=true        # master switch (default: true)
@@ -41,9 +62,38 @@ public class OpenApiPlugin extends PlayPlugin {
 
     static final String DEFAULT_BASE_PATH = "/@api";
 
+    static final String PRECOMPILED_JSON = "precompiled/openapi.json";
+    static final String PRECOMPILED_YAML = "precompiled/openapi.yaml";
+
     private boolean enabled = true;
     private boolean publicSpec = false;
     private String basePath = DEFAULT_BASE_PATH;
+    private volatile Spec spec;
+
+    /** A serialized spec: its bytes, gzipped bytes and their strong ETags. */
+    record Document(String contentType, byte[] body, byte[] gzipped, String etag, String gzippedEtag) {
+
+        static Document of(String contentType, byte[] body) {
+            try {
+                ByteArrayOutputStream gzipped = new ByteArrayOutputStream(body.length / 4);
+                try (GZIPOutputStream gzip = new GZIPOutputStream(gzipped)) {
+                    gzip.write(body);
+                }
+                String hash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body), 0, 16);
+                return new Document(contentType, body, gzipped.toByteArray(), '"' + hash + '"', "\"" + hash + "-gzip\"");
+            } catch (IOException | NoSuchAlgorithmException e) {
+                throw new UnexpectedException(e);
+            }
+        }
+    }
+
+    /**
+     * The spec of one load of the routes and one state of the application classes; the
+     * YAML document is null, with the reason in {@code yamlError}, when it cannot be
+     * serialized.
+     */
+    record Spec(long routesLoadedAt, Object classesState, Document json, Document yaml, String yamlError) {
+    }
 
     @Override
     public void onConfigurationRead() {
@@ -66,6 +116,16 @@ public class OpenApiPlugin extends PlayPlugin {
         basePath = configured;
     }
 
+    @Override
+    public void onApplicationStart() {
+        spec = null;
+    }
+
+    @Override
+    public void onRoutesLoaded() {
+        spec = null;
+    }
+
     @Override
     public boolean rawInvocation(Request request, Response response) throws Exception {
         if (!enabled) {
@@ -76,10 +136,10 @@ public class OpenApiPlugin extends PlayPlugin {
             return false;
         }
         if (path.equals(basePath + "/openapi.json")) {
-            return serveJson(response);
+            return serveJson(request, response);
         }
         if (path.equals(basePath + "/openapi.yaml") || path.equals(basePath + "/openapi.yml")) {
-            return serveYaml(response);
+            return serveYaml(request, response);
         }
         if (path.equals(basePath + "/docs") || path.equals(basePath + "/docs/")) {
             return serveDocs(response);
@@ -100,34 +160,163 @@ public class OpenApiPlugin extends PlayPlugin {
         return Play.mode == Play.Mode.DEV || publicSpec;
     }
 
-    private boolean serveJson(Response response) {
+    private boolean serveJson(Request request, Response response) {
         if (!specEnabled()) {
             return notFound(response);
         }
-        OpenAPI spec = buildSpec();
-        response.status = 200;
-        response.contentType = "application/json";
-        response.print(Json.pretty(spec));
-        return true;
+        return serve(request, response, spec().json());
     }
 
-    private boolean serveYaml(Response response) {
+    private boolean serveYaml(Request request, Response response) {
         if (!specEnabled()) {
             return notFound(response);
         }
-        OpenAPI spec = buildSpec();
+        Spec current = spec();
+        if (current.yaml() == null) {
+            response.status = 500;
+            response.contentType = "text/plain";
+            response.print("Failed to serialize OpenAPI spec as YAML: " + current.yamlError());
+            return true;
+        }
+        return serve(request, response, current.yaml());
+    }
+
+    private static boolean serve(Request request, Response response, Document document) {
+        boolean gzip = acceptsGzip(request.headers.get("accept-encoding"));
+        String etag = gzip ? document.gzippedEtag() : document.etag();
+        response.setHeader("ETag", etag);
+        response.setHeader("Vary", "Accept-Encoding");
+        response.setHeader("Cache-Control", "no-cache");
+        if (matches(request.headers.get("if-none-match"), etag)) {
+            response.status = 304;
+            return true;
+        }
         response.status = 200;
-        response.contentType = "application/yaml";
+        response.contentType = document.contentType();
+        if (gzip) {
+            response.setHeader("Content-Encoding", "gzip");
+        }
+        response.out.writeBytes(gzip ? document.gzipped() : document.body());
+        return true;
+    }
+
+    static boolean acceptsGzip(Header acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String value : acceptEncoding.values) {
+            for (String coding : value.split(",")) {
+                String[] parts = coding.split(";");
+                if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                    return parts.length < 2 || !isZeroQuality(parts[1].trim());
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean isZeroQuality(String parameter) {
+        if (!parameter.startsWith("q=")) {
+            return false;
+        }
         try {
-            response.print(Yaml.pretty(spec));
+            return Double.parseDouble(parameter.substring(2).trim()) == 0;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /** If-None-Match uses the weak comparison: a {@code W/} prefix is ignored. */
+    static boolean matches(Header ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String value : ifNoneMatch.values) {
+            for (String candidate : value.split(",")) {
+                String tag = candidate.trim();
+                if (tag.startsWith("W/")) {
+                    tag = tag.substring(2);
+                }
+                if (tag.equals("*") || tag.equals(etag)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The cached spec, regenerated when the routes were reloaded or the application
+     * classes changed since it was built.
+     */
+    Spec spec() {
+        Object classesState = Play.classloader != null ? Play.classloader.currentState : null;
+        Spec current = spec;
+        if (current != null && current.routesLoadedAt() == Router.lastLoading && current.classesState() == classesState) {
+            return current;
+        }
+        synchronized (this) {
+            current = spec;
+            if (current == null || current.routesLoadedAt() != Router.lastLoading || current.classesState() != classesState) {
+                current = Play.usePrecompiled ? readPrecompiled(classesState) : null;
+                if (current == null) {
+                    current = generate(buildSpec(), classesState);
+                }
+                spec = current;
+            }
+            return current;
+        }
+    }
+
+    private static Spec generate(OpenAPI openApi, Object classesState) {
+        Document json = Document.of("application/json", Json.pretty(openApi).getBytes(UTF_8));
+        try {
+            return new Spec(Router.lastLoading, classesState, json,
+                    Document.of("application/yaml", Yaml.pretty(openApi).getBytes(UTF_8)), null);
         } catch (Exception e) {
             // Yaml.pretty may throw a checked exception in older swagger versions.
             Logger.error(e, "OpenApiPlugin: failed to serialize spec as YAML");
-            response.status = 500;
-            response.contentType = "text/plain";
-            response.print("Failed to serialize OpenAPI spec as YAML: " + e.getMessage());
+            return new Spec(Router.lastLoading, classesState, json, null, e.getMessage());
+        }
+    }
+
+    private static Spec readPrecompiled(Object classesState) {
+        File json = Play.getFile(PRECOMPILED_JSON);
+        File yaml = Play.getFile(PRECOMPILED_YAML);
+        if (!json.isFile() || !yaml.isFile()) {
+            return null;
+        }
+        try {
+            return new Spec(Router.lastLoading, classesState, Document.of("application/json", Files.readAllBytes(json.toPath())),
+                    Document.of("application/yaml", Files.readAllBytes(yaml.toPath())), null);
+        } catch (IOException e) {
+            Logger.warn(e, "OpenApiPlugin: cannot read the precompiled spec, generating it");
+            return null;
+        }
+    }
+
+    /**
+     * Write the spec to {@code precompiled/} for {@code play precompile}, when it is served
+     * in PROD ({@code openapi.publicSpec=true}).
+     */
+    @Override
+    public void onPrecompile() throws IOException {
+        onConfigurationRead();
+        if (!enabled || !specEnabled()) {
+            Files.deleteIfExists(Play.getFile(PRECOMPILED_JSON).toPath());
+            Files.deleteIfExists(Play.getFile(PRECOMPILED_YAML).toPath());
+            return;
+        }
+        if (Router.lastLoading <= 0) {
+            Router.load(Play.ctxPath);
+        }
+        Spec generated = generate(buildSpec(), null);
+        File json = Play.getFile(PRECOMPILED_JSON);
+        json.getParentFile().mkdirs();
+        Files.write(json.toPath(), generated.json().body());
+        if (generated.yaml() != null) {
+            Files.write(Play.getFile(PRECOMPILED_YAML).toPath(), generated.yaml().body());
         }
-        return true;
     }
 
     private boolean notFound(Response response) {
@@ -0,0 +1,364 @@
+package play.server;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+import play.Logger;
+import play.Play;
+import play.exceptions.ConfigurationException;
+import play.libs.Metrics;
+import play.mvc.Http.Request;
+
+/**
+ * Built-in HTTP access log, one JSON object per line.
+ *
+ * <p>{@link PlayHandler} calls {@link #record} once a response has been handed
+ * to Netty. That only captures the request's fields into a small entry and
+ * offers it to a bounded, lock-free ring buffer; formatting and file I/O
+ * happen on a single background writer thread. When the buffer is full the
+ * entry is dropped and counted in {@code play.accesslog.dropped} rather than
+ * making the request thread wait, so the log never adds latency to a
+ * response.
+ *
+ * <p>Configuration in application.conf:</p>
+ * <pre>
+ * http.accessLog=true                    # default false
+ * http.accessLog.path=logs/access.log    # relative to the application path
+ * http.accessLog.sampleRate=1.0          # share of requests logged; 5xx are always logged
+ * http.accessLog.bufferSize=8192         # entries queued for the writer, rounded up to a power of two
+ * http.accessLog.maxFileSize=104857600   # bytes before the file is rolled
+ * http.accessLog.maxFiles=5              # rolled files kept (access.log.1 ... access.log.5)
+ * </pre>
+ *
+ * <p>Lines carry the same field names as the per-request ThreadContext of
+ * JSON application logs, so both can be joined on {@code request_id}:</p>
+ * <pre>
+ * {"@timestamp":"2026-05-03T14:22:01.234Z","request_id":"…","http_method":"GET","http_path":"/users/42",
+ *  "action_name":"Users.show","http_status":200,"bytes":5123,"latency_us":1840,"protocol":"h2","client_ip":"10.0.0.7"}
+ * </pre>
+ */
+public final class AccessLog {
+
+    private static final long IDLE_PARK_NANOS = 10_000_000L;
+    private static final long STOP_TIMEOUT_MILLIS = 5_000L;
+
+    private static volatile AccessLog current;
+
+    private final File file;
+    private final double sampleRate;
+    private final long maxFileSize;
+    private final int maxFiles;
+    private final Ring ring;
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile boolean running;
+    private Thread writer;
+
+    // Writer thread only.
+    private final StringBuilder line = new StringBuilder(256);
+    private OutputStream out;
+    private long size;
+
+    AccessLog(File file, int bufferSize, double sampleRate, long maxFileSize, int maxFiles) {
+        this.file = file;
+        this.ring = new Ring(bufferSize);
+        this.sampleRate = sampleRate;
+        this.maxFileSize = maxFileSize;
+        this.maxFiles = maxFiles;
+    }
+
+    /**
+     * Start the access log if {@code http.accessLog} is on, replacing any log
+     * already running.
+     */
+    public static synchronized void start() {
+        stop();
+        if (!Boolean.parseBoolean(Play.configuration.getProperty("http.accessLog", "false"))) {
+            return;
+        }
+        double sampleRate = Double.parseDouble(setting("sampleRate", "1.0"));
+        if (!(sampleRate >= 0 && sampleRate <= 1)) {
+            throw new ConfigurationException("http.accessLog.sampleRate must be between 0 and 1, was " + sampleRate);
+        }
+        int bufferSize = Integer.parseInt(setting("bufferSize", "8192"));
+        long maxFileSize = Long.parseLong(setting("maxFileSize", "104857600"));
+        int maxFiles = Integer.parseInt(setting("maxFiles", "5"));
+        if (bufferSize <= 0 || maxFileSize <= 0 || maxFiles < 0) {
+            throw new ConfigurationException("http.accessLog.bufferSize and maxFileSize must be positive, maxFiles not negative");
+        }
+        AccessLog log = new AccessLog(Play.getFile(setting("path", "logs/access.log")), bufferSize, sampleRate, maxFileSize, maxFiles);
+        log.startWriter();
+        current = log;
+        Logger.info("Access log written to %s", log.file.getAbsolutePath());
+    }
+
+    private static String setting(String name, String defaultValue) {
+        return Play.configuration.getProperty("http.accessLog." + name, defaultValue).trim();
+    }
+
+    /**
+     * Stop the running access log, if any, once the entries already queued
+     * have been written.
+     */
+    public static synchronized void stop() {
+        AccessLog log = current;
+        current = null;
+        if (log != null) {
+            log.stopWriter();
+        }
+    }
+
+    /**
+     * Log a response. A no-op unless the access log is running.
+     *
+     * @param request the request answered
+     * @param status the status sent
+     * @param bytes the body bytes sent, or -1 when not known
+     */
+    public static void record(Request request, int status, long bytes) {
+        AccessLog log = current;
+        if (log != null && request != null) {
+            log.offer(request, status, bytes);
+        }
+    }
+
+    void offer(Request request, int status, long bytes) {
+        if (status < 500 && sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return;
+        }
+        long latencyNanos = -1;
+        if (request.args.get("acceptedAtNanos") instanceof Long acceptedAt) {
+            latencyNanos = System.nanoTime() - acceptedAt;
+        }
+        Object requestId = request.args.get("__REQUEST_ID");
+        Entry entry = new Entry(System.currentTimeMillis(), requestId == null ? null : requestId.toString(),
+                request.method, request.path, request.action, status, bytes, latencyNanos,
+                (String) request.args.get("protocol"), request.remoteAddress);
+        if (!ring.offer(entry)) {
+            dropped.incrementAndGet();
+            Metrics.counter("play.accesslog.dropped").increment();
+        }
+    }
+
+    long dropped() {
+        return dropped.get();
+    }
+
+    void startWriter() {
+        running = true;
+        writer = Thread.ofPlatform().name("play-access-log").daemon().start(this::drain);
+    }
+
+    void stopWriter() {
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(STOP_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void drain() {
+        try {
+            open();
+            while (true) {
+                Entry entry = ring.poll();
+                if (entry != null) {
+                    write(entry);
+                    continue;
+                }
+                out.flush();
+                if (!running) {
+                    // Entries offered after the last poll are only lost if they raced the stop.
+                    if ((entry = ring.poll()) == null) {
+                        break;
+                    }
+                    write(entry);
+                    continue;
+                }
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        } catch (IOException e) {
+            Logger.error(e, "Cannot write the access log to %s; access logging stopped", file);
+        } finally {
+            close();
+        }
+    }
+
+    private void write(Entry entry) throws IOException {
+        line.setLength(0);
+        entry.appendJson(line);
+        byte[] bytes = line.append('\n').toString().getBytes(StandardCharsets.UTF_8);
+        if (size > 0 && size + bytes.length > maxFileSize) {
+            roll();
+        }
+        out.write(bytes);
+        size += bytes.length;
+    }
+
+    private void open() throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            Files.createDirectories(parent.toPath());
+        }
+        out = new BufferedOutputStream(new FileOutputStream(file, true), 64 * 1024);
+        size = file.length();
+    }
+
+    private void roll() throws IOException {
+        out.close();
+        if (maxFiles == 0) {
+            Files.deleteIfExists(file.toPath());
+        } else {
+            Files.deleteIfExists(rolled(maxFiles).toPath());
+            for (int i = maxFiles - 1; i >= 1; i--) {
+                File from = rolled(i);
+                if (from.exists()) {
+                    Files.move(from.toPath(), rolled(i + 1).toPath(), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            Files.move(file.toPath(), rolled(1).toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        open();
+    }
+
+    private File rolled(int index) {
+        return new File(file.getPath() + "." + index);
+    }
+
+    private void close() {
+        if (out != null) {
+            try {
+                out.close();
+            } catch (IOException e) {
+                Logger.warn(e, "Cannot close the access log %s", file);
+            }
+        }
+    }
+
+    /**
+     * One logged response; rendered to JSON by the writer thread.
+     */
+    record Entry(long timestamp, String requestId, String method, String path, String action, int status,
+                 long bytes, long latencyNanos, String protocol, String clientIp) {
+
+        void appendJson(StringBuilder json) {
+            json.append("{\"@timestamp\":\"");
+            DateTimeFormatter.ISO_INSTANT.formatTo(Instant.ofEpochMilli(timestamp), json);
+            json.append('"');
+            appendField(json, "request_id", requestId);
+            appendField(json, "http_method", method);
+            appendField(json, "http_path", path);
+            appendField(json, "action_name", action);
+            json.append(",\"http_status\":").append(status);
+            if (bytes >= 0) {
+                json.append(",\"bytes\":").append(bytes);
+            }
+            if (latencyNanos >= 0) {
+                json.append(",\"latency_us\":").append(latencyNanos / 1_000);
+            }
+            appendField(json, "protocol", protocol);
+            appendField(json, "client_ip", clientIp);
+            json.append('}');
+        }
+
+        private static void appendField(StringBuilder json, String name, String value) {
+            if (value == null) {
+                return;
+            }
+            json.append(",\"").append(name).append("\":\"");
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '"' -> json.append("\\\"");
+                    case '\\' -> json.append("\\\\");
+                    case '\n' -> json.append("\\n");
+                    case '\r' -> json.append("\\r");
+                    case '\t' -> json.append("\\t");
+                    default -> {
+                        if (c < 0x20) {
+                            json.append(String.format("\\u%04x", (int) c));
+                        } else {
+                            json.append(c);
+                        }
+                    }
+                }
+            }
+            json.append('"');
+        }
+    }
+
+    /**
+     * Bounded multi-producer, single-consumer queue. Each slot carries a
+     * sequence number telling producers whether it is free and the consumer
+     * whether it is filled, so offering takes a single CAS and never blocks.
+     */
+    static final class Ring {
+
+        private final int mask;
+        private final AtomicReferenceArray<Entry> entries;
+        private final AtomicLongArray sequences;
+        private final AtomicLong tail = new AtomicLong();
+        // Consumer only.
+        private long head;
+
+        Ring(int capacity) {
+            int size = capacity <= 2 ? 2 : Integer.highestOneBit(capacity - 1) << 1;
+            this.mask = size - 1;
+            this.entries = new AtomicReferenceArray<>(size);
+            this.sequences = new AtomicLongArray(size);
+            for (int i = 0; i < size; i++) {
+                sequences.set(i, i);
+            }
+        }
+
+        int capacity() {
+            return mask + 1;
+        }
+
+        boolean offer(Entry entry) {
+            long position = tail.get();
+            while (true) {
+                int slot = (int) position & mask;
+                long available = sequences.get(slot) - position;
+                if (available == 0) {
+                    if (tail.compareAndSet(position, position + 1)) {
+                        entries.set(slot, entry);
+                        sequences.set(slot, position + 1);
+                        return true;
+                    }
+                    position = tail.get();
+                } else if (available < 0) {
+                    return false;
+                } else {
+                    position = tail.get();
+                }
+            }
+        }
+
+        Entry poll() {
+            int slot = (int) head & mask;
+            if (sequences.get(slot) != head + 1) {
+                return null;
+            }
+            Entry entry = entries.get(slot);
+            entries.set(slot, null);
+            sequences.set(slot, head + mask + 1);
+            head++;
+            return entry;
+        }
+    }
+}
@@ -30,6 +30,8 @@ import io.netty.handler.stream.ChunkedInput;
 import io.netty.handler.stream.ChunkedStream;
 import io.netty.handler.stream.ChunkedWriteHandler;
 import io.netty.util.ReferenceCountUtil;
+import play.ConcurrencyLimiter;
+import play.Deadline;
 import play.Invoker;
 import play.Invoker.InvocationContext;
 import play.Logger;
@@ -40,6 +42,8 @@ import play.exceptions.PlayException;
 import play.exceptions.UnexpectedException;
 import play.i18n.Messages;
 import play.libs.F.Promise;
+import play.libs.Metrics;
+import play.libs.Tracing;
 import play.libs.MimeTypes;
 import play.mvc.*;
 import play.mvc.Http.Request;
@@ -167,6 +171,7 @@ public class PlayHandler extends ChannelInboundHandlerAdapter {
                     Http.Request.current.set(request);
 
                     request.args.put("acceptedAtNanos", System.nanoTime());
+                    request.args.put("protocol", protocol());
 
                     response.out = new ByteArrayOutputStream();
                     response.direct = null;
@@ -186,7 +191,9 @@ public class PlayHandler extends ChannelInboundHandlerAdapter {
                             cleanupSpooledBody(request);
                         }
                     } else {
-                        Invoker.invoke(new NettyInvocation(request, response, ctx, nettyRequest));
+                        NettyInvocation invocation = new NettyInvocation(request, response, ctx, nettyRequest);
+                        ctx.channel().attr(INVOCATION).set(invocation);
+                        Invoker.invoke(invocation);
                         handedOffToInvoker = true;
                     }
 
@@ -252,6 +259,14 @@ public class PlayHandler extends ChannelInboundHandlerAdapter {
         // start of every run() so re-entry is safe.
         private volatile boolean suspended;
 
+        // Guarded by this: the thread running the action, interrupted if the
+        // client goes away before it answered (see abandon()).
+        private Thread executing;
+        private boolean abandoned;
+
+        // Spans the whole request, across suspensions; ended by the terminal run().
+        private Tracing.Span span;
+
         public NettyInvocation(Request request, Response response, ChannelHandlerContext ctx, HttpRequest nettyRequest) {
             this.ctx = ctx;
             this.request = request;
@@ -274,6 +289,16 @@ public class PlayHandler extends ChannelInboundHandlerAdapter {
 
             Request.current.set(request);
             Response.current.set(response);
+            if (span == null) {
+                Http.Header traceparent = request.headers.get("traceparent");
+                span = Tracing.startServer(request.method, traceparent == null ? null : traceparent.value());
+                if (span.isRecording()) {
+                    span.attribute("http.request.method", request.method)
+                            .attribute("url.path", request.path)
+                            .attribute("client.address", request.remoteAddress)
+                            .attribute("network.protocol.name", request.args.get("protocol"));
+                }
+            }
 
             Scope.Params.current.set(request.params);
             Scope.RenderArgs.current.remove();
@@ -298,6 +323,17 @@ public class PlayHandler extends ChannelInboundHandlerAdapter {
                 }
                 Router.routeOnlyStatic(request);
                 super.init();
+                if (span.isRecording() && request.action != null) {
+                    span.name(request.method + " " + request.action).attribute("play.action", request.action);
+                }
+                if (expiredBeforeStart()) {
+                    // It passed while the request waited for a slot: nobody waits for the answer
+                    serve503(ctx, request, nettyRequest);
+                    if (Logger.isTraceEnabled()) {
+                        Logger.trace("init: end false");
+                    }
+                    return false;
+                }
             } catch (NotFound nf) {
                 serve404(nf, ctx, request, nettyRequest);
                 if (Logger.isTraceEnabled()) {
@@ -328,6 +364,25 @@ public class PlayHandler extends ChannelInboundHandlerAdapter {
                     request.invokedMethod.getDeclaringClass().getAnnotations());
         }
 
+        @Override
+        protected Deadline deadline(InvocationContext context) {
+            return Deadline.of(request, context);
+        }
+
+        @Override
+        public ConcurrencyLimiter.Priority priority(ConcurrencyLimiter limiter) {
+            return limiter.priority(request.path);
+        }
+
+        @Override
+        public void rejected() {
+            try {
+                serve503(ctx, request, nettyRequest);
+            } finally {
+                cleanupSpooledBody(request);
+            }
+        }
+
         @Override
         public void run() {
             suspended = false;
@@ -342,7 +397,14 @@ public class PlayHandler extends ChannelInboundHandlerAdapter {
                 // read those ThreadLocals — now null — and NPE'd internally, downgrading
                 // every controller exception to the static "Internal Error" fallback.
                 // Pass the Invocation's own captured request/response in directly.
-                serve500(e, ctx, nettyRequest, request, response);
+                if (span != null) {
+                    span.error(e);
+                }
+                if (ctx.channel().isActive()) {
+                    serve500(e, ctx, nettyRequest, request, response);
+                } else {
+                    Logger.debug(e, "Request %s %s failed after the client went away", request.method, request.path);
+                }
             } finally {
                 // Close + delete the spooled body temp file (no-op for in-memory bodies).
                 // Done in finally so disk leaks can't survive a controller throwing — except when
@@ -350,6 +412,18 @@ public class PlayHandler extends ChannelInboundHandlerAdapter {
                 // body, so cleanup is deferred to the terminal run() that completes or fails.
                 if (!suspended) {
                     cleanupSpooledBody(request);
+                    ctx.channel().attr(INVOCATION).compareAndSet(this, null);
+                    if (span != null) {
+                        if (span.isRecording()) {
+                            // An exception got past the action: serve500 answered it
+                            int status = span.isError() ? 500 : response.status;
+                            span.attribute("http.response.status_code", status);
+                            if (status >= 500) {
+                                span.error();
+                            }
+                        }
+                        span.end();
+                    }
                 }
                 if (Logger.isTraceEnabled()) {
                     Logger.trace("run: end");
@@ -362,27 +436,13 @@ public class PlayHandler extends ChannelInboundHandlerAdapter {
             try {
                 super._finally();
             } finally {
-                // PF-61: clear the worker-thread ThreadLocals init() set above. Without this,
-                // a pooled platform thread retains the previous Request/Response (and parsed
-                // body) until its next invocation reassigns them — under low traffic the GC root
-                // can survive minutes. Skip cleanup on suspend: the resumed run() needs the same
-                // request/response to be visible to controller code waiting on the suspend
-                // future.
+                // PF-61: Request/Response, the scopes and the controller-call stack live in
+                // the InvocationScope run() bound, and go with it. The bound method args are a
+                // plain ThreadLocal: without clearing them, a pooled platform thread retains
+                // the previous request's until its next invocation. Skip cleanup on suspend:
+                // the resumed run() needs them.
                 if (!suspended) {
-                    Request.current.remove();
-                    Response.current.remove();
-                    Scope.Params.current.remove();
-                    Scope.RenderArgs.current.remove();
-                    Scope.RouteArgs.current.remove();
-                    Scope.Session.current.remove();
-                    Scope.Flash.current.remove();
-                    // ActionInvoker.initActionContext sets these too. Without clearing
-                    // them, a pooled platform thread retains the previous request's
-                    // bound method args and controller-call stack. VT mode masks this
-                    // because each request gets a fresh thread, but platform mode
-                    // (Netty's invoker pool) leaks them across requests.
                     play.data.binding.CachedBoundActionMethodArgs.clear();
-                    play.classloading.enhancers.ControllersEnhancer.currentAction.remove();
                 }
             }
         }
@@ -401,7 +461,43 @@ public class PlayHandler extends ChannelInboundHandlerAdapter {
             // Check the exceeded size before re rendering so we can render the
             // error if the size is exceeded
             saveExceededSizeError(nettyRequest, request, response);
-            ActionInvoker.invoke(request, response);
+            synchronized (this) {
+                if (abandoned) {
+                    return;
+                }
+                executing = Thread.currentThread();
+            }
+            try {
+                ActionInvoker.invoke(request, response);
+            } finally {
+                synchronized (this) {
+                    executing = null;
+                    if (abandoned) {
+                        // Do not leak the interrupt to what this thread runs next
+                        Thread.interrupted();
+                    }
+                }
+            }
+        }
+
+        /**
+         * The client closed the connection before it was answered: interrupt
+         * the action, whose blocking calls (JDBC, WS, sleeps) then fail instead
+         * of running on for nobody.
+         */
+        void abandon() {
+            boolean interrupted = false;
+            synchronized (this) {
+                abandoned = true;
+                if (executing != null) {
+                    // Under the lock, so that invoke() clears it once the action returned
+                    executing.interrupt();
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Metrics.counter("play.requests.abandoned").increment();
+            }
         }
 
         @Override
@@ -621,6 +717,7 @@ public class PlayHandler extends ChannelInboundHandlerAdapter {
         }
 
         boolean keepAlive = isKeepAlive(nettyRequest);
+        boolean head = nettyRequest.method().equals(HttpMethod.HEAD);
         if (file != null && file.isFile()) {
             nettyResponse = addEtag(nettyRequest, nettyResponse, file);
             if (nettyResponse.status().equals(HttpResponseStatus.NOT_MODIFIED)) {
@@ -687,6 +784,21 @@ public class PlayHandler extends ChannelInboundHandlerAdapter {
         } else {
             writeResponse(ctx, response, nettyResponse, nettyRequest);
         }
+        // Chunked responses pass through here on their first chunk; closeChunked logs them.
+        if (!(stream instanceof LazyChunkedInput)) {
+            int status = nettyResponse.status().code();
+            long bytes;
+            if (head || status == 304) {
+                bytes = 0;
+            } else if (file != null && file.isFile()) {
+                bytes = file.length();
+            } else if (is != null || stream != null) {
+                bytes = -1;
+            } else {
+                bytes = response.out.size();
+            }
+            AccessLog.record(request, status, bytes);
+        }
         if (Logger.isTraceEnabled()) {
             Logger.trace("copyResponse: end");
         }
@@ -744,6 +856,14 @@ public class PlayHandler extends ChannelInboundHandlerAdapter {
         return null;
     }
 
+    /**
+     * The protocol this handler serves, as recorded in the access log: {@code h1} here,
+     * {@code h2} and {@code h3} in the stream handlers.
+     */
+    protected String protocol() {
+        return "h1";
+    }
+
     public Request parseRequest(ChannelHandlerContext ctx, FullHttpRequest nettyRequest)
             throws Exception {
         if (Logger.isTraceEnabled()) {
@@ -985,6 +1105,7 @@ public class PlayHandler extends ChannelInboundHandlerAdapter {
                     request != null && Boolean.TRUE.equals(request.secure));
             ChannelFuture writeFuture = ctx.channel().writeAndFlush(nettyResponse);
             writeFuture.addListener(ChannelFutureListener.CLOSE);
+            AccessLog.record(request, 404, isHead ? 0 : bytes.length);
         } catch (UnsupportedEncodingException fex) {
             Logger.error(fex, "(encoding ?)");
         }
@@ -993,6 +1114,30 @@ public class PlayHandler extends ChannelInboundHandlerAdapter {
         }
     }
 
+    /**
+     * Answer a request the concurrency limiter sheds, or whose deadline passed
+     * before it ran: a plain 503, without rendering a template, that asks the
+     * client to retry a second later.
+     */
+    static void serve503(ChannelHandlerContext ctx, Request request, HttpRequest nettyRequest) {
+        byte[] bytes = "Service Unavailable".getBytes(StandardCharsets.UTF_8);
+        boolean isHead = nettyRequest.method().equals(HttpMethod.HEAD);
+        FullHttpResponse nettyResponse = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1,
+                HttpResponseStatus.SERVICE_UNAVAILABLE, isHead ? Unpooled.EMPTY_BUFFER : Unpooled.wrappedBuffer(bytes));
+        if (exposePlayServer) {
+            nettyResponse.headers().set(SERVER, signature);
+        }
+        nettyResponse.headers().set(CONTENT_TYPE, "text/plain; charset=utf-8");
+        nettyResponse.headers().set(RETRY_AFTER, "1");
+        setContentLength(nettyResponse, bytes.length);
+        SecurityHeadersPolicy.current().applyTo(nettyResponse.headers(), Boolean.TRUE.equals(request.secure));
+        ChannelFuture writeFuture = ctx.channel().writeAndFlush(nettyResponse);
+        if (!isKeepAlive(nettyRequest)) {
+            writeFuture.addListener(ChannelFutureListener.CLOSE);
+        }
+        AccessLog.record(request, 503, isHead ? 0 : bytes.length);
+    }
+
     protected static Map<String, Object> getBindingForErrors(Exception e, boolean isError) {
         return ErrorBindings.forError(e, isError);
     }
@@ -1110,11 +1255,13 @@ public class PlayHandler extends ChannelInboundHandlerAdapter {
             } catch (Exception fex) {
                 Logger.error(fex, "(encoding ?)");
             }
+            AccessLog.record(request, 500, isHead ? 0 : HttpUtil.getContentLength(nettyResponse, -1L));
             if (exxx instanceof RuntimeException) {
                 throw (RuntimeException) exxx;
             }
             throw new RuntimeException(exxx);
         }
+        AccessLog.record(request, 500, isHead ? 0 : HttpUtil.getContentLength(nettyResponse, -1L));
         if (Logger.isTraceEnabled()) {
             Logger.trace("serve500: end");
         }
@@ -1192,9 +1339,12 @@ public class PlayHandler extends ChannelInboundHandlerAdapter {
                         if (!keepAlive) {
                             writeFuture.addListener(ChannelFutureListener.CLOSE);
                         }
+                        AccessLog.record(request, 304, 0);
                     } else {
                         FileService.serve(localFile, nettyRequest, nettyResponse, ctx, request, response,
                                 ctx.channel());
+                        AccessLog.record(request, nettyResponse.status().code(),
+                                nettyRequest.method().equals(HttpMethod.HEAD) ? 0 : localFile.length());
                     }
                 }
 
@@ -1215,6 +1365,7 @@ public class PlayHandler extends ChannelInboundHandlerAdapter {
                         request != null && Boolean.TRUE.equals(request.secure));
                 ChannelFuture future = ctx.channel().writeAndFlush(errorResponse);
                 future.addListener(ChannelFutureListener.CLOSE);
+                AccessLog.record(request, 500, isHead ? 0 : bytes.length);
             } catch (Exception ex) {
                 Logger.error(ex, "serveStatic for request %s", request.method + " " + request.url);
             }
@@ -1317,6 +1468,8 @@ public class PlayHandler extends ChannelInboundHandlerAdapter {
         // the watermark; the monitor below parks/wakes the writer around it.
         private final java.util.concurrent.atomic.AtomicLong queuedBytes = new java.util.concurrent.atomic.AtomicLong();
         private final Object backpressureLock = new Object();
+        // Body bytes accepted so far, for the access log. Only the writing thread touches it.
+        long written = 0L;
 
         @Override
         @Deprecated
@@ -1415,6 +1568,7 @@ public class PlayHandler extends ChannelInboundHandlerAdapter {
 
             nextChunks.offer(bytes);
             queuedBytes.addAndGet(bytes.length);
+            written += bytes.length;
         }
     }
 
@@ -1458,8 +1612,10 @@ public class PlayHandler extends ChannelInboundHandlerAdapter {
     public void closeChunked(Request playRequest, Response playResponse, ChannelHandlerContext ctx,
             HttpRequest nettyRequest) {
         try {
-            ((LazyChunkedInput) playResponse.direct).close();
+            LazyChunkedInput chunks = (LazyChunkedInput) playResponse.direct;
+            chunks.close();
             resumeChunkedTransfer(ctx);
+            AccessLog.record(playRequest, playResponse.status, chunks.written);
         } catch (Exception e) {
             throw new UnexpectedException(e);
         }
@@ -1467,6 +1623,7 @@ public class PlayHandler extends ChannelInboundHandlerAdapter {
 
     // ~~~~~~~~~~~ Websocket
     // Per-channel state stored as Netty 4 channel attributes (no static Map needed).
+    static final AttributeKey<NettyInvocation> INVOCATION = AttributeKey.valueOf("play.invocation");
     static final AttributeKey<Http.Inbound> WS_INBOUND = AttributeKey.valueOf("play.ws.inbound");
     static final AttributeKey<WebSocketServerHandshaker> WS_HANDSHAKER = AttributeKey.valueOf("play.ws.handshaker");
 
@@ -1759,6 +1916,10 @@ public class PlayHandler extends ChannelInboundHandlerAdapter {
 
     @Override
     public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+        NettyInvocation invocation = ctx.channel().attr(INVOCATION).getAndSet(null);
+        if (invocation != null) {
+            invocation.abandon();
+        }
         Http.Inbound inbound = ctx.channel().attr(WS_INBOUND).getAndSet(null);
         if (inbound != null) {
             inbound.close();
@@ -1828,12 +1989,6 @@ public class PlayHandler extends ChannelInboundHandlerAdapter {
                 // Without this, a WS upgrade that carried a >spoolThresholdBytes body leaks one
                 // temp file + open FD for the channel's lifetime.
                 cleanupSpooledBody(request);
-                // PF-61: same rationale as NettyInvocation — drop the worker-thread refs to
-                // Request/Inbound/Outbound so a long-lived platform pool thread doesn't pin
-                // the previous WebSocket session in memory between dispatches.
-                Http.Request.current.remove();
-                Http.Inbound.current.remove();
-                Http.Outbound.current.remove();
             }
         }
     }
@@ -396,6 +396,10 @@ public class Server {
 
             if (System.getProperty("precompile") == null) {
                 new Server(args);
+                if (System.getProperty("training") != null) {
+                    TrainingRun.run();
+                    System.exit(0);
+                }
             } else {
                 Logger.info("Done.");
             }
@@ -0,0 +1,86 @@
+package play.server;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+import play.Logger;
+import play.Play;
+
+/**
+ * The training run behind {@code play cds}: started with {@code -Dtraining=true},
+ * the server requests each of {@code play.training.urls} a few times once it is
+ * up, then exits. The JVM runs it with {@code -XX:ArchiveClassesAtExit}, so the
+ * class data sharing archive it writes on exit holds the classes a request
+ * loads (router, binders, templates, JSON...) and not only those loaded at
+ * startup.
+ *
+ * <p>Configuration in application.conf:</p>
+ * <pre>
+ * play.training.urls=/,/health    # paths requested over HTTP, default /
+ * play.training.rounds=20         # times each path is requested
+ * </pre>
+ */
+final class TrainingRun {
+
+    private static final int TIMEOUT_MILLIS = 10_000;
+
+    private TrainingRun() {
+    }
+
+    static void run() {
+        if (Server.httpPort == -1) {
+            Logger.warn("Training run: no HTTP port, only startup classes are archived");
+            return;
+        }
+        List<String> paths = paths(Play.configuration.getProperty("play.training.urls", "/"));
+        int rounds = Integer.parseInt(Play.configuration.getProperty("play.training.rounds", "20").trim());
+        String base = "http://localhost:" + Server.httpPort + Play.ctxPath;
+        int answered = warmUp(base, paths, rounds);
+        Logger.info("Training run: %s of %s requests to %s answered", answered, paths.size() * rounds, paths);
+    }
+
+    static List<String> paths(String urls) {
+        List<String> paths = new ArrayList<>();
+        for (String url : urls.split(",")) {
+            String path = url.trim();
+            if (!path.isEmpty()) {
+                paths.add(path.startsWith("/") ? path : "/" + path);
+            }
+        }
+        return paths;
+    }
+
+    /**
+     * Request every path {@code rounds} times, reading the responses whatever
+     * their status.
+     *
+     * @return the number of requests that got a response
+     */
+    static int warmUp(String base, List<String> paths, int rounds) {
+        int answered = 0;
+        for (int round = 0; round < rounds; round++) {
+            for (String path : paths) {
+                try {
+                    HttpURLConnection connection = (HttpURLConnection) URI.create(base + path).toURL().openConnection();
+                    connection.setConnectTimeout(TIMEOUT_MILLIS);
+                    connection.setReadTimeout(TIMEOUT_MILLIS);
+                    int status = connection.getResponseCode();
+                    try (InputStream body = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+                        if (body != null) {
+                            body.transferTo(OutputStream.nullOutputStream());
+                        }
+                    }
+                    answered++;
+                } catch (IOException e) {
+                    Logger.debug("Training run: %s failed: %s", path, e);
+                }
+            }
+        }
+        return answered;
+    }
+}
@@ -20,6 +20,11 @@ import play.server.PlayHandler;
  */
 public class Http3StreamPlayHandler extends PlayHandler {
 
+    @Override
+    protected String protocol() {
+        return "h3";
+    }
+
     @Override
     public Request parseRequest(ChannelHandlerContext ctx, FullHttpRequest nettyRequest) throws Exception {
         Request request = super.parseRequest(ctx, nettyRequest);
@@ -20,6 +20,11 @@ import play.server.PlayHandler;
  */
 public class Http2StreamPlayHandler extends PlayHandler {
 
+    @Override
+    protected String protocol() {
+        return "h2";
+    }
+
     @Override
     public Request parseRequest(ChannelHandlerContext ctx, FullHttpRequest nettyRequest) throws Exception {
         Request request = super.parseRequest(ctx, nettyRequest);
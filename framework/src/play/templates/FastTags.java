@@ -20,12 +20,14 @@ import org.codehaus.groovy.runtime.NullObject;
 import play.cache.Cache;
 import play.cache.CacheConfig;
 import play.cache.Caches;
+import play.libs.SingleFlight;
 import play.libs.Time;
 import play.data.validation.Error;
 import play.data.validation.Validation;
 import play.exceptions.TagInternalException;
 import play.exceptions.TemplateExecutionException;
 import play.exceptions.TemplateNotFoundException;
+import play.exceptions.UnexpectedException;
 import play.utils.HTML;
 import play.libs.Codec;
 import play.mvc.Http;
@@ -39,6 +41,8 @@ import play.utils.HTML;
 
 public class FastTags {
 
+    private static final SingleFlight<String, String> fragmentRenders = new SingleFlight<>("play.fragments");
+
     public static void _cache(Map<?, ?> args, Closure body, PrintWriter out, ExecutableTemplate template, int fromLine) {
         String key = args.get("arg").toString();
         String duration = args.containsKey("for") ? args.get("for").toString() : "1h";
@@ -51,8 +55,22 @@ public class FastTags {
             out.print(cached);
             return;
         }
-        String result = JavaExtensions.toString(body);
-        cache.put(key, result);
+        // Concurrent misses render the body once; the others wait for it.
+        String result;
+        try {
+            result = fragmentRenders.run(duration + "|" + key, () -> {
+                String rendered = cache.getIfPresent(key);
+                if (rendered == null) {
+                    rendered = JavaExtensions.toString(body);
+                    cache.put(key, rendered);
+                }
+                return rendered;
+            });
+        } catch (RuntimeException | java.lang.Error e) {
+            throw e;
+        } catch (Exception e) {
+            throw new UnexpectedException(e);
+        }
         out.print(result);
     }
 
@@ -55,6 +55,7 @@ import play.exceptions.UnexpectedException;
 import play.i18n.Lang;
 import play.i18n.Messages;
 import play.libs.Codec;
+import play.libs.Tracing;
 import play.mvc.ActionInvoker;
 import play.mvc.Http;
 import play.mvc.Http.Request;
@@ -232,10 +233,15 @@ public class GroovyTemplate extends BaseTemplate {
 
     @Override
     public String render(Map<String, Object> args) {
+        Tracing.Span span = Tracing.start("render", name);
         try {
             return super.render(args);
+        } catch (RuntimeException e) {
+            span.error(e);
+            throw e;
         } finally {
             currentTemplate.remove();
+            span.end();
         }
     }
 
@@ -0,0 +1,170 @@
+package play.vfs;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import play.Logger;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+
+/**
+ * Tracks changes under a set of directories with a {@link WatchService}, so
+ * that in DEV mode a request only checks the sources for changes when
+ * something under them did change.
+ *
+ * <p>A background thread counts the file system events; {@link #hasChanges()}
+ * compares that count with the one last {@link #checked(long) checked}, a
+ * volatile read. The tracker says nothing about which files changed: the
+ * caller runs its usual checks when it reports changes.</p>
+ */
+public final class ChangeTracker implements Closeable {
+
+    private final WatchService watchService;
+    private final long debounceNanos;
+    private final Thread thread;
+
+    private volatile long events;
+    private volatile long lastEventNanos;
+    private volatile long checked;
+
+    private ChangeTracker(WatchService watchService, long debounceMillis) {
+        this.watchService = watchService;
+        this.debounceNanos = TimeUnit.MILLISECONDS.toNanos(debounceMillis);
+        this.lastEventNanos = System.nanoTime() - debounceNanos;
+        this.thread = Thread.ofPlatform().name("play-change-tracker").daemon().unstarted(this::run);
+    }
+
+    /**
+     * Watch the given directories and everything below them.
+     *
+     * @param dirs
+     *            The directories to watch; missing ones are skipped
+     * @param debounceMillis
+     *            How long {@link #settle()} waits for a burst of events (an
+     *            editor saving, a build tool writing sources) to end
+     * @return The tracker, or null if the platform has no native file
+     *         watching and polling the files on each request is as fast
+     */
+    public static ChangeTracker watch(Collection<File> dirs, long debounceMillis) throws IOException {
+        WatchService watchService = FileSystems.getDefault().newWatchService();
+        if (watchService.getClass().getSimpleName().startsWith("Polling")) {
+            watchService.close();
+            return null;
+        }
+        ChangeTracker tracker = new ChangeTracker(watchService, debounceMillis);
+        try {
+            for (File dir : dirs) {
+                if (dir.isDirectory()) {
+                    tracker.register(dir.toPath());
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            watchService.close();
+            throw e;
+        }
+        tracker.thread.start();
+        return tracker;
+    }
+
+    private void register(Path root) throws IOException {
+        Files.walkFileTree(root, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                dir.register(watchService, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException e) {
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                List<Path> createdDirs = new ArrayList<>();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == ENTRY_CREATE && key.watchable() instanceof Path dir) {
+                        Path created = dir.resolve((Path) event.context());
+                        if (Files.isDirectory(created)) {
+                            createdDirs.add(created);
+                        }
+                    }
+                }
+                key.reset();
+                for (Path dir : createdDirs) {
+                    try {
+                        register(dir);
+                    } catch (IOException e) {
+                        Logger.debug("Cannot watch %s: %s", dir, e);
+                    }
+                }
+                lastEventNanos = System.nanoTime();
+                events++;
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // closed
+        }
+    }
+
+    /**
+     * Has anything changed since the last {@link #checked(long)}? Reads two
+     * volatile fields and nothing else.
+     */
+    public boolean hasChanges() {
+        return events != checked;
+    }
+
+    /**
+     * Wait for the current burst of events to end, at most ten times the
+     * debounce delay, so that the check that follows sees the files once they
+     * are written.
+     *
+     * @return The events seen, to pass to {@link #checked(long)} once checked
+     */
+    public long settle() {
+        long deadline = System.nanoTime() + 10 * debounceNanos;
+        long quietFor;
+        try {
+            while ((quietFor = System.nanoTime() - lastEventNanos) < debounceNanos && System.nanoTime() < deadline) {
+                TimeUnit.NANOSECONDS.sleep(debounceNanos - quietFor);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return events;
+    }
+
+    /**
+     * Record that the changes up to {@code events} (as returned by
+     * {@link #settle()}) are checked.
+     */
+    public void checked(long events) {
+        this.checked = events;
+    }
+
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+    }
+}
@@ -0,0 +1,208 @@
+package play;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.Test;
+
+import play.ConcurrencyLimiter.Permit;
+import play.ConcurrencyLimiter.Priority;
+import play.exceptions.ConfigurationException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ConcurrencyLimiterTest {
+
+    private final List<String> events = new ArrayList<>();
+    private final List<Permit> permits = new ArrayList<>();
+
+    private static ConcurrencyLimiter limiter(String... settings) {
+        Properties configuration = new Properties();
+        for (int i = 0; i < settings.length; i += 2) {
+            configuration.setProperty("play.limiter." + settings[i], settings[i + 1]);
+        }
+        return new ConcurrencyLimiter(configuration);
+    }
+
+    private void acquire(ConcurrencyLimiter limiter, Priority priority, String name) {
+        limiter.acquire(priority, permit -> {
+            events.add(name + " admitted");
+            permits.add(permit);
+        }, () -> events.add(name + " rejected"));
+    }
+
+    @Test
+    public void queuesOverTheLimitAndRejectsOverTheQueue() {
+        ConcurrencyLimiter limiter = limiter("initial", "2", "min", "1", "queue", "1");
+
+        acquire(limiter, Priority.NORMAL, "a");
+        acquire(limiter, Priority.NORMAL, "b");
+        acquire(limiter, Priority.NORMAL, "c");
+        acquire(limiter, Priority.NORMAL, "d");
+        acquire(limiter, Priority.LOW, "e");
+
+        assertThat(events).containsExactly("a admitted", "b admitted", "d rejected", "e rejected");
+        assertThat(limiter.inflight()).isEqualTo(2);
+        assertThat(limiter.queued()).isEqualTo(1);
+
+        permits.get(0).release();
+        permits.get(0).release();
+
+        assertThat(events).endsWith("c admitted");
+        assertThat(limiter.inflight()).isEqualTo(2);
+        assertThat(limiter.queued()).isZero();
+    }
+
+    @Test
+    public void rejectsQueuedRequestsAfterTheirDeadline() throws Exception {
+        ConcurrencyLimiter limiter = limiter("initial", "1", "min", "1", "maxWait", "20ms");
+        CountDownLatch rejected = new CountDownLatch(1);
+        acquire(limiter, Priority.NORMAL, "a");
+
+        limiter.acquire(Priority.NORMAL, permit -> events.add("b admitted"), rejected::countDown);
+
+        assertThat(rejected.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(limiter.queued()).isZero();
+        permits.get(0).release();
+        assertThat(events).containsExactly("a admitted");
+    }
+
+    @Test
+    public void withdrawnRequestsLeaveTheQueue() {
+        ConcurrencyLimiter limiter = limiter("initial", "1", "min", "1");
+        acquire(limiter, Priority.NORMAL, "a");
+        BooleanSupplier withdraw = limiter.acquire(Priority.NORMAL, permit -> events.add("b admitted"),
+                () -> events.add("b rejected"));
+
+        assertThat(withdraw.getAsBoolean()).isTrue();
+        assertThat(limiter.queued()).isZero();
+        permits.get(0).release();
+
+        assertThat(withdraw.getAsBoolean()).isFalse();
+        assertThat(events).containsExactly("a admitted");
+        assertThat(limiter.inflight()).isZero();
+    }
+
+    @Test
+    public void cancellingTheFutureOfAQueuedInvocationWithdrawsIt() throws Exception {
+        new PlayBuilder().build();
+        Invoker.init();
+        ConcurrencyLimiter limiter = limiter("initial", "1", "min", "1");
+        Invoker.limiter = limiter;
+        try {
+            acquire(limiter, Priority.NORMAL, "a");
+            List<String> ran = new CopyOnWriteArrayList<>();
+            Invoker.Invocation invocation = new Invoker.Invocation() {
+                @Override
+                public ConcurrencyLimiter.Priority priority(ConcurrencyLimiter limiter) {
+                    return Priority.NORMAL;
+                }
+
+                @Override
+                public void execute() {
+                    ran.add("b");
+                }
+
+                @Override
+                public Invoker.InvocationContext getInvocationContext() {
+                    return new Invoker.InvocationContext("ConcurrencyLimiterTest");
+                }
+            };
+
+            Future<?> future = Invoker.invoke(invocation);
+            assertThat(limiter.queued()).isEqualTo(1);
+
+            assertThat(future.cancel(false)).isTrue();
+            assertThat(future.isCancelled()).isTrue();
+            assertThat(limiter.queued()).isZero();
+            permits.get(0).release();
+            assertThat(limiter.inflight()).isZero();
+            assertThat(ran).isEmpty();
+        } finally {
+            Invoker.limiter = null;
+        }
+    }
+
+    @Test
+    public void suspendedRequestsFreeTheirSlot() {
+        ConcurrencyLimiter limiter = limiter("initial", "1", "min", "1");
+        acquire(limiter, Priority.NORMAL, "a");
+        acquire(limiter, Priority.NORMAL, "b");
+
+        permits.get(0).suspend();
+        assertThat(events).containsExactly("a admitted", "b admitted");
+
+        permits.get(0).resume();
+        assertThat(limiter.inflight()).isEqualTo(2);
+        permits.get(0).release();
+        permits.get(1).release();
+        assertThat(limiter.inflight()).isZero();
+    }
+
+    @Test
+    public void followsTheLatency() {
+        ConcurrencyLimiter limiter = limiter("initial", "20");
+        long now = System.nanoTime();
+        long fast = TimeUnit.MILLISECONDS.toNanos(10);
+
+        synchronized (limiter) {
+            for (int window = 1; window <= 20; window++) {
+                for (int i = 0; i < 10; i++) {
+                    limiter.sample(fast, limiter.limit(), now + window * TimeUnit.MILLISECONDS.toNanos(100));
+                }
+            }
+        }
+        int grown = limiter.limit();
+        assertThat(grown).isGreaterThan(20);
+
+        synchronized (limiter) {
+            for (int window = 21; window <= 30; window++) {
+                for (int i = 0; i < 10; i++) {
+                    limiter.sample(10 * fast, limiter.limit(), now + window * TimeUnit.MILLISECONDS.toNanos(100));
+                }
+            }
+        }
+        assertThat(limiter.limit()).isLessThan(grown * 2 / 3).isGreaterThanOrEqualTo(4);
+    }
+
+    @Test
+    public void doesNotGrowWhenMostOfTheLimitIsUnused() {
+        ConcurrencyLimiter limiter = limiter("initial", "20");
+        long now = System.nanoTime();
+
+        synchronized (limiter) {
+            for (int window = 1; window <= 20; window++) {
+                for (int i = 0; i < 10; i++) {
+                    limiter.sample(TimeUnit.MILLISECONDS.toNanos(10), 3, now + window * TimeUnit.MILLISECONDS.toNanos(100));
+                }
+            }
+        }
+
+        assertThat(limiter.limit()).isEqualTo(20);
+    }
+
+    @Test
+    public void prioritizesByPathPrefix() {
+        ConcurrencyLimiter limiter = limiter("bypass", "/admin, health", "lowPriority", "/reports");
+
+        assertThat(limiter.priority("/admin/users")).isEqualTo(Priority.BYPASS);
+        assertThat(limiter.priority("/health")).isEqualTo(Priority.BYPASS);
+        assertThat(limiter.priority("/reports/2024")).isEqualTo(Priority.LOW);
+        assertThat(limiter.priority("/")).isEqualTo(Priority.NORMAL);
+    }
+
+    @Test
+    public void rejectsInvalidSettings() {
+        assertThatThrownBy(() -> limiter("min", "0")).isInstanceOf(ConfigurationException.class);
+        assertThatThrownBy(() -> limiter("min", "10", "max", "5")).isInstanceOf(ConfigurationException.class);
+        assertThatThrownBy(() -> limiter("tolerance", "0.5")).isInstanceOf(ConfigurationException.class);
+        assertThatThrownBy(() -> limiter("maxWait", "1000")).isInstanceOf(ConfigurationException.class);
+    }
+}
@@ -0,0 +1,200 @@
+package play;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import play.Invoker.InvocationContext;
+import play.Invoker.Suspend;
+import play.exceptions.DeadlineExceededException;
+import play.mvc.Http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class DeadlineTest {
+
+    private Properties config;
+
+    @TimeLimit("2s")
+    static class Limited {
+        @TimeLimit("1s")
+        public void action() {
+        }
+
+        @TimeLimit("500ms")
+        public void quick() {
+        }
+
+        public void other() {
+        }
+    }
+
+    @BeforeEach
+    public void setUp() {
+        config = new Properties();
+        new PlayBuilder().withConfiguration(config).build();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        Deadline.configure();
+    }
+
+    private static InvocationContext context(String method) throws Exception {
+        return new InvocationContext(Http.invocationType, Limited.class.getMethod(method).getAnnotations(),
+                Limited.class.getAnnotations());
+    }
+
+    private static Http.Request request(String... headers) {
+        Map<String, Http.Header> map = new HashMap<>();
+        for (int i = 0; i < headers.length; i += 2) {
+            map.put(headers[i], new Http.Header(headers[i], headers[i + 1]));
+        }
+        Http.Request request = Http.Request.createRequest(new Http.Request.RequestData(
+                null, "GET", "/", "", null, null, null, "localhost", false, 80, "localhost", false, map, null));
+        request.args.put("acceptedAtNanos", System.nanoTime());
+        return request;
+    }
+
+    @Test
+    public void theTimeLimitOfTheActionWinsOverTheControllers() throws Exception {
+        assertThat(Deadline.of(context("action")).remainingMillis()).isBetween(900L, 1000L);
+        assertThat(Deadline.of(context("other")).remainingMillis()).isBetween(1900L, 2000L);
+        assertThat(Deadline.of(context("quick")).remainingMillis()).isBetween(400L, 500L);
+        assertThat(Deadline.of(new InvocationContext("Job"))).isNull();
+    }
+
+    @Test
+    public void requestsGetTheConfiguredDeadline() throws Exception {
+        assertThat(Deadline.of(request(), new InvocationContext(Http.invocationType))).isNull();
+
+        config.setProperty("play.deadline", "5s");
+        Deadline.configure();
+
+        assertThat(Deadline.of(request(), new InvocationContext(Http.invocationType)).remainingMillis()).isBetween(4900L, 5000L);
+        assertThat(Deadline.of(request(), context("action")).remainingMillis()).isBetween(900L, 1000L);
+
+        config.setProperty("play.deadline", "500ms");
+        Deadline.configure();
+
+        assertThat(Deadline.of(request(), new InvocationContext(Http.invocationType)).remainingMillis()).isBetween(400L, 500L);
+    }
+
+    @Test
+    public void theHeaderCanOnlyShortenTheDeadline() throws Exception {
+        config.setProperty("play.deadline.header", "X-Request-Timeout");
+        Deadline.configure();
+
+        assertThat(Deadline.of(request("x-request-timeout", "300"), context("action")).remainingMillis()).isBetween(200L, 300L);
+        assertThat(Deadline.of(request("x-request-timeout", "60000"), context("action")).remainingMillis()).isBetween(900L, 1000L);
+        assertThat(Deadline.of(request("x-request-timeout", "300"), new InvocationContext(Http.invocationType)).remainingMillis())
+                .isBetween(200L, 300L);
+        assertThat(Deadline.of(request("x-request-timeout", "soon"), context("action")).remainingMillis()).isBetween(900L, 1000L);
+    }
+
+    @Test
+    public void boundsTimeoutsByTheTimeLeft() {
+        Deadline deadline = Deadline.after(1500);
+
+        assertThat(deadline.queryTimeoutSeconds()).isEqualTo(2);
+        assertThat(deadline.bound(Duration.ofMillis(200))).isEqualTo(Duration.ofMillis(200));
+        assertThat(deadline.bound(Duration.ofSeconds(30))).isBetween(Duration.ofMillis(1400), Duration.ofMillis(1500));
+        deadline.check();
+    }
+
+    @Test
+    public void anExpiredDeadlineStillLeavesAMinimalTimeout() {
+        Deadline deadline = Deadline.after(-10);
+
+        assertThat(deadline.isExpired()).isTrue();
+        assertThat(deadline.queryTimeoutSeconds()).isEqualTo(1);
+        assertThat(deadline.bound(Duration.ofSeconds(30))).isEqualTo(Duration.ofMillis(1));
+        assertThatThrownBy(deadline::check).isInstanceOf(DeadlineExceededException.class);
+    }
+
+    /**
+     * Records whether each run found its deadline expired before it started,
+     * suspending once for {@code suspendMillis} if that is not negative.
+     */
+    private static class Recording extends Invoker.Invocation {
+
+        final Deadline deadline;
+        final long suspendMillis;
+        final List<Boolean> expiredBeforeStart = new CopyOnWriteArrayList<>();
+        final CountDownLatch done = new CountDownLatch(1);
+
+        Recording(Deadline deadline, long suspendMillis) {
+            this.deadline = deadline;
+            this.suspendMillis = suspendMillis;
+        }
+
+        @Override
+        public boolean init() {
+            Deadline.current.set(deadline);
+            expiredBeforeStart.add(expiredBeforeStart());
+            return true;
+        }
+
+        @Override
+        public void execute() {
+            if (suspendMillis >= 0 && expiredBeforeStart.size() == 1) {
+                throw new Suspend(suspendMillis);
+            }
+            done.countDown();
+        }
+
+        @Override
+        public InvocationContext getInvocationContext() {
+            return new InvocationContext("DeadlineTest");
+        }
+
+        @Override
+        public void before() {
+        }
+
+        @Override
+        public void after() {
+        }
+
+        @Override
+        public void onSuccess() {
+        }
+
+        @Override
+        public void _finally() {
+        }
+    }
+
+    @Test
+    public void anInvocationStartedAfterItsDeadlineHasExpired() throws Exception {
+        Invoker.init();
+        Recording invocation = new Recording(Deadline.after(-1), -1);
+
+        Invoker.invoke(invocation);
+
+        assertThat(invocation.done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(invocation.expiredBeforeStart).containsExactly(true);
+    }
+
+    @Test
+    public void aResumedInvocationIsNotRejectedForOutlivingItsDeadline() throws Exception {
+        Invoker.init();
+        Recording invocation = new Recording(Deadline.after(500), 700);
+
+        Invoker.invoke(invocation);
+
+        assertThat(invocation.done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(invocation.deadline.isExpired()).isTrue();
+        assertThat(invocation.expiredBeforeStart).containsExactly(false, false);
+    }
+}
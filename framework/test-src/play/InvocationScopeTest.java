@@ -0,0 +1,147 @@
+package play;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import play.Invoker.InvocationContext;
+import play.Invoker.Suspend;
+import play.mvc.Http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class InvocationScopeTest {
+
+    @Test
+    public void actsAsAThreadLocalOutsideAnInvocation() {
+        InvocationLocal<String> local = new InvocationLocal<>();
+
+        local.set("thread");
+        assertThat(local.get()).isEqualTo("thread");
+        local.remove();
+        assertThat(local.get()).isNull();
+    }
+
+    @Test
+    public void fallsBackToTheThreadOutsideAnyScope() {
+        InvocationLocal<List<String>> local = new InvocationLocal<>(ArrayList::new);
+
+        assertThat(InvocationScope.current()).isNull();
+        assertThat(local.get()).isEmpty();
+        local.get().add("thread");
+        assertThat(local.get()).containsExactly("thread");
+        local.remove();
+        assertThat(local.get()).isEmpty();
+        local.remove();
+    }
+
+    @Test
+    public void keepsValuesInTheScopeInsideAnInvocation() {
+        InvocationLocal<String> local = new InvocationLocal<>();
+        local.set("thread");
+        try {
+            InvocationScope scope = new InvocationScope();
+            scope.run(() -> {
+                assertThat(InvocationScope.current()).isSameAs(scope);
+                assertThat(local.get()).isNull();
+                local.set("scope");
+                assertThat(local.get()).isEqualTo("scope");
+            });
+
+            assertThat(InvocationScope.current()).isNull();
+            assertThat(local.get()).isEqualTo("thread");
+            assertThat(scope.call(local::get)).isEqualTo("scope");
+            assertThat(new InvocationScope().call(local::get)).isNull();
+        } finally {
+            local.remove();
+        }
+    }
+
+    @Test
+    public void suppliesTheInitialValueOncePerScope() {
+        AtomicInteger created = new AtomicInteger();
+        InvocationLocal<List<String>> local = new InvocationLocal<>(() -> {
+            created.incrementAndGet();
+            return new ArrayList<>();
+        });
+
+        InvocationScope scope = new InvocationScope();
+        scope.run(() -> local.get().add("a"));
+        scope.run(() -> local.get().add("b"));
+
+        assertThat(scope.call(local::get)).containsExactly("a", "b");
+        assertThat(new InvocationScope().call(local::get)).isEmpty();
+        assertThat(created).hasValue(2);
+    }
+
+    @Test
+    public void copiesAreIndependent() {
+        InvocationLocal<String> local = new InvocationLocal<>();
+        InvocationScope scope = new InvocationScope();
+        scope.run(() -> local.set("before"));
+
+        InvocationScope copy = scope.copy();
+        copy.run(() -> local.set("after"));
+
+        assertThat(scope.call(local::get)).isEqualTo("before");
+        assertThat(copy.call(local::get)).isEqualTo("after");
+    }
+
+    @Test
+    public void resumesASuspendedInvocationWithItsScope() throws Exception {
+        Invoker.init();
+        Http.Request request = new Http.Request();
+        AtomicInteger runs = new AtomicInteger();
+        AtomicReference<Http.Request> resumedWith = new AtomicReference<>();
+        CountDownLatch resumed = new CountDownLatch(1);
+
+        Invoker.Invocation invocation = new Invoker.Invocation() {
+            @Override
+            public boolean init() {
+                return true;
+            }
+
+            @Override
+            public void execute() {
+                if (runs.getAndIncrement() == 0) {
+                    Http.Request.current.set(request);
+                    throw new Suspend(1);
+                }
+                resumedWith.set(Http.Request.current());
+                resumed.countDown();
+            }
+
+            @Override
+            public InvocationContext getInvocationContext() {
+                return new InvocationContext("InvocationScopeTest");
+            }
+
+            @Override
+            public void before() {
+            }
+
+            @Override
+            public void after() {
+            }
+
+            @Override
+            public void onSuccess() {
+            }
+
+            @Override
+            public void _finally() {
+            }
+        };
+
+        Invoker.invoke(invocation);
+
+        assertThat(resumed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(resumedWith.get()).isSameAs(request);
+        assertThat(Http.Request.current()).isNull();
+    }
+}
@@ -94,8 +94,8 @@ public class InvokerVirtualThreadTest {
     }
 
     /**
-     * L7: verify that the production {@code _finally()} hook (which calls
-     * {@code InvocationContext.current.remove()}) actually runs cleanly on a virtual
+     * L7: verify that the production {@code _finally()} hook (which runs
+     * {@code pluginCollection.invocationFinally()}) actually runs cleanly on a virtual
      * thread carrier. Unlike {@link #invocationRunsOnVirtualThread} this test does NOT
      * override {@code _finally()} to a no-op — it lets the production default run and
      * snapshots the InvocationContext from inside {@code execute()}, then waits for the
@@ -140,8 +140,8 @@ public class InvokerVirtualThreadTest {
 
             @Override
             public void _finally() {
-                // Call super so the production default (InvocationContext.current.remove(),
-                // pluginCollection.invocationFinally()) actually runs. Then signal so the
+                // Call super so the production default (pluginCollection.invocationFinally())
+                // actually runs. Then signal so the
                 // test thread knows the lifecycle hook completed without throwing.
                 try {
                     super._finally();
@@ -0,0 +1,54 @@
+package play;
+
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LogTemplateTest {
+
+    @Test
+    public void stringSpecifiersBecomePlaceholders() {
+        LogTemplate template = LogTemplate.translate("Started %s in %s ms");
+        assertThat(template.pattern()).isEqualTo("Started {} in {} ms");
+        assertThat(template.placeholders()).isEqualTo(2);
+    }
+
+    @Test
+    public void escapesAreResolved() {
+        LogTemplate template = LogTemplate.translate("100%% of %s%n");
+        assertThat(template.pattern()).isEqualTo("100% of {}" + System.lineSeparator());
+        assertThat(template.placeholders()).isEqualTo(1);
+    }
+
+    @Test
+    public void otherSpecifiersAreNotTranslated() {
+        assertThat(LogTemplate.translate("%d requests").pattern()).isNull();
+        assertThat(LogTemplate.translate("%.2f%%").pattern()).isNull();
+        assertThat(LogTemplate.translate("%5s").pattern()).isNull();
+        assertThat(LogTemplate.translate("trailing %").pattern()).isNull();
+    }
+
+    @Test
+    public void textLog4jWouldInterpretIsNotTranslated() {
+        assertThat(LogTemplate.translate("{} and %s").pattern()).isNull();
+        assertThat(LogTemplate.translate("C:\\temp\\%s").pattern()).isNull();
+        assertThat(LogTemplate.translate("{%s}").pattern()).isEqualTo("{{}}");
+    }
+
+    @Test
+    public void translationsAreCached() {
+        assertThat(LogTemplate.of("cached %s")).isSameAs(LogTemplate.of("cached %s"));
+    }
+
+    @Test
+    public void argumentsLog4jRendersDifferentlyAreDetected() {
+        assertThat(LogTemplate.rendersAlike(new Object[] {"app", 42, 1.5, true, 'c', null, LocalDate.of(2020, 1, 1)})).isTrue();
+        assertThat(LogTemplate.rendersAlike(new Object[] {"app", new Date()})).isFalse();
+        assertThat(LogTemplate.rendersAlike(new Object[] {new int[] {1, 2}})).isFalse();
+        assertThat(LogTemplate.rendersAlike(new Object[] {List.of(new int[] {1})})).isFalse();
+    }
+}
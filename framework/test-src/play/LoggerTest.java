@@ -6,13 +6,27 @@ package play;
 import java.io.File;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.appender.AbstractAppender;
+import org.apache.logging.log4j.core.appender.AsyncAppender;
+import org.apache.logging.log4j.core.config.LoggerConfig;
+import org.apache.logging.log4j.core.config.Property;
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * Test the Logger class. At the moment only a few methods.
@@ -159,6 +173,71 @@ public class LoggerTest {
         assertFalse(loggerInit.access());
     }
 
+    @Test
+    public void applicationConfFileWinsOverTheFrameworkDefault(@TempDir File dir) throws Exception {
+        File conf = new File(dir, "conf/log4j.properties");
+        conf.getParentFile().mkdirs();
+        Files.writeString(conf.toPath(), "rootLogger.level = info\n");
+        Play.applicationPath = dir;
+
+        assertEquals(conf.toURI().toURL(), new Logger.LoggerInit().getLog4jConf());
+    }
+
+    @Test
+    public void messagesRenderLikeStringFormat() {
+        Play.configuration.put(APPLICATION_LOG_PATH_PROPERTYNAME, Play.applicationPath.getAbsolutePath() + "/test-src/play/testlog4j.properties");
+        Logger.log4j = null;
+        init();
+        List<String> messages = new ArrayList<>();
+        List<Throwable> thrown = new ArrayList<>();
+        LoggerConfig root = ((LoggerContext) LogManager.getContext(false)).getConfiguration().getRootLogger();
+        Appender capture = new AbstractAppender("capture", null, null, true, Property.EMPTY_ARRAY) {
+            @Override
+            public void append(LogEvent event) {
+                messages.add(event.getMessage().getFormattedMessage());
+                thrown.add(event.getThrown());
+            }
+        };
+        capture.start();
+        root.addAppender(capture, null, null);
+        try {
+            Error error = new Error("boom");
+            Logger.info("Started %s in %s ms", "app", 42);
+            Logger.info("%d%% done, %s", 50, null);
+            Logger.info("100%");
+            Logger.info("{} literal %s", "x");
+            Logger.error(error, "Failed %s", "job");
+            Date date = new Date(0);
+            int[] ids = {1, 2};
+            Logger.info("Started %s", date);
+            Logger.info("Ids %s", (Object) ids);
+
+            assertEquals(List.of("Started app in 42 ms", "50% done, null", "100%", "{} literal x", "Failed job",
+                    "Started " + date, "Ids " + ids), messages);
+            assertEquals(error, thrown.get(4));
+        } finally {
+            root.removeAppender("capture");
+        }
+    }
+
+    @Test
+    public void asyncSwitchWrapsEveryAppender() {
+        Play.configuration.put(APPLICATION_LOG_PATH_PROPERTYNAME, Play.applicationPath.getAbsolutePath() + "/test-src/play/testlog4j.properties");
+        Play.configuration.put("application.log.async", "true");
+        Logger.log4j = null;
+        init();
+        try {
+            Map<String, Appender> appenders = ((LoggerContext) LogManager.getContext(false)).getConfiguration().getRootLogger().getAppenders();
+            assertTrue(appenders.containsKey("async-STDOUT"));
+            assertFalse(appenders.containsKey("STDOUT"));
+            assertTrue(appenders.get("async-STDOUT") instanceof AsyncAppender);
+        } finally {
+            Play.configuration.remove("application.log.async");
+            Logger.log4j = null;
+            init();
+        }
+    }
+
     private void init() {
         Logger.init(new Logger.LoggerInit() {
             @Override
@@ -0,0 +1,112 @@
+package play.classloading;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import play.PlayBuilder;
+import play.jobs.Job;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ClassIndexTest {
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @Inherited
+    public @interface Tagged {
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface Marked {
+    }
+
+    @Tagged
+    @Marked
+    public static class Base extends Job<Void> {
+    }
+
+    public static class Child extends Base implements Serializable {
+    }
+
+    public static class GrandChild extends Child {
+    }
+
+    public static class Unrelated {
+    }
+
+    @TempDir
+    Path dir;
+
+    private ClassIndex index;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        new PlayBuilder().build();
+        for (Class<?> type : new Class<?>[] {Base.class, Child.class, GrandChild.class, Unrelated.class}) {
+            String path = type.getName().replace('.', '/') + ".class";
+            Path target = dir.resolve("java").resolve(path);
+            Files.createDirectories(target.getParent());
+            try (InputStream in = type.getClassLoader().getResourceAsStream(path)) {
+                Files.copy(in, target);
+            }
+        }
+        index = ClassIndex.build(dir.resolve("java").toFile());
+    }
+
+    @Test
+    public void listsEveryClassByName() {
+        assertThat(index.classNames()).containsExactly(
+                Base.class.getName(), Child.class.getName(), GrandChild.class.getName(), Unrelated.class.getName());
+    }
+
+    @Test
+    public void findsAssignableClassesThroughIndexedAndExternalSupertypes() {
+        ClassLoader loader = getClass().getClassLoader();
+
+        assertThat(index.assignableTo(Job.class, loader))
+                .containsExactly(Base.class.getName(), Child.class.getName(), GrandChild.class.getName());
+        assertThat(index.assignableTo(Base.class, loader)).containsExactly(Child.class.getName(), GrandChild.class.getName());
+        assertThat(index.assignableTo(Serializable.class, loader)).containsExactly(Child.class.getName(), GrandChild.class.getName());
+        assertThat(index.assignableTo(java.util.RandomAccess.class, loader)).isEmpty();
+    }
+
+    @Test
+    public void followsInheritedAnnotationsOnly() {
+        ClassLoader loader = getClass().getClassLoader();
+
+        assertThat(index.annotatedWith(Tagged.class, loader))
+                .containsExactly(Base.class.getName(), Child.class.getName(), GrandChild.class.getName());
+        assertThat(index.annotatedWith(Marked.class, loader)).containsExactly(Base.class.getName());
+    }
+
+    @Test
+    public void survivesAWriteReadRoundTrip() throws IOException {
+        File file = dir.resolve("class-index").toFile();
+        index.write(file);
+
+        ClassIndex read = ClassIndex.read(file);
+
+        assertThat(read.classNames()).isEqualTo(index.classNames());
+        assertThat(read.assignableTo(Job.class, getClass().getClassLoader())).hasSize(3);
+        assertThat(read.annotatedWith(Marked.class, getClass().getClassLoader())).containsExactly(Base.class.getName());
+    }
+
+    @Test
+    public void ignoresMissingOrForeignFiles() throws IOException {
+        assertThat(ClassIndex.read(dir.resolve("none").toFile())).isNull();
+
+        Path foreign = dir.resolve("foreign");
+        Files.writeString(foreign, "something else\n");
+        assertThat(ClassIndex.read(foreign.toFile())).isNull();
+    }
+}
@@ -0,0 +1,31 @@
+package play.classloading;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EnhancerTimingsTest {
+
+    @BeforeEach
+    public void setUp() {
+        EnhancerTimings.drain();
+    }
+
+    @Test
+    public void sumsEachEnhancerSlowestFirst() {
+        EnhancerTimings.record("SigEnhancer", 3_000_000);
+        EnhancerTimings.record("PropertiesEnhancer", 10_000_000);
+        EnhancerTimings.record("SigEnhancer", 4_000_000);
+
+        assertThat(EnhancerTimings.drain()).isEqualTo("PropertiesEnhancer 10 ms, SigEnhancer 7 ms");
+    }
+
+    @Test
+    public void drainingResetsTheTimings() {
+        EnhancerTimings.record("SigEnhancer", 1_000_000);
+        EnhancerTimings.drain();
+
+        assertThat(EnhancerTimings.drain()).isEmpty();
+    }
+}
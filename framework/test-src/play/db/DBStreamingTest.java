@@ -0,0 +1,122 @@
+package play.db;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+import play.Play;
+import play.db.helper.JdbcCursor;
+import play.db.helper.JdbcResultFactories;
+import play.exceptions.ConfigurationException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * {@link DB#stream} / {@link DB#executeStreamingQuery} against a real
+ * in-memory H2 database.
+ */
+public class DBStreamingTest {
+
+    private static final AtomicInteger DB_COUNTER = new AtomicInteger();
+
+    private HikariDataSource dataSource;
+
+    public static class Item {
+        public Long id;
+        public String name;
+    }
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        Play.configuration = new Properties();
+        String dbUrl = "jdbc:h2:mem:stream_" + DB_COUNTER.incrementAndGet() + ";DB_CLOSE_DELAY=-1";
+        Play.configuration.put("db.url", dbUrl);
+
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(dbUrl);
+        config.setUsername("sa");
+        config.setPassword("");
+        dataSource = new HikariDataSource(config);
+        DB.datasources.put(DB.DEFAULT, new DB.ExtendedDatasource(dataSource, "close"));
+
+        try (Connection c = dataSource.getConnection(); Statement st = c.createStatement()) {
+            st.execute("CREATE TABLE item (id BIGINT PRIMARY KEY, name VARCHAR(50))");
+            st.execute("INSERT INTO item SELECT X, 'item-' || X FROM SYSTEM_RANGE(1, 1000)");
+        }
+    }
+
+    @AfterEach
+    public void tearDown() {
+        DB.closeAll();
+        DB.datasources.remove(DB.DEFAULT);
+        dataSource.close();
+        Play.configuration = new Properties();
+    }
+
+    @Test
+    public void streamMapsRowsOntoPublicFields() {
+        try (Stream<Item> items = DB.stream("select id, name from item where id <= ? order by id", Item.class, 3)) {
+            List<String> names = items.map(i -> i.id + ":" + i.name).collect(Collectors.toList());
+            assertThat(names).containsExactly("1:item-1", "2:item-2", "3:item-3");
+        }
+    }
+
+    @Test
+    public void streamOfSingleColumn() {
+        try (Stream<Long> ids = DB.stream("select count(*) from item", Long.class)) {
+            assertThat(ids.findFirst()).contains(1000L);
+        }
+    }
+
+    @Test
+    public void cursorIsLazyAndHonoursFetchSize() throws SQLException {
+        Play.configuration.put("db.streaming.fetchSize", "50");
+        try (JdbcCursor<Item> cursor = DB.executeStreamingQuery(DB.DEFAULT, "select * from item order by id",
+                JdbcResultFactories.build(Item.class))) {
+            assertThat(cursor.next().id).isEqualTo(1L);
+            long rest = 0;
+            while (cursor.hasNext()) {
+                cursor.next();
+                rest++;
+            }
+            assertThat(rest).isEqualTo(999);
+        }
+        assertThat(DB.streamingFetchSize(DB.DEFAULT)).isEqualTo(50);
+    }
+
+    @Test
+    public void closingTheStreamEarlyClosesTheStatement() {
+        Stream<Item> items = DB.stream("select * from item", Item.class);
+        assertThat(items.limit(2).count()).isEqualTo(2);
+        items.close();
+        // The thread's connection is still usable for the next statement.
+        try (Stream<Long> ids = DB.stream("select max(id) from item", Long.class)) {
+            assertThat(ids.findFirst()).contains(1000L);
+        }
+    }
+
+    @Test
+    public void unknownFieldFailsAtInitNotPerRow() {
+        assertThatThrownBy(() -> DB.stream("select id, name as nickname from item", Item.class))
+                .hasCauseInstanceOf(NoSuchFieldException.class);
+    }
+
+    @Test
+    public void invalidFetchSizeIsAConfigurationError() {
+        Play.configuration.put("db.streaming.fetchSize", "lots");
+        assertThatThrownBy(() -> DB.streamingFetchSize(DB.DEFAULT)).isInstanceOf(ConfigurationException.class);
+    }
+}
@@ -432,6 +432,105 @@ public class EvolutionsTest {
         // "no swallowed error" guarantee: a swallowed mid-migration failure cannot satisfy them.
     }
 
+    // ---------------------------------------------------------------------------------------------
+    // 6. Fast check: hash manifest compared with play_evolutions in one query.
+    // ---------------------------------------------------------------------------------------------
+
+    @Test
+    public void fastCheckTracksScriptEditsAndAppliedState() throws SQLException {
+        writeScript(1, "create table fast (id int primary key);", "drop table fast;");
+
+        // No evolutions table yet: the fast path cannot answer, the full check takes over.
+        assertFalse(Evolutions.isUpToDate(DB.DEFAULT, MODULE_KEY, evolutionsVfs()));
+
+        assertTrue(Evolutions.applyScript(DB.DEFAULT, true, MODULE_KEY, evolutionsVfs()));
+        assertTrue(Evolutions.isUpToDate(DB.DEFAULT, MODULE_KEY, evolutionsVfs()), "applied scripts match the manifest");
+
+        // A new script changes the directory stamp, so the manifest is rebuilt.
+        writeScript(2, "create table faster (id int primary key);", "drop table faster;");
+        assertFalse(Evolutions.isUpToDate(DB.DEFAULT, MODULE_KEY, evolutionsVfs()), "pending rev 2 must be noticed");
+
+        assertTrue(Evolutions.applyScript(DB.DEFAULT, true, MODULE_KEY, evolutionsVfs()));
+        assertTrue(Evolutions.isUpToDate(DB.DEFAULT, MODULE_KEY, evolutionsVfs()));
+
+        // A half-applied revision always goes through the full check, which reports it.
+        try (Connection c = dataSource.getConnection(); Statement st = c.createStatement()) {
+            st.execute("update play_evolutions set state = '" + EvolutionState.APPLYING_UP.getStateWord() + "' where id = 2");
+        }
+        assertFalse(Evolutions.isUpToDate(DB.DEFAULT, MODULE_KEY, evolutionsVfs()));
+    }
+
+    // ---------------------------------------------------------------------------------------------
+    // 7. Batched DML and parallel application across databases.
+    // ---------------------------------------------------------------------------------------------
+
+    @Test
+    public void dmlStatementsAreSentInBatches() throws SQLException {
+        Play.configuration.put("evolutions.batchSize", "4");
+        StringBuilder up = new StringBuilder("create table seed (id int primary key, label varchar(20));\n");
+        for (int i = 1; i <= 10; i++) {
+            up.append("insert into seed values (").append(i).append(", 'row ").append(i).append("');\n");
+        }
+        up.append("create index seed_label on seed (label);\n");
+        up.append("update seed set label = 'first' where id = 1;\n");
+        writeScript(1, up.toString(), "drop table seed;");
+
+        assertTrue(Evolutions.applyScript(DB.DEFAULT, true, MODULE_KEY, evolutionsVfs()));
+
+        try (Connection c = dataSource.getConnection();
+                Statement st = c.createStatement();
+                ResultSet rs = st.executeQuery("select count(*), max(case when id = 1 then label end) from seed")) {
+            assertTrue(rs.next());
+            assertEquals(10, rs.getInt(1), "every batched insert ran");
+            assertEquals("first", rs.getString(2), "the trailing update ran after the batch was flushed");
+        }
+    }
+
+    @Test
+    public void failingBatchIsRecordedAsAProblem() throws SQLException {
+        Play.configuration.put("evolutions.batchSize", "10");
+        writeScript(1, "create table dup (id int primary key);\ninsert into dup values (1);\ninsert into dup values (1);", "drop table dup;");
+
+        assertFalse(Evolutions.applyScript(DB.DEFAULT, true, MODULE_KEY, evolutionsVfs()));
+
+        Row row = readEvolutionRow(1);
+        assertEquals(EvolutionState.APPLYING_UP.getStateWord(), row.state);
+        assertFalse(row.lastProblem.isEmpty());
+    }
+
+    @Test
+    public void appliesToEveryDatabaseConcurrently() throws SQLException {
+        String otherUrl = "jdbc:h2:mem:evol_other_" + DB_COUNTER.incrementAndGet() + ";MODE=MYSQL;DB_CLOSE_DELAY=-1";
+        Play.configuration.put("db.other.url", otherUrl);
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(otherUrl);
+        config.setUsername("sa");
+        config.setPassword("");
+        config.setMaximumPoolSize(10);
+        try (HikariDataSource other = new HikariDataSource(config)) {
+            DB.datasources.put("other", new DB.ExtendedDatasource(other, "close"));
+
+            writeScript(1, "create table main_only (id int primary key);", "drop table main_only;");
+            try {
+                Files.writeString(new File(evolutionsDir, "other.1.sql").toPath(),
+                        "# --- !Ups\n\ncreate table other_only (id int primary key);\n\n# --- !Downs\n\ndrop table other_only;\n");
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+
+            assertTrue(Evolutions.applyScript(true, MODULE_KEY, evolutionsVfs()));
+
+            assertTrue(tableExists("main_only"));
+            try (Connection c = other.getConnection();
+                    ResultSet rs = c.getMetaData().getTables(null, null, "OTHER_ONLY", null)) {
+                assertTrue(rs.next(), "the other database got its own evolution");
+            }
+            assertTrue(Evolutions.isUpToDate("other", MODULE_KEY, evolutionsVfs()));
+        } finally {
+            DB.datasources.remove("other");
+        }
+    }
+
     /** True if play_evolutions has a column with the given (case-insensitive) name, under default H2 casing. */
     private boolean hasColumn(String columnName) throws SQLException {
         try (Connection c = dataSource.getConnection()) {
@@ -0,0 +1,180 @@
+package play.db.jpa;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import play.cache.CacheConfig;
+import play.cache.Caches;
+import play.cache.caffeine.CaffeineCacheProvider;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives {@link CachesRegionFactory} and {@link CachesStorageAccess} without
+ * booting a SessionFactory: regions are created through the same
+ * {@code create*StorageAccess} hooks Hibernate calls.
+ */
+public class CachesRegionFactoryTest {
+
+    private CachesRegionFactory factory;
+
+    @BeforeEach
+    public void setUp() {
+        Caches.installProvider(new CaffeineCacheProvider());
+        RecordingBroadcaster.events.clear();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (factory != null) {
+            factory.releaseFromUse();
+        }
+        Caches.stop();
+    }
+
+    private CachesRegionFactory start(Map<String, Object> settings) {
+        factory = new CachesRegionFactory();
+        factory.prepareForUse(null, settings);
+        return factory;
+    }
+
+    @Test
+    public void regionSettingsFallBackToDefaults() {
+        Map<String, Object> settings = new HashMap<>();
+        settings.put(CachesRegionFactory.DB_NAME, "orders");
+        settings.put("jpa.cache.maxSize", "200");
+        settings.put("jpa.cache.expireAfterWrite", "1h");
+        settings.put("jpa.cache.region.models.Country.maxSize", "5");
+        settings.put("jpa.cache.region.models.Country.expireAfterAccess", "10s");
+        start(settings);
+
+        CacheConfig country = factory.regionConfig("models.Country", false);
+        assertThat(country.maximumSize()).isEqualTo(5);
+        assertThat(country.expireAfterWrite()).contains(Duration.ofHours(1));
+        assertThat(country.expireAfterAccess()).contains(Duration.ofSeconds(10));
+        assertThat(country.recordStats()).isTrue();
+
+        CacheConfig other = factory.regionConfig("models.Order", false);
+        assertThat(other.maximumSize()).isEqualTo(200);
+        assertThat(other.expireAfterAccess()).isEmpty();
+    }
+
+    @Test
+    public void timestampsRegionIsNeverBoundedOrExpired() {
+        Map<String, Object> settings = new HashMap<>();
+        settings.put("jpa.cache.maxSize", "10");
+        settings.put("jpa.cache.expireAfterWrite", "1s");
+        start(settings);
+
+        CacheConfig timestamps = factory.regionConfig("default-update-timestamps-region", true);
+        assertThat(timestamps.maximumSize()).isEqualTo(-1);
+        assertThat(timestamps.expireAfterWrite()).isEmpty();
+    }
+
+    @Test
+    public void regionsAreNamedPerPersistenceUnit() {
+        Map<String, Object> settings = new HashMap<>();
+        settings.put(CachesRegionFactory.DB_NAME, "reports");
+        start(settings);
+
+        CachesStorageAccess storage = (CachesStorageAccess) factory.createQueryResultsRegionStorageAccess("default-query-results-region", null);
+        storage.putFromLoad("k", "v", null);
+
+        assertThat(storage.cacheName()).isEqualTo("jpa.reports.default-query-results-region");
+        assertThat(Caches.<Object, Object>named("jpa.reports.default-query-results-region", CacheConfig.newBuilder().build())
+                .getIfPresent("k")).isEqualTo("v");
+        assertThat(CachesRegionFactory.ownsRegionsOf("reports")).isTrue();
+        assertThat(CachesRegionFactory.ownsRegionsOf("default")).isFalse();
+    }
+
+    @Test
+    public void nullValueIsStoredAsRemoval() {
+        start(new HashMap<>());
+        CachesStorageAccess storage = (CachesStorageAccess) factory.createQueryResultsRegionStorageAccess("q", null);
+        storage.putFromLoad("k", "v", null);
+        storage.putFromLoad("k", null, null);
+
+        assertThat(storage.contains("k")).isFalse();
+    }
+
+    @Test
+    public void writesAreBroadcastButLoadsAreNot() {
+        Map<String, Object> settings = new HashMap<>();
+        settings.put("jpa.cache.invalidation.broadcaster", RecordingBroadcaster.class.getName());
+        start(settings);
+        CachesStorageAccess storage = (CachesStorageAccess) factory.createQueryResultsRegionStorageAccess("q", null);
+
+        storage.putFromLoad("loaded", "v", null);
+        storage.putIntoCache("written", "v", null);
+        storage.removeFromCache("removed", null);
+        storage.evictData();
+
+        assertThat(RecordingBroadcaster.events).containsExactly(
+                "evict jpa.default.q written",
+                "evict jpa.default.q removed",
+                "evictAll jpa.default.q");
+    }
+
+    @Test
+    public void remoteEvictionDropsEntriesWithoutRebroadcasting() {
+        Map<String, Object> settings = new HashMap<>();
+        settings.put("jpa.cache.invalidation.broadcaster", RecordingBroadcaster.class.getName());
+        start(settings);
+        CachesStorageAccess storage = (CachesStorageAccess) factory.createQueryResultsRegionStorageAccess("q", null);
+        storage.putFromLoad("a", "1", null);
+        storage.putFromLoad("b", "2", null);
+
+        CachesRegionFactory.applyRemoteEviction("jpa.default.q", "a");
+        assertThat(storage.contains("a")).isFalse();
+        assertThat(storage.contains("b")).isTrue();
+
+        CachesRegionFactory.applyRemoteEvictAll("jpa.default.q");
+        assertThat(storage.contains("b")).isFalse();
+
+        CachesRegionFactory.applyRemoteEviction("jpa.default.unknown", "a");
+        assertThat(RecordingBroadcaster.events).isEmpty();
+    }
+
+    @Test
+    public void remoteEvictionOfTimestampBumpsItInsteadOfRemoving() {
+        start(new HashMap<>());
+        CachesStorageAccess timestamps = (CachesStorageAccess) factory.createTimestampsRegionStorageAccess("ts", null);
+        timestamps.putFromLoad("ORDERS", 1L, null);
+
+        CachesRegionFactory.applyRemoteEviction("jpa.default.ts", "ORDERS");
+
+        assertThat((Long) timestamps.getFromCache("ORDERS", null)).isGreaterThan(1L);
+    }
+
+    @Test
+    public void releaseForgetsRegionsForRemoteRouting() {
+        start(new HashMap<>());
+        CachesStorageAccess storage = (CachesStorageAccess) factory.createQueryResultsRegionStorageAccess("q", null);
+        factory.releaseFromUse();
+        factory = null;
+
+        storage.putFromLoad("a", "1", null);
+        CachesRegionFactory.applyRemoteEviction("jpa.default.q", "a");
+        assertThat(storage.contains("a")).isTrue();
+    }
+
+    public static class RecordingBroadcaster implements RegionInvalidationBroadcaster {
+        static final List<String> events = new ArrayList<>();
+
+        @Override
+        public void evict(String cacheName, Object key) {
+            events.add("evict " + cacheName + " " + key);
+        }
+
+        @Override
+        public void evictAll(String cacheName) {
+            events.add("evictAll " + cacheName);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package play.db.jpa;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import play.Play;
+import play.PlayBuilder;
+import play.db.Configuration;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JPABootstrapCacheTest {
+
+    @TempDir
+    File tmp;
+
+    @BeforeEach
+    public void setUp() {
+        Properties config = new Properties();
+        config.setProperty("db.url", "jdbc:h2:mem:play");
+        config.setProperty("db.driver", "org.h2.Driver");
+        config.setProperty("jpa.bootstrap.cache", "true");
+        new PlayBuilder().withConfiguration(config).build();
+        Play.tmpDir = tmp;
+    }
+
+    @AfterEach
+    public void tearDown() {
+        Play.tmpDir = null;
+    }
+
+    private void writeEntry(String fingerprint) throws Exception {
+        Properties entry = new Properties();
+        entry.setProperty("fingerprint", fingerprint);
+        entry.setProperty("dialect", "org.hibernate.dialect.H2Dialect");
+        entry.setProperty("productName", "H2");
+        entry.setProperty("productVersion", "2.4.240");
+        entry.setProperty("major", "2");
+        entry.setProperty("minor", "4");
+        File file = JPABootstrapCache.file("default");
+        file.getParentFile().mkdirs();
+        try (OutputStream out = new FileOutputStream(file)) {
+            entry.store(out, null);
+        }
+    }
+
+    @Test
+    public void matchingEntrySkipsJdbcMetadataAccess() throws Exception {
+        Configuration dbConfig = new Configuration("default");
+        writeEntry(JPABootstrapCache.fingerprint(dbConfig));
+        Properties properties = new Properties();
+
+        assertThat(JPABootstrapCache.apply("default", dbConfig, properties)).isTrue();
+        assertThat(properties.getProperty("hibernate.dialect")).isEqualTo("org.hibernate.dialect.H2Dialect");
+        assertThat(properties.getProperty("jakarta.persistence.database-major-version")).isEqualTo("2");
+        assertThat(properties.getProperty("hibernate.boot.allow_jdbc_metadata_access")).isEqualTo("false");
+    }
+
+    @Test
+    public void explicitSettingsWin() throws Exception {
+        Configuration dbConfig = new Configuration("default");
+        writeEntry(JPABootstrapCache.fingerprint(dbConfig));
+        Properties properties = new Properties();
+        properties.setProperty("hibernate.dialect", "com.example.CustomDialect");
+
+        JPABootstrapCache.apply("default", dbConfig, properties);
+        assertThat(properties.getProperty("hibernate.dialect")).isEqualTo("com.example.CustomDialect");
+    }
+
+    @Test
+    public void changedConnectionSettingsDiscardTheEntry() throws Exception {
+        Configuration dbConfig = new Configuration("default");
+        writeEntry(JPABootstrapCache.fingerprint(dbConfig));
+        Play.configuration.setProperty("db.url", "jdbc:h2:mem:other");
+        Properties properties = new Properties();
+
+        assertThat(JPABootstrapCache.apply("default", dbConfig, properties)).isFalse();
+        assertThat(properties).isEmpty();
+    }
+
+    @Test
+    public void neverUsedWhileSchemaIsManaged() throws Exception {
+        Configuration dbConfig = new Configuration("default");
+        writeEntry(JPABootstrapCache.fingerprint(dbConfig));
+        Properties properties = new Properties();
+        properties.setProperty("hibernate.hbm2ddl.auto", "update");
+
+        assertThat(JPABootstrapCache.apply("default", dbConfig, properties)).isFalse();
+    }
+
+    @Test
+    public void disabledByDefault() throws Exception {
+        Play.configuration.remove("jpa.bootstrap.cache");
+        Configuration dbConfig = new Configuration("default");
+        writeEntry(JPABootstrapCache.fingerprint(dbConfig));
+
+        assertThat(JPABootstrapCache.apply("default", dbConfig, new Properties())).isFalse();
+    }
+}
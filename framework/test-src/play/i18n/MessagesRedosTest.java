@@ -32,6 +32,18 @@ public class MessagesRedosTest {
                 "recursive placeholder pattern degraded to super-linear time");
     }
 
+    /** Many "&amp;{" starts and a single closing brace far after them. */
+    @Test
+    public void formatStringStaysLinearOnOneFarClosingBrace() {
+        MessagesBuilder builder = new MessagesBuilder();
+        builder.build();
+
+        String hostile = "&{".repeat(64_000) + "}";
+        assertTimeoutPreemptively(Duration.ofSeconds(3),
+                () -> Messages.formatString(hostile),
+                "recursive placeholder scan degraded to super-linear time");
+    }
+
     /** The bound must not break ordinary substitution. */
     @Test
     public void formatStringStillResolvesPlaceholders() {
@@ -0,0 +1,138 @@
+package play.i18n;
+
+import java.util.Formattable;
+import java.util.Formatter;
+import java.util.Locale;
+import java.util.MissingFormatArgumentException;
+import java.util.Properties;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import play.PlayBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class MessagesTest {
+
+    @BeforeEach
+    public void setUp() {
+        new PlayBuilder().build();
+        Messages.defaults = new Properties();
+        Messages.locales.clear();
+        Lang.set("en");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        Messages.locales.clear();
+        Messages.compile();
+    }
+
+    @Test
+    public void formatsLikeStringFormat() {
+        Formattable custom = (formatter, flags, width, precision) -> formatter.format("custom");
+        Object[][] cases = {
+                {"Hello %s !", new Object[] {"World"}},
+                {"%2$s before %1$s", new Object[] {"a", "b"}},
+                {"100%% %s%n", new Object[] {null}},
+                {"%s and %s", new Object[] {custom, 42}},
+                {"%-6s|%S", new Object[] {"left", "up"}},
+                {"%d items at %.2f", new Object[] {"3", "2.5"}},
+                {"no specifier", new Object[] {"ignored"}},
+                {"%s", null},
+        };
+        for (Object[] c : cases) {
+            String pattern = (String) c[0];
+            Object[] args = (Object[]) c[1];
+            String expected = new Formatter(Locale.FRANCE)
+                    .format(pattern, Messages.coolStuff(pattern, args)).toString();
+
+            assertThat(Messages.formatString(Locale.FRANCE, pattern, args)).as(pattern).isEqualTo(expected);
+        }
+        assertThat(Messages.formatString(Locale.FRANCE, "%d items at %.2f", "3", "2.5")).isEqualTo("3 items at 2,50");
+        assertThat(Messages.formatString(Locale.FRANCE, "Hello %s and %s", "a", null)).isEqualTo("Hello a and null");
+    }
+
+    @Test
+    public void missingArgumentsFailAsBefore() {
+        assertThatThrownBy(() -> Messages.formatString(Locale.ENGLISH, "%s and %s", "one"))
+                .isInstanceOf(MissingFormatArgumentException.class);
+    }
+
+    @Test
+    public void looksUpCompiledMessagesByLanguage() {
+        Messages.defaults.setProperty("greeting", "Hello %s");
+        Messages.defaults.setProperty("site", "Play");
+        Properties fr = new Properties();
+        fr.setProperty("greeting", "Bonjour %s, bienvenue sur &{site}");
+        Messages.locales.put("fr", fr);
+        Messages.compile();
+
+        assertThat(Messages.getMessage("fr_FR", "greeting", "Ann")).isEqualTo("Bonjour Ann, bienvenue sur Play");
+        assertThat(Messages.getMessage("de", "greeting", "Ann")).isEqualTo("Hello Ann");
+        assertThat(Messages.getMessage("fr", "missing.key")).isEqualTo("missing.key");
+    }
+
+    @Test
+    public void resolvesNestedReferencesInMessagesAndArguments() {
+        Messages.defaults.setProperty("a", "A");
+        Messages.defaults.setProperty("b", "B");
+        Messages.compile();
+        String tooLong = "x".repeat(256);
+
+        assertThat(Messages.formatString(Locale.ENGLISH, "&{a}-&{b} %s", "&{a}")).isEqualTo("A-B A");
+        assertThat(Messages.formatString(Locale.ENGLISH, "&{" + tooLong + "} &{a} &{missing}"))
+                .isEqualTo("&{" + tooLong + "} A missing");
+        assertThat(Messages.formatString(Locale.ENGLISH, "&{&{a}} &{a")).isEqualTo("&{a} &{a");
+    }
+
+    @Test
+    public void seesMessagesSetAfterCompiling() {
+        Messages.defaults.setProperty("greeting", "Hello %s");
+        Messages.compile();
+
+        Properties replaced = new Properties();
+        replaced.setProperty("greeting", "Hi %s");
+        Messages.defaults = replaced;
+
+        assertThat(Messages.getMessage("en", "greeting", "Bob")).isEqualTo("Hi Bob");
+    }
+
+    @Test
+    public void seesMessagesChangedOrRemovedAfterCompiling() {
+        Messages.defaults.setProperty("greeting", "Hello %s");
+        Properties fr = new Properties();
+        fr.setProperty("greeting", "Bonjour %s");
+        Messages.locales.put("fr", fr);
+        Messages.compile();
+
+        fr.setProperty("greeting", "Salut %s");
+        assertThat(Messages.getMessage("fr", "greeting", "Bob")).isEqualTo("Salut Bob");
+        fr.remove("greeting");
+        assertThat(Messages.getMessage("fr", "greeting", "Bob")).isEqualTo("Hello Bob");
+        Messages.defaults.setProperty("greeting", "Hi %s");
+        assertThat(Messages.getMessage("fr", "greeting", "Bob")).isEqualTo("Hi Bob");
+        Messages.defaults.remove("greeting");
+        assertThat(Messages.getMessage("fr", "greeting", "Bob")).isEqualTo("greeting");
+    }
+
+    @Test
+    public void seesMessagesAddedToTheLoadedOnes() {
+        Messages.defaults.setProperty("greeting", "Hello %s");
+        Properties fr = new Properties();
+        Messages.locales.put("fr", fr);
+        Messages.compile();
+
+        assertThat(Messages.getMessage("fr", "farewell", "Bob")).isEqualTo("farewell");
+        Messages.defaults.setProperty("farewell", "Bye %s");
+        assertThat(Messages.getMessage("fr", "farewell", "Bob")).isEqualTo("Bye Bob");
+        fr.setProperty("farewell", "Au revoir %s");
+        assertThat(Messages.getMessage("fr", "farewell", "Bob")).isEqualTo("Au revoir Bob");
+        fr.setProperty("farewell", "Salut %s");
+        assertThat(Messages.getMessage("fr", "farewell", "Bob")).isEqualTo("Salut Bob");
+        assertThat(Messages.getMessage("fr", "greeting", "Bob")).isEqualTo("Hello Bob");
+    }
+}
@@ -0,0 +1,154 @@
+package play.jobs;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.Timer;
+
+import play.libs.Metrics;
+import play.utils.VirtualThreadScheduledExecutor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * {@link JobBulkhead}: {@link Bulkhead} limits, overlap policies and the
+ * per-job meters, driven directly with blocking executions.
+ */
+public class JobBulkheadTest {
+
+    @Bulkhead(maxConcurrent = 1)
+    static class SkippingJob extends Job<Void> {
+    }
+
+    @Bulkhead(maxConcurrent = 1, queueSize = 1, overlap = Bulkhead.Overlap.QUEUE)
+    static class QueueingJob extends Job<Void> {
+    }
+
+    @Bulkhead(maxConcurrent = 1, overlap = Bulkhead.Overlap.CANCEL)
+    static class CancellingJob extends Job<Void> {
+    }
+
+    static class UnlimitedJob extends Job<Void> {
+    }
+
+    @AfterEach
+    public void tearDown() {
+        JobBulkhead.reset();
+    }
+
+    /** Starts an execution that holds its slot until {@code release} opens. */
+    private static CompletableFuture<Object> hold(JobBulkhead bulkhead, CountDownLatch release, boolean scheduled) throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CompletableFuture<Object> done = new CompletableFuture<>();
+        Thread.ofVirtual().start(() -> {
+            try {
+                done.complete(bulkhead.execute(() -> {
+                    started.countDown();
+                    release.await();
+                    return "held";
+                }, scheduled));
+            } catch (Throwable t) {
+                done.completeExceptionally(t);
+            }
+        });
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        return done;
+    }
+
+    @Test
+    public void overlappingScheduledRunIsSkipped() throws Exception {
+        JobBulkhead bulkhead = JobBulkhead.of(SkippingJob.class);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Object> first = hold(bulkhead, release, true);
+
+        AtomicBoolean ran = new AtomicBoolean();
+        assertThat(bulkhead.execute(() -> {
+            ran.set(true);
+            return "second";
+        }, true)).isNull();
+        assertThat(ran).isFalse();
+        assertThat(bulkhead.running()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("held");
+        assertThat(Metrics.registry().get("play.jobs.skipped").tag("job", SkippingJob.class.getName()).counter().count()).isEqualTo(1);
+        assertThat(bulkhead.execute(() -> "third", true)).isEqualTo("third");
+    }
+
+    @Test
+    public void adHocRunsQueueUpToQueueSizeThenAreRejected() throws Exception {
+        JobBulkhead bulkhead = JobBulkhead.of(QueueingJob.class);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Object> first = hold(bulkhead, release, false);
+
+        CompletableFuture<Object> waiting = CompletableFuture.supplyAsync(() -> {
+            try {
+                return bulkhead.execute(() -> "queued", false);
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        long deadline = System.currentTimeMillis() + 5000;
+        while (bulkhead.queued() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(bulkhead.queued()).isEqualTo(1);
+        assertThatThrownBy(() -> bulkhead.execute(() -> "rejected", false)).isInstanceOf(RejectedExecutionException.class);
+
+        release.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("held");
+        assertThat(waiting.get(5, TimeUnit.SECONDS)).isEqualTo("queued");
+    }
+
+    @Test
+    public void cancelInterruptsTheRunningExecution() throws Exception {
+        JobBulkhead bulkhead = JobBulkhead.of(CancellingJob.class);
+        CompletableFuture<Object> running = hold(bulkhead, new CountDownLatch(1), true);
+
+        assertThat(bulkhead.execute(() -> "replacement", true)).isEqualTo("replacement");
+        assertThat(running).failsWithin(5, TimeUnit.SECONDS);
+        Timer failed = Metrics.registry().get("play.jobs.execution").tags("job", CancellingJob.class.getName(), "outcome", "failed").timer();
+        assertThat(failed.count()).isEqualTo(1);
+    }
+
+    @Test
+    public void jobsWithoutBulkheadAreOnlyMeasured() throws Exception {
+        JobBulkhead bulkhead = JobBulkhead.of(UnlimitedJob.class);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Object> first = hold(bulkhead, release, true);
+        CompletableFuture<Object> second = hold(bulkhead, release, true);
+        assertThat(bulkhead.running()).isEqualTo(2);
+        assertThat(Metrics.registry().get("play.jobs.running").tag("job", UnlimitedJob.class.getName()).gauge().value()).isEqualTo(2);
+
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+        Timer succeeded = Metrics.registry().get("play.jobs.execution").tags("job", UnlimitedJob.class.getName(), "outcome", "succeeded").timer();
+        assertThat(succeeded.count()).isEqualTo(2);
+    }
+
+    @Test
+    public void gaugesAreRegisteredWhenTheJobIsScheduled() {
+        assertThat(JobBulkhead.find(UnlimitedJob.class)).isNull();
+        assertThat(Metrics.registry().find("play.jobs.running").tag("job", UnlimitedJob.class.getName()).gauge()).isNull();
+
+        VirtualThreadScheduledExecutor previous = JobsPlugin.scheduler;
+        JobsPlugin.scheduler = new VirtualThreadScheduledExecutor("jobs-test");
+        UnlimitedJob job = new UnlimitedJob();
+        try {
+            job.every(3600);
+            assertThat(Metrics.registry().get("play.jobs.running").tag("job", UnlimitedJob.class.getName()).gauge().value()).isZero();
+        } finally {
+            JobsPlugin.scheduledJobs.remove(job);
+            JobsPlugin.scheduler.shutdownNow();
+            JobsPlugin.scheduler = previous;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package play.jobs;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import play.Play;
+import play.PlayBuilder;
+import play.exceptions.ConfigurationException;
+import play.jobs.coordination.InMemoryJobCoordinator;
+import play.jobs.coordination.JobCoordinator;
+import play.jobs.coordination.JobLease;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * {@link JobsPlugin#runCoordinated} with in-memory coordinators sharing one
+ * lease table, i.e. a simulated cluster.
+ */
+public class JobsPluginCoordinationTest {
+
+    static class CountingJob extends Job<Void> {
+        final AtomicInteger runs = new AtomicInteger();
+        volatile JobLease seen;
+
+        @Override
+        public void run() {
+            runs.incrementAndGet();
+            seen = lease();
+        }
+    }
+
+    @BeforeEach
+    public void setUp() {
+        Play.configuration = new Properties();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        JobsPlugin.coordinator = null;
+        Play.configuration = new Properties();
+    }
+
+    @Test
+    public void withoutCoordinatorEveryNodeRuns() {
+        CountingJob job = new CountingJob();
+        assertThat(JobsPlugin.runCoordinated(job, 1, job::run)).isTrue();
+        assertThat(JobsPlugin.runCoordinated(job, 1, job::run)).isTrue();
+        assertThat(job.runs).hasValue(2);
+        assertThat(job.seen).isNull();
+    }
+
+    @Test
+    public void slotRunsOnOneNodeOnly() {
+        InMemoryJobCoordinator first = new InMemoryJobCoordinator("first");
+        JobCoordinator second = first.node("second");
+        CountingJob job = new CountingJob();
+
+        JobsPlugin.coordinator = first;
+        assertThat(JobsPlugin.runCoordinated(job, 42, job::run)).isTrue();
+        assertThat(job.seen.owner()).isEqualTo("first");
+        assertThat(job.lease()).as("cleared after the run").isNull();
+
+        JobsPlugin.coordinator = second;
+        assertThat(JobsPlugin.runCoordinated(job, 42, job::run)).isFalse();
+        assertThat(JobsPlugin.runCoordinated(job, 43, job::run)).isTrue();
+        assertThat(job.seen.fencingToken()).isEqualTo(2);
+        assertThat(job.runs).hasValue(2);
+    }
+
+    @Test
+    public void unreachableCoordinatorSkipsTheExecution() {
+        JobsPlugin.coordinator = new JobCoordinator() {
+            @Override
+            public JobLease tryAcquire(String jobName, long slot, Duration ttl) throws Exception {
+                throw new SQLException("connection refused");
+            }
+
+            @Override
+            public void release(JobLease lease) {
+            }
+        };
+        CountingJob job = new CountingJob();
+        assertThat(JobsPlugin.runCoordinated(job, 1, job::run)).isFalse();
+        assertThat(job.runs).hasValue(0);
+    }
+
+    @Test
+    public void coordinatorIsChosenByConfiguration() {
+        assertThat(JobsPlugin.createCoordinator()).isNull();
+        Play.configuration.setProperty("jobs.coordinator", "memory");
+        assertThat(JobsPlugin.createCoordinator()).isInstanceOf(InMemoryJobCoordinator.class);
+
+        Properties config = new Properties();
+        config.setProperty("jobs.coordinator", "com.example.Missing");
+        new PlayBuilder().withConfiguration(config).build();
+        assertThatThrownBy(JobsPlugin::createCoordinator).isInstanceOf(ConfigurationException.class);
+    }
+}
@@ -0,0 +1,122 @@
+package play.jobs.coordination;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+import play.Play;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@link JdbcJobCoordinator} against an in-memory H2 database, with several
+ * coordinator instances standing in for cluster nodes.
+ */
+public class JdbcJobCoordinatorTest {
+
+    private static final AtomicInteger DB_COUNTER = new AtomicInteger();
+    private static final Duration TTL = Duration.ofMinutes(5);
+
+    private HikariDataSource dataSource;
+
+    @BeforeEach
+    public void setUp() {
+        Play.configuration = new Properties();
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:leases_" + DB_COUNTER.incrementAndGet() + ";DB_CLOSE_DELAY=-1");
+        config.setUsername("sa");
+        config.setPassword("");
+        config.setMaximumPoolSize(12);
+        dataSource = new HikariDataSource(config);
+    }
+
+    @AfterEach
+    public void tearDown() throws SQLException {
+        try (Connection c = dataSource.getConnection(); Statement st = c.createStatement()) {
+            st.execute("DROP ALL OBJECTS");
+        }
+        dataSource.close();
+    }
+
+    private JdbcJobCoordinator node(String name, Clock clock) {
+        return new JdbcJobCoordinator(dataSource, name, clock);
+    }
+
+    @Test
+    public void eachSlotIsGrantedToOneNodeOnly() throws Exception {
+        List<JdbcJobCoordinator> nodes = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            nodes.add(node("node-" + i, Clock.systemUTC()));
+        }
+        for (long slot = 1; slot <= 3; slot++) {
+            long current = slot;
+            List<Future<JobLease>> attempts = new ArrayList<>();
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (JdbcJobCoordinator node : nodes) {
+                    attempts.add(executor.submit((Callable<JobLease>) () -> node.tryAcquire("jobs.Nightly", current, TTL)));
+                }
+            }
+            List<JobLease> granted = new ArrayList<>();
+            for (Future<JobLease> attempt : attempts) {
+                if (attempt.get() != null) {
+                    granted.add(attempt.get());
+                }
+            }
+            assertThat(granted).hasSize(1);
+            assertThat(granted.get(0).fencingToken()).isEqualTo(slot);
+            nodes.get(0).release(granted.get(0));
+        }
+    }
+
+    @Test
+    public void liveLeaseBlocksLaterSlotsUntilReleased() throws Exception {
+        JdbcJobCoordinator a = node("a", Clock.systemUTC());
+        JdbcJobCoordinator b = node("b", Clock.systemUTC());
+
+        JobLease first = a.tryAcquire("jobs.Slow", 1, TTL);
+        assertThat(first).isNotNull();
+        assertThat(b.tryAcquire("jobs.Slow", 2, TTL)).as("slot 1 still running").isNull();
+
+        a.release(first);
+        JobLease second = b.tryAcquire("jobs.Slow", 2, TTL);
+        assertThat(second.owner()).isEqualTo("b");
+        assertThat(second.fencingToken()).isEqualTo(2);
+        assertThat(a.tryAcquire("jobs.Slow", 2, TTL)).as("slot 2 already granted").isNull();
+    }
+
+    @Test
+    public void expiredLeaseOfACrashedNodeIsTakenOver() throws Exception {
+        Instant start = Instant.parse("2026-01-01T00:00:00Z");
+        JdbcJobCoordinator crashed = node("crashed", Clock.fixed(start, ZoneOffset.UTC));
+        JdbcJobCoordinator survivor = node("survivor", Clock.fixed(start.plus(TTL).plusSeconds(1), ZoneOffset.UTC));
+
+        JobLease stale = crashed.tryAcquire("jobs.Report", 1, TTL);
+        JobLease taken = survivor.tryAcquire("jobs.Report", 2, TTL);
+        assertThat(taken).isNotNull();
+        assertThat(taken.fencingToken()).isGreaterThan(stale.fencingToken());
+
+        // The late release of the superseded lease must not free the new one.
+        crashed.release(stale);
+        assertThat(node("other", Clock.fixed(start.plus(TTL).plusSeconds(2), ZoneOffset.UTC))
+                .tryAcquire("jobs.Report", 3, TTL)).isNull();
+    }
+}
@@ -0,0 +1,283 @@
+package play.jobs.queue;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+import play.Play;
+import play.jobs.Job;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The durable job queue against an in-memory H2 database: claiming,
+ * visibility timeouts, retries and the per-queue worker.
+ */
+public class JobQueueTest {
+
+    private static final AtomicInteger DB_COUNTER = new AtomicInteger();
+    private static final Duration VISIBILITY = Duration.ofMinutes(5);
+
+    private HikariDataSource dataSource;
+    private final MutableClock clock = new MutableClock();
+    private JobQueueStore store;
+
+    public static class SendInvoice extends Job<Void> {
+        public long invoiceId;
+        public String recipient;
+    }
+
+    static class MutableClock extends Clock {
+        final AtomicLong millis = new AtomicLong(Instant.parse("2026-01-01T00:00:00Z").toEpochMilli());
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis.get());
+        }
+
+        void advance(Duration d) {
+            millis.addAndGet(d.toMillis());
+        }
+    }
+
+    @BeforeEach
+    public void setUp() {
+        Play.configuration = new Properties();
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:queue_" + DB_COUNTER.incrementAndGet() + ";DB_CLOSE_DELAY=-1");
+        config.setUsername("sa");
+        config.setPassword("");
+        config.setMaximumPoolSize(12);
+        dataSource = new HikariDataSource(config);
+        store = new JobQueueStore(() -> dataSource, clock, true, "text");
+    }
+
+    @AfterEach
+    public void tearDown() throws SQLException {
+        try (Connection c = dataSource.getConnection(); Statement st = c.createStatement()) {
+            st.execute("DROP ALL OBJECTS");
+        }
+        dataSource.close();
+    }
+
+    private void enqueue(String id, String queue, long delayMillis, int maxAttempts) throws SQLException {
+        try (Connection c = dataSource.getConnection()) {
+            store.insert(c, id, queue, SendInvoice.class.getName(), "{}", clock.millis() + delayMillis, maxAttempts);
+        }
+    }
+
+    private String state(String id) throws SQLException {
+        try (Connection c = dataSource.getConnection();
+                Statement st = c.createStatement();
+                ResultSet rs = st.executeQuery("select state from play_job_queue where id = '" + id + "'")) {
+            return rs.next() ? rs.getString(1) : null;
+        }
+    }
+
+    private int remaining() throws SQLException {
+        try (Connection c = dataSource.getConnection();
+                Statement st = c.createStatement();
+                ResultSet rs = st.executeQuery("select count(*) from play_job_queue")) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    @Test
+    public void claimsAreExclusiveAndBatched() throws SQLException {
+        for (int i = 0; i < 25; i++) {
+            enqueue("job-" + i, "mail", 0, 5);
+        }
+        enqueue("other-queue", "reports", 0, 5);
+        enqueue("later", "mail", 60_000, 5);
+
+        Set<String> ids = new HashSet<>();
+        List<QueuedJob> first = store.claim("mail", 10, "node-a", VISIBILITY);
+        List<QueuedJob> second = store.claim("mail", 10, "node-b", VISIBILITY);
+        List<QueuedJob> third = store.claim("mail", 10, "node-c", VISIBILITY);
+        for (List<QueuedJob> batch : List.of(first, second, third)) {
+            batch.forEach(job -> ids.add(job.id()));
+        }
+
+        assertThat(first).hasSize(10);
+        assertThat(second).hasSize(10);
+        assertThat(third).hasSize(5);
+        assertThat(ids).hasSize(25).doesNotContain("other-queue", "later");
+        assertThat(first.get(0).attempt()).isEqualTo(1);
+    }
+
+    @Test
+    public void uncommittedEnqueueIsInvisible() throws SQLException {
+        try (Connection tx = dataSource.getConnection()) {
+            tx.setAutoCommit(false);
+            store.insert(tx, "in-tx", "mail", SendInvoice.class.getName(), "{}", clock.millis(), 5);
+            assertThat(store.claim("mail", 10, "node-a", VISIBILITY)).isEmpty();
+            tx.rollback();
+        }
+        assertThat(store.claim("mail", 10, "node-a", VISIBILITY)).isEmpty();
+        assertThat(state("in-tx")).isNull();
+    }
+
+    @Test
+    public void expiredClaimIsHandedOutAgainAndFencesTheStaleWorker() throws SQLException {
+        enqueue("slow", "mail", 0, 5);
+        QueuedJob stale = store.claim("mail", 1, "node-a", VISIBILITY).get(0);
+        assertThat(store.claim("mail", 1, "node-b", VISIBILITY)).isEmpty();
+
+        clock.advance(VISIBILITY.plusSeconds(1));
+        QueuedJob again = store.claim("mail", 1, "node-b", VISIBILITY).get(0);
+        assertThat(again.attempt()).isEqualTo(2);
+
+        assertThat(store.complete(stale)).as("stale claim").isFalse();
+        assertThat(store.complete(again)).isTrue();
+        assertThat(state("slow")).isNull();
+    }
+
+    @Test
+    public void failedJobsAreRetriedWithBackoffThenBuried() throws SQLException {
+        enqueue("flaky", "mail", 0, 2);
+        QueuedJob first = store.claim("mail", 1, "node-a", VISIBILITY).get(0);
+        store.retry(first, clock.millis() + 10_000, "boom");
+
+        assertThat(store.claim("mail", 1, "node-a", VISIBILITY)).as("backing off").isEmpty();
+        clock.advance(Duration.ofSeconds(10));
+        QueuedJob second = store.claim("mail", 1, "node-a", VISIBILITY).get(0);
+        store.bury(second, "boom again");
+
+        assertThat(state("flaky")).isEqualTo(JobQueueStore.DEAD);
+        clock.advance(Duration.ofDays(1));
+        assertThat(store.claim("mail", 1, "node-a", VISIBILITY)).isEmpty();
+    }
+
+    @Test
+    public void workerRunsJobsUpToItsConcurrencyAndRetriesFailures() throws Exception {
+        for (int i = 0; i < 6; i++) {
+            enqueue("job-" + i, "mail", 0, 3);
+        }
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        QueueWorker worker = new QueueWorker("mail", store, "node-a", 2, 10, VISIBILITY, Duration.ofSeconds(1), Duration.ofSeconds(10),
+                queued -> new Job<Void>() {
+                    @Override
+                    public Void call() {
+                        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                        try {
+                            release.await(5, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        running.decrementAndGet();
+                        if ("job-0".equals(queued.id())) {
+                            failures.incrementAndGet();
+                            throw new IllegalStateException("smtp down");
+                        }
+                        return null;
+                    }
+                });
+
+        assertThat(worker.poll(2)).isEqualTo(2);
+        assertThat(worker.running()).isEqualTo(2);
+        release.countDown();
+        worker.start();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (remaining() > 1 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        worker.stop(5000);
+
+        assertThat(maxRunning.get()).isLessThanOrEqualTo(2);
+        assertThat(failures).hasValue(1);
+        assertThat(state("job-0")).isEqualTo(JobQueueStore.READY);
+        for (int i = 1; i < 6; i++) {
+            assertThat(state("job-" + i)).isNull();
+        }
+        assertThat(worker.backoff(1)).isEqualTo(10_000);
+        assertThat(worker.backoff(3)).isEqualTo(40_000);
+        assertThat(worker.backoff(40)).isEqualTo(TimeUnit.HOURS.toMillis(1));
+    }
+
+    @Test
+    public void jobsClaimedWhileStoppingStillRun() throws Exception {
+        enqueue("job-0", "mail", 0, 3);
+        CountDownLatch claiming = new CountDownLatch(1);
+        CountDownLatch proceed = new CountDownLatch(1);
+        JobQueueStore slowStore = new JobQueueStore(() -> dataSource, clock, true, "text") {
+            @Override
+            List<QueuedJob> claim(String queue, int max, String owner, Duration visibilityTimeout) throws SQLException {
+                claiming.countDown();
+                try {
+                    proceed.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.claim(queue, max, owner, visibilityTimeout);
+            }
+        };
+        AtomicInteger ran = new AtomicInteger();
+        QueueWorker worker = new QueueWorker("mail", slowStore, "node-a", 2, 10, VISIBILITY, Duration.ofSeconds(1), Duration.ofSeconds(10),
+                queued -> new Job<Void>() {
+                    @Override
+                    public Void call() {
+                        ran.incrementAndGet();
+                        return null;
+                    }
+                });
+
+        worker.start();
+        assertThat(claiming.await(5, TimeUnit.SECONDS)).isTrue();
+        Thread stopping = Thread.ofVirtual().start(() -> worker.stop(5000));
+        Thread.sleep(100);
+        proceed.countDown();
+        stopping.join();
+
+        assertThat(ran).hasValue(1);
+        assertThat(state("job-0")).isNull();
+    }
+
+    @Test
+    public void jobsAreStoredAsTheirOwnFields() {
+        SendInvoice job = new SendInvoice();
+        job.invoiceId = 42;
+        job.recipient = "billing@example.com";
+
+        String payload = JobQueue.payload(job);
+        assertThat(payload).isEqualTo("{\"invoiceId\":42,\"recipient\":\"billing@example.com\"}");
+
+        SendInvoice restored = (SendInvoice) JobQueue.restore(new QueuedJob("id", "mail", SendInvoice.class.getName(), payload, 1, 5, 0));
+        assertThat(restored.invoiceId).isEqualTo(42);
+        assertThat(restored.recipient).isEqualTo("billing@example.com");
+    }
+}
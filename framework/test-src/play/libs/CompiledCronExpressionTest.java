@@ -0,0 +1,119 @@
+package play.libs;
+
+import java.text.ParseException;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Date;
+import java.util.Random;
+import java.util.TimeZone;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class CompiledCronExpressionTest {
+
+    private static final String[] EXPRESSIONS = {
+            "0 0 12 * * ?",
+            "0 15 10 ? * *",
+            "0 * 14 * * ?",
+            "0 0/5 14,18 * * ?",
+            "0 10,44 14 ? 3 WED",
+            "0 15 10 ? * MON-FRI",
+            "0 15 10 15 * ?",
+            "0 15 10 L * ?",
+            "0 15 10 ? * 6L",
+            "0 15 10 ? * 6#3",
+            "0 11 11 11 11 ?",
+            "0 0 8 15W * ?",
+            "0 0 8 1W * ?",
+            "0 0 8 LW * ?",
+            "*/7 */3 * * * ?",
+            "0 0 0 29 2 ?",
+            "0 30 9 ? * 2-6 2030-2035",
+    };
+
+    private static final ZonedDateTime NEW_YORK_SPRING = ZonedDateTime.of(2026, 3, 8, 0, 0, 0, 0, ZoneId.of("America/New_York"));
+    private static final ZonedDateTime NEW_YORK_FALL = ZonedDateTime.of(2026, 11, 1, 0, 0, 0, 0, ZoneId.of("America/New_York"));
+
+    @Test
+    public void agreesWithCronExpressionInUtc() throws ParseException {
+        Random random = new Random(42);
+        for (String expression : EXPRESSIONS) {
+            CronExpression legacy = new CronExpression(expression);
+            legacy.setTimeZone(TimeZone.getTimeZone("UTC"));
+            CompiledCronExpression compiled = CompiledCronExpression.compile(expression);
+            for (int i = 0; i < 200; i++) {
+                long after = 1_700_000_000_000L + (long) (random.nextDouble() * 400L * 24 * 3600 * 1000);
+                Date expected = legacy.getNextValidTimeAfter(new Date(after));
+                assertThat(compiled.nextEpochMilli(after, ZoneOffset.UTC))
+                        .as("%s after %s", expression, new Date(after))
+                        .isEqualTo(expected.getTime());
+            }
+        }
+    }
+
+    @Test
+    public void daysPastTheEndOfTheMonthDoNotRollOver() throws ParseException {
+        // CronExpression lets Calendar roll Feb 31 into March and then skips March 1.
+        CompiledCronExpression compiled = CompiledCronExpression.compile("0 0 12 1/5 * ?");
+        ZonedDateTime next = compiled.next(ZonedDateTime.of(2024, 2, 28, 13, 50, 0, 0, ZoneOffset.UTC));
+        assertThat(next.toLocalDateTime()).hasToString("2024-03-01T12:00");
+    }
+
+    @Test
+    public void compiledExpressionsAreCached() throws ParseException {
+        assertThat(CompiledCronExpression.compile("0 0 3 * * ?")).isSameAs(CompiledCronExpression.compile("0 0 3 * * ?"));
+    }
+
+    @Test
+    public void invalidExpressionsAreRejected() {
+        assertThatThrownBy(() -> CompiledCronExpression.compile("0 0 25 * * ?")).isInstanceOf(ParseException.class);
+        assertThatThrownBy(() -> CompiledCronExpression.compile("0 0 3 1 * MON")).isInstanceOf(ParseException.class);
+    }
+
+    @Test
+    public void neverFiresAgainAfterTheLastYear() throws ParseException {
+        CompiledCronExpression compiled = CompiledCronExpression.compile("0 0 0 1 1 ? 2020");
+        assertThat(compiled.next(ZonedDateTime.of(2021, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC))).isNull();
+        assertThat(compiled.nextEpochMilli(System.currentTimeMillis(), ZoneOffset.UTC)).isEqualTo(-1);
+    }
+
+    @Test
+    public void skippedWallClockTimeFiresAtTheTransition() throws ParseException {
+        CompiledCronExpression compiled = CompiledCronExpression.compile("0 30 2 * * ?");
+        ZonedDateTime next = compiled.next(NEW_YORK_SPRING);
+        assertThat(next.toLocalDateTime()).hasToString("2026-03-08T03:00");
+        assertThat(compiled.next(next).toLocalDateTime()).hasToString("2026-03-09T02:30");
+    }
+
+    @Test
+    public void repeatedWallClockTimeFiresOnce() throws ParseException {
+        CompiledCronExpression compiled = CompiledCronExpression.compile("0 30 1 * * ?");
+        ZonedDateTime next = compiled.next(NEW_YORK_FALL);
+        assertThat(next.getOffset()).isEqualTo(ZoneOffset.ofHours(-4));
+        assertThat(next.getHour()).isEqualTo(1);
+        assertThat(compiled.next(next).toLocalDateTime()).hasToString("2026-11-02T01:30");
+    }
+
+    @Test
+    public void hourlyExpressionsRunThroughTheRepeatedHour() throws ParseException {
+        CompiledCronExpression compiled = CompiledCronExpression.compile("0 0/30 * * * ?");
+        ZonedDateTime time = NEW_YORK_FALL.plusMinutes(30);
+        StringBuilder fired = new StringBuilder();
+        for (int i = 0; i < 5; i++) {
+            time = compiled.next(time);
+            fired.append(time.toLocalTime()).append(time.getOffset()).append(' ');
+        }
+        assertThat(fired.toString().trim()).isEqualTo("01:00-04:00 01:30-04:00 01:00-05:00 01:30-05:00 02:00-05:00");
+    }
+
+    @Test
+    public void matchesUsesTheWallClock() throws ParseException {
+        CompiledCronExpression compiled = CompiledCronExpression.compile("0 15 10 ? * MON-FRI");
+        assertThat(compiled.matches(ZonedDateTime.of(2026, 10, 19, 10, 15, 0, 0, ZoneId.of("Europe/Paris")))).isTrue();
+        assertThat(compiled.matches(ZonedDateTime.of(2026, 10, 18, 10, 15, 0, 0, ZoneId.of("Europe/Paris")))).isFalse();
+    }
+}
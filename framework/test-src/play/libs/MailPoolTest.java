@@ -0,0 +1,221 @@
+package play.libs;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jakarta.mail.Session;
+
+import org.apache.commons.mail2.jakarta.Email;
+import org.apache.commons.mail2.jakarta.SimpleEmail;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import play.Play;
+import play.PlayBuilder;
+import play.libs.mail.SmtpTransportPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Connection reuse of {@link Mail#sendAll} and {@link SmtpTransportPool}
+ * against a minimal in-process SMTP server.
+ */
+public class MailPoolTest {
+
+    private FakeSmtpServer server;
+    private Session session;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        new PlayBuilder().build();
+        server = new FakeSmtpServer();
+        Properties props = new Properties();
+        props.put("mail.smtp.host", "127.0.0.1");
+        props.put("mail.smtp.port", String.valueOf(server.port()));
+        session = Session.getInstance(props);
+        Mail.session = session;
+        Mail.resetExecutor();
+        Mail.resetMailSystem();
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        Mail.resetExecutor();
+        Mail.session = null;
+        server.close();
+    }
+
+    private static List<Email> emails(int count) throws Exception {
+        List<Email> emails = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            emails.add(new SimpleEmail().setFrom("from@playframework.com").addTo("to" + i + "@playframework.com")
+                    .setSubject("subject " + i).setMsg("body " + i));
+        }
+        return emails;
+    }
+
+    private static void assertAllSent(List<Future<Boolean>> results) throws Exception {
+        for (Future<Boolean> result : results) {
+            assertThat(result.get(10, TimeUnit.SECONDS)).isTrue();
+        }
+    }
+
+    @Test
+    public void sendAllSharesConnectionsAcrossTheBatch() throws Exception {
+        Play.configuration.setProperty("play.mail.sendAll.connections", "2");
+
+        assertAllSent(Mail.sendAll(emails(20)));
+
+        assertThat(server.messages).hasSize(20);
+        assertThat(server.connections.get()).isBetween(1, 2);
+    }
+
+    @Test
+    public void connectionsAreRetiredAfterMaxMessages() throws Exception {
+        Play.configuration.setProperty("play.mail.sendAll.connections", "1");
+        Play.configuration.setProperty("play.mail.pool.maxMessages", "3");
+
+        assertAllSent(Mail.sendAll(emails(10)));
+
+        assertThat(server.messages).hasSize(10);
+        assertThat(server.connections.get()).isEqualTo(4);
+    }
+
+    @Test
+    public void singleSendsReuseThePoolWhenEnabled() throws Exception {
+        Play.configuration.setProperty("play.mail.pool", "true");
+
+        for (Email email : emails(3)) {
+            assertThat(Mail.send(email).get(10, TimeUnit.SECONDS)).isTrue();
+        }
+
+        assertThat(server.messages).hasSize(3);
+        assertThat(server.connections.get()).isEqualTo(1);
+        assertThat(Mail.transportPool.idleCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void idleConnectionsExpire() throws Exception {
+        try (SmtpTransportPool pool = new SmtpTransportPool(session, 4, 100, 0)) {
+            pool.release(pool.borrow(), true);
+            Thread.sleep(5);
+            pool.release(pool.borrow(), true);
+        }
+        assertThat(server.connections.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void droppedConnectionsAreReplaced() throws Exception {
+        try (SmtpTransportPool pool = new SmtpTransportPool(session, 4, 100, 60_000)) {
+            pool.release(pool.borrow(), true);
+            server.dropClients();
+            SmtpTransportPool.Connection connection = pool.borrow();
+            connection.send(built(session));
+            pool.release(connection, true);
+        }
+        assertThat(server.connections.get()).isEqualTo(2);
+        assertThat(server.messages).hasSize(1);
+    }
+
+    private static jakarta.mail.internet.MimeMessage built(Session session) throws Exception {
+        Email email = emails(1).get(0);
+        email.setMailSession(session);
+        email.buildMimeMessage();
+        return email.getMimeMessage();
+    }
+
+    /**
+     * Just enough ESMTP to accept messages, counting connections and messages.
+     * Served on platform threads: SMTPTransport blocks inside synchronized
+     * methods, which pins the mail virtual threads to their carriers.
+     */
+    private static class FakeSmtpServer implements AutoCloseable {
+
+        final AtomicInteger connections = new AtomicInteger();
+        final List<String> messages = new CopyOnWriteArrayList<>();
+        private final List<Socket> clients = new CopyOnWriteArrayList<>();
+        private final ServerSocket socket;
+
+        FakeSmtpServer() throws IOException {
+            socket = new ServerSocket(0);
+            Thread.ofPlatform().daemon().start(this::accept);
+        }
+
+        int port() {
+            return socket.getLocalPort();
+        }
+
+        void dropClients() throws IOException {
+            for (Socket client : clients) {
+                client.close();
+            }
+        }
+
+        private void accept() {
+            while (!socket.isClosed()) {
+                try {
+                    Socket client = socket.accept();
+                    connections.incrementAndGet();
+                    clients.add(client);
+                    Thread.ofPlatform().daemon().start(() -> serve(client));
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        }
+
+        private void serve(Socket client) {
+            try (client;
+                 BufferedReader in = new BufferedReader(new InputStreamReader(client.getInputStream(), StandardCharsets.US_ASCII));
+                 PrintWriter out = new PrintWriter(client.getOutputStream(), true, StandardCharsets.US_ASCII)) {
+                reply(out, "220 localhost ESMTP");
+                String line;
+                while ((line = in.readLine()) != null) {
+                    String command = line.toUpperCase();
+                    if (command.startsWith("EHLO")) {
+                        reply(out, "250-localhost\r\n250 OK");
+                    } else if (command.startsWith("DATA")) {
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        StringBuilder data = new StringBuilder();
+                        while ((line = in.readLine()) != null && !line.equals(".")) {
+                            data.append(line).append('\n');
+                        }
+                        messages.add(data.toString());
+                        reply(out, "250 OK queued");
+                    } else if (command.startsWith("QUIT")) {
+                        reply(out, "221 Bye");
+                        return;
+                    } else {
+                        reply(out, "250 OK");
+                    }
+                }
+            } catch (IOException e) {
+                // client went away
+            }
+        }
+
+        private static void reply(PrintWriter out, String reply) {
+            out.print(reply + "\r\n");
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+            dropClients();
+        }
+    }
+}
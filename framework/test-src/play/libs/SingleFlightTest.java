@@ -0,0 +1,109 @@
+package play.libs;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class SingleFlightTest {
+
+    private static double shared(String name) {
+        return Metrics.counter("play.singleflight.shared", "name", name).count();
+    }
+
+    private static void awaitShared(String name, double count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (shared(name) < count && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+
+    @Test
+    public void concurrentCallersShareOneRun() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>("test.shared");
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<String>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 50; i++) {
+                results.add(executor.submit(() -> flight.run("key", () -> {
+                    runs.incrementAndGet();
+                    release.await();
+                    return "value";
+                })));
+            }
+            awaitShared("test.shared", 49);
+            release.countDown();
+            for (Future<String> result : results) {
+                assertThat(result.get(10, TimeUnit.SECONDS)).isEqualTo("value");
+            }
+        }
+        assertThat(runs.get()).isEqualTo(1);
+        assertThat(flight.inFlight()).isZero();
+    }
+
+    @Test
+    public void keysAreForgottenOnceTheRunCompletes() throws Exception {
+        SingleFlight<String, Integer> flight = new SingleFlight<>("test.sequential");
+        AtomicInteger runs = new AtomicInteger();
+
+        assertThat(flight.run("key", runs::incrementAndGet)).isEqualTo(1);
+        assertThat(flight.run("key", runs::incrementAndGet)).isEqualTo(2);
+        assertThat(flight.run("other", runs::incrementAndGet)).isEqualTo(3);
+    }
+
+    @Test
+    public void waitersReceiveTheSameFailure() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>("test.failure");
+        CountDownLatch release = new CountDownLatch(1);
+        IllegalStateException failure = new IllegalStateException("backend down");
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<String> leader = executor.submit(() -> flight.run("key", () -> {
+                release.await();
+                throw failure;
+            }));
+            while (flight.inFlight() == 0) {
+                Thread.sleep(1);
+            }
+            Future<String> waiter = executor.submit(() -> flight.run("key", () -> "unused"));
+            awaitShared("test.failure", 1);
+            release.countDown();
+
+            assertThatThrownBy(() -> leader.get(10, TimeUnit.SECONDS)).hasCause(failure);
+            assertThatThrownBy(() -> waiter.get(10, TimeUnit.SECONDS)).hasCause(failure);
+        }
+        assertThat(flight.run("key", () -> "recovered")).isEqualTo("recovered");
+    }
+
+    @Test
+    public void asyncCallersShareOneFuture() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>("test.async");
+        AtomicInteger runs = new AtomicInteger();
+        CompletableFuture<String> upstream = new CompletableFuture<>();
+
+        CompletableFuture<String> first = flight.runAsync("key", () -> {
+            runs.incrementAndGet();
+            return upstream;
+        });
+        CompletableFuture<String> second = flight.runAsync("key", () -> {
+            runs.incrementAndGet();
+            return upstream;
+        });
+        second.cancel(false);
+        upstream.complete("value");
+
+        assertThat(first.get(10, TimeUnit.SECONDS)).isEqualTo("value");
+        assertThat(runs.get()).isEqualTo(1);
+        assertThat(flight.inFlight()).isZero();
+    }
+}
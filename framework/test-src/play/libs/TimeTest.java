@@ -43,6 +43,15 @@ public class TimeTest {
         assertEquals(7200, duration);
     }
 
+    @Test
+    public void parseMillis() {
+        assertEquals(200, Time.parseDurationMillis("200ms"));
+        assertEquals(0, Time.parseDurationMillis("0ms"));
+        assertEquals(90000, Time.parseDurationMillis("1min30s"));
+        assertThrows(IllegalArgumentException.class, () -> Time.parseDurationMillis("200"));
+        assertThrows(IllegalArgumentException.class, () -> Time.parseDurationMillis("1s200ms"));
+    }
+
     @Test
     public void parseBad1() {
         assertThrows(IllegalArgumentException.class, () -> {
@@ -0,0 +1,95 @@
+package play.libs;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TracingTest {
+
+    private static final String TRACEPARENT = "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01";
+
+    private final List<Tracing.Span> exported = new ArrayList<>();
+
+    @AfterEach
+    public void tearDown() {
+        Tracing.uninstall();
+        Tracing.current.remove();
+    }
+
+    @Test
+    public void doesNothingUntilInstalled() {
+        Tracing.Span span = Tracing.startServer("GET", TRACEPARENT);
+
+        assertThat(span).isSameAs(Tracing.Span.NOOP);
+        assertThat(Tracing.start("render", "main.html")).isSameAs(Tracing.Span.NOOP);
+        assertThat(span.traceparent()).isNull();
+        assertThat(span.attribute("key", "value").isRecording()).isFalse();
+        span.end();
+        assertThat(Tracing.current.get()).isNull();
+    }
+
+    @Test
+    public void continuesTheTraceOfTheCaller() {
+        Tracing.install(exported::add, 1.0);
+
+        Tracing.Span server = Tracing.startServer("GET", TRACEPARENT);
+        Tracing.Span action = Tracing.start("controller");
+        Tracing.Span client = Tracing.startDetached("GET", null, Tracing.Kind.CLIENT);
+        assertThat(Tracing.current()).isSameAs(action);
+        client.end();
+        action.name("Application.index").end();
+        assertThat(Tracing.current()).isSameAs(server);
+        server.attribute("http.response.status_code", 200).end();
+
+        assertThat(exported).containsExactly(client, action, server);
+        assertThat(server.traceId()).isEqualTo("4bf92f3577b34da6a3ce929d0e0e4736");
+        assertThat(server.parentSpanId()).isEqualTo("00f067aa0ba902b7");
+        assertThat(server.kind()).isEqualTo(Tracing.Kind.SERVER);
+        assertThat(action.traceId()).isEqualTo(server.traceId());
+        assertThat(action.parentSpanId()).isEqualTo(server.spanId());
+        assertThat(action.name()).isEqualTo("Application.index");
+        assertThat(client.parentSpanId()).isEqualTo(action.spanId());
+        assertThat(client.traceparent()).isEqualTo("00-" + server.traceId() + "-" + client.spanId() + "-01");
+        assertThat(server.attributes()).containsExactly("http.response.status_code", 200);
+        assertThat(server.endEpochNanos()).isGreaterThanOrEqualTo(server.startEpochNanos());
+        assertThat(Tracing.current()).isSameAs(Tracing.Span.NOOP);
+    }
+
+    @Test
+    public void startsATraceWhenTheCallerSentNone() {
+        Tracing.install(exported::add, 1.0);
+
+        for (String traceparent : new String[] { null, "garbage", "ff-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01",
+                "00-00000000000000000000000000000000-00f067aa0ba902b7-01", "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01-extra" }) {
+            Tracing.Span server = Tracing.startServer("GET", traceparent);
+            server.end();
+            assertThat(server.parentSpanId()).as(traceparent).isNull();
+            assertThat(server.traceId()).as(traceparent).isNotEqualTo("4bf92f3577b34da6a3ce929d0e0e4736");
+        }
+        assertThat(Tracing.parse("01-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01-extra")).isNotNull();
+    }
+
+    @Test
+    public void followsTheSamplingDecisionOfTheParent() {
+        Tracing.install(exported::add, 0.0);
+
+        Tracing.Span unsampled = Tracing.startServer("GET", null);
+        Tracing.Span child = Tracing.start("render", "main.html");
+        assertThat(child.isRecording()).isFalse();
+        assertThat(child.traceparent()).endsWith("-00").contains(unsampled.traceId());
+        child.end();
+        unsampled.end();
+
+        Tracing.Span sampled = Tracing.startServer("GET", TRACEPARENT);
+        Tracing.Span render = Tracing.start("render", "main.html");
+        render.end();
+        sampled.end();
+
+        assertThat(exported).containsExactly(render, sampled);
+        assertThat(render.name()).isEqualTo("render main.html");
+    }
+}
@@ -0,0 +1,177 @@
+package play.libs.ws;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import play.Play;
+import play.PlayBuilder;
+import play.exceptions.ConfigurationException;
+import play.libs.F.Promise;
+import play.libs.Metrics;
+import play.libs.WS;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class HostPolicyTest {
+
+    private static final String HOST = "127.0.0.1";
+
+    private HttpServer server;
+    private WSAsync ws;
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger failuresLeft = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        new PlayBuilder().withConfiguration(new Properties()).build();
+        server = HttpServer.create(new InetSocketAddress(HOST, 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/flaky", exchange -> {
+            requests.incrementAndGet();
+            respond(exchange, failuresLeft.getAndDecrement() > 0 ? 503 : 200, "flaky");
+        });
+        server.createContext("/held", exchange -> {
+            // The first request hangs; any later one is answered at once.
+            if (requests.incrementAndGet() == 1) {
+                await();
+            }
+            respond(exchange, 200, "held " + requests.get());
+        });
+        server.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        release.countDown();
+        if (ws != null) {
+            ws.stop();
+        }
+        server.stop(0);
+    }
+
+    private void configure(String... settings) {
+        for (int i = 0; i < settings.length; i += 2) {
+            Play.configuration.setProperty(settings[i], settings[i + 1]);
+        }
+        ws = new WSAsync();
+    }
+
+    private WS.WSRequest request(String path) {
+        return ws.newRequest("http://" + HOST + ":" + server.getAddress().getPort() + path, "UTF-8");
+    }
+
+    private void await() {
+        try {
+            release.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static double count(String policy, String outcome) {
+        return Metrics.counter("play.ws.policy", "host", HOST, "policy", policy, "outcome", outcome).count();
+    }
+
+    @Test
+    public void idempotentRequestsAreRetried() {
+        configure("ws.policy." + HOST + ".retries", "2", "ws.policy.retry.backoff", "1ms");
+        double retried = count("retry", "retried");
+        failuresLeft.set(2);
+
+        assertThat(request("/flaky").get().getStatus()).isEqualTo(200);
+        assertThat(requests.get()).isEqualTo(3);
+        assertThat(count("retry", "retried") - retried).isEqualTo(2);
+    }
+
+    @Test
+    public void retriesGiveUpWithTheLastAnswer() throws Exception {
+        configure("ws.policy.retries", "1", "ws.policy.retry.backoff", "1ms");
+        failuresLeft.set(5);
+
+        Promise<WS.HttpResponse> response = request("/flaky").getAsync();
+
+        assertThat(response.get(10, TimeUnit.SECONDS).getStatus()).isEqualTo(503);
+        assertThat(requests.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void postsAreNotRetried() {
+        configure("ws.policy.retries", "3", "ws.policy.retry.backoff", "1ms");
+        failuresLeft.set(1);
+
+        assertThat(request("/flaky").body("x").post().getStatus()).isEqualTo(503);
+        assertThat(requests.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void openCircuitsFailFastThenProbe() throws Exception {
+        configure("ws.policy.breaker.failures", "2", "ws.policy.breaker.openFor", "100ms");
+        failuresLeft.set(2);
+
+        request("/flaky").get();
+        request("/flaky").get();
+        assertThatThrownBy(() -> request("/flaky").get()).hasCauseInstanceOf(RequestRejectedException.class);
+        assertThat(requests.get()).isEqualTo(2);
+
+        Thread.sleep(150);
+        assertThat(request("/flaky").get().getStatus()).isEqualTo(200);
+        assertThat(request("/flaky").get().getStatus()).isEqualTo(200);
+        assertThat(requests.get()).isEqualTo(4);
+    }
+
+    @Test
+    public void bulkheadsRejectRequestsBeyondTheLimit() throws Exception {
+        configure("ws.policy." + HOST + ".maxConcurrent", "1", "ws.policy." + HOST + ".maxWait", "0s");
+        double rejected = count("bulkhead", "rejected");
+
+        Promise<WS.HttpResponse> first = request("/held").getAsync();
+        while (requests.get() == 0) {
+            Thread.sleep(1);
+        }
+        assertThatThrownBy(() -> request("/held").get()).hasCauseInstanceOf(RequestRejectedException.class);
+        release.countDown();
+
+        assertThat(first.get(10, TimeUnit.SECONDS).getString()).startsWith("held");
+        assertThat(count("bulkhead", "rejected") - rejected).isEqualTo(1);
+    }
+
+    @Test
+    public void slowRequestsAreHedged() {
+        configure("ws.policy.hedge", "true", "ws.policy.hedge.delay", "50ms");
+        double won = count("hedge", "won");
+
+        assertThat(request("/held").get().getString()).isEqualTo("held 2");
+        assertThat(count("hedge", "won") - won).isEqualTo(1);
+    }
+
+    @Test
+    public void durationsAreWrittenWithTheirUnit() {
+        configure("ws.policy.retries", "1", "ws.policy.retry.backoff", "100");
+
+        assertThatThrownBy(() -> HostPolicy.forHost(HOST)).isInstanceOf(ConfigurationException.class);
+    }
+}
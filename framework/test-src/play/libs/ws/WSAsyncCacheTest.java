@@ -0,0 +1,146 @@
+package play.libs.ws;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import play.Play;
+import play.PlayBuilder;
+import play.libs.Metrics;
+import play.libs.WS;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class WSAsyncCacheTest {
+
+    @TempDir
+    File tmp;
+
+    private HttpServer server;
+    private WSAsync ws;
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger notModified = new AtomicInteger();
+    private final AtomicInteger conditional = new AtomicInteger();
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        Properties config = new Properties();
+        config.setProperty("ws.cache", "true");
+        new PlayBuilder().withConfiguration(config).build();
+        Play.tmpDir = tmp;
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/fresh", exchange -> {
+            requests.incrementAndGet();
+            exchange.getResponseHeaders().set("Cache-Control", "max-age=60");
+            respond(exchange, 200, "fresh");
+        });
+        server.createContext("/etag", exchange -> {
+            requests.incrementAndGet();
+            exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+            exchange.getResponseHeaders().set("ETag", "\"v1\"");
+            if ("\"v1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                notModified.incrementAndGet();
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+            } else {
+                respond(exchange, 200, "tagged");
+            }
+        });
+        server.createContext("/changing", exchange -> {
+            int version = requests.incrementAndGet();
+            if (exchange.getRequestHeaders().containsKey("If-None-Match")) {
+                conditional.incrementAndGet();
+            }
+            exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+            exchange.getResponseHeaders().set("ETag", "\"v" + version + "\"");
+            respond(exchange, 200, "v" + version);
+        });
+        server.start();
+        ws = new WSAsync();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ws.stop();
+        server.stop(0);
+        Play.tmpDir = null;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private WS.HttpResponse get(String path, boolean cache) {
+        return ws.newRequest("http://127.0.0.1:" + server.getAddress().getPort() + path, "UTF-8").cache(cache).get();
+    }
+
+    private static double count(String outcome) {
+        return Metrics.counter("play.ws.cache", "outcome", outcome).count();
+    }
+
+    @Test
+    public void freshResponsesAreServedFromTheCache() {
+        double hits = count("hit");
+
+        assertThat(get("/fresh", true).getString()).isEqualTo("fresh");
+        assertThat(get("/fresh", true).getString()).isEqualTo("fresh");
+
+        assertThat(requests.get()).isEqualTo(1);
+        assertThat(count("hit") - hits).isEqualTo(1);
+        assertThat(new File(tmp, "ws-cache")).isDirectory();
+    }
+
+    @Test
+    public void staleResponsesAreRevalidatedWithTheirETag() {
+        double revalidated = count("revalidated");
+
+        assertThat(get("/etag", true).getString()).isEqualTo("tagged");
+        WS.HttpResponse second = get("/etag", true);
+
+        assertThat(second.getStatus()).isEqualTo(200);
+        assertThat(second.getString()).isEqualTo("tagged");
+        assertThat(notModified.get()).isEqualTo(1);
+        assertThat(count("revalidated") - revalidated).isEqualTo(1);
+    }
+
+    @Test
+    public void changedResponsesToARevalidationAreMisses() {
+        double revalidated = count("revalidated");
+        double misses = count("miss");
+
+        assertThat(get("/changing", true).getString()).isEqualTo("v1");
+        assertThat(get("/changing", true).getString()).isEqualTo("v2");
+
+        assertThat(conditional.get()).isEqualTo(1);
+        assertThat(count("revalidated")).isEqualTo(revalidated);
+        assertThat(count("miss") - misses).isEqualTo(2);
+    }
+
+    @Test
+    public void requestsCanOptOut() {
+        double misses = count("miss");
+
+        get("/fresh", false);
+        get("/fresh", false);
+
+        assertThat(requests.get()).isEqualTo(2);
+        assertThat(count("miss")).isEqualTo(misses);
+    }
+}
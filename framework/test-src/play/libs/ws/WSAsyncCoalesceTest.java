@@ -0,0 +1,151 @@
+package play.libs.ws;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import play.Deadline;
+import play.PlayBuilder;
+import play.exceptions.DeadlineExceededException;
+import play.libs.F.Promise;
+import play.libs.Metrics;
+import play.libs.WS;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class WSAsyncCoalesceTest {
+
+    private HttpServer server;
+    private WSAsync ws;
+    private final AtomicInteger requests = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        Properties config = new Properties();
+        config.setProperty("ws.coalesce", "true");
+        new PlayBuilder().withConfiguration(config).build();
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/slow", exchange -> {
+            requests.incrementAndGet();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] bytes = ("hello " + exchange.getRequestHeaders().getFirst("Authorization")).getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+        server.start();
+        ws = new WSAsync();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        release.countDown();
+        ws.stop();
+        server.stop(0);
+    }
+
+    private WS.WSRequest request() {
+        return ws.newRequest("http://127.0.0.1:" + server.getAddress().getPort() + "/slow", "UTF-8");
+    }
+
+    private static double shared() {
+        return Metrics.counter("play.singleflight.shared", "name", "play.ws").count();
+    }
+
+    private static void awaitShared(double count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (shared() < count && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+
+    @Test
+    public void identicalConcurrentGetsShareOneRequest() throws Exception {
+        double before = shared();
+        List<Future<String>> bodies = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 20; i++) {
+                bodies.add(executor.submit(() -> request().get().getString()));
+            }
+            Promise<WS.HttpResponse> async = request().getAsync();
+            awaitShared(before + 20);
+            release.countDown();
+
+            for (Future<String> body : bodies) {
+                assertThat(body.get(10, TimeUnit.SECONDS)).isEqualTo("hello null");
+            }
+            assertThat(async.get(10, TimeUnit.SECONDS).getString()).isEqualTo("hello null");
+        }
+        assertThat(requests.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void requestsWithDifferentHeadersOrOptedOutAreNotShared() throws Exception {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<String> alice = executor.submit(() -> request().setHeader("Authorization", "alice").get().getString());
+            Future<String> bob = executor.submit(() -> request().setHeader("Authorization", "bob").get().getString());
+            Future<String> own = executor.submit(() -> request().setHeader("Authorization", "alice").coalesce(false).get().getString());
+            while (requests.get() < 3) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+
+            assertThat(alice.get(10, TimeUnit.SECONDS)).isEqualTo("hello alice");
+            assertThat(bob.get(10, TimeUnit.SECONDS)).isEqualTo("hello bob");
+            assertThat(own.get(10, TimeUnit.SECONDS)).isEqualTo("hello alice");
+        }
+        assertThat(requests.get()).isEqualTo(3);
+    }
+
+    @Test
+    public void eachCallerWaitsForASharedGetNoLongerThanItsOwnDeadline() throws Exception {
+        double before = shared();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<String> hurried = executor.submit(() -> {
+                Deadline.current.set(Deadline.after(300));
+                try {
+                    return request().get().getString();
+                } finally {
+                    Deadline.current.remove();
+                }
+            });
+            while (requests.get() < 1) {
+                Thread.sleep(1);
+            }
+            Future<String> patient = executor.submit(() -> request().get().getString());
+            awaitShared(before + 1);
+
+            assertThatThrownBy(() -> hurried.get(10, TimeUnit.SECONDS))
+                    .hasRootCauseInstanceOf(DeadlineExceededException.class);
+            assertThat(patient.isDone()).isFalse();
+            release.countDown();
+            assertThat(patient.get(10, TimeUnit.SECONDS)).isEqualTo("hello null");
+        }
+        assertThat(requests.get()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,173 @@
+package play.libs.ws;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import play.PlayBuilder;
+import play.libs.WS;
+import play.mvc.Controller;
+import play.mvc.Http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class WSAsyncStreamTest {
+
+    private static final int BODY_SIZE = 4 * 1024 * 1024;
+
+    private HttpServer server;
+    private WSAsync ws;
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        new PlayBuilder().build();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        // Platform threads: the JDK server writes inside synchronized blocks, which would pin the
+        // carriers the streaming client needs on JDK 21.
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/held", exchange -> {
+            exchange.getResponseHeaders().set("Content-Type", "text/plain");
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write("first ".getBytes());
+                out.flush();
+                release.await(10, TimeUnit.SECONDS);
+                out.write("second".getBytes());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        server.createContext("/large", exchange -> {
+            exchange.getResponseHeaders().set("Content-Type", "application/octet-stream");
+            exchange.getResponseHeaders().set("ETag", "\"large\"");
+            exchange.sendResponseHeaders(200, BODY_SIZE);
+            byte[] block = new byte[8192];
+            try (OutputStream out = exchange.getResponseBody()) {
+                for (int written = 0; written < BODY_SIZE; written += block.length) {
+                    Arrays.fill(block, (byte) (written / block.length));
+                    out.write(block);
+                }
+            }
+        });
+        server.start();
+        ws = new WSAsync();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        release.countDown();
+        ws.stop();
+        server.stop(0);
+        Http.Response.current.remove();
+    }
+
+    private WS.WSRequest request(String path) {
+        return ws.newRequest("http://127.0.0.1:" + server.getAddress().getPort() + path, "UTF-8");
+    }
+
+    @Test
+    public void streamedResponsesReturnBeforeTheBodyIsComplete() throws Exception {
+        try (WS.HttpResponse response = request("/held").stream(true).get()) {
+            assertThat(response.getStatus()).isEqualTo(200);
+            InputStream body = response.getStream();
+            assertThat(new String(body.readNBytes(6))).isEqualTo("first ");
+            release.countDown();
+            assertThat(new String(body.readAllBytes())).isEqualTo("second");
+        }
+    }
+
+    @Test
+    public void streamedResponsesCanStillBeReadWhole() {
+        release.countDown();
+        try (WS.HttpResponse response = request("/held").stream(true).get()) {
+            assertThat(response.getString()).isEqualTo("first second");
+        }
+    }
+
+    @Test
+    public void publisherReadsOnlyWhatIsRequested() throws Exception {
+        WS.HttpResponse response = request("/large").stream(true).get();
+        AtomicLong bytes = new AtomicLong();
+        AtomicInteger outstanding = new AtomicInteger();
+        AtomicInteger maxOutstanding = new AtomicInteger();
+        CompletableFuture<Void> done = new CompletableFuture<>();
+
+        response.getPublisher().subscribe(new Flow.Subscriber<>() {
+            private Flow.Subscription subscription;
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                this.subscription = subscription;
+                outstanding.incrementAndGet();
+                subscription.request(1);
+            }
+
+            @Override
+            public void onNext(ByteBuffer item) {
+                maxOutstanding.accumulateAndGet(outstanding.get(), Math::max);
+                outstanding.decrementAndGet();
+                bytes.addAndGet(item.remaining());
+                outstanding.incrementAndGet();
+                subscription.request(1);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                done.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                done.complete(null);
+            }
+        });
+
+        done.get(10, TimeUnit.SECONDS);
+        assertThat(bytes.get()).isEqualTo(BODY_SIZE);
+        assertThat(maxOutstanding.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void controllersForwardStreamedResponsesInChunks() {
+        Http.Response response = new Http.Response();
+        AtomicLong forwarded = new AtomicLong();
+        AtomicInteger chunks = new AtomicInteger();
+        response.onWriteChunk(chunk -> {
+            chunks.incrementAndGet();
+            forwarded.addAndGet(((byte[]) chunk).length);
+        });
+        Http.Response.current.set(response);
+
+        Proxy.forward(request("/large").stream(true).get());
+
+        assertThat(forwarded.get()).isEqualTo(BODY_SIZE);
+        assertThat(chunks.get()).isGreaterThan(1);
+        assertThat(response.status).isEqualTo(200);
+        assertThat(response.contentType).isEqualTo("application/octet-stream");
+        assertThat(response.getHeader("etag")).isEqualTo("\"large\"");
+        assertThat(response.headers).doesNotContainKey("content-length");
+    }
+
+    public static class Proxy extends Controller {
+        static void forward(WS.HttpResponse upstream) {
+            streamResponse(upstream);
+        }
+    }
+}
@@ -5,17 +5,24 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import play.Play;
 import play.PlayBuilder;
+import play.cache.Caches;
 import play.classloading.ApplicationClasses;
 import play.data.binding.CachedBoundActionMethodArgs;
 import play.exceptions.JavaExecutionException;
 import play.exceptions.PlayException;
 import play.exceptions.UnexpectedException;
+import play.libs.Metrics;
 import play.mvc.results.Forbidden;
 import play.mvc.results.Result;
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.mock;
@@ -37,6 +44,7 @@ public class ActionInvokerTest {
     @AfterEach
     public void tearDown() {
         CachedBoundActionMethodArgs.clear();
+        Caches.stop();
     }
 
     @Test
@@ -138,6 +146,70 @@ public class ActionInvokerTest {
         }
     }
 
+    private static void awaitWaiters(double count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (Metrics.counter("play.singleflight.shared", "name", "play.actions").count() < count
+                && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+
+    @Test
+    public void concurrentMissesShareTheResultOfOneRun() throws Exception {
+        Caches.init();
+        Result result = new Forbidden("cached");
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        double waiters = Metrics.counter("play.singleflight.shared", "name", "play.actions").count();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Result> leader = executor.submit(() -> ActionInvoker.invokeCached("1h", "shared", () -> {
+                runs.incrementAndGet();
+                started.countDown();
+                release.await();
+                throw result;
+            }));
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+            Future<Result> waiter = executor.submit(() -> ActionInvoker.invokeCached("1h", "shared", () -> {
+                runs.incrementAndGet();
+                throw new Forbidden("recomputed");
+            }));
+            awaitWaiters(waiters + 1);
+            release.countDown();
+
+            assertSame(result, leader.get(10, TimeUnit.SECONDS));
+            assertSame(result, waiter.get(10, TimeUnit.SECONDS));
+        }
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    public void waitersRunTheActionThemselvesWhenTheRunInFlightFails() throws Exception {
+        Caches.init();
+        RuntimeException failure = new IllegalStateException("leader only");
+        Result result = new Forbidden("own run");
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        double waiters = Metrics.counter("play.singleflight.shared", "name", "play.actions").count();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Result> leader = executor.submit(() -> ActionInvoker.invokeCached("1h", "failing", () -> {
+                started.countDown();
+                release.await();
+                throw failure;
+            }));
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+            Future<Result> waiter = executor.submit(() -> ActionInvoker.invokeCached("1h", "failing", () -> {
+                throw result;
+            }));
+            awaitWaiters(waiters + 1);
+            release.countDown();
+
+            Exception thrown = assertThrows(Exception.class, () -> leader.get(10, TimeUnit.SECONDS));
+            assertSame(failure, thrown.getCause());
+            assertSame(result, waiter.get(10, TimeUnit.SECONDS));
+        }
+    }
+
     @Test
     public void invocationWrapsOtherExceptionsIntoJavaExecutionException() throws Exception {
         Play.classes = mock(ApplicationClasses.class);
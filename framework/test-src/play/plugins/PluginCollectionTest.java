@@ -7,7 +7,14 @@ import static org.mockito.Mockito.when;
 
 import java.io.File;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -16,6 +23,7 @@ import play.ConfigurationChangeWatcherPlugin;
 import play.Play;
 import play.PlayBuilder;
 import play.PlayPlugin;
+import play.classloading.ApplicationClasses;
 import play.data.parsing.TempFilePlugin;
 import play.data.validation.ValidationPlugin;
 import play.db.DBPlugin;
@@ -46,6 +54,8 @@ public class PluginCollectionTest {
                 pc.getPluginInstance(HealthCheckPlugin.class),
                 pc.getPluginInstance(play.plugins.openapi.OpenApiPlugin.class),
                 pc.getPluginInstance(MetricsPlugin.class),
+                pc.getPluginInstance(TracingPlugin.class),
+                pc.getPluginInstance(AccessLogPlugin.class),
                 pc.getPluginInstance(TempFilePlugin.class),
                 pc.getPluginInstance(ValidationPlugin.class),
                 pc.getPluginInstance(DBPlugin.class), pc.getPluginInstance(play.db.DBBrowserPlugin.class),
@@ -174,6 +184,43 @@ public class PluginCollectionTest {
 
     }
 
+    @Test
+    public void enhancesWithOnePluginAtATimeUnlessItOptsIn() throws Exception {
+        PluginCollection pc = new PluginCollection();
+        EnhancingPlugin plugin = new EnhancingPlugin();
+        pc.addPlugin(plugin);
+        pc.initializePlugin(plugin);
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(4)) {
+            List<Future<?>> runs = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                runs.add(executor.submit(() -> pc.enhance(new ApplicationClasses.ApplicationClass())));
+            }
+            for (Future<?> run : runs) {
+                run.get(10, TimeUnit.SECONDS);
+            }
+        }
+
+        assertThat(plugin.enhanced.get()).isEqualTo(8);
+        assertThat(plugin.maxRunning.get()).isEqualTo(1);
+        assertThat(new EnhancerPlugin().enhancesConcurrently()).isTrue();
+    }
+
+    @Test
+    public void precompilesWithEveryEnabledPlugin() throws Exception {
+        PluginCollection pc = new PluginCollection();
+        PrecompilingPlugin enabled = new PrecompilingPlugin();
+        PrecompilingPlugin disabled = new PrecompilingPlugin();
+        pc.addPlugin(enabled);
+        pc.addPlugin(disabled);
+        pc.disablePlugin(disabled);
+
+        pc.onPrecompile();
+
+        assertThat(enabled.precompiled.get()).isEqualTo(1);
+        assertThat(disabled.precompiled.get()).isZero();
+    }
+
     @Test
     public void verifyThatPluginsCanAddUnitTests() {
         PluginCollection pc = new PluginCollection();
@@ -239,6 +286,21 @@ class PluginWithTests2 extends PlayPlugin {
     }
 }
 
+class EnhancingPlugin extends PlayPlugin {
+
+    final AtomicInteger enhanced = new AtomicInteger();
+    final AtomicInteger maxRunning = new AtomicInteger();
+    private final AtomicInteger running = new AtomicInteger();
+
+    @Override
+    public void enhance(ApplicationClasses.ApplicationClass applicationClass) throws Exception {
+        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+        Thread.sleep(20);
+        running.decrementAndGet();
+        enhanced.incrementAndGet();
+    }
+}
+
 class PluginUnit {
 }
 
@@ -250,3 +312,12 @@ class PluginFunc {
 
 class PluginFunc2 {
 }
+
+class PrecompilingPlugin extends PlayPlugin {
+    final AtomicInteger precompiled = new AtomicInteger();
+
+    @Override
+    public void onPrecompile() {
+        precompiled.incrementAndGet();
+    }
+}
@@ -0,0 +1,109 @@
+package play.plugins;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import com.sun.net.httpserver.HttpServer;
+import io.opentelemetry.proto.collector.trace.v1.ExportTraceServiceRequest;
+import io.opentelemetry.proto.common.v1.KeyValue;
+import io.opentelemetry.proto.trace.v1.Span;
+import io.opentelemetry.proto.trace.v1.Status;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import play.PlayBuilder;
+import play.exceptions.ConfigurationException;
+import play.libs.Tracing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class TracingPluginTest {
+
+    private final List<ExportTraceServiceRequest> received = new CopyOnWriteArrayList<>();
+    private final List<String> authorizations = new CopyOnWriteArrayList<>();
+    private Properties config;
+    private TracingPlugin plugin;
+    private HttpServer collector;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        config = new Properties();
+        new PlayBuilder().withConfiguration(config).build();
+        plugin = new TracingPlugin();
+        collector = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        collector.createContext("/v1/traces", exchange -> {
+            received.add(ExportTraceServiceRequest.parseFrom(exchange.getRequestBody().readAllBytes()));
+            authorizations.add(exchange.getRequestHeaders().getFirst("Authorization"));
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        collector.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        plugin.onApplicationStop();
+        collector.stop(0);
+    }
+
+    @Test
+    public void isOffByDefault() {
+        plugin.onApplicationStart();
+
+        assertThat(Tracing.enabled()).isFalse();
+        assertThat(Tracing.startServer("GET", null)).isSameAs(Tracing.Span.NOOP);
+    }
+
+    @Test
+    public void exportsSpansOverOtlp() {
+        config.setProperty("application.name", "shop");
+        config.setProperty("tracing.enabled", "true");
+        config.setProperty("tracing.otlp.endpoint", "http://127.0.0.1:" + collector.getAddress().getPort() + "/v1/traces");
+        config.setProperty("tracing.otlp.headers", "Authorization=Bearer secret");
+        plugin.onApplicationStart();
+
+        Tracing.Span server = Tracing.startServer("GET", null).attribute("http.response.status_code", 200);
+        Tracing.Span action = Tracing.start("controller").name("Application.index");
+        action.error(new IllegalStateException("boom")).end();
+        server.end();
+        plugin.onApplicationStop();
+
+        assertThat(authorizations).containsOnly("Bearer secret");
+        assertThat(received).hasSize(1);
+        ExportTraceServiceRequest request = received.get(0);
+        assertThat(request.getResourceSpans(0).getResource().getAttributesList())
+                .extracting(KeyValue::getKey, keyValue -> keyValue.getValue().getStringValue())
+                .contains(org.assertj.core.groups.Tuple.tuple("service.name", "shop"));
+        List<Span> spans = request.getResourceSpans(0).getScopeSpans(0).getSpansList();
+        assertThat(spans).extracting(Span::getName).containsExactly("Application.index", "GET");
+        assertThat(spans.get(0).getParentSpanId()).isEqualTo(spans.get(1).getSpanId());
+        assertThat(spans.get(0).getTraceId()).isEqualTo(spans.get(1).getTraceId()).hasSize(16);
+        assertThat(spans.get(0).getStatus().getCode()).isEqualTo(Status.StatusCode.STATUS_CODE_ERROR);
+        assertThat(spans.get(0).getStatus().getMessage()).isEqualTo("java.lang.IllegalStateException: boom");
+        assertThat(spans.get(1).getKind()).isEqualTo(Span.SpanKind.SPAN_KIND_SERVER);
+        assertThat(spans.get(1).getAttributes(0).getValue().getIntValue()).isEqualTo(200);
+        assertThat(spans.get(1).getParentSpanId().isEmpty()).isTrue();
+    }
+
+    @Test
+    public void rejectsInvalidSettings() {
+        config.setProperty("tracing.enabled", "true");
+        config.setProperty("tracing.sampler.ratio", "2");
+
+        assertThatThrownBy(plugin::onApplicationStart).isInstanceOf(ConfigurationException.class);
+    }
+
+    @Test
+    public void rejectsAnInvalidStep() {
+        config.setProperty("tracing.enabled", "true");
+        config.setProperty("tracing.otlp.step", "soon");
+
+        assertThatThrownBy(plugin::onApplicationStart).isInstanceOf(ConfigurationException.class)
+                .hasMessageContaining("tracing.otlp.step");
+    }
+}
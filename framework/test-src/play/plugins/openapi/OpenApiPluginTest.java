@@ -0,0 +1,110 @@
+package play.plugins.openapi;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import play.Play;
+import play.PlayBuilder;
+import play.mvc.Http;
+import play.mvc.Router;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Caching and conditional serving of the spec by {@link OpenApiPlugin}, through its
+ * {@code rawInvocation} hook.
+ */
+public class OpenApiPluginTest {
+
+    private OpenApiPlugin plugin;
+    private Play.Mode previousMode;
+    private long previousLoading;
+
+    @BeforeEach
+    public void setUp() {
+        new PlayBuilder().build();
+        previousMode = Play.mode;
+        previousLoading = Router.lastLoading;
+        Play.mode = Play.Mode.DEV;
+        Router.lastLoading = 1;
+        plugin = new OpenApiPlugin();
+        plugin.onConfigurationRead();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        Play.mode = previousMode;
+        Router.lastLoading = previousLoading;
+    }
+
+    private Http.Response get(String path, String... headers) throws Exception {
+        Map<String, Http.Header> requestHeaders = new HashMap<>();
+        for (int i = 0; i < headers.length; i += 2) {
+            requestHeaders.put(headers[i], new Http.Header(headers[i], headers[i + 1]));
+        }
+        Http.Request request = Http.Request.createRequest(new Http.Request.RequestData(
+                null, "GET", path, "", null, null, null, "localhost", false, 80, "localhost", false,
+                requestHeaders, null));
+        Http.Response response = new Http.Response();
+        response.out = new ByteArrayOutputStream();
+        assertThat(plugin.rawInvocation(request, response)).isTrue();
+        return response;
+    }
+
+    private static String etag(Http.Response response) {
+        return response.getHeader("ETag");
+    }
+
+    @Test
+    public void servesTheSpecWithAStrongEtagAndRevalidates() throws Exception {
+        Http.Response first = get("/@api/openapi.json");
+
+        assertThat(first.status).isEqualTo(200);
+        assertThat(first.contentType).isEqualTo("application/json");
+        assertThat(first.out.toString(UTF_8)).contains("\"openapi\"");
+        assertThat(etag(first)).matches("\"[0-9a-f]{32}\"");
+
+        Http.Response revalidated = get("/@api/openapi.json", "if-none-match", "W/\"other\", " + etag(first));
+
+        assertThat(revalidated.status).isEqualTo(304);
+        assertThat(revalidated.out.size()).isZero();
+        assertThat(get("/@api/openapi.yaml").getHeader("ETag")).isNotEqualTo(etag(first));
+    }
+
+    @Test
+    public void servesTheGzippedBytesToClientsAcceptingThem() throws Exception {
+        Http.Response plain = get("/@api/openapi.json");
+        Http.Response gzipped = get("/@api/openapi.json", "accept-encoding", "br, gzip;q=0.8");
+
+        assertThat(gzipped.getHeader("Content-Encoding")).isEqualTo("gzip");
+        assertThat(etag(gzipped)).isNotEqualTo(etag(plain));
+        assertThat(gunzip(((ByteArrayOutputStream) gzipped.out).toByteArray()))
+                .isEqualTo(((ByteArrayOutputStream) plain.out).toByteArray());
+        assertThat(get("/@api/openapi.json", "accept-encoding", "gzip;q=0").getHeader("Content-Encoding")).isNull();
+    }
+
+    @Test
+    public void keepsTheSpecUntilTheRoutesAreReloaded() {
+        OpenApiPlugin.Spec spec = plugin.spec();
+
+        assertThat(plugin.spec()).isSameAs(spec);
+
+        Router.lastLoading = 2;
+        assertThat(plugin.spec()).isNotSameAs(spec);
+    }
+
+    private static byte[] gunzip(byte[] bytes) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return in.readAllBytes();
+        }
+    }
+}
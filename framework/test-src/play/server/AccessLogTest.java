@@ -0,0 +1,175 @@
+package play.server;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Properties;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import play.Play;
+import play.PlayBuilder;
+import play.mvc.Http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AccessLogTest {
+
+    @TempDir
+    Path dir;
+
+    private Properties config;
+
+    @BeforeEach
+    public void setUp() {
+        config = new Properties();
+        new PlayBuilder().withConfiguration(config).build();
+        Play.applicationPath = dir.toFile();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        AccessLog.stop();
+    }
+
+    private static Http.Request request(String path) {
+        Http.Request request = Http.Request.createRequest(new Http.Request.RequestData(
+                null, "GET", path, "", null, null, null, "localhost", false, 80, "localhost", false,
+                new HashMap<>(), null));
+        request.remoteAddress = "10.0.0.7";
+        return request;
+    }
+
+    private List<String> lines(String name) throws IOException {
+        return Files.readAllLines(dir.resolve(name), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void writesOneJsonLinePerResponse() throws IOException {
+        config.setProperty("http.accessLog", "true");
+        config.setProperty("http.accessLog.path", "logs/access.log");
+        AccessLog.start();
+
+        Http.Request request = request("/users/42");
+        request.action = "Users.show";
+        request.args.put("__REQUEST_ID", "req-1");
+        request.args.put("protocol", "h2");
+        request.args.put("acceptedAtNanos", System.nanoTime());
+        AccessLog.record(request, 200, 5123);
+        AccessLog.record(request("/missing"), 404, 12);
+        AccessLog.stop();
+
+        List<String> lines = lines("logs/access.log");
+        assertThat(lines).hasSize(2);
+        JsonObject line = JsonParser.parseString(lines.get(0)).getAsJsonObject();
+        assertThat(line.get("@timestamp").getAsString()).endsWith("Z");
+        assertThat(line.get("request_id").getAsString()).isEqualTo("req-1");
+        assertThat(line.get("http_method").getAsString()).isEqualTo("GET");
+        assertThat(line.get("http_path").getAsString()).isEqualTo("/users/42");
+        assertThat(line.get("action_name").getAsString()).isEqualTo("Users.show");
+        assertThat(line.get("http_status").getAsInt()).isEqualTo(200);
+        assertThat(line.get("bytes").getAsLong()).isEqualTo(5123);
+        assertThat(line.get("latency_us").getAsLong()).isNotNegative();
+        assertThat(line.get("protocol").getAsString()).isEqualTo("h2");
+        assertThat(line.get("client_ip").getAsString()).isEqualTo("10.0.0.7");
+        JsonObject missing = JsonParser.parseString(lines.get(1)).getAsJsonObject();
+        assertThat(missing.get("http_status").getAsInt()).isEqualTo(404);
+        assertThat(missing.has("request_id")).isFalse();
+    }
+
+    @Test
+    public void isOffByDefault() {
+        AccessLog.start();
+        AccessLog.record(request("/"), 200, 0);
+        AccessLog.stop();
+
+        assertThat(dir.resolve("logs/access.log")).doesNotExist();
+    }
+
+    @Test
+    public void escapesStringsForJson() throws IOException {
+        config.setProperty("http.accessLog", "true");
+        config.setProperty("http.accessLog.path", "access.log");
+        AccessLog.start();
+
+        AccessLog.record(request("/a\"b\\c\nd\u0001"), 200, 0);
+        AccessLog.stop();
+
+        JsonObject line = JsonParser.parseString(lines("access.log").get(0)).getAsJsonObject();
+        assertThat(line.get("http_path").getAsString()).isEqualTo("/a\"b\\c\nd\u0001");
+    }
+
+    @Test
+    public void samplingKeepsServerErrors() throws IOException {
+        config.setProperty("http.accessLog", "true");
+        config.setProperty("http.accessLog.path", "access.log");
+        config.setProperty("http.accessLog.sampleRate", "0");
+        AccessLog.start();
+
+        for (int i = 0; i < 10; i++) {
+            AccessLog.record(request("/ok"), 200, 0);
+        }
+        AccessLog.record(request("/boom"), 500, 0);
+        AccessLog.stop();
+
+        assertThat(lines("access.log")).singleElement().asString().contains("\"http_status\":500");
+    }
+
+    @Test
+    public void dropsEntriesWhenTheBufferIsFull() {
+        // The writer is never started, so nothing drains the buffer.
+        AccessLog log = new AccessLog(dir.resolve("access.log").toFile(), 4, 1.0, Long.MAX_VALUE, 1);
+
+        for (int i = 0; i < 10; i++) {
+            log.offer(request("/" + i), 200, 0);
+        }
+
+        assertThat(log.dropped()).isEqualTo(6);
+    }
+
+    @Test
+    public void rollsFilesAtMaxFileSize() throws IOException {
+        File file = dir.resolve("access.log").toFile();
+        AccessLog log = new AccessLog(file, 64, 1.0, 400, 2);
+        log.startWriter();
+        for (int i = 0; i < 20; i++) {
+            log.offer(request("/" + i), 200, 0);
+        }
+        log.stopWriter();
+
+        assertThat(dir.resolve("access.log.1")).exists();
+        assertThat(dir.resolve("access.log.2")).exists();
+        assertThat(dir.resolve("access.log.3")).doesNotExist();
+        assertThat(Files.size(file.toPath())).isLessThanOrEqualTo(400);
+        assertThat(lines("access.log")).last().asString().contains("\"http_path\":\"/19\"");
+    }
+
+    @Test
+    public void ringKeepsOrderAcrossWraps() {
+        AccessLog.Ring ring = new AccessLog.Ring(3);
+        assertThat(ring.capacity()).isEqualTo(4);
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 4; i++) {
+                assertThat(ring.offer(entry(i))).isTrue();
+            }
+            assertThat(ring.offer(entry(4))).isFalse();
+            for (int i = 0; i < 4; i++) {
+                assertThat(ring.poll().status()).isEqualTo(i);
+            }
+            assertThat(ring.poll()).isNull();
+        }
+    }
+
+    private static AccessLog.Entry entry(int status) {
+        return new AccessLog.Entry(0, null, "GET", "/", null, status, 0, 0, "h1", null);
+    }
+}
@@ -0,0 +1,57 @@
+package play.server;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.Test;
+
+import play.PlayBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TrainingRunTest {
+
+    @Test
+    public void splitsConfiguredPaths() {
+        assertThat(TrainingRun.paths("/, health ,,/api/users")).containsExactly("/", "/health", "/api/users");
+        assertThat(TrainingRun.paths(" ")).isEmpty();
+    }
+
+    @Test
+    public void requestsEveryPathEachRoundWhateverTheStatus() throws IOException {
+        new PlayBuilder().build();
+        Map<String, AtomicInteger> hits = new ConcurrentHashMap<>();
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            hits.computeIfAbsent(exchange.getRequestURI().getPath(), k -> new AtomicInteger()).incrementAndGet();
+            int status = exchange.getRequestURI().getPath().equals("/missing") ? 404 : 200;
+            exchange.sendResponseHeaders(status, 2);
+            exchange.getResponseBody().write("ok".getBytes());
+            exchange.close();
+        });
+        server.start();
+        try {
+            String base = "http://localhost:" + server.getAddress().getPort();
+
+            int answered = TrainingRun.warmUp(base, List.of("/", "/missing"), 3);
+
+            assertThat(answered).isEqualTo(6);
+            assertThat(hits.get("/")).hasValue(3);
+            assertThat(hits.get("/missing")).hasValue(3);
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    public void countsOnlyAnsweredRequests() {
+        new PlayBuilder().build();
+
+        assertThat(TrainingRun.warmUp("http://localhost:1", List.of("/"), 2)).isZero();
+    }
+}
@@ -0,0 +1,77 @@
+package play.vfs;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class ChangeTrackerTest {
+
+    @TempDir
+    Path dir;
+
+    private ChangeTracker tracker;
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        if (tracker != null) {
+            tracker.close();
+        }
+    }
+
+    private void watch() throws IOException {
+        Files.createDirectories(dir.resolve("app/controllers"));
+        tracker = ChangeTracker.watch(List.of(dir.resolve("app").toFile(), dir.resolve("missing").toFile()), 20);
+        assumeTrue(tracker != null, "no native file watching");
+    }
+
+    private static boolean awaitChanges(ChangeTracker tracker) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!tracker.hasChanges() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        return tracker.hasChanges();
+    }
+
+    @Test
+    public void reportsChangesUntilChecked() throws Exception {
+        watch();
+        assertThat(tracker.hasChanges()).isFalse();
+
+        Files.writeString(dir.resolve("app/controllers/Application.java"), "class Application {}");
+
+        assertThat(awaitChanges(tracker)).isTrue();
+        tracker.checked(tracker.settle());
+        assertThat(tracker.hasChanges()).isFalse();
+    }
+
+    @Test
+    public void watchesDirectoriesCreatedAfterwards() throws Exception {
+        watch();
+        Files.createDirectories(dir.resolve("app/models"));
+        assertThat(awaitChanges(tracker)).isTrue();
+        tracker.checked(tracker.settle());
+
+        Files.writeString(dir.resolve("app/models/User.java"), "class User {}");
+
+        assertThat(awaitChanges(tracker)).isTrue();
+    }
+
+    @Test
+    public void ignoresUnwatchedDirectories() throws Exception {
+        watch();
+
+        Files.writeString(dir.resolve("outside.txt"), "not a source");
+        Thread.sleep(200);
+
+        assertThat(tracker.hasChanges()).isFalse();
+    }
+}